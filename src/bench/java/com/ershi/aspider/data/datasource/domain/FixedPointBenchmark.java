@@ -0,0 +1,131 @@
+package com.ershi.aspider.data.datasource.domain;
+
+import com.ershi.aspider.data.storage.memory.MarketSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 定点数换算位置对比：分析时逐次由 BigDecimal 换算（before）与构建/加载时换算一次（after）
+ * <p>
+ * 运行：mvn -P benchmark test-compile exec:exec -Djmh.includes=FixedPointBenchmark
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FixedPointBenchmark {
+
+    private static final LocalDate TRADE_DATE = LocalDate.of(2025, 12, 26);
+
+    /** 全市场板块数 */
+    private static final int SECTOR_COUNT = 500;
+
+    /** 趋势窗口交易日数 */
+    private static final int TREND_DAYS = 20;
+
+    private SectorMoneyFlow todayFlow;
+
+    private MarketSnapshot snapshot;
+
+    private List<SectorMoneyFlow> recentFlows;
+
+    private List<CompactMoneyFlow> recentCompacts;
+
+    /** 列式存储中的主力净流入列（分） */
+    private long[] inflowColumn;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<SectorMoneyFlow> market = new ArrayList<>(SECTOR_COUNT);
+        for (int i = 0; i < SECTOR_COUNT; i++) {
+            market.add(flow(random, "BK" + (1000 + i), TRADE_DATE));
+        }
+        todayFlow = market.get(SECTOR_COUNT / 2);
+        snapshot = MarketSnapshot.of(TRADE_DATE, market);
+
+        recentFlows = new ArrayList<>(TREND_DAYS);
+        inflowColumn = new long[TREND_DAYS];
+        for (int i = 0; i < TREND_DAYS; i++) {
+            SectorMoneyFlow flow = flow(random, todayFlow.getSectorCode(), TRADE_DATE.minusDays(i));
+            recentFlows.add(flow);
+            inflowColumn[i] = FixedPoint.toFen(flow.getMainNetInflow());
+        }
+        recentCompacts = recentFlows.stream().map(CompactMoneyFlow::of).toList();
+    }
+
+    /** before：每次分析由当日资金流向换算 */
+    @Benchmark
+    public int todayFlowConvertPerAnalysis() {
+        return CompactMoneyFlow.of(todayFlow).superLargeRatio();
+    }
+
+    /** after：读取快照构建时换算好的定点数 */
+    @Benchmark
+    public int todayFlowFromSnapshot() {
+        return snapshot.compactBySectorCode(todayFlow.getSectorCode()).superLargeRatio();
+    }
+
+    /** before：趋势计算逐日由 BigDecimal 换算 */
+    @Benchmark
+    public long trendConvertPerAnalysis() {
+        long total = 0;
+        for (SectorMoneyFlow flow : recentFlows) {
+            total += CompactMoneyFlow.of(flow).mainNetInflow();
+        }
+        return total;
+    }
+
+    /** after：趋势计算读取加载时换算好的定点数 */
+    @Benchmark
+    public long trendFromCompacts() {
+        long total = 0;
+        for (CompactMoneyFlow flow : recentCompacts) {
+            total += flow.mainNetInflow();
+        }
+        return total;
+    }
+
+    /** after（时序列存储）：列值即为分，直接读取 */
+    @Benchmark
+    public long trendFromColumn() {
+        long total = 0;
+        for (long inflow : inflowColumn) {
+            total += inflow;
+        }
+        return total;
+    }
+
+    private static SectorMoneyFlow flow(Random random, String sectorCode, LocalDate tradeDate) {
+        SectorMoneyFlow flow = new SectorMoneyFlow();
+        flow.setSectorCode(sectorCode);
+        flow.setSectorName(sectorCode);
+        flow.setTradeDate(tradeDate);
+        flow.setChangePercent(BigDecimal.valueOf(random.nextInt(-1000, 1000), 2));
+        flow.setMainNetInflow(BigDecimal.valueOf(random.nextLong(-5_000_000_000_00L, 5_000_000_000_00L), 2));
+        flow.setSuperLargeInflow(BigDecimal.valueOf(random.nextLong(-3_000_000_000_00L, 3_000_000_000_00L), 2));
+        flow.setLargeInflow(BigDecimal.valueOf(random.nextLong(-2_000_000_000_00L, 2_000_000_000_00L), 2));
+        flow.setMainNetInflowRatio(BigDecimal.valueOf(random.nextInt(-3000, 3000), 2));
+        return flow;
+    }
+}
@@ -0,0 +1,77 @@
+package com.ershi.aspider.common.ratelimit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 真实 Redis 上的令牌桶存储测试：比较并交换 Lua 脚本由 Redis 执行（需要 Docker，仅在 redis-it 配置下运行）
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public class RedisContainerTest {
+
+    private static final String PASSWORD = "secret";
+
+    private static final GenericContainer<?> REDIS = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+        .withCommand("redis-server", "--requirepass", PASSWORD)
+        .withExposedPorts(6379);
+
+    @BeforeAll
+    public static void start() {
+        REDIS.start();
+    }
+
+    @AfterAll
+    public static void stop() {
+        REDIS.stop();
+    }
+
+    /**
+     * 比较并交换脚本语义：原值不存在时仅首次写入成功，原值存在时仅与存储值一致才写入，写入时设置过期时间
+     */
+    @Test
+    public void testCasScriptSemantics() {
+        byte[] first = "state-1".getBytes(StandardCharsets.UTF_8);
+        byte[] second = "state-2".getBytes(StandardCharsets.UTF_8);
+        try (RespClient client = client()) {
+            client.execute("DEL", "cas");
+            assertEquals(1L, DistributedBucketTest.compareAndSwap(client, null, first, 5000));
+            assertEquals(0L, DistributedBucketTest.compareAndSwap(client, null, second, 5000));
+            assertArrayEquals(first, (byte[]) client.execute("GET", "cas"));
+
+            assertEquals(0L, DistributedBucketTest.compareAndSwap(client, second, second, 60000));
+            assertArrayEquals(first, (byte[]) client.execute("GET", "cas"));
+            assertTrue((Long) client.execute("PTTL", "cas") <= 5000);
+
+            assertEquals(1L, DistributedBucketTest.compareAndSwap(client, first, second, 60000));
+            assertArrayEquals(second, (byte[]) client.execute("GET", "cas"));
+            assertTrue((Long) client.execute("PTTL", "cas") > 5000);
+        }
+    }
+
+    /**
+     * 两个节点各自连接同一 Redis 时共享配额
+     */
+    @Test
+    public void testSharesBudget() throws Exception {
+        try (RespClient nodeA = client(); RespClient nodeB = client()) {
+            nodeA.execute("DEL", "it:llm:rpm");
+            DistributedBucketTest.assertSharedBudget(new RedisProxyManager(nodeA, "it:"), new RedisProxyManager(nodeB, "it:"));
+            assertTrue((Long) nodeA.execute("PTTL", "it:llm:rpm") > 0);
+        }
+    }
+
+    private static RespClient client() {
+        return new RespClient(REDIS.getHost(), REDIS.getMappedPort(6379), PASSWORD, 0, 2000);
+    }
+}
@@ -0,0 +1,41 @@
+package com.ershi.aspider.analysis.agent.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Agent LLM 熔断配置（按Agent独立统计）
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "analysis.agent.circuit-breaker")
+public class AgentCircuitBreakerConfig {
+
+    /** 是否启用熔断 */
+    private Boolean enabled = true;
+
+    /** 滚动窗口大小（最近N次LLM调用） */
+    private Integer windowSize = 20;
+
+    /** 窗口内最少样本数，不足时不判定 */
+    private Integer minSamples = 10;
+
+    /** 延迟SLO：窗口内 p95 延迟上限（毫秒） */
+    private Long p95LatencyMillis = 20_000L;
+
+    /** 错误率SLO：窗口内错误率上限 */
+    private Double errorRateThreshold = 0.5;
+
+    /** 熔断后多久开始探测（秒） */
+    private Integer openSeconds = 30;
+
+    /** 探测期放行比例（其余请求仍直接走规则引擎） */
+    private Double probeRatio = 0.1;
+
+    /** 连续多少次探测满足SLO后恢复 */
+    private Integer probeSuccesses = 3;
+}
@@ -6,6 +6,7 @@ import com.openai.client.okhttp.OpenAIOkHttpClient;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -13,7 +14,7 @@ import java.util.concurrent.ConcurrentHashMap;
  * Agent LLM客户端工厂
  *
  * 支持配置覆盖：agent专用配置 > default配置
- * 客户端按配置指纹缓存复用，避免重复初始化
+ * 客户端按配置指纹（端点、密钥、超时、重试次数）缓存复用，避免重复初始化
  *
  * @author Ershi-Gu
  */
@@ -21,6 +22,18 @@ import java.util.concurrent.ConcurrentHashMap;
 @Slf4j
 public class AgentLlmClientFactory {
 
+    /** 未配置时的单次请求超时秒数 */
+    private static final int DEFAULT_TIMEOUT_SECONDS = 30;
+
+    /** 未配置时的最大重试次数 */
+    private static final int DEFAULT_MAX_RETRIES = 3;
+
+    /** 未配置时的级联延迟基准采样间隔 */
+    private static final int DEFAULT_CASCADE_BASELINE_INTERVAL = 20;
+
+    /** 未配置时的Prompt token预算 */
+    private static final int DEFAULT_PROMPT_TOKEN_BUDGET = 3000;
+
     private final AgentLlmProperties properties;
 
     /** 客户端缓存：按配置指纹复用 */
@@ -43,11 +56,13 @@ public class AgentLlmClientFactory {
 
         String fingerprint = generateFingerprint(config);
         return clientCache.computeIfAbsent(fingerprint, key -> {
-            log.info("初始化LLM客户端，Agent={}，端点={}，模型={}",
-                     agentType, config.getBaseUrl(), config.getModel());
+            log.info("初始化LLM客户端，Agent={}，端点={}，模型={}，超时={}s，重试={}次",
+                     agentType, config.getBaseUrl(), config.getModel(), config.getTimeout(), config.getMaxRetries());
             return OpenAIOkHttpClient.builder()
                 .baseUrl(config.getBaseUrl())
                 .apiKey(config.getApiKey())
+                .timeout(Duration.ofSeconds(config.getTimeout()))
+                .maxRetries(config.getMaxRetries())
                 .build();
         });
     }
@@ -76,7 +91,7 @@ public class AgentLlmClientFactory {
         };
 
         if (override == null) {
-            return defaults;
+            override = new AgentLlmProperties.LlmConfig();
         }
 
         // 字段级合并
@@ -84,8 +99,14 @@ public class AgentLlmClientFactory {
         merged.setBaseUrl(firstNonBlank(override.getBaseUrl(), defaults.getBaseUrl()));
         merged.setApiKey(firstNonBlank(override.getApiKey(), defaults.getApiKey()));
         merged.setModel(firstNonBlank(override.getModel(), defaults.getModel()));
-        merged.setTimeout(override.getTimeout() != null ? override.getTimeout() : defaults.getTimeout());
-        merged.setMaxRetries(override.getMaxRetries() != null ? override.getMaxRetries() : defaults.getMaxRetries());
+        merged.setCascadeModel(firstNonBlank(override.getCascadeModel(), defaults.getCascadeModel()));
+        merged.setCascadeBaselineInterval(firstNonNull(override.getCascadeBaselineInterval(),
+            defaults.getCascadeBaselineInterval(), DEFAULT_CASCADE_BASELINE_INTERVAL));
+        merged.setTimeout(firstNonNull(override.getTimeout(), defaults.getTimeout(), DEFAULT_TIMEOUT_SECONDS));
+        merged.setMaxRetries(firstNonNull(override.getMaxRetries(), defaults.getMaxRetries(), DEFAULT_MAX_RETRIES));
+        merged.setPromptTokenBudget(firstNonNull(override.getPromptTokenBudget(), defaults.getPromptTokenBudget(),
+            DEFAULT_PROMPT_TOKEN_BUDGET));
+        merged.setStream(override.getStream() != null ? override.getStream() : defaults.getStream());
         return merged;
     }
 
@@ -104,7 +125,8 @@ public class AgentLlmClientFactory {
      * 生成配置指纹（用于客户端缓存键）
      */
     private String generateFingerprint(AgentLlmProperties.LlmConfig config) {
-        return config.getBaseUrl() + "|" + config.getApiKey().hashCode();
+        return config.getBaseUrl() + "|" + config.getApiKey().hashCode()
+            + "|" + config.getTimeout() + "|" + config.getMaxRetries();
     }
 
     /**
@@ -119,6 +141,16 @@ public class AgentLlmClientFactory {
         return null;
     }
 
+    /**
+     * 返回第一个非空值
+     */
+    private Integer firstNonNull(Integer override, Integer defaults, int fallback) {
+        if (override != null) {
+            return override;
+        }
+        return defaults != null ? defaults : fallback;
+    }
+
     /**
      * 判断字符串是否为空
      */
@@ -32,6 +32,17 @@ public class AgentLlmProperties {
     /** SynthesisAgent 专用配置（推荐覆盖，使用更强模型） */
     private LlmConfig synthesis;
 
+    /**
+     * 配置文件中的 default 节点（default 为Java关键字，字段名为 defaultConfig，通过该访问器绑定）
+     */
+    public LlmConfig getDefault() {
+        return defaultConfig;
+    }
+
+    public void setDefault(LlmConfig config) {
+        this.defaultConfig = config;
+    }
+
     /**
      * LLM配置项
      */
@@ -47,10 +58,22 @@ public class AgentLlmProperties {
         /** 模型名称 */
         private String model;
 
-        /** 超时秒数 */
-        private Integer timeout = 30;
+        /** 单次请求超时秒数（未配置时为 30） */
+        private Integer timeout;
+
+        /** 最大重试次数（未配置时为 3） */
+        private Integer maxRetries;
+
+        /** 级联轻量模型（可选，配置后先以该模型调用，检查不通过时再用 model） */
+        private String cascadeModel;
+
+        /** 级联延迟基准采样间隔：每N次调用中有1次直接调用主模型，用于估算节省的延迟（未配置时为 20，0 表示不采样） */
+        private Integer cascadeBaselineInterval;
+
+        /** Prompt token预算（估算值，未配置时为 3000），新闻等长上下文按相关性在预算内裁剪 */
+        private Integer promptTokenBudget;
 
-        /** 最大重试次数 */
-        private Integer maxRetries = 3;
+        /** 是否使用流式调用（边接收边解析，输出无效时提前中止） */
+        private Boolean stream;
     }
 }
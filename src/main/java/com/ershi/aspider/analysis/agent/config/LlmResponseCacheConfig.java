@@ -0,0 +1,45 @@
+package com.ershi.aspider.analysis.agent.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Agent LLM 响应缓存配置
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "analysis.agent.response-cache")
+public class LlmResponseCacheConfig {
+
+    /** 是否启用响应缓存 */
+    private Boolean enabled = true;
+
+    /** 内存层最大条目数，超出时淘汰最久未使用的条目 */
+    private Integer maxEntries = 500;
+
+    /**
+     * 有效期（秒），默认与新闻采集周期（2小时）一致。
+     * 检索数据变化会改变渲染后的 Prompt 从而自然失效，有效期用于限制同一份数据结论的复用时长
+     */
+    private Integer ttlSeconds = 7200;
+
+    /** 磁盘层配置 */
+    private Disk disk = new Disk();
+
+    /**
+     * 磁盘层（可选），进程重启后仍可命中
+     */
+    @Data
+    public static class Disk {
+
+        /** 是否启用磁盘层 */
+        private Boolean enabled = false;
+
+        /** 缓存文件目录 */
+        private String dir = "data/llm-cache";
+    }
+}
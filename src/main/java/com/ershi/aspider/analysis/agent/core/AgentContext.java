@@ -9,6 +9,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 /**
@@ -31,6 +32,17 @@ public class AgentContext {
     /** 分析时间 */
     private LocalDateTime analysisTime;
 
+    /**
+     * Prompt中的分析日期：取查询的交易日期（即数据所属日期），而非当前时刻，
+     * 同一板块、同一交易日、同一批数据渲染出的Prompt保持一致，可命中LLM响应缓存
+     */
+    public String promptAnalysisDate() {
+        if (query != null && query.getTradeDate() != null) {
+            return query.getTradeDate().toString();
+        }
+        return (analysisTime != null ? analysisTime.toLocalDate() : LocalDate.now()).toString();
+    }
+
     /**
      * 便捷方法：获取新闻检索结果
      */
@@ -1,11 +1,13 @@
 package com.ershi.aspider.analysis.agent.core;
 
-import com.alibaba.fastjson2.JSON;
 import com.ershi.aspider.analysis.agent.domain.*;
+import com.ershi.aspider.analysis.agent.llm.CascadeCheck;
 import com.ershi.aspider.analysis.agent.llm.LlmAnalysisExecutor;
+import com.ershi.aspider.analysis.agent.llm.LlmCircuitOpenException;
 import com.ershi.aspider.analysis.agent.llm.LlmExecutionException;
 import com.ershi.aspider.analysis.agent.llm.LlmParseException;
 import com.ershi.aspider.analysis.agent.llm.dto.PolicyLlmResponse;
+import com.ershi.aspider.analysis.agent.llm.prompt.ArticleContextPacker;
 import com.ershi.aspider.analysis.agent.llm.prompt.PromptRenderException;
 import com.ershi.aspider.analysis.agent.llm.prompt.PromptTemplateNotFoundException;
 import com.ershi.aspider.analysis.agent.rule.PolicyRuleEngine;
@@ -15,10 +17,7 @@ import com.ershi.aspider.data.datasource.domain.NewsTypeEnum;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * 消息面分析Agent（LLM驱动 + 规则降级）
@@ -38,6 +37,9 @@ public class PolicyAgent implements Agent<AgentContext, PolicyImpact> {
     /** 相关新闻上限 */
     private static final int POLICY_NEWS_LIMIT = 5;
 
+    /** Prompt最多纳入的新闻条数 */
+    private static final int PROMPT_NEWS_LIMIT = 10;
+
     private final LlmAnalysisExecutor llmExecutor;
     private final PolicyRuleEngine ruleEngine;
 
@@ -72,6 +74,9 @@ public class PolicyAgent implements Agent<AgentContext, PolicyImpact> {
         } catch (PromptRenderException e) {
             log.warn("PolicyAgent Prompt渲染失败，降级为规则分析", e);
             return analyzeWithDegradation(context, AnalysisStatus.MSG_LLM_FALLBACK);
+        } catch (LlmCircuitOpenException e) {
+            log.info("PolicyAgent LLM熔断中，直接使用规则分析");
+            return analyzeWithDegradation(context, AnalysisStatus.MSG_LLM_CIRCUIT_OPEN);
         } catch (LlmExecutionException e) {
             log.warn("PolicyAgent LLM执行失败，降级为规则分析", e);
             return analyzeWithDegradation(context, AnalysisStatus.MSG_NON_AI);
@@ -84,6 +89,19 @@ public class PolicyAgent implements Agent<AgentContext, PolicyImpact> {
         }
     }
 
+    /**
+     * 仅规则分析（渐进式报告的临时结果，不调用LLM）
+     */
+    public PolicyImpact analyzeByRule(AgentContext context) {
+        NewsRetrievalResult newsResult = context.getNewsResult();
+        if (newsResult == null || newsResult.getArticles() == null || newsResult.getArticles().isEmpty()) {
+            return PolicyImpact.empty("no_news_data");
+        }
+        PolicyImpact result = ruleEngine.analyze(context);
+        result.setStatus(AnalysisStatus.provisional());
+        return result;
+    }
+
     /**
      * LLM驱动分析
      */
@@ -91,9 +109,10 @@ public class PolicyAgent implements Agent<AgentContext, PolicyImpact> {
         // 1. 构建Prompt变量
         Map<String, Object> variables = buildPromptVariables(context);
 
-        // 2. 调用LLM
+        // 2. 调用LLM（级联时轻量模型结论与规则引擎相反则升级到主模型）
         PolicyLlmResponse llmResponse = llmExecutor.execute(
-            AgentType.POLICY, variables, PolicyLlmResponse.class);
+            AgentType.POLICY, variables, PolicyLlmResponse.class,
+            response -> CascadeCheck.signalConflict(response.getSignal(), ruleEngine.analyze(context).getSignal()));
 
         // 3. 合并系统填充字段
         return mergeWithSystemData(llmResponse, context);
@@ -104,26 +123,13 @@ public class PolicyAgent implements Agent<AgentContext, PolicyImpact> {
      */
     private Map<String, Object> buildPromptVariables(AgentContext context) {
         String sectorName = context.getQuery() != null ? context.getQuery().getSectorName() : "未知板块";
-        String analysisTime = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"));
-
-        // 构建新闻列表JSON
-        List<Map<String, Object>> newsList = context.getNewsResult().getArticles().stream()
-            .limit(10)
-            .map(article -> {
-                Map<String, Object> item = new HashMap<>();
-                item.put("title", article.getArticle().getTitle());
-                item.put("summary", article.getArticle().getSummary());
-                item.put("importance", article.getArticle().getImportance());
-                item.put("newsType", article.getArticle().getNewsType() != null
-                    ? article.getArticle().getNewsType().name() : "GENERAL");
-                return item;
-            })
-            .collect(Collectors.toList());
+        String analysisTime = context.promptAnalysisDate();
 
         Map<String, Object> variables = new HashMap<>();
         variables.put("sector_name", sectorName);
         variables.put("analysis_time", analysisTime);
-        variables.put("news_list_json", JSON.toJSONString(newsList));
+        // 新闻列表按相关性在Prompt token预算内打包，超出时截断摘要、舍弃低相关新闻
+        variables.put("news_list_json", new ArticleContextPacker(context.getNewsResult().getArticles(), PROMPT_NEWS_LIMIT));
         return variables;
     }
 
@@ -2,7 +2,9 @@ package com.ershi.aspider.analysis.agent.core;
 
 import com.alibaba.fastjson2.JSON;
 import com.ershi.aspider.analysis.agent.domain.*;
+import com.ershi.aspider.analysis.agent.llm.CascadeCheck;
 import com.ershi.aspider.analysis.agent.llm.LlmAnalysisExecutor;
+import com.ershi.aspider.analysis.agent.llm.LlmCircuitOpenException;
 import com.ershi.aspider.analysis.agent.llm.LlmExecutionException;
 import com.ershi.aspider.analysis.agent.llm.LlmParseException;
 import com.ershi.aspider.analysis.agent.llm.dto.SectorLlmResponse;
@@ -11,14 +13,13 @@ import com.ershi.aspider.analysis.agent.llm.prompt.PromptTemplateNotFoundExcepti
 import com.ershi.aspider.analysis.agent.rule.SectorRuleEngine;
 import com.ershi.aspider.analysis.retriever.domain.SectorDataResult;
 import com.ershi.aspider.analysis.retriever.domain.TrendIndicator;
+import com.ershi.aspider.data.datasource.domain.CompactMoneyFlow;
+import com.ershi.aspider.data.datasource.domain.FixedPoint;
 import com.ershi.aspider.data.datasource.domain.SectorMoneyFlow;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -38,8 +39,8 @@ public class SectorAgent implements Agent<AgentContext, SectorHeat> {
     /** 超大单占比阈值（%），超过该值表示机构参与度高 */
     private static final double SUPER_LARGE_THRESHOLD = 50.0;
 
-    /** 流入金额归一化基准（亿元） */
-    private static final double INFLOW_NORMALIZE_BASE = 10_000_000_000.0;
+    /** 流入金额归一化基准（100亿元，单位分） */
+    private static final double INFLOW_NORMALIZE_BASE = 10_000_000_000.0 * FixedPoint.FEN_PER_YUAN;
 
     private final LlmAnalysisExecutor llmExecutor;
     private final SectorRuleEngine ruleEngine;
@@ -76,6 +77,9 @@ public class SectorAgent implements Agent<AgentContext, SectorHeat> {
         } catch (PromptRenderException e) {
             log.warn("SectorAgent Prompt渲染失败，降级为规则分析", e);
             return analyzeWithDegradation(context, AnalysisStatus.MSG_LLM_FALLBACK);
+        } catch (LlmCircuitOpenException e) {
+            log.info("SectorAgent LLM熔断中，直接使用规则分析");
+            return analyzeWithDegradation(context, AnalysisStatus.MSG_LLM_CIRCUIT_OPEN);
         } catch (LlmExecutionException e) {
             log.warn("SectorAgent LLM执行失败，降级为规则分析", e);
             return analyzeWithDegradation(context, AnalysisStatus.MSG_NON_AI);
@@ -95,9 +99,10 @@ public class SectorAgent implements Agent<AgentContext, SectorHeat> {
         // 1. 构建Prompt变量
         Map<String, Object> variables = buildPromptVariables(context);
 
-        // 2. 调用LLM
+        // 2. 调用LLM（级联时轻量模型结论与规则引擎相反则升级到主模型）
         SectorLlmResponse llmResponse = llmExecutor.execute(
-            AgentType.SECTOR, variables, SectorLlmResponse.class);
+            AgentType.SECTOR, variables, SectorLlmResponse.class,
+            response -> CascadeCheck.signalConflict(response.getCapitalSignal(), ruleEngine.analyze(context).getCapitalSignal()));
 
         // 3. 合并系统填充字段（数值保护）
         return mergeWithSystemData(llmResponse, context);
@@ -108,7 +113,7 @@ public class SectorAgent implements Agent<AgentContext, SectorHeat> {
      */
     private Map<String, Object> buildPromptVariables(AgentContext context) {
         String sectorName = context.getQuery() != null ? context.getQuery().getSectorName() : "未知板块";
-        String analysisTime = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"));
+        String analysisTime = context.promptAnalysisDate();
 
         SectorDataResult sectorResult = context.getSectorResult();
         SectorMoneyFlow todayFlow = sectorResult.getTodayFlow();
@@ -119,7 +124,7 @@ public class SectorAgent implements Agent<AgentContext, SectorHeat> {
         metrics.put("mainNetInflow", formatInflow(todayFlow.getMainNetInflow()));
         metrics.put("inflowRank", sectorResult.getInflowRank());
         metrics.put("totalSectors", sectorResult.getTotalSectors());
-        metrics.put("superLargeRatio", calculateSuperLargeRatio(todayFlow));
+        metrics.put("superLargeRatio", FixedPoint.toPercent(sectorResult.getTodayCompactFlow().superLargeRatio()));
         metrics.put("consecutiveInflowDays", trend != null ? trend.getConsecutiveInflowDays() : 0);
 
         Map<String, Object> variables = new HashMap<>();
@@ -138,8 +143,9 @@ public class SectorAgent implements Agent<AgentContext, SectorHeat> {
         TrendIndicator trend = sectorResult.getTrendIndicator();
 
         // 数值字段全部从原始数据填充
-        BigDecimal superLargeRatio = calculateSuperLargeRatio(todayFlow);
-        int heatScore = calculateHeatScore(sectorResult);
+        CompactMoneyFlow compactFlow = sectorResult.getTodayCompactFlow();
+        BigDecimal superLargeRatio = FixedPoint.toPercent(compactFlow.superLargeRatio());
+        int heatScore = calculateHeatScore(sectorResult, compactFlow);
         int consecutiveInflowDays = trend != null ? trend.getConsecutiveInflowDays() : 0;
 
         CapitalStructure structure = CapitalStructure.builder()
@@ -163,6 +169,19 @@ public class SectorAgent implements Agent<AgentContext, SectorHeat> {
             .build();
     }
 
+    /**
+     * 仅规则分析（渐进式报告的临时结果，不调用LLM）
+     */
+    public SectorHeat analyzeByRule(AgentContext context) {
+        SectorDataResult sectorResult = context.getSectorResult();
+        if (sectorResult == null || sectorResult.getTodayFlow() == null) {
+            return SectorHeat.empty("no_sector_data");
+        }
+        SectorHeat result = ruleEngine.analyze(context);
+        result.setStatus(AnalysisStatus.provisional());
+        return result;
+    }
+
     /**
      * 降级为规则分析
      */
@@ -182,35 +201,10 @@ public class SectorAgent implements Agent<AgentContext, SectorHeat> {
         return String.format("%.2f亿", inflow.doubleValue() / 100_000_000);
     }
 
-    /**
-     * 计算超大单占比
-     */
-    private BigDecimal calculateSuperLargeRatio(SectorMoneyFlow flow) {
-        if (flow.getSuperLargeInflowRatio() != null) {
-            return flow.getSuperLargeInflowRatio();
-        }
-
-        BigDecimal superLarge = flow.getSuperLargeInflow();
-        BigDecimal large = flow.getLargeInflow();
-
-        if (superLarge == null || large == null) {
-            return BigDecimal.ZERO;
-        }
-
-        BigDecimal total = superLarge.abs().add(large.abs());
-        if (total.compareTo(BigDecimal.ZERO) == 0) {
-            return BigDecimal.ZERO;
-        }
-
-        return superLarge.abs()
-            .multiply(BigDecimal.valueOf(100))
-            .divide(total, 2, RoundingMode.HALF_UP);
-    }
-
     /**
      * 计算热度评分
      */
-    private int calculateHeatScore(SectorDataResult result) {
+    private int calculateHeatScore(SectorDataResult result, CompactMoneyFlow todayFlow) {
         int rankScore = 0;
         if (result.getInflowRank() > 0 && result.getTotalSectors() > 0) {
             double rankRatio = (double) result.getInflowRank() / result.getTotalSectors();
@@ -222,7 +216,7 @@ public class SectorAgent implements Agent<AgentContext, SectorHeat> {
             consecutiveScore = Math.min(30, result.getTrendIndicator().getConsecutiveInflowDays() * 10);
         }
 
-        int inflowScore = normalizeInflowScore(result.getTodayFlow().getMainNetInflow());
+        int inflowScore = normalizeInflowScore(todayFlow);
 
         return Math.min(100, Math.max(0, rankScore + consecutiveScore + inflowScore));
     }
@@ -230,14 +224,10 @@ public class SectorAgent implements Agent<AgentContext, SectorHeat> {
     /**
      * 将流入金额归一化为评分（0-30分）
      */
-    private int normalizeInflowScore(BigDecimal inflow) {
-        if (inflow == null) {
-            return 0;
-        }
-        double value = inflow.doubleValue();
-        if (value <= 0) {
+    private int normalizeInflowScore(CompactMoneyFlow flow) {
+        if (!flow.hasMainNetInflow() || flow.mainNetInflow() <= 0) {
             return 0;
         }
-        return (int) Math.min(30, (value / INFLOW_NORMALIZE_BASE) * 30);
+        return (int) Math.min(30, (flow.mainNetInflow() / INFLOW_NORMALIZE_BASE) * 30);
     }
 }
@@ -6,25 +6,47 @@ import com.alibaba.fastjson2.JSONObject;
 import com.ershi.aspider.analysis.agent.config.AgentLlmClientFactory;
 import com.ershi.aspider.analysis.agent.config.AgentLlmProperties;
 import com.ershi.aspider.analysis.agent.domain.*;
+import com.ershi.aspider.analysis.agent.llm.AgentCircuitBreaker;
+import com.ershi.aspider.analysis.agent.llm.IncrementalJsonParser;
+import com.ershi.aspider.analysis.agent.llm.LlmCascade;
+import com.ershi.aspider.analysis.agent.llm.LlmCircuitOpenException;
+import com.ershi.aspider.analysis.agent.llm.LlmExecutionException;
+import com.ershi.aspider.analysis.agent.llm.LlmParseException;
+import com.ershi.aspider.analysis.agent.llm.LlmResponseCache;
+import com.ershi.aspider.analysis.agent.llm.StreamFieldListener;
 import com.ershi.aspider.analysis.agent.llm.prompt.PromptRenderer;
+import com.ershi.aspider.analysis.agent.llm.prompt.PromptTemplate;
 import com.ershi.aspider.analysis.agent.llm.prompt.PromptTemplateRepository;
+import com.ershi.aspider.common.llm.AdaptiveConcurrencyLimiter;
+import com.ershi.aspider.common.llm.AdaptiveConcurrencyRegistry;
+import com.ershi.aspider.common.llm.LlmCancellation;
+import com.ershi.aspider.common.llm.LlmGateway;
+import com.ershi.aspider.common.llm.LlmPriority;
+import com.ershi.aspider.common.llm.LlmRoute;
 import com.openai.client.OpenAIClient;
 import com.openai.models.ChatCompletion;
 import com.openai.models.ChatCompletionCreateParams;
+import com.openai.models.ChatCompletionStreamOptions;
 import com.openai.models.ResponseFormatJsonObject;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 综合研判Agent（LLM驱动）
  *
  * 接收三个子Agent的分析结果，进行跨维度关联推理，生成综合研判
- * Prompt模板从资源文件加载
+ * Prompt模板从资源文件加载，LLM调用经 {@link LlmGateway} 按交互式优先级排队
+ * 配置 stream=true 时以流式调用，研判字段边生成边回调，输出无效时提前中止
+ * 解析成功的响应写入 {@link LlmResponseCache}，相同输入的重复研判直接复用
+ * 配置了级联轻量模型时经 {@link LlmCascade} 先以轻量模型研判，评级与规则合成偏离过大时升级到主模型
+ * LLM链路违反延迟SLO熔断期间（{@link AgentCircuitBreaker}）不调用LLM
  * 当LLM调用失败时，降级为规则合成
  *
  * @author Ershi-Gu
@@ -36,13 +58,28 @@ public class SynthesisAgent implements Agent<SynthesisInput, SynthesisResult> {
     private final AgentLlmClientFactory clientFactory;
     private final PromptTemplateRepository templateRepository;
     private final PromptRenderer promptRenderer;
+    private final LlmGateway llmGateway;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final LlmResponseCache responseCache;
+    private final AgentCircuitBreaker circuitBreaker;
+    private final LlmCascade cascade;
 
     public SynthesisAgent(AgentLlmClientFactory clientFactory,
                           PromptTemplateRepository templateRepository,
-                          PromptRenderer promptRenderer) {
+                          PromptRenderer promptRenderer,
+                          LlmGateway llmGateway,
+                          AdaptiveConcurrencyRegistry concurrencyRegistry,
+                          LlmResponseCache responseCache,
+                          AgentCircuitBreaker circuitBreaker,
+                          LlmCascade cascade) {
         this.clientFactory = clientFactory;
         this.templateRepository = templateRepository;
         this.promptRenderer = promptRenderer;
+        this.llmGateway = llmGateway;
+        this.concurrencyLimiter = concurrencyRegistry.get(AdaptiveConcurrencyRegistry.ANALYSIS);
+        this.responseCache = responseCache;
+        this.circuitBreaker = circuitBreaker;
+        this.cascade = cascade;
     }
 
     @Override
@@ -52,35 +89,81 @@ public class SynthesisAgent implements Agent<SynthesisInput, SynthesisResult> {
 
     @Override
     public SynthesisResult analyze(SynthesisInput input) {
+        return analyze(input, null);
+    }
+
+    /**
+     * 综合研判，研判字段完整后即回调（如overall_rating先于长文本字段）
+     *
+     * @param listener 字段监听器，可为 null
+     */
+    public SynthesisResult analyze(SynthesisInput input, StreamFieldListener listener) {
         log.info("SynthesisAgent 开始综合研判");
 
         // 1. 构建Prompt
         String prompt = buildPrompt(input);
 
-        // 2. 调用LLM
+        // 2. 调用LLM（熔断期间直接规则合成）
+        boolean llmCalled = false;
+        long startNanos = 0;
         try {
             OpenAIClient client = clientFactory.getClient(AgentType.SYNTHESIS);
             AgentLlmProperties.LlmConfig config = clientFactory.getConfig(AgentType.SYNTHESIS);
 
-            ChatCompletionCreateParams params = ChatCompletionCreateParams.builder()
-                .model(config.getModel())
-                .addUserMessage(prompt)
-                .responseFormat(ResponseFormatJsonObject.builder().build())
-                .build();
-
-            ChatCompletion completion = client.chat().completions().create(params);
-            String content = completion.choices().get(0).message().content().orElse("");
-
-            // 3. 解析JSON响应
-            SynthesisResult result = parseResponse(content, input);
+            // 相同输入渲染出的Prompt相同，命中缓存时不再调用LLM
+            String cacheKey = responseCache.key(AgentType.SYNTHESIS, cascade.modelKey(config), prompt);
+            String content = responseCache.get(cacheKey);
+            SynthesisResult result;
+            if (content != null) {
+                if (listener != null) {
+                    new IncrementalJsonParser(listener).feed(content);
+                }
+                result = parseResponse(content, input);
+            } else {
+                if (!circuitBreaker.tryAcquire(AgentType.SYNTHESIS)) {
+                    throw new LlmCircuitOpenException(AgentType.SYNTHESIS);
+                }
+                llmCalled = true;
+                startNanos = System.nanoTime();
+
+                // 3. 按级联策略调用（轻量模型评级与规则合成偏离过大或响应不完整时升级到主模型）
+                SynthesisResult ruleResult = SynthesisResult.fallback(
+                    input.getPolicyImpact(), input.getSectorHeat(), input.getTrendSignal());
+                Attempt attempt = cascade.execute(AgentType.SYNTHESIS, config,
+                    (model, finalTier) -> attempt(client, config, model, prompt, input, finalTier ? listener : null),
+                    candidate -> checkCandidate(candidate, ruleResult));
+                if (!attempt.published() && listener != null) {
+                    new IncrementalJsonParser(listener).feed(attempt.content());
+                }
+                result = attempt.result();
+                circuitBreaker.recordSuccess(AgentType.SYNTHESIS, elapsedMillis(startNanos));
+                responseCache.put(cacheKey, attempt.content());
+            }
             result.setLlmGenerated(true);
             result.setStatus(AnalysisStatus.normal());
 
             log.info("SynthesisAgent LLM分析完成，评级={}", result.getOverallRating());
             return result;
 
+        } catch (LlmCircuitOpenException e) {
+            log.info("SynthesisAgent LLM熔断中，直接使用规则合成");
+            SynthesisResult result = SynthesisResult.fallback(
+                input.getPolicyImpact(),
+                input.getSectorHeat(),
+                input.getTrendSignal()
+            );
+            result.setStatus(AnalysisStatus.degraded(AnalysisStatus.MSG_LLM_CIRCUIT_OPEN));
+            return result;
         } catch (Exception e) {
-            log.error("SynthesisAgent LLM调用失败，降级为规则合成", e);
+            // 截止时间到达被中断取消的调用不代表LLM不健康，不计入熔断统计
+            if (LlmCancellation.isCancelled(e)) {
+                log.info("SynthesisAgent LLM调用已取消（到达截止时间），降级为规则合成");
+            } else {
+                if (llmCalled) {
+                    circuitBreaker.recordFailure(AgentType.SYNTHESIS, elapsedMillis(startNanos));
+                }
+                log.error("SynthesisAgent LLM调用失败，降级为规则合成", e);
+            }
             return SynthesisResult.fallback(
                 input.getPolicyImpact(),
                 input.getSectorHeat(),
@@ -89,6 +172,94 @@ public class SynthesisAgent implements Agent<SynthesisInput, SynthesisResult> {
         }
     }
 
+    /**
+     * 以指定模型调用一次LLM并解析
+     *
+     * @param listener 字段监听器，仅最后一层（结果必定被采用）传入
+     */
+    private Attempt attempt(OpenAIClient client, AgentLlmProperties.LlmConfig config, String model, String prompt,
+                            SynthesisInput input, StreamFieldListener listener) {
+        String content = callLlm(client, config, model, prompt, listener);
+        try {
+            return new Attempt(parseResponse(content, input), content, findIssues(content), listener != null);
+        } catch (RuntimeException e) {
+            throw new LlmParseException(e.getMessage(), content, e);
+        }
+    }
+
+    /**
+     * 经网关调用LLM（强制JSON输出）
+     */
+    private String callLlm(OpenAIClient client, AgentLlmProperties.LlmConfig config, String model, String prompt,
+                           StreamFieldListener listener) {
+        ChatCompletionCreateParams.Builder builder = ChatCompletionCreateParams.builder()
+            .model(model)
+            .addUserMessage(prompt)
+            .responseFormat(ResponseFormatJsonObject.builder().build());
+        LlmRoute route = new LlmRoute(config.getBaseUrl(), LlmPriority.INTERACTIVE, AgentType.SYNTHESIS.name());
+        try {
+            if (Boolean.TRUE.equals(config.getStream())) {
+                // 边生成边校验，输出无效时立即中止
+                builder.streamOptions(ChatCompletionStreamOptions.builder().includeUsage(true).build());
+                IncrementalJsonParser parser = new IncrementalJsonParser(listener);
+                llmGateway.completeStreaming(client, route, prompt, builder.build(), concurrencyLimiter, parser::feed);
+                return parser.finish();
+            }
+            ChatCompletion completion = llmGateway.complete(client, route, prompt, builder.build(), concurrencyLimiter);
+            String content = completion.choices().get(0).message().content().orElse("");
+            if (listener != null) {
+                new IncrementalJsonParser(listener).feed(content);
+            }
+            return content;
+        } catch (LlmParseException | LlmExecutionException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new LlmExecutionException("综合研判LLM调用失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 轻量模型结果检查：响应完整，且评级与规则合成相差不超过一档
+     *
+     * @return 升级原因，通过时返回 null
+     */
+    private String checkCandidate(Attempt candidate, SynthesisResult ruleResult) {
+        if (!candidate.issues().isEmpty()) {
+            return "响应不完整：" + String.join("，", candidate.issues());
+        }
+        OverallRating llmRating = candidate.result().getOverallRating();
+        OverallRating ruleRating = ruleResult.getOverallRating();
+        if (Math.abs(llmRating.getScore() - ruleRating.getScore()) >= 2) {
+            return "评级" + llmRating + "与规则合成" + ruleRating + "偏离过大";
+        }
+        return null;
+    }
+
+    /**
+     * 检查响应完整性（解析时会以默认值填充的字段）
+     */
+    private List<String> findIssues(String json) {
+        JSONObject root = JSON.parseObject(json);
+        List<String> issues = new ArrayList<>();
+        String rating = root.getString("overallRating");
+        if (rating == null || Arrays.stream(OverallRating.values()).noneMatch(r -> r.name().equals(rating))) {
+            issues.add("overallRating缺失或无效");
+        }
+        String summary = root.getString("summary");
+        if (summary == null || summary.isBlank()) {
+            issues.add("summary为空");
+        }
+        JSONArray insights = root.getJSONArray("crossDimensionInsights");
+        if (insights == null || insights.isEmpty()) {
+            issues.add("crossDimensionInsights为空");
+        }
+        return issues;
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
     /**
      * 构建LLM Prompt（从模板文件加载并渲染）
      */
@@ -126,8 +297,9 @@ public class SynthesisAgent implements Agent<SynthesisInput, SynthesisResult> {
 
         // 加载模板并渲染
         try {
-            String template = templateRepository.getTemplate(AgentType.SYNTHESIS);
-            return promptRenderer.render(template, variables);
+            PromptTemplate template = templateRepository.getCompiledTemplate(AgentType.SYNTHESIS);
+            return promptRenderer.render(template, variables,
+                clientFactory.getConfig(AgentType.SYNTHESIS).getPromptTokenBudget());
         } catch (Exception e) {
             log.warn("Prompt模板加载失败，使用内置模板", e);
             return buildFallbackPrompt(input, sectorName);
@@ -265,4 +437,13 @@ public class SynthesisAgent implements Agent<SynthesisInput, SynthesisResult> {
             .sentiment(sector != null ? sector.getSentimentSignal() : SignalType.NEUTRAL)
             .build();
     }
+
+    /**
+     * 单层调用结果
+     *
+     * @param issues    完整性问题
+     * @param published 是否已回调字段监听器
+     */
+    private record Attempt(SynthesisResult result, String content, List<String> issues, boolean published) {
+    }
 }
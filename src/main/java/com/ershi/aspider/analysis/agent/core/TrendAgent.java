@@ -2,7 +2,9 @@ package com.ershi.aspider.analysis.agent.core;
 
 import com.alibaba.fastjson2.JSON;
 import com.ershi.aspider.analysis.agent.domain.*;
+import com.ershi.aspider.analysis.agent.llm.CascadeCheck;
 import com.ershi.aspider.analysis.agent.llm.LlmAnalysisExecutor;
+import com.ershi.aspider.analysis.agent.llm.LlmCircuitOpenException;
 import com.ershi.aspider.analysis.agent.llm.LlmExecutionException;
 import com.ershi.aspider.analysis.agent.llm.LlmParseException;
 import com.ershi.aspider.analysis.agent.llm.dto.TrendLlmResponse;
@@ -17,8 +19,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -70,6 +70,9 @@ public class TrendAgent implements Agent<AgentContext, TrendSignal> {
         } catch (PromptRenderException e) {
             log.warn("TrendAgent Prompt渲染失败，降级为规则分析", e);
             return analyzeWithDegradation(context, AnalysisStatus.MSG_LLM_FALLBACK);
+        } catch (LlmCircuitOpenException e) {
+            log.info("TrendAgent LLM熔断中，直接使用规则分析");
+            return analyzeWithDegradation(context, AnalysisStatus.MSG_LLM_CIRCUIT_OPEN);
         } catch (LlmExecutionException e) {
             log.warn("TrendAgent LLM执行失败，降级为规则分析", e);
             return analyzeWithDegradation(context, AnalysisStatus.MSG_NON_AI);
@@ -89,9 +92,10 @@ public class TrendAgent implements Agent<AgentContext, TrendSignal> {
         // 1. 构建Prompt变量
         Map<String, Object> variables = buildPromptVariables(context);
 
-        // 2. 调用LLM
+        // 2. 调用LLM（级联时轻量模型结论与规则引擎相反则升级到主模型）
         TrendLlmResponse llmResponse = llmExecutor.execute(
-            AgentType.TREND, variables, TrendLlmResponse.class);
+            AgentType.TREND, variables, TrendLlmResponse.class,
+            response -> CascadeCheck.signalConflict(response.getSignal(), ruleEngine.analyze(context).getSignal()));
 
         // 3. 合并系统填充字段（数值保护）
         return mergeWithSystemData(llmResponse, context);
@@ -102,7 +106,7 @@ public class TrendAgent implements Agent<AgentContext, TrendSignal> {
      */
     private Map<String, Object> buildPromptVariables(AgentContext context) {
         String sectorName = context.getQuery() != null ? context.getQuery().getSectorName() : "未知板块";
-        String analysisTime = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"));
+        String analysisTime = context.promptAnalysisDate();
 
         SectorDataResult sectorResult = context.getSectorResult();
         TrendIndicator indicator = sectorResult.getTrendIndicator();
@@ -177,6 +181,19 @@ public class TrendAgent implements Agent<AgentContext, TrendSignal> {
             .build();
     }
 
+    /**
+     * 仅规则分析（渐进式报告的临时结果，不调用LLM）
+     */
+    public TrendSignal analyzeByRule(AgentContext context) {
+        SectorDataResult sectorResult = context.getSectorResult();
+        if (sectorResult == null || sectorResult.getTrendIndicator() == null) {
+            return TrendSignal.empty("no_trend_data");
+        }
+        TrendSignal result = ruleEngine.analyze(context);
+        result.setStatus(AnalysisStatus.provisional());
+        return result;
+    }
+
     /**
      * 降级为规则分析
      */
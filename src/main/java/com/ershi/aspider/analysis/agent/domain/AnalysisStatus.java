@@ -26,6 +26,15 @@ public class AnalysisStatus {
     /** 降级消息：LLM响应解析失败 */
     public static final String MSG_LLM_PARSE_ERROR = "LLM响应解析失败，已降级为规则分析";
 
+    /** 降级消息：LLM熔断 */
+    public static final String MSG_LLM_CIRCUIT_OPEN = "AI服务响应异常，已临时切换为规则分析";
+
+    /** 降级消息：分析超时 */
+    public static final String MSG_DEADLINE_EXCEEDED = "AI分析超时，已降级为规则分析";
+
+    /** 临时结果消息：规则引擎先行结果 */
+    public static final String MSG_PROVISIONAL = "规则分析快速结果，AI分析完成后将自动更新";
+
     private StatusType type;
     private String message;
 
@@ -41,6 +50,10 @@ public class AnalysisStatus {
         return new AnalysisStatus(StatusType.FAILED, reason);
     }
 
+    public static AnalysisStatus provisional() {
+        return new AnalysisStatus(StatusType.PROVISIONAL, MSG_PROVISIONAL);
+    }
+
     /**
      * 创建非AI分析降级状态
      */
@@ -54,4 +67,11 @@ public class AnalysisStatus {
     public boolean isDegraded() {
         return type == StatusType.DEGRADED;
     }
+
+    /**
+     * 判断是否为临时结果（后续将被LLM分析结果替换）
+     */
+    public boolean isProvisional() {
+        return type == StatusType.PROVISIONAL;
+    }
 }
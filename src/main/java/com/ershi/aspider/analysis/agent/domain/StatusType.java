@@ -13,6 +13,9 @@ public enum StatusType {
     /** 降级（部分功能不可用，但仍返回结果） */
     DEGRADED,
 
+    /** 临时结果（规则引擎先行返回，等待LLM分析完成后更新） */
+    PROVISIONAL,
+
     /** 失败 */
     FAILED
 }
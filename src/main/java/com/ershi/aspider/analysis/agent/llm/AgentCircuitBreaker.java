@@ -0,0 +1,250 @@
+package com.ershi.aspider.analysis.agent.llm;
+
+import com.ershi.aspider.analysis.agent.config.AgentCircuitBreakerConfig;
+import com.ershi.aspider.analysis.agent.domain.AgentType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Agent LLM 延迟SLO熔断器
+ * <p>
+ * 按Agent统计最近N次LLM调用的 p95 延迟与错误率。任一指标违反SLO时熔断，该Agent的请求不再调用LLM，
+ * 直接走规则引擎（微秒级）；熔断期满后进入探测期，按比例放行少量请求作为探测，
+ * 连续若干次探测满足SLO后恢复，任一次探测失败或超出延迟SLO则重新熔断。
+ * <p>
+ * 状态与指标通过 {@link #stats()} 获取，非正常状态每分钟输出到日志。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@Component
+@Slf4j
+public class AgentCircuitBreaker {
+
+    private final AgentCircuitBreakerConfig config;
+
+    /** 当前时间（毫秒），单调时钟 */
+    private final LongSupplier clock;
+
+    private final Map<AgentType, Health> healths = new ConcurrentHashMap<>();
+
+    @Autowired
+    public AgentCircuitBreaker(AgentCircuitBreakerConfig config) {
+        this(config, () -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime()));
+    }
+
+    AgentCircuitBreaker(AgentCircuitBreakerConfig config, LongSupplier clock) {
+        this.config = config;
+        this.clock = clock;
+    }
+
+    /**
+     * 申请调用LLM
+     *
+     * @return false 表示处于熔断期（或探测期未被选为探测），应直接走规则引擎
+     */
+    public boolean tryAcquire(AgentType agentType) {
+        if (!Boolean.TRUE.equals(config.getEnabled())) {
+            return true;
+        }
+        return health(agentType).tryAcquire(clock.getAsLong());
+    }
+
+    /**
+     * 记录一次成功的LLM调用（已通过解析与验证）
+     */
+    public void recordSuccess(AgentType agentType, long latencyMs) {
+        if (Boolean.TRUE.equals(config.getEnabled())) {
+            health(agentType).record(clock.getAsLong(), latencyMs, false);
+        }
+    }
+
+    /**
+     * 记录一次失败的LLM调用（调用异常、超时中断或响应无效）
+     */
+    public void recordFailure(AgentType agentType, long latencyMs) {
+        if (Boolean.TRUE.equals(config.getEnabled())) {
+            health(agentType).record(clock.getAsLong(), latencyMs, true);
+        }
+    }
+
+    /**
+     * 各Agent的健康统计快照
+     */
+    public List<AgentHealthStats> stats() {
+        return healths.values().stream()
+            .map(Health::stats)
+            .toList();
+    }
+
+    /**
+     * 定时输出非正常状态的Agent
+     */
+    @Scheduled(cron = "0 * * * * ?")
+    public void logStats() {
+        for (AgentHealthStats stats : stats()) {
+            if (stats.state() != CircuitState.CLOSED) {
+                log.warn("Agent[{}] LLM{}：p95延迟{}ms，错误率{}，已直接降级{}次",
+                    stats.agentType(), stats.state().getDesc(), stats.p95LatencyMs(),
+                    String.format("%.2f", stats.errorRate()), stats.rejected());
+            }
+        }
+    }
+
+    private Health health(AgentType agentType) {
+        return healths.computeIfAbsent(agentType, Health::new);
+    }
+
+    /**
+     * 单个Agent的滚动窗口与熔断状态
+     */
+    private final class Health {
+
+        private final AgentType agentType;
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        /** 环形缓冲：最近N次调用的延迟与是否失败 */
+        private final long[] latencies;
+
+        private final boolean[] errors;
+
+        private int next;
+
+        private int count;
+
+        private CircuitState state = CircuitState.CLOSED;
+
+        private long openedAt;
+
+        /** 探测期收到的请求数，用于按比例选取探测 */
+        private long probeRequests;
+
+        /** 连续满足SLO的探测次数 */
+        private int probeStreak;
+
+        private long rejected;
+
+        private Health(AgentType agentType) {
+            this.agentType = agentType;
+            this.latencies = new long[config.getWindowSize()];
+            this.errors = new boolean[config.getWindowSize()];
+        }
+
+        private boolean tryAcquire(long now) {
+            lock.lock();
+            try {
+                if (state == CircuitState.CLOSED) {
+                    return true;
+                }
+                if (state == CircuitState.OPEN) {
+                    if (now - openedAt < TimeUnit.SECONDS.toMillis(config.getOpenSeconds())) {
+                        rejected++;
+                        return false;
+                    }
+                    state = CircuitState.HALF_OPEN;
+                    probeRequests = 0;
+                    probeStreak = 0;
+                    log.info("Agent[{}] LLM熔断期满，开始探测恢复", agentType);
+                }
+                // 探测期：每 1/probeRatio 个请求放行一个，期满后的首个请求即为探测
+                long interval = Math.max(1, Math.round(1 / config.getProbeRatio()));
+                if (probeRequests++ % interval == 0) {
+                    return true;
+                }
+                rejected++;
+                return false;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void record(long now, long latencyMs, boolean error) {
+            lock.lock();
+            try {
+                switch (state) {
+                    case OPEN -> {
+                        // 熔断前已发出的调用，结果不再计入
+                    }
+                    case HALF_OPEN -> {
+                        if (error || latencyMs > config.getP95LatencyMillis()) {
+                            open(now, "探测失败，延迟" + latencyMs + "ms");
+                        } else if (++probeStreak >= config.getProbeSuccesses()) {
+                            state = CircuitState.CLOSED;
+                            clearWindow();
+                            log.info("Agent[{}] LLM探测连续{}次满足SLO，已恢复", agentType, probeStreak);
+                        }
+                    }
+                    case CLOSED -> {
+                        latencies[next] = latencyMs;
+                        errors[next] = error;
+                        next = (next + 1) % latencies.length;
+                        count = Math.min(count + 1, latencies.length);
+                        if (count >= config.getMinSamples()) {
+                            long p95 = p95();
+                            double errorRate = errorRate();
+                            if (p95 > config.getP95LatencyMillis() || errorRate > config.getErrorRateThreshold()) {
+                                open(now, "p95延迟" + p95 + "ms，错误率" + String.format("%.2f", errorRate));
+                            }
+                        }
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private AgentHealthStats stats() {
+            lock.lock();
+            try {
+                return new AgentHealthStats(agentType, state, count, p95(), errorRate(), rejected);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void open(long now, String reason) {
+            state = CircuitState.OPEN;
+            openedAt = now;
+            log.warn("Agent[{}] LLM违反SLO（{}），熔断{}秒，期间直接使用规则分析",
+                agentType, reason, config.getOpenSeconds());
+        }
+
+        private void clearWindow() {
+            next = 0;
+            count = 0;
+        }
+
+        private long p95() {
+            if (count == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return sorted[(int) Math.ceil(count * 0.95) - 1];
+        }
+
+        private double errorRate() {
+            if (count == 0) {
+                return 0;
+            }
+            int failed = 0;
+            for (int i = 0; i < count; i++) {
+                if (errors[i]) {
+                    failed++;
+                }
+            }
+            return (double) failed / count;
+        }
+    }
+}
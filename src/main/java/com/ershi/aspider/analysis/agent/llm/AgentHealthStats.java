@@ -0,0 +1,19 @@
+package com.ershi.aspider.analysis.agent.llm;
+
+import com.ershi.aspider.analysis.agent.domain.AgentType;
+
+/**
+ * Agent LLM 健康统计
+ *
+ * @param agentType    Agent类型
+ * @param state        熔断状态
+ * @param samples      滚动窗口内样本数
+ * @param p95LatencyMs 窗口内 p95 延迟（毫秒）
+ * @param errorRate    窗口内错误率
+ * @param rejected     熔断期间累计直接降级的请求数
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public record AgentHealthStats(AgentType agentType, CircuitState state, int samples, long p95LatencyMs,
+                               double errorRate, long rejected) {
+}
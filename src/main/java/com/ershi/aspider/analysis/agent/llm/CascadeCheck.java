@@ -0,0 +1,32 @@
+package com.ershi.aspider.analysis.agent.llm;
+
+import com.ershi.aspider.analysis.agent.domain.SignalType;
+
+/**
+ * 模型级联检查
+ *
+ * 对轻量模型的结果做置信度/一致性检查（如与规则引擎结论方向相反），不通过时升级到主模型
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@FunctionalInterface
+public interface CascadeCheck<T> {
+
+    /**
+     * @param response 轻量模型的结果（已解析）
+     * @return 升级原因，通过时返回 null
+     */
+    String check(T response);
+
+    /**
+     * 信号方向冲突检查：LLM与规则引擎一利好一利空时视为低置信度
+     *
+     * @return 升级原因，不冲突时返回 null
+     */
+    static String signalConflict(SignalType llmSignal, SignalType ruleSignal) {
+        boolean conflict = (llmSignal == SignalType.POSITIVE && ruleSignal == SignalType.NEGATIVE)
+            || (llmSignal == SignalType.NEGATIVE && ruleSignal == SignalType.POSITIVE);
+        return conflict ? "信号" + llmSignal + "与规则引擎结论" + ruleSignal + "相反" : null;
+    }
+}
@@ -0,0 +1,21 @@
+package com.ershi.aspider.analysis.agent.llm;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Agent LLM 熔断状态
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@Getter
+@AllArgsConstructor
+public enum CircuitState {
+
+    CLOSED("正常"),
+    OPEN("熔断"),
+    HALF_OPEN("探测恢复");
+
+    private final String desc;
+}
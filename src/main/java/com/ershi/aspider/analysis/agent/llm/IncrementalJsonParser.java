@@ -0,0 +1,293 @@
+package com.ershi.aspider.analysis.agent.llm;
+
+import com.alibaba.fastjson2.JSON;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.regex.Pattern;
+
+/**
+ * 增量JSON对象解析器
+ *
+ * 按到达顺序逐段输入LLM输出，边接收边校验语法：
+ * 1. 顶层JSON对象的字段值完整后立即通过 {@link StreamFieldListener} 发布
+ * 2. 一旦已接收内容不可能构成合法JSON对象（前置说明文字、代码块标记、语法错误、对象结束后仍有内容），
+ *    立即抛出 {@link LlmParseException}，调用方据此中止生成并降级，无需等待完整输出
+ *
+ * 非线程安全，每次调用使用独立实例
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public class IncrementalJsonParser {
+
+    private static final Pattern NUMBER = Pattern.compile("-?(0|[1-9]\\d*)(\\.\\d+)?([eE][+-]?\\d+)?");
+
+    private static final String[] LITERALS = {"true", "false", "null"};
+
+    private final StreamFieldListener listener;
+
+    /** 已接收的全部内容 */
+    private final StringBuilder buffer = new StringBuilder();
+
+    private final Deque<Frame> stack = new ArrayDeque<>();
+
+    /** 正在读取的数字或字面量 */
+    private final StringBuilder token = new StringBuilder();
+
+    private boolean inString;
+
+    private boolean stringIsKey;
+
+    private boolean escape;
+
+    /** \\u 转义剩余的十六进制位数 */
+    private int unicodeRemaining;
+
+    /** 顶层字段名的起始位置 */
+    private int keyStart;
+
+    /** 顶层字段值的起始位置 */
+    private int valueStart;
+
+    private String currentKey;
+
+    private boolean complete;
+
+    /**
+     * @param listener 字段监听器，为 null 时仅校验语法
+     */
+    public IncrementalJsonParser(StreamFieldListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * 输入一段增量内容
+     *
+     * @throws LlmParseException 已接收内容不可能构成合法JSON对象
+     */
+    public void feed(String delta) {
+        for (int i = 0; i < delta.length(); i++) {
+            char c = delta.charAt(i);
+            buffer.append(c);
+            accept(c, buffer.length() - 1);
+        }
+    }
+
+    /**
+     * 输入结束
+     *
+     * @return 完整响应内容
+     * @throws LlmParseException JSON对象不完整
+     */
+    public String finish() {
+        if (!complete) {
+            throw fail("LLM响应JSON不完整");
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * 顶层JSON对象是否已结束
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    private void accept(char c, int pos) {
+        if (complete) {
+            if (!Character.isWhitespace(c)) {
+                throw fail("LLM响应JSON对象结束后存在多余内容");
+            }
+            return;
+        }
+        if (inString) {
+            acceptStringChar(c, pos);
+            return;
+        }
+        if (!token.isEmpty()) {
+            if (isTokenChar(c)) {
+                token.append(c);
+                checkLiteralPrefix();
+                return;
+            }
+            endToken(pos);
+        }
+        if (Character.isWhitespace(c)) {
+            return;
+        }
+
+        if (stack.isEmpty()) {
+            if (c != '{') {
+                throw fail("LLM响应不是JSON对象");
+            }
+            stack.push(new Frame(true, Expect.KEY_OR_END));
+            return;
+        }
+
+        Frame frame = stack.peek();
+        switch (frame.expect) {
+            case KEY_OR_END -> {
+                if (c == '}') {
+                    closeContainer(pos);
+                } else {
+                    startKey(c, pos, frame);
+                }
+            }
+            case KEY -> startKey(c, pos, frame);
+            case COLON -> {
+                if (c != ':') {
+                    throw fail("LLM响应JSON缺少冒号");
+                }
+                frame.expect = Expect.VALUE;
+            }
+            case VALUE_OR_END -> {
+                if (c == ']') {
+                    closeContainer(pos);
+                } else {
+                    startValue(c, pos, frame);
+                }
+            }
+            case VALUE -> startValue(c, pos, frame);
+            case COMMA_OR_END -> {
+                if (c == ',') {
+                    frame.expect = frame.object ? Expect.KEY : Expect.VALUE;
+                } else if (c == (frame.object ? '}' : ']')) {
+                    closeContainer(pos);
+                } else {
+                    throw fail("LLM响应JSON缺少逗号或结束符");
+                }
+            }
+        }
+    }
+
+    private void startKey(char c, int pos, Frame frame) {
+        if (c != '"') {
+            throw fail("LLM响应JSON字段名必须为字符串");
+        }
+        frame.expect = Expect.COLON;
+        inString = true;
+        stringIsKey = true;
+        keyStart = pos;
+    }
+
+    private void startValue(char c, int pos, Frame frame) {
+        frame.expect = Expect.COMMA_OR_END;
+        if (stack.size() == 1) {
+            valueStart = pos;
+        }
+        if (c == '{') {
+            stack.push(new Frame(true, Expect.KEY_OR_END));
+        } else if (c == '[') {
+            stack.push(new Frame(false, Expect.VALUE_OR_END));
+        } else if (c == '"') {
+            inString = true;
+            stringIsKey = false;
+        } else if (c == '-' || Character.isDigit(c) || Character.isLetter(c)) {
+            token.append(c);
+            checkLiteralPrefix();
+        } else {
+            throw fail("LLM响应JSON存在非法字符: " + c);
+        }
+    }
+
+    private void acceptStringChar(char c, int pos) {
+        if (unicodeRemaining > 0) {
+            if (Character.digit(c, 16) < 0) {
+                throw fail("LLM响应JSON存在非法的unicode转义");
+            }
+            unicodeRemaining--;
+        } else if (escape) {
+            if (c == 'u') {
+                unicodeRemaining = 4;
+            } else if ("\"\\/bfnrt".indexOf(c) < 0) {
+                throw fail("LLM响应JSON存在非法的转义字符: \\" + c);
+            }
+            escape = false;
+        } else if (c == '\\') {
+            escape = true;
+        } else if (c == '"') {
+            inString = false;
+            if (stack.size() == 1) {
+                if (stringIsKey) {
+                    currentKey = (String) JSON.parse(buffer.substring(keyStart, pos + 1));
+                } else {
+                    publish(pos + 1);
+                }
+            }
+        } else if (c < 0x20) {
+            throw fail("LLM响应JSON字符串中存在未转义的控制字符");
+        }
+    }
+
+    private void endToken(int end) {
+        String value = token.toString();
+        token.setLength(0);
+        boolean literal = false;
+        for (String candidate : LITERALS) {
+            literal |= candidate.equals(value);
+        }
+        if (!literal && !NUMBER.matcher(value).matches()) {
+            throw fail("LLM响应JSON存在非法值: " + value);
+        }
+        if (stack.size() == 1) {
+            publish(end);
+        }
+    }
+
+    private void closeContainer(int pos) {
+        stack.pop();
+        if (stack.isEmpty()) {
+            complete = true;
+        } else if (stack.size() == 1) {
+            publish(pos + 1);
+        }
+    }
+
+    /** 发布顶层字段：[valueStart, end) 为字段值的原始JSON */
+    private void publish(int end) {
+        if (listener == null) {
+            return;
+        }
+        listener.onField(currentKey, JSON.parse(buffer.substring(valueStart, end)));
+    }
+
+    /** 字面量前缀不匹配 true/false/null 时立即判定无效 */
+    private void checkLiteralPrefix() {
+        if (!Character.isLetter(token.charAt(0))) {
+            return;
+        }
+        String value = token.toString();
+        for (String candidate : LITERALS) {
+            if (candidate.startsWith(value)) {
+                return;
+            }
+        }
+        throw fail("LLM响应JSON存在非法值: " + value);
+    }
+
+    private static boolean isTokenChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '-' || c == '+' || c == '.';
+    }
+
+    private LlmParseException fail(String message) {
+        return new LlmParseException(message + "（已接收" + buffer.length() + "字符）", buffer.toString());
+    }
+
+    private enum Expect {
+        KEY_OR_END, KEY, COLON, VALUE_OR_END, VALUE, COMMA_OR_END
+    }
+
+    /** 嵌套层级 */
+    private static final class Frame {
+
+        private final boolean object;
+
+        private Expect expect;
+
+        private Frame(boolean object, Expect expect) {
+            this.object = object;
+            this.expect = expect;
+        }
+    }
+}
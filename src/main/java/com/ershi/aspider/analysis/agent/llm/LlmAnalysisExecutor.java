@@ -8,21 +8,38 @@ import com.ershi.aspider.analysis.agent.domain.AgentType;
 import com.ershi.aspider.analysis.agent.llm.dto.PolicyLlmResponse;
 import com.ershi.aspider.analysis.agent.llm.dto.SectorLlmResponse;
 import com.ershi.aspider.analysis.agent.llm.dto.TrendLlmResponse;
+import com.ershi.aspider.analysis.agent.llm.prompt.ContextPacker;
 import com.ershi.aspider.analysis.agent.llm.prompt.PromptRenderer;
+import com.ershi.aspider.analysis.agent.llm.prompt.PromptTemplate;
 import com.ershi.aspider.analysis.agent.llm.prompt.PromptTemplateRepository;
+import com.ershi.aspider.common.llm.AdaptiveConcurrencyLimiter;
+import com.ershi.aspider.common.llm.AdaptiveConcurrencyRegistry;
+import com.ershi.aspider.common.llm.LlmCancellation;
+import com.ershi.aspider.common.llm.LlmGateway;
+import com.ershi.aspider.common.llm.LlmPriority;
+import com.ershi.aspider.common.llm.LlmRoute;
 import com.openai.client.OpenAIClient;
 import com.openai.models.ChatCompletion;
 import com.openai.models.ChatCompletionCreateParams;
+import com.openai.models.ChatCompletionStreamOptions;
 import com.openai.models.ResponseFormatJsonObject;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * LLM分析执行器
  *
- * 统一封装：Prompt加载 -> 渲染 -> LLM调用 -> JSON解析 -> 响应验证
+ * 统一封装：Prompt加载 -> 渲染 -> 缓存查询 -> LLM调用 -> JSON解析 -> 响应验证
+ * 配置 stream=true 时以流式调用，边生成边增量解析，输出无效时提前中止
+ * 通过验证的响应按（Agent类型，模型，Prompt哈希）写入 {@link LlmResponseCache}，重复分析直接复用
+ * LLM调用经 {@link LlmGateway} 按交互式优先级排队，与摘要生成共享端点配额
+ * 配置了级联轻量模型时经 {@link LlmCascade} 先以轻量模型调用，检查不通过再升级到主模型
+ * 调用延迟与成败计入 {@link AgentCircuitBreaker}，熔断期间不调用LLM，直接抛出 {@link LlmCircuitOpenException}；
+ * 到达截止时间被中断取消的调用不计入
  * 调用失败时抛出异常，由上层Agent捕获并触发降级
  * 支持响应验证和输入清理，防止注入攻击
  *
@@ -36,15 +53,30 @@ public class LlmAnalysisExecutor {
     private final PromptRenderer promptRenderer;
     private final AgentLlmClientFactory clientFactory;
     private final LlmResponseValidator responseValidator;
+    private final LlmGateway llmGateway;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final LlmResponseCache responseCache;
+    private final AgentCircuitBreaker circuitBreaker;
+    private final LlmCascade cascade;
 
     public LlmAnalysisExecutor(PromptTemplateRepository templateRepository,
                                PromptRenderer promptRenderer,
                                AgentLlmClientFactory clientFactory,
-                               LlmResponseValidator responseValidator) {
+                               LlmResponseValidator responseValidator,
+                               LlmGateway llmGateway,
+                               AdaptiveConcurrencyRegistry concurrencyRegistry,
+                               LlmResponseCache responseCache,
+                               AgentCircuitBreaker circuitBreaker,
+                               LlmCascade cascade) {
         this.templateRepository = templateRepository;
         this.promptRenderer = promptRenderer;
         this.clientFactory = clientFactory;
         this.responseValidator = responseValidator;
+        this.llmGateway = llmGateway;
+        this.concurrencyLimiter = concurrencyRegistry.get(AdaptiveConcurrencyRegistry.ANALYSIS);
+        this.responseCache = responseCache;
+        this.circuitBreaker = circuitBreaker;
+        this.cascade = cascade;
     }
 
     /**
@@ -59,46 +91,147 @@ public class LlmAnalysisExecutor {
      * @throws LlmParseException     JSON解析失败时抛出（用于区分错误类型）
      */
     public <T> T execute(AgentType agentType, Map<String, Object> variables, Class<T> responseType) {
+        return execute(agentType, variables, responseType, null);
+    }
+
+    /**
+     * 执行LLM分析（配置了级联轻量模型时，轻量模型结果需通过完整性检查与 consistencyCheck 才被采用）
+     *
+     * @param consistencyCheck 轻量模型结果的一致性检查（如与规则引擎结论对比），可为 null
+     */
+    public <T> T execute(AgentType agentType, Map<String, Object> variables, Class<T> responseType,
+                         CascadeCheck<T> consistencyCheck) {
         log.info("LLM执行开始，AgentType={}", agentType);
 
         // 1. 清理输入变量（防止Prompt注入）
         Map<String, Object> sanitizedVariables = sanitizeVariables(variables);
 
-        // 2. 加载并渲染Prompt
-        String template = templateRepository.getTemplate(agentType);
-        String prompt = promptRenderer.render(template, sanitizedVariables);
-
-        log.debug("Prompt渲染完成，长度={}", prompt.length());
-
-        // 3. 获取LLM客户端和配置
+        // 2. 获取LLM客户端和配置
         OpenAIClient client = clientFactory.getClient(agentType);
         AgentLlmProperties.LlmConfig config = clientFactory.getConfig(agentType);
 
-        // 4. 构建请求参数（强制JSON输出）
-        ChatCompletionCreateParams params = ChatCompletionCreateParams.builder()
-            .model(config.getModel())
+        // 3. 按token预算渲染Prompt（长上下文在剩余预算内按相关性裁剪）
+        PromptTemplate template = templateRepository.getCompiledTemplate(agentType);
+        String prompt = promptRenderer.render(template, sanitizedVariables, config.getPromptTokenBudget());
+
+        // 4. 查询响应缓存（相同数据渲染出的Prompt相同，命中时不再调用LLM）
+        String cacheKey = responseCache.key(agentType, cascade.modelKey(config), prompt);
+        String responseJson = responseCache.get(cacheKey);
+        T response;
+        if (responseJson != null) {
+            log.info("LLM响应缓存命中，AgentType={}", agentType);
+            response = validateAndFixResponse(parse(responseJson, responseType), responseType);
+        } else {
+            // 5. 熔断期间不调用LLM，由Agent直接走规则引擎
+            if (!circuitBreaker.tryAcquire(agentType)) {
+                throw new LlmCircuitOpenException(agentType);
+            }
+
+            // 6. 按级联策略调用LLM（轻量模型优先），解析并验证响应，结果计入熔断统计
+            long startNanos = System.nanoTime();
+            try {
+                Attempt<T> attempt = cascade.execute(agentType, config,
+                    (model, finalTier) -> attempt(agentType, client, config, model, prompt, responseType),
+                    candidate -> {
+                        if (!candidate.issues().isEmpty()) {
+                            return "响应不完整：" + String.join("，", candidate.issues());
+                        }
+                        return consistencyCheck != null ? consistencyCheck.check(candidate.response()) : null;
+                    });
+                responseJson = attempt.json();
+                response = attempt.response();
+            } catch (RuntimeException e) {
+                // 截止时间到达被中断取消的调用由请求预算决定，不代表LLM不健康，不计入熔断统计
+                if (LlmCancellation.isCancelled(e)) {
+                    log.info("LLM调用已取消（到达截止时间），AgentType={}", agentType);
+                } else {
+                    circuitBreaker.recordFailure(agentType, elapsedMillis(startNanos));
+                }
+                throw e;
+            }
+            circuitBreaker.recordSuccess(agentType, elapsedMillis(startNanos));
+
+            // 7. 缓存通过解析与验证的响应
+            responseCache.put(cacheKey, responseJson);
+        }
+
+        log.info("LLM执行成功，AgentType={}", agentType);
+        return response;
+    }
+
+    /**
+     * 以指定模型调用一次LLM并解析
+     */
+    private <T> Attempt<T> attempt(AgentType agentType, OpenAIClient client, AgentLlmProperties.LlmConfig config,
+                                   String model, String prompt, Class<T> responseType) {
+        String json = callLlm(agentType, client, config, model, prompt);
+        T parsed = parse(json, responseType);
+        List<String> issues = responseValidator.findIssues(parsed);
+        return new Attempt<>(validateAndFixResponse(parsed, responseType), json, issues);
+    }
+
+    /**
+     * 经网关调用LLM（强制JSON输出）
+     *
+     * 流式模式下边接收边增量解析，输出一旦不可能构成合法JSON对象即中止生成，
+     * 由上层Agent按解析失败降级，无需等待完整输出
+     *
+     * @return 原始响应内容
+     * @throws LlmExecutionException 调用失败或响应为空时抛出
+     * @throws LlmParseException     流式输出判定无效时抛出
+     */
+    private String callLlm(AgentType agentType, OpenAIClient client, AgentLlmProperties.LlmConfig config,
+                           String model, String prompt) {
+        boolean stream = Boolean.TRUE.equals(config.getStream());
+        ChatCompletionCreateParams.Builder builder = ChatCompletionCreateParams.builder()
+            .model(model)
             .addUserMessage(prompt)
-            .responseFormat(ResponseFormatJsonObject.builder().build())
-            .build();
+            .responseFormat(ResponseFormatJsonObject.builder().build());
+        if (stream) {
+            // 流式响应末尾附带用量，供网关校正TPM
+            builder.streamOptions(ChatCompletionStreamOptions.builder().includeUsage(true).build());
+        }
+        ChatCompletionCreateParams params = builder.build();
 
-        // 5. 调用LLM
         String responseJson;
         try {
-            ChatCompletion completion = client.chat().completions().create(params);
-            responseJson = completion.choices().get(0).message().content().orElse("");
+            LlmRoute route = new LlmRoute(config.getBaseUrl(), LlmPriority.INTERACTIVE, agentType.name());
+            if (stream) {
+                IncrementalJsonParser parser = new IncrementalJsonParser(null);
+                responseJson = llmGateway.completeStreaming(client, route, prompt, params, concurrencyLimiter,
+                    parser::feed);
+                if (!responseJson.isBlank()) {
+                    parser.finish();
+                }
+            } else {
+                ChatCompletion completion = llmGateway.complete(client, route, prompt, params, concurrencyLimiter);
+                responseJson = completion.choices().get(0).message().content().orElse("");
+            }
 
             if (responseJson.isBlank()) {
                 throw new LlmExecutionException("LLM响应内容为空");
             }
 
             log.debug("LLM响应获取成功，长度={}", responseJson.length());
+            return responseJson;
+        } catch (LlmParseException e) {
+            if (stream) {
+                log.warn("LLM流式输出无效，已中止生成，AgentType={}，原因={}", agentType, e.getMessage());
+            }
+            throw e;
         } catch (LlmExecutionException e) {
             throw e;
         } catch (Exception e) {
             throw new LlmExecutionException("LLM调用失败: " + e.getMessage(), e);
         }
+    }
 
-        // 6. 解析JSON响应
+    /**
+     * 解析JSON响应
+     *
+     * @throws LlmParseException JSON解析失败时抛出
+     */
+    private <T> T parse(String responseJson, Class<T> responseType) {
         T response;
         try {
             response = JSON.parseObject(responseJson, responseType);
@@ -109,14 +242,13 @@ public class LlmAnalysisExecutor {
             log.error("LLM响应JSON解析失败，原始响应：{}", responseJson);
             throw new LlmParseException("LLM响应JSON解析失败: " + e.getMessage(), responseJson, e);
         }
-
-        // 7. 验证并修复响应
-        response = validateAndFixResponse(response, responseType);
-
-        log.info("LLM执行成功，AgentType={}", agentType);
         return response;
     }
 
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
     /**
      * 清理输入变量（防止Prompt注入）
      *
@@ -128,14 +260,10 @@ public class LlmAnalysisExecutor {
         for (Map.Entry<String, Object> entry : variables.entrySet()) {
             Object value = entry.getValue();
             if (value instanceof String strValue) {
-                // 清理字符串值：移除潜在的注入模式
-                String cleaned = strValue
-                    .replaceAll("\\{\\{", "{")     // 防止模板变量注入
-                    .replaceAll("\\}\\}", "}")
-                    .replaceAll("(?i)ignore.*previous.*instruction", "") // 常见注入模式
-                    .replaceAll("(?i)disregard.*above", "")              // 常见注入模式
-                    .replaceAll("[\\x00-\\x08\\x0B\\x0C\\x0E-\\x1F]", ""); // 控制字符
-                sanitized.put(entry.getKey(), cleaned);
+                sanitized.put(entry.getKey(), sanitize(strValue));
+            } else if (value instanceof ContextPacker packer) {
+                // 打包内容在渲染时才生成，生成后同样清理（清理只会缩短内容，不会超出预算）
+                sanitized.put(entry.getKey(), (ContextPacker) tokenBudget -> sanitize(packer.pack(tokenBudget)));
             } else {
                 sanitized.put(entry.getKey(), value);
             }
@@ -143,6 +271,18 @@ public class LlmAnalysisExecutor {
         return sanitized;
     }
 
+    /**
+     * 清理字符串值：移除潜在的注入模式
+     */
+    private String sanitize(String value) {
+        return value
+            .replaceAll("\\{\\{", "{")     // 防止模板变量注入
+            .replaceAll("\\}\\}", "}")
+            .replaceAll("(?i)ignore.*previous.*instruction", "") // 常见注入模式
+            .replaceAll("(?i)disregard.*above", "")              // 常见注入模式
+            .replaceAll("[\\x00-\\x08\\x0B\\x0C\\x0E-\\x1F]", ""); // 控制字符
+    }
+
     /**
      * 验证并修复响应
      *
@@ -163,4 +303,12 @@ public class LlmAnalysisExecutor {
         // 其他类型不做验证，直接返回
         return response;
     }
+
+    /**
+     * 单层调用结果
+     *
+     * @param issues 完整性问题（修复前）
+     */
+    private record Attempt<T>(T response, String json, List<String> issues) {
+    }
 }
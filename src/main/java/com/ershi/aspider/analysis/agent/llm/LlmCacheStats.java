@@ -0,0 +1,20 @@
+package com.ershi.aspider.analysis.agent.llm;
+
+/**
+ * LLM 响应缓存统计
+ *
+ * @param memoryHits 内存层命中次数
+ * @param diskHits   磁盘层命中次数
+ * @param misses     未命中次数
+ * @param entries    内存层当前条目数
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public record LlmCacheStats(long memoryHits, long diskHits, long misses, int entries) {
+
+    /** 命中率（内存层与磁盘层合计） */
+    public double hitRate() {
+        long total = memoryHits + diskHits + misses;
+        return total > 0 ? (double) (memoryHits + diskHits) / total : 0;
+    }
+}
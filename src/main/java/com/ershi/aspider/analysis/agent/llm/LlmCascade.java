@@ -0,0 +1,197 @@
+package com.ershi.aspider.analysis.agent.llm;
+
+import com.ershi.aspider.analysis.agent.config.AgentLlmProperties;
+import com.ershi.aspider.analysis.agent.domain.AgentType;
+import com.ershi.aspider.common.llm.LlmCancellation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 模型级联（轻量模型优先，检查不通过时升级到主模型）
+ * <p>
+ * Agent 配置了 cascade-model 时，先以轻量模型调用，结果经解析、{@link LlmResponseValidator} 完整性检查
+ * 以及调用方提供的 {@link CascadeCheck}（与规则引擎结论的一致性）检查，全部通过即采用；
+ * 调用失败、解析失败或检查不通过时，再以主模型（model）调用，主模型结果不再检查。
+ * <p>
+ * 节省的延迟以实测主模型延迟为基准：每 cascade-baseline-interval 次调用中有1次跳过轻量模型、直接调用主模型，
+ * 其平均耗时作为“全部直接调用主模型”的基准（升级调用的主模型耗时只覆盖轻量模型失败的难例，不作为基准）。
+ * 尚无基准样本时节省的延迟为未知。各Agent的升级率与节省的延迟通过 {@link #stats()} 获取，并每分钟输出到日志。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@Component
+@Slf4j
+public class LlmCascade {
+
+    /**
+     * 单层模型调用
+     */
+    @FunctionalInterface
+    public interface Tier<T> {
+
+        /**
+         * @param model     本层使用的模型
+         * @param finalTier 是否为最后一层（结果必定被采用，可直接流式回调）
+         * @throws LlmExecutionException 调用失败
+         * @throws LlmParseException     解析失败
+         */
+        T call(String model, boolean finalTier);
+    }
+
+    private final Map<AgentType, Counters> counters = new ConcurrentHashMap<>();
+
+    /** 上次输出日志时的各Agent调用次数 */
+    private final Map<AgentType, Long> lastLoggedCalls = new ConcurrentHashMap<>();
+
+    /**
+     * 是否对该配置启用级联
+     */
+    public boolean enabled(AgentLlmProperties.LlmConfig config) {
+        String cascadeModel = config.getCascadeModel();
+        return cascadeModel != null && !cascadeModel.isBlank() && !cascadeModel.equals(config.getModel());
+    }
+
+    /**
+     * 响应缓存键中的模型标识（启用级联时为“轻量模型>主模型”）
+     */
+    public String modelKey(AgentLlmProperties.LlmConfig config) {
+        return enabled(config) ? config.getCascadeModel() + ">" + config.getModel() : config.getModel();
+    }
+
+    /**
+     * 按级联策略调用
+     *
+     * @param check 轻量模型结果的检查，返回升级原因，通过时返回 null
+     */
+    public <T> T execute(AgentType agentType, AgentLlmProperties.LlmConfig config, Tier<T> tier, CascadeCheck<T> check) {
+        if (!enabled(config)) {
+            return tier.call(config.getModel(), true);
+        }
+
+        Counters stats = counters.computeIfAbsent(agentType, key -> new Counters());
+        Integer interval = config.getCascadeBaselineInterval();
+        if (interval != null && interval > 0 && stats.sequence.incrementAndGet() % interval == 0) {
+            // 基准采样：直接调用主模型，测量未级联时的延迟
+            long baselineStart = System.nanoTime();
+            T result = tier.call(config.getModel(), true);
+            stats.baselineSamples.increment();
+            stats.baselineLatency.add(elapsedMillis(baselineStart));
+            return result;
+        }
+        stats.calls.increment();
+
+        long start = System.nanoTime();
+        String reason;
+        try {
+            T result = tier.call(config.getCascadeModel(), false);
+            reason = check.check(result);
+            stats.cascadeLatency.add(elapsedMillis(start));
+            if (reason == null) {
+                return result;
+            }
+        } catch (LlmCircuitOpenException e) {
+            throw e;
+        } catch (LlmExecutionException | LlmParseException e) {
+            // 截止时间到达被中断取消时不再升级到主模型
+            if (LlmCancellation.isCancelled(e)) {
+                throw e;
+            }
+            stats.cascadeLatency.add(elapsedMillis(start));
+            reason = e.getMessage();
+        }
+
+        stats.escalations.increment();
+        log.info("轻量模型结果未通过检查，升级到主模型，AgentType={}，轻量模型={}，原因={}",
+            agentType, config.getCascadeModel(), reason);
+        long primaryStart = System.nanoTime();
+        T result = tier.call(config.getModel(), true);
+        stats.primaryLatency.add(elapsedMillis(primaryStart));
+        return result;
+    }
+
+    /**
+     * 各Agent的级联统计快照
+     */
+    public List<LlmCascadeStats> stats() {
+        return counters.entrySet().stream()
+            .map(entry -> entry.getValue().snapshot(entry.getKey()))
+            .toList();
+    }
+
+    /**
+     * 定时输出级联统计（无新调用时跳过）
+     */
+    @Scheduled(cron = "0 * * * * ?")
+    public void logStats() {
+        for (LlmCascadeStats stats : stats()) {
+            Long previous = lastLoggedCalls.put(stats.agentType(), stats.calls());
+            if (previous != null && previous == stats.calls()) {
+                continue;
+            }
+            log.info("模型级联[{}]：调用{}次，升级{}次，升级率{}%，轻量模型平均{}ms，升级主模型平均{}ms，"
+                    + "主模型基准{}ms（{}个样本），累计节省{}",
+                stats.agentType(), stats.calls(), stats.escalations(),
+                String.format("%.1f", stats.escalationRate() * 100),
+                String.format("%.0f", stats.avgCascadeLatencyMs()),
+                String.format("%.0f", stats.avgPrimaryLatencyMs()),
+                String.format("%.0f", stats.avgBaselineLatencyMs()), stats.baselineSamples(),
+                stats.latencySavedMs() != null ? stats.latencySavedMs() + "ms" : "未知");
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * 单个Agent的累计计数
+     */
+    private static final class Counters {
+
+        /** 调用序号（含基准采样），用于按间隔选择采样调用 */
+        private final AtomicLong sequence = new AtomicLong();
+
+        /** 级联调用次数（不含基准采样） */
+        private final LongAdder calls = new LongAdder();
+
+        private final LongAdder escalations = new LongAdder();
+
+        /** 轻量模型累计耗时（含未通过检查的调用） */
+        private final LongAdder cascadeLatency = new LongAdder();
+
+        /** 主模型累计耗时（仅升级调用） */
+        private final LongAdder primaryLatency = new LongAdder();
+
+        /** 基准采样次数 */
+        private final LongAdder baselineSamples = new LongAdder();
+
+        /** 基准采样（直接调用主模型）累计耗时 */
+        private final LongAdder baselineLatency = new LongAdder();
+
+        private LlmCascadeStats snapshot(AgentType agentType) {
+            long callCount = calls.sum();
+            long escalationCount = escalations.sum();
+            long sampleCount = baselineSamples.sum();
+            long cascadeTotal = cascadeLatency.sum();
+            long primaryTotal = primaryLatency.sum();
+            double avgCascade = callCount > 0 ? (double) cascadeTotal / callCount : 0;
+            double avgPrimary = escalationCount > 0 ? (double) primaryTotal / escalationCount : 0;
+            double avgBaseline = sampleCount > 0 ? (double) baselineLatency.sum() / sampleCount : 0;
+            // 级联调用全部直接调用主模型的估计耗时（实测基准） - 级联实际耗时；无基准样本时未知
+            Long saved = sampleCount > 0
+                ? Math.round(callCount * avgBaseline) - cascadeTotal - primaryTotal
+                : null;
+            return new LlmCascadeStats(agentType, callCount, escalationCount, sampleCount,
+                avgCascade, avgPrimary, avgBaseline, saved);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.ershi.aspider.analysis.agent.llm;
+
+import com.ershi.aspider.analysis.agent.domain.AgentType;
+
+/**
+ * 模型级联统计
+ *
+ * @param agentType           Agent类型
+ * @param calls                级联调用次数（不含基准采样）
+ * @param escalations          升级到主模型的次数
+ * @param baselineSamples      基准采样次数（直接调用主模型）
+ * @param avgCascadeLatencyMs  轻量模型平均延迟（毫秒）
+ * @param avgPrimaryLatencyMs  升级调用的主模型平均延迟（毫秒），无升级时为 0
+ * @param avgBaselineLatencyMs 基准采样的主模型平均延迟（毫秒），无样本时为 0
+ * @param latencySavedMs       以基准采样延迟估算，级联调用相比直接调用主模型累计节省的延迟
+ *                             （毫秒，已扣除升级时浪费的轻量模型耗时）；无基准样本时为 null（未知）
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public record LlmCascadeStats(AgentType agentType, long calls, long escalations, long baselineSamples,
+                              double avgCascadeLatencyMs, double avgPrimaryLatencyMs, double avgBaselineLatencyMs,
+                              Long latencySavedMs) {
+
+    /** 升级率 */
+    public double escalationRate() {
+        return calls > 0 ? (double) escalations / calls : 0;
+    }
+}
@@ -0,0 +1,19 @@
+package com.ershi.aspider.analysis.agent.llm;
+
+import com.ershi.aspider.analysis.agent.domain.AgentType;
+
+/**
+ * LLM熔断异常
+ *
+ * Agent的LLM调用链路违反SLO处于熔断期时抛出，未发起LLM调用
+ * Agent捕获此异常后应直接使用规则分析
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public class LlmCircuitOpenException extends LlmExecutionException {
+
+    public LlmCircuitOpenException(AgentType agentType) {
+        super("Agent [" + agentType + "] LLM调用链路熔断中");
+    }
+}
@@ -0,0 +1,278 @@
+package com.ershi.aspider.analysis.agent.llm;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONObject;
+import com.ershi.aspider.analysis.agent.config.LlmResponseCacheConfig;
+import com.ershi.aspider.analysis.agent.domain.AgentType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Agent LLM 响应精确匹配缓存
+ * <p>
+ * 渲染后的 Prompt 只取决于检索到的数据，同一板块、同一批数据的重复分析会发出完全相同的 Prompt。
+ * 以（Agent类型，模型，Prompt 哈希）为键缓存通过解析与验证的原始响应，命中时跳过 LLM 调用。
+ * <p>
+ * 内存层为按最近使用淘汰的有界缓存；启用磁盘层后，内存未命中时再查磁盘，命中则回填内存层。
+ * 命中、未命中次数通过 {@link #stats()} 获取，并定时输出到日志。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@Component
+@Slf4j
+public class LlmResponseCache {
+
+    private static final String FILE_SUFFIX = ".json";
+
+    private final LlmResponseCacheConfig config;
+
+    /** 当前时间（毫秒），磁盘层持久化过期时间，使用墙上时钟 */
+    private final LongSupplier clock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** 内存层：访问顺序的 LinkedHashMap，超出上限时淘汰最久未使用的条目 */
+    private final LinkedHashMap<String, Entry> memory = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > config.getMaxEntries();
+        }
+    };
+
+    private final LongAdder memoryHits = new LongAdder();
+
+    private final LongAdder diskHits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    /** 上次输出日志时的查询总数，用于跳过无查询的周期 */
+    private long lastLoggedLookups;
+
+    @Autowired
+    public LlmResponseCache(LlmResponseCacheConfig config) {
+        this(config, System::currentTimeMillis);
+    }
+
+    LlmResponseCache(LlmResponseCacheConfig config, LongSupplier clock) {
+        this.config = config;
+        this.clock = clock;
+    }
+
+    /**
+     * 生成缓存键
+     *
+     * @param agentType Agent类型
+     * @param model     模型名称
+     * @param prompt    渲染后的 Prompt
+     * @return 缓存键
+     */
+    public String key(AgentType agentType, String model, String prompt) {
+        return agentType.name() + ":" + model + ":" + sha256(prompt);
+    }
+
+    /**
+     * 查询缓存
+     *
+     * @return 缓存的原始响应，未命中或未启用时返回 null
+     */
+    public String get(String key) {
+        if (!Boolean.TRUE.equals(config.getEnabled())) {
+            return null;
+        }
+
+        long now = clock.getAsLong();
+        lock.lock();
+        try {
+            Entry entry = memory.get(key);
+            if (entry != null) {
+                if (entry.expiresAt > now) {
+                    memoryHits.increment();
+                    return entry.response;
+                }
+                memory.remove(key);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        Entry fromDisk = readDisk(key, now);
+        if (fromDisk != null) {
+            diskHits.increment();
+            lock.lock();
+            try {
+                memory.put(key, fromDisk);
+            } finally {
+                lock.unlock();
+            }
+            return fromDisk.response;
+        }
+
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * 写入缓存（调用方应只写入已通过解析与验证的响应）
+     */
+    public void put(String key, String response) {
+        if (!Boolean.TRUE.equals(config.getEnabled()) || response == null) {
+            return;
+        }
+
+        Entry entry = new Entry(response, clock.getAsLong() + TimeUnit.SECONDS.toMillis(config.getTtlSeconds()));
+        lock.lock();
+        try {
+            memory.put(key, entry);
+        } finally {
+            lock.unlock();
+        }
+        writeDisk(key, entry);
+    }
+
+    /**
+     * 缓存统计快照
+     */
+    public LlmCacheStats stats() {
+        lock.lock();
+        try {
+            return new LlmCacheStats(memoryHits.sum(), diskHits.sum(), misses.sum(), memory.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 定时输出命中统计（无新查询时跳过）
+     */
+    @Scheduled(cron = "0 * * * * ?")
+    public void logStats() {
+        LlmCacheStats stats = stats();
+        long lookups = stats.memoryHits() + stats.diskHits() + stats.misses();
+        if (lookups == lastLoggedLookups) {
+            return;
+        }
+        lastLoggedLookups = lookups;
+        log.info("LLM响应缓存：内存命中{}，磁盘命中{}，未命中{}，命中率{}%，内存条目{}",
+            stats.memoryHits(), stats.diskHits(), stats.misses(),
+            String.format("%.1f", stats.hitRate() * 100), stats.entries());
+    }
+
+    /**
+     * 定时清理磁盘层的过期条目
+     */
+    @Scheduled(cron = "0 15 * * * ?")
+    public void purgeExpiredDiskEntries() {
+        if (!diskEnabled()) {
+            return;
+        }
+        Path dir = Path.of(config.getDisk().getDir());
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+
+        long now = clock.getAsLong();
+        int removed = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                JSONObject stored = readFile(file);
+                if (stored == null || stored.getLongValue("expiresAt") <= now) {
+                    Files.deleteIfExists(file);
+                    removed++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("清理LLM响应磁盘缓存失败 {}", dir, e);
+        }
+        if (removed > 0) {
+            log.info("已清理 {} 条过期的LLM响应磁盘缓存", removed);
+        }
+    }
+
+    private Entry readDisk(String key, long now) {
+        if (!diskEnabled()) {
+            return null;
+        }
+        Path file = diskPath(key);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        JSONObject stored = readFile(file);
+        if (stored == null || !key.equals(stored.getString("key"))) {
+            return null;
+        }
+        long expiresAt = stored.getLongValue("expiresAt");
+        if (expiresAt <= now) {
+            return null;
+        }
+        return new Entry(stored.getString("response"), expiresAt);
+    }
+
+    private void writeDisk(String key, Entry entry) {
+        if (!diskEnabled()) {
+            return;
+        }
+        Path file = diskPath(key);
+        try {
+            Files.createDirectories(file.getParent());
+            JSONObject stored = new JSONObject();
+            stored.put("key", key);
+            stored.put("expiresAt", entry.expiresAt);
+            stored.put("response", entry.response);
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.writeString(temp, stored.toJSONString(), StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("写入LLM响应磁盘缓存失败 {}", file, e);
+        }
+    }
+
+    private JSONObject readFile(Path file) {
+        try {
+            return JSON.parseObject(Files.readString(file, StandardCharsets.UTF_8));
+        } catch (IOException | RuntimeException e) {
+            log.warn("读取LLM响应磁盘缓存失败 {}", file, e);
+            return null;
+        }
+    }
+
+    private boolean diskEnabled() {
+        return Boolean.TRUE.equals(config.getDisk().getEnabled());
+    }
+
+    /** 缓存键含模型名等任意字符，哈希后作为文件名 */
+    private Path diskPath(String key) {
+        return Path.of(config.getDisk().getDir()).resolve(sha256(key) + FILE_SUFFIX);
+    }
+
+    private static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("当前JDK不支持SHA-256", e);
+        }
+    }
+
+    /** 缓存条目 */
+    private record Entry(String response, long expiresAt) {
+    }
+}
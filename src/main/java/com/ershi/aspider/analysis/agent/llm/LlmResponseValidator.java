@@ -135,6 +135,46 @@ public class LlmResponseValidator {
         return response;
     }
 
+    /**
+     * 检查响应完整性（不修改响应），用于模型级联判断轻量模型的结果是否可直接采用
+     *
+     * @param response 已解析的LLM响应
+     * @return 缺失或为空的必填字段，完整时为空列表
+     */
+    public List<String> findIssues(Object response) {
+        List<String> issues = new ArrayList<>();
+        if (response instanceof PolicyLlmResponse policy) {
+            if (policy.getSignal() == null) {
+                issues.add("signal缺失");
+            }
+            if (policy.getCoreDrivers() == null || policy.getCoreDrivers().isEmpty()) {
+                issues.add("coreDrivers为空");
+            }
+        } else if (response instanceof SectorLlmResponse sector) {
+            if (sector.getCapitalSignal() == null) {
+                issues.add("capitalSignal缺失");
+            }
+            if (sector.getSentimentSignal() == null) {
+                issues.add("sentimentSignal缺失");
+            }
+        } else if (response instanceof TrendLlmResponse trend) {
+            if (trend.getSignal() == null) {
+                issues.add("signal缺失");
+            }
+            if (isBlankView(trend.getShortTerm())) {
+                issues.add("shortTerm缺失");
+            }
+            if (isBlankView(trend.getMidTerm())) {
+                issues.add("midTerm缺失");
+            }
+        }
+        return issues;
+    }
+
+    private boolean isBlankView(TrendView view) {
+        return view == null || view.getViewpoint() == null || view.getViewpoint().isBlank();
+    }
+
     /**
      * 清理并截断列表字段
      *
@@ -0,0 +1,22 @@
+package com.ershi.aspider.analysis.agent.llm;
+
+/**
+ * 流式响应字段监听器
+ *
+ * 流式解析LLM响应时，顶层JSON对象的每个字段在其值完整到达后立即回调（如overallRating先于长文本字段）
+ * 回调中抛出异常将中止本次生成
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@FunctionalInterface
+public interface StreamFieldListener {
+
+    /**
+     * 字段值已完整
+     *
+     * @param name  字段名
+     * @param value 字段值（String / Number / Boolean / JSONObject / JSONArray，JSON null 为 null）
+     */
+    void onField(String name, Object value);
+}
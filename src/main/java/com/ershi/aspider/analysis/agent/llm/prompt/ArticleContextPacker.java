@@ -0,0 +1,107 @@
+package com.ershi.aspider.analysis.agent.llm.prompt;
+
+import com.alibaba.fastjson2.JSON;
+import com.ershi.aspider.analysis.retriever.domain.RetrievedArticle;
+import com.ershi.aspider.common.llm.TokenEstimator;
+import com.ershi.aspider.data.datasource.domain.FinancialArticle;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 新闻列表打包器
+ *
+ * 按相关性从高到低装入新闻（JSON数组），装不下完整摘要时截断摘要，
+ * 截断后仍装不下则停止，低相关新闻不再进入Prompt
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public class ArticleContextPacker implements ContextPacker {
+
+    /** 摘要截断后保留的最少字符数，再短则不如舍弃该条 */
+    private static final int MIN_SUMMARY_CHARS = 40;
+
+    private static final String ELLIPSIS = "…";
+
+    /** 数组括号与元素分隔符按1个token计 */
+    private static final long DELIMITER_TOKENS = 1;
+
+    private final List<RetrievedArticle> articles;
+
+    private final int maxArticles;
+
+    /**
+     * @param articles    检索到的新闻
+     * @param maxArticles 最多装入条数
+     */
+    public ArticleContextPacker(List<RetrievedArticle> articles, int maxArticles) {
+        this.articles = articles;
+        this.maxArticles = maxArticles;
+    }
+
+    @Override
+    public String pack(long tokenBudget) {
+        List<RetrievedArticle> ranked = articles.stream()
+            .sorted(Comparator.comparingDouble(RetrievedArticle::getRelevanceScore).reversed())
+            .limit(maxArticles)
+            .toList();
+
+        List<String> items = new ArrayList<>();
+        long remaining = tokenBudget - DELIMITER_TOKENS;
+        for (RetrievedArticle article : ranked) {
+            String item = fit(article.getArticle(), remaining - DELIMITER_TOKENS);
+            if (item == null) {
+                break;
+            }
+            items.add(item);
+            remaining -= TokenEstimator.estimate(item) + DELIMITER_TOKENS;
+        }
+        return "[" + String.join(",", items) + "]";
+    }
+
+    /**
+     * 在预算内生成单条新闻JSON，必要时截断摘要
+     *
+     * @return 新闻JSON，截断到最短摘要仍超出预算时返回 null
+     */
+    private String fit(FinancialArticle article, long budget) {
+        String summary = article.getSummary();
+        String full = toJson(article, summary);
+        if (TokenEstimator.estimate(full) <= budget) {
+            return full;
+        }
+        if (summary == null || summary.length() <= MIN_SUMMARY_CHARS) {
+            return null;
+        }
+
+        // 二分查找预算内可保留的最长摘要前缀
+        String best = null;
+        int low = MIN_SUMMARY_CHARS;
+        int high = summary.length() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int end = Character.isHighSurrogate(summary.charAt(mid - 1)) ? mid - 1 : mid;
+            String candidate = toJson(article, summary.substring(0, end) + ELLIPSIS);
+            if (TokenEstimator.estimate(candidate) <= budget) {
+                best = candidate;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return best;
+    }
+
+    private static String toJson(FinancialArticle article, String summary) {
+        Map<String, Object> item = new LinkedHashMap<>();
+        item.put("title", article.getTitle());
+        item.put("summary", summary);
+        item.put("importance", article.getImportance());
+        item.put("newsType", article.getNewsType() != null ? article.getNewsType().name() : "GENERAL");
+        return JSON.toJSONString(item);
+    }
+}
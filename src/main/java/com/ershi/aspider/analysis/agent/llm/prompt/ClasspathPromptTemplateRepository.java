@@ -15,7 +15,7 @@ import java.util.concurrent.ConcurrentHashMap;
 /**
  * 基于Classpath的Prompt模板仓库实现
  *
- * 从 resources/prompts/ 目录加载模板，启动时缓存以提高性能
+ * 从 resources/prompts/ 目录加载模板，首次加载后缓存原文与预编译结果
  *
  * @author Ershi-Gu
  */
@@ -32,11 +32,19 @@ public class ClasspathPromptTemplateRepository implements PromptTemplateReposito
     /** 模板缓存 */
     private final Map<AgentType, String> templateCache = new ConcurrentHashMap<>();
 
+    /** 预编译模板缓存 */
+    private final Map<AgentType, PromptTemplate> compiledCache = new ConcurrentHashMap<>();
+
     @Override
     public String getTemplate(AgentType agentType) {
         return templateCache.computeIfAbsent(agentType, this::loadTemplate);
     }
 
+    @Override
+    public PromptTemplate getCompiledTemplate(AgentType agentType) {
+        return compiledCache.computeIfAbsent(agentType, type -> PromptTemplate.compile(getTemplate(type)));
+    }
+
     @Override
     public boolean hasTemplate(AgentType agentType) {
         if (templateCache.containsKey(agentType)) {
@@ -0,0 +1,22 @@
+package com.ershi.aspider.analysis.agent.llm.prompt;
+
+/**
+ * 按token预算生成的Prompt变量
+ *
+ * 作为变量值传给 {@link PromptRenderer}，渲染时以模板固定部分占用后的剩余预算调用，
+ * 实现方按优先级取舍内容，使生成结果不超出给定预算
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@FunctionalInterface
+public interface ContextPacker {
+
+    /**
+     * 生成变量内容
+     *
+     * @param tokenBudget 可用token数（估算值）
+     * @return 变量内容
+     */
+    String pack(long tokenBudget);
+}
@@ -1,16 +1,19 @@
 package com.ershi.aspider.analysis.agent.llm.prompt;
 
+import com.ershi.aspider.common.llm.TokenEstimator;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Prompt渲染器
  *
- * 使用 {{变量名}} 语法进行占位符替换
+ * 使用 {{变量名}} 语法进行占位符替换，按token预算控制Prompt长度：
+ * 模板固定部分与普通变量照常渲染，{@link ContextPacker} 类型的变量平分剩余预算后再生成内容
  *
  * @author Ershi-Gu
  */
@@ -18,9 +21,6 @@ import java.util.regex.Pattern;
 @Slf4j
 public class PromptRenderer {
 
-    /** 占位符正则：匹配 {{变量名}} */
-    private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("\\{\\{(\\w+)}}");
-
     /**
      * 渲染Prompt模板
      *
@@ -30,29 +30,43 @@ public class PromptRenderer {
      * @throws PromptRenderException 变量缺失时抛出
      */
     public String render(String template, Map<String, Object> variables) {
-        if (template == null || template.isBlank()) {
-            throw new PromptRenderException("模板内容不能为空");
-        }
-
-        StringBuffer result = new StringBuffer();
-        Matcher matcher = PLACEHOLDER_PATTERN.matcher(template);
-
-        while (matcher.find()) {
-            String variableName = matcher.group(1);
-            Object value = variables.get(variableName);
+        return render(PromptTemplate.compile(template), variables, Long.MAX_VALUE);
+    }
 
-            if (value == null) {
-                throw new PromptRenderException("Prompt渲染失败：变量缺失 {{" + variableName + "}}");
+    /**
+     * 按token预算渲染Prompt模板
+     *
+     * @param template    预编译模板
+     * @param variables   变量映射，值为 {@link ContextPacker} 时按剩余预算生成
+     * @param tokenBudget Prompt总token预算（估算值）
+     * @return 渲染后的Prompt
+     * @throws PromptRenderException 变量缺失时抛出
+     */
+    public String render(PromptTemplate template, Map<String, Object> variables, long tokenBudget) {
+        Map<String, Object> values = new HashMap<>(variables);
+        List<String> packed = new ArrayList<>();
+        for (String name : template.variables()) {
+            if (values.get(name) instanceof ContextPacker) {
+                packed.add(name);
+                values.put(name, "");
             }
+        }
 
-            // 转义特殊字符防止正则替换问题
-            String replacement = Matcher.quoteReplacement(value.toString());
-            matcher.appendReplacement(result, replacement);
+        if (!packed.isEmpty()) {
+            // 固定部分先占用预算，剩余预算由各打包变量平分
+            long fixedTokens = TokenEstimator.estimate(template.render(values));
+            long share = Math.max(0, tokenBudget - fixedTokens) / packed.size();
+            for (String name : packed) {
+                values.put(name, ((ContextPacker) variables.get(name)).pack(share));
+            }
         }
-        matcher.appendTail(result);
 
-        String rendered = result.toString();
-        log.debug("Prompt渲染完成，模板长度={}，渲染后长度={}", template.length(), rendered.length());
+        String rendered = template.render(values);
+        long tokens = TokenEstimator.estimate(rendered);
+        if (tokens > tokenBudget) {
+            log.warn("Prompt估算token数超出预算，估算={}，预算={}", tokens, tokenBudget);
+        }
+        log.debug("Prompt渲染完成，渲染后长度={}，估算token={}", rendered.length(), tokens);
         return rendered;
     }
 }
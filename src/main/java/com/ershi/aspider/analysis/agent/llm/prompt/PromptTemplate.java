@@ -0,0 +1,127 @@
+package com.ershi.aspider.analysis.agent.llm.prompt;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 预编译的Prompt模板
+ *
+ * 加载时将 {{变量名}} 模板切分为文本段与变量段，渲染时按段顺序拼接，不再逐次正则匹配
+ *
+ * 不可变，线程安全
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public final class PromptTemplate {
+
+    private static final String OPEN = "{{";
+
+    private static final String CLOSE = "}}";
+
+    private final List<Segment> segments;
+
+    private final Set<String> variables;
+
+    /** 文本段总长度，用于预估渲染结果容量 */
+    private final int literalLength;
+
+    private PromptTemplate(List<Segment> segments) {
+        this.segments = List.copyOf(segments);
+        Set<String> names = new LinkedHashSet<>();
+        int length = 0;
+        for (Segment segment : segments) {
+            if (segment.variable()) {
+                names.add(segment.text());
+            } else {
+                length += segment.text().length();
+            }
+        }
+        this.variables = Collections.unmodifiableSet(names);
+        this.literalLength = length;
+    }
+
+    /**
+     * 编译模板
+     *
+     * @throws PromptRenderException 模板为空时抛出
+     */
+    public static PromptTemplate compile(String template) {
+        if (template == null || template.isBlank()) {
+            throw new PromptRenderException("模板内容不能为空");
+        }
+
+        List<Segment> segments = new ArrayList<>();
+        int literalStart = 0;
+        int open = template.indexOf(OPEN);
+        while (open >= 0) {
+            int nameEnd = open + OPEN.length();
+            while (nameEnd < template.length() && isNameChar(template.charAt(nameEnd))) {
+                nameEnd++;
+            }
+            if (nameEnd > open + OPEN.length() && template.startsWith(CLOSE, nameEnd)) {
+                if (open > literalStart) {
+                    segments.add(new Segment(template.substring(literalStart, open), false));
+                }
+                segments.add(new Segment(template.substring(open + OPEN.length(), nameEnd), true));
+                literalStart = nameEnd + CLOSE.length();
+                open = template.indexOf(OPEN, literalStart);
+            } else {
+                // 非占位符（如 {{{ 或 {{ 中含非法字符），从下一个字符继续查找
+                open = template.indexOf(OPEN, open + 1);
+            }
+        }
+        if (literalStart < template.length()) {
+            segments.add(new Segment(template.substring(literalStart), false));
+        }
+        return new PromptTemplate(segments);
+    }
+
+    /**
+     * 渲染模板
+     *
+     * @param values 变量映射
+     * @return 渲染后的Prompt
+     * @throws PromptRenderException 变量缺失时抛出
+     */
+    public String render(Map<String, ?> values) {
+        StringBuilder result = new StringBuilder(literalLength + 256 * variables.size());
+        for (Segment segment : segments) {
+            if (!segment.variable()) {
+                result.append(segment.text());
+                continue;
+            }
+            Object value = values.get(segment.text());
+            if (value == null) {
+                throw new PromptRenderException("Prompt渲染失败：变量缺失 {{" + segment.text() + "}}");
+            }
+            result.append(value);
+        }
+        return result.toString();
+    }
+
+    /**
+     * 模板引用的变量名（按首次出现顺序）
+     */
+    public Set<String> variables() {
+        return variables;
+    }
+
+    /** 与 \w 一致：字母、数字、下划线 */
+    private static boolean isNameChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    /**
+     * 模板段
+     *
+     * @param text     文本内容或变量名
+     * @param variable 是否为变量段
+     */
+    private record Segment(String text, boolean variable) {
+    }
+}
@@ -20,6 +20,15 @@ public interface PromptTemplateRepository {
      */
     String getTemplate(AgentType agentType);
 
+    /**
+     * 获取指定Agent的预编译Prompt模板
+     *
+     * @param agentType Agent类型
+     * @return 预编译模板
+     * @throws PromptTemplateNotFoundException 模板不存在时抛出
+     */
+    PromptTemplate getCompiledTemplate(AgentType agentType);
+
     /**
      * 检查指定Agent的模板是否存在
      *
@@ -4,17 +4,18 @@ import com.ershi.aspider.analysis.agent.core.AgentContext;
 import com.ershi.aspider.analysis.agent.domain.*;
 import com.ershi.aspider.analysis.retriever.domain.SectorDataResult;
 import com.ershi.aspider.analysis.retriever.domain.TrendIndicator;
+import com.ershi.aspider.data.datasource.domain.CompactMoneyFlow;
+import com.ershi.aspider.data.datasource.domain.FixedPoint;
 import com.ershi.aspider.data.datasource.domain.SectorMoneyFlow;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 
 /**
  * 资金面规则引擎
  *
- * 承载原SectorAgent的规则逻辑，作为LLM降级时的备选方案
+ * 承载原SectorAgent的规则逻辑，作为LLM降级时的备选方案。
+ * 计算基于 {@link CompactMoneyFlow} 定点数（分/基点），只在输出 {@link SectorHeat} 时换算为 BigDecimal。
  *
  * @author Ershi-Gu
  */
@@ -28,11 +29,11 @@ public class SectorRuleEngine {
     /** 后N%为负向信号的排名阈值 */
     private static final double BOTTOM_RANK_RATIO = 0.8;
 
-    /** 超大单占比阈值（%），超过该值表示机构参与度高 */
-    private static final double SUPER_LARGE_THRESHOLD = 50.0;
+    /** 超大单占比阈值（bp，即50%），超过该值表示机构参与度高 */
+    private static final int SUPER_LARGE_THRESHOLD_BP = 50 * FixedPoint.BP_PER_PERCENT;
 
-    /** 流入金额归一化基准（亿元） */
-    private static final double INFLOW_NORMALIZE_BASE = 10_000_000_000.0;
+    /** 流入金额归一化基准（100亿元，单位分） */
+    private static final double INFLOW_NORMALIZE_BASE = 10_000_000_000.0 * FixedPoint.FEN_PER_YUAN;
 
     /**
      * 执行规则分析
@@ -50,22 +51,23 @@ public class SectorRuleEngine {
         }
 
         SectorMoneyFlow todayFlow = sectorResult.getTodayFlow();
+        CompactMoneyFlow compactFlow = sectorResult.getTodayCompactFlow();
         TrendIndicator trend = sectorResult.getTrendIndicator();
 
         // 1. 计算资金面信号
         SignalType capitalSignal = determineCapitalSignal(
-            todayFlow.getMainNetInflow(),
+            compactFlow,
             sectorResult.getInflowRank(),
             sectorResult.getTotalSectors()
         );
 
         // 2. 计算情绪面信号（基于超大单占比判断机构参与度）
-        BigDecimal superLargeRatio = calculateSuperLargeRatio(todayFlow);
-        SignalType sentimentSignal = superLargeRatio.doubleValue() > SUPER_LARGE_THRESHOLD
+        int superLargeRatio = compactFlow.superLargeRatio();
+        SignalType sentimentSignal = superLargeRatio > SUPER_LARGE_THRESHOLD_BP
             ? SignalType.POSITIVE : SignalType.NEUTRAL;
 
         // 3. 计算热度评分（综合排名、流入金额、连续天数）
-        int heatScore = calculateHeatScore(sectorResult);
+        int heatScore = calculateHeatScore(sectorResult, compactFlow);
 
         // 4. 构建资金结构
         CapitalStructure structure = buildCapitalStructure(todayFlow);
@@ -81,7 +83,7 @@ public class SectorRuleEngine {
             .sentimentSignal(sentimentSignal)
             .mainNetInflow(todayFlow.getMainNetInflow())
             .consecutiveInflowDays(consecutiveInflowDays)
-            .superLargeRatio(superLargeRatio)
+            .superLargeRatio(FixedPoint.toPercent(superLargeRatio))
             .inflowRank(sectorResult.getInflowRank())
             .totalSectors(sectorResult.getTotalSectors())
             .capitalStructure(structure)
@@ -93,10 +95,10 @@ public class SectorRuleEngine {
     /**
      * 判定资金面信号
      */
-    private SignalType determineCapitalSignal(BigDecimal inflow, int rank, long total) {
-        if (inflow == null || total == 0) return SignalType.NEUTRAL;
+    private SignalType determineCapitalSignal(CompactMoneyFlow flow, int rank, long total) {
+        if (!flow.hasMainNetInflow() || total == 0) return SignalType.NEUTRAL;
 
-        boolean isPositiveInflow = inflow.compareTo(BigDecimal.ZERO) > 0;
+        boolean isPositiveInflow = flow.mainNetInflow() > 0;
         boolean isTopRank = rank > 0 && rank <= total * TOP_RANK_RATIO;
         boolean isBottomRank = rank > 0 && rank > total * BOTTOM_RANK_RATIO;
 
@@ -105,35 +107,10 @@ public class SectorRuleEngine {
         return SignalType.NEUTRAL;
     }
 
-    /**
-     * 计算超大单占比
-     */
-    private BigDecimal calculateSuperLargeRatio(SectorMoneyFlow flow) {
-        if (flow.getSuperLargeInflowRatio() != null) {
-            return flow.getSuperLargeInflowRatio();
-        }
-
-        BigDecimal superLarge = flow.getSuperLargeInflow();
-        BigDecimal large = flow.getLargeInflow();
-
-        if (superLarge == null || large == null) {
-            return BigDecimal.ZERO;
-        }
-
-        BigDecimal total = superLarge.abs().add(large.abs());
-        if (total.compareTo(BigDecimal.ZERO) == 0) {
-            return BigDecimal.ZERO;
-        }
-
-        return superLarge.abs()
-            .multiply(BigDecimal.valueOf(100))
-            .divide(total, 2, RoundingMode.HALF_UP);
-    }
-
     /**
      * 计算热度评分
      */
-    private int calculateHeatScore(SectorDataResult result) {
+    private int calculateHeatScore(SectorDataResult result, CompactMoneyFlow todayFlow) {
         // 排名评分（前20%得40分，线性递减）
         int rankScore = 0;
         if (result.getInflowRank() > 0 && result.getTotalSectors() > 0) {
@@ -148,7 +125,7 @@ public class SectorRuleEngine {
         }
 
         // 流入金额评分（以10亿为基准，最高30分）
-        int inflowScore = normalizeInflowScore(result.getTodayFlow().getMainNetInflow());
+        int inflowScore = normalizeInflowScore(todayFlow);
 
         return Math.min(100, Math.max(0, rankScore + consecutiveScore + inflowScore));
     }
@@ -156,11 +133,9 @@ public class SectorRuleEngine {
     /**
      * 将流入金额归一化为评分（0-30分）
      */
-    private int normalizeInflowScore(BigDecimal inflow) {
-        if (inflow == null) return 0;
-        double value = inflow.doubleValue();
-        if (value <= 0) return 0;
-        return (int) Math.min(30, (value / INFLOW_NORMALIZE_BASE) * 30);
+    private int normalizeInflowScore(CompactMoneyFlow flow) {
+        if (!flow.hasMainNetInflow() || flow.mainNetInflow() <= 0) return 0;
+        return (int) Math.min(30, (flow.mainNetInflow() / INFLOW_NORMALIZE_BASE) * 30);
     }
 
     /**
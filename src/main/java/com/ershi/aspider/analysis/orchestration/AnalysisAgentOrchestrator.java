@@ -2,6 +2,7 @@ package com.ershi.aspider.analysis.orchestration;
 
 import com.ershi.aspider.analysis.agent.core.*;
 import com.ershi.aspider.analysis.agent.domain.*;
+import com.ershi.aspider.analysis.agent.llm.StreamFieldListener;
 import com.ershi.aspider.analysis.report.ReportGeneratorService;
 import com.ershi.aspider.analysis.report.domain.AnalysisReport;
 import com.ershi.aspider.analysis.retriever.AnalysisRetriever;
@@ -11,8 +12,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
 
 /**
  * 分析Agent编排器
@@ -23,6 +30,13 @@ import java.util.concurrent.Executor;
  * 3. SynthesisAgent综合研判 <br>
  * 4. 报告组装
  *
+ * 每次请求携带端到端截止时间（{@link AnalysisDeadlineConfig}），按比例切分给检索、子Agent与综合研判；
+ * 子Agent与综合研判在 {@link DeadlineScope} 中执行，到达截止点时中断未完成的调用并降级为规则分析
+ *
+ * 渐进式模式（{@link #analyzeProgressive}）先以规则引擎结果返回临时报告，
+ * LLM分析结果按维度完成顺序通过 {@link ReportUpdateListener} 推送；后台分析使用同一截止时间，
+ * 超时的维度推送规则降级结果，最终报告必定在端到端截止时间内推送
+ *
  * @author Ershi-Gu
  */
 @Service
@@ -36,6 +50,7 @@ public class AnalysisAgentOrchestrator {
     private final SynthesisAgent synthesisAgent;
     private final ReportGeneratorService reportGenerator;
     private final Executor executor;
+    private final AnalysisDeadlineConfig deadlineConfig;
 
     public AnalysisAgentOrchestrator(AnalysisRetriever retriever,
                                       PolicyAgent policyAgent,
@@ -43,7 +58,8 @@ public class AnalysisAgentOrchestrator {
                                       TrendAgent trendAgent,
                                       SynthesisAgent synthesisAgent,
                                       ReportGeneratorService reportGenerator,
-                                      Executor aspiderVirtualExecutor) {
+                                      Executor aspiderVirtualExecutor,
+                                      AnalysisDeadlineConfig deadlineConfig) {
         this.retriever = retriever;
         this.policyAgent = policyAgent;
         this.sectorAgent = sectorAgent;
@@ -51,6 +67,7 @@ public class AnalysisAgentOrchestrator {
         this.synthesisAgent = synthesisAgent;
         this.reportGenerator = reportGenerator;
         this.executor = aspiderVirtualExecutor;
+        this.deadlineConfig = deadlineConfig;
     }
 
     /**
@@ -62,55 +79,27 @@ public class AnalysisAgentOrchestrator {
     public AnalysisReport analyze(AnalysisQuery query) {
         log.info("开始板块分析，板块={}，日期={}", query.getSectorName(), query.getTradeDate());
         long startTime = System.currentTimeMillis();
+        AnalysisDeadline deadline = startDeadline(query);
 
-        // 1. 数据检索
-        RetrievalResult retrieval = retriever.retrieve(query);
+        // 1. 数据检索（超时的检索项返回空结果）
+        RetrievalResult retrieval = retriever.retrieve(query, deadline.retrievalTimeoutMillis());
         AgentContext context = AgentContext.builder()
             .retrievalResult(retrieval)
             .query(query)
             .analysisTime(LocalDateTime.now())
             .build();
 
-        // 2. 第一层：并行执行三个子Agent
-        CompletableFuture<PolicyImpact> policyFuture = CompletableFuture
-            .supplyAsync(() -> policyAgent.analyze(context), executor)
-            .exceptionally(ex -> {
-                log.error("PolicyAgent执行失败", ex);
-                return PolicyImpact.empty("execution_error");
-            });
-
-        CompletableFuture<SectorHeat> sectorFuture = CompletableFuture
-            .supplyAsync(() -> sectorAgent.analyze(context), executor)
-            .exceptionally(ex -> {
-                log.error("SectorAgent执行失败", ex);
-                return SectorHeat.empty("execution_error");
-            });
-
-        CompletableFuture<TrendSignal> trendFuture = CompletableFuture
-            .supplyAsync(() -> trendAgent.analyze(context), executor)
-            .exceptionally(ex -> {
-                log.error("TrendAgent执行失败", ex);
-                return TrendSignal.empty("execution_error");
-            });
-
-        // 等待所有子Agent完成
-        PolicyImpact policy = policyFuture.join();
-        SectorHeat sector = sectorFuture.join();
-        TrendSignal trend = trendFuture.join();
+        // 2. 第一层：并行执行三个子Agent，到达截止时间时中断未完成的子Agent并降级为规则分析
+        AgentResults agents = runAgents(context, deadline, null);
+        PolicyImpact policy = agents.policy();
+        SectorHeat sector = agents.sector();
+        TrendSignal trend = agents.trend();
 
         log.info("子Agent分析完成，消息面={}，资金面={}，趋势={}",
                  policy.getSignal(), sector.getCapitalSignal(), trend.getSignal());
 
-        // 3. 第二层：SynthesisAgent综合研判
-        SynthesisInput synthesisInput = SynthesisInput.builder()
-            .retrievalResult(retrieval)
-            .policyImpact(policy)
-            .sectorHeat(sector)
-            .trendSignal(trend)
-            .query(query)
-            .build();
-
-        SynthesisResult synthesis = synthesisAgent.analyze(synthesisInput);
+        // 3. 第二层：SynthesisAgent综合研判，到达端到端截止时间时降级为规则合成
+        SynthesisResult synthesis = runSynthesis(retrieval, agents, query, deadline, null);
 
         // 4. 报告组装
         AnalysisReport report = reportGenerator.generate(
@@ -128,6 +117,63 @@ public class AnalysisAgentOrchestrator {
         return report;
     }
 
+    /**
+     * 执行板块分析（渐进式）
+     *
+     * 检索完成后立即以规则引擎结果组装临时报告并返回（各维度状态为 PROVISIONAL），
+     * 三个子Agent的LLM分析在后台并行执行，每完成一个维度即推送重新组装的报告（综合研判仍为临时结果），
+     * 三个维度全部完成后执行综合研判：评级、评分等字段在流式生成中一经完整即推送（综合研判仍为临时状态），
+     * 研判完成后推送最终报告（complete=true）
+     *
+     * 截止时间与 {@link #analyze} 一致：到达子Agent截止点时未完成的维度中断并推送规则降级结果，
+     * 综合研判超时降级为规则合成，最终报告不晚于端到端截止时间推送
+     *
+     * @param query    分析查询请求
+     * @param listener 报告更新监听器
+     * @return 规则引擎临时报告
+     */
+    public AnalysisReport analyzeProgressive(AnalysisQuery query, ReportUpdateListener listener) {
+        log.info("开始板块分析（渐进式），板块={}，日期={}", query.getSectorName(), query.getTradeDate());
+        long startTime = System.currentTimeMillis();
+        AnalysisDeadline deadline = startDeadline(query);
+
+        // 1. 数据检索（超时的检索项返回空结果）
+        RetrievalResult retrieval = retriever.retrieve(query, deadline.retrievalTimeoutMillis());
+        AgentContext context = AgentContext.builder()
+            .retrievalResult(retrieval)
+            .query(query)
+            .analysisTime(LocalDateTime.now())
+            .build();
+
+        // 2. 规则引擎临时报告
+        ProgressiveReport progress = new ProgressiveReport(query, retrieval, listener,
+            policyAgent.analyzeByRule(context),
+            sectorAgent.analyzeByRule(context),
+            trendAgent.analyzeByRule(context));
+        AnalysisReport provisional = progress.snapshot();
+        log.info("临时报告已生成，板块={}，耗时={}ms", query.getSectorName(), System.currentTimeMillis() - startTime);
+
+        // 3. 后台执行LLM分析：与完整流程使用同一截止时间，逐维度推送升级，超时维度推送规则降级结果；
+        // 4. 三个维度完成（或到达子Agent截止点）后综合研判，推送最终报告
+        CompletableFuture
+            .runAsync(() -> {
+                AgentResults agents = runAgents(context, deadline, progress);
+                SynthesisResult synthesis = runSynthesis(retrieval, agents, query, deadline,
+                    progress::onSynthesisField);
+                progress.complete(synthesis);
+                log.info("板块分析完成（渐进式），板块={}，评级={}，LLM生成={}，耗时={}ms",
+                         query.getSectorName(), synthesis.getOverallRating(), synthesis.isLlmGenerated(),
+                         System.currentTimeMillis() - startTime);
+            }, executor)
+            .exceptionally(ex -> {
+                log.error("渐进式分析失败，推送规则合成结果", ex);
+                progress.complete(null);
+                return null;
+            });
+
+        return provisional;
+    }
+
     /**
      * 仅执行检索和子Agent分析（不调用LLM）
      * 用于调试或在LLM不可用时使用
@@ -154,4 +200,293 @@ public class AnalysisAgentOrchestrator {
         // 3. 规则合成
         return SynthesisResult.fallback(policy, sector, trend);
     }
+
+    /**
+     * 并行执行三个子Agent，到达子Agent截止点时中断未完成的调用并降级为规则分析
+     *
+     * @param progress 渐进式报告，非 null 时每个维度得出结果（含降级结果）即推送
+     */
+    private AgentResults runAgents(AgentContext context, AnalysisDeadline deadline, ProgressiveReport progress) {
+        UnaryOperator<PolicyImpact> onPolicy = progress != null ? progress::updatePolicy : UnaryOperator.identity();
+        UnaryOperator<SectorHeat> onSector = progress != null ? progress::updateSector : UnaryOperator.identity();
+        UnaryOperator<TrendSignal> onTrend = progress != null ? progress::updateTrend : UnaryOperator.identity();
+        String sectorName = context.getQuery().getSectorName();
+
+        try (DeadlineScope scope = new DeadlineScope(executor)) {
+            Future<PolicyImpact> policyTask = scope.fork(() -> onPolicy.apply(policyAgent.analyze(context)));
+            Future<SectorHeat> sectorTask = scope.fork(() -> onSector.apply(sectorAgent.analyze(context)));
+            Future<TrendSignal> trendTask = scope.fork(() -> onTrend.apply(trendAgent.analyze(context)));
+            if (!scope.joinUntil(deadline.agentDeadline())) {
+                log.warn("子Agent未在截止时间内全部完成，未完成部分降级为规则分析，板块={}", sectorName);
+            }
+
+            PolicyImpact policy = DeadlineScope.resultOr(policyTask, ex -> {
+                if (ex instanceof TimeoutException) {
+                    PolicyImpact result = policyAgent.analyzeByRule(context);
+                    result.setStatus(deadlineStatus(result.getStatus()));
+                    return onPolicy.apply(result);
+                }
+                log.error("PolicyAgent执行失败", ex);
+                return onPolicy.apply(PolicyImpact.empty("execution_error"));
+            });
+            SectorHeat sector = DeadlineScope.resultOr(sectorTask, ex -> {
+                if (ex instanceof TimeoutException) {
+                    SectorHeat result = sectorAgent.analyzeByRule(context);
+                    result.setStatus(deadlineStatus(result.getStatus()));
+                    return onSector.apply(result);
+                }
+                log.error("SectorAgent执行失败", ex);
+                return onSector.apply(SectorHeat.empty("execution_error"));
+            });
+            TrendSignal trend = DeadlineScope.resultOr(trendTask, ex -> {
+                if (ex instanceof TimeoutException) {
+                    TrendSignal result = trendAgent.analyzeByRule(context);
+                    result.setStatus(deadlineStatus(result.getStatus()));
+                    return onTrend.apply(result);
+                }
+                log.error("TrendAgent执行失败", ex);
+                return onTrend.apply(TrendSignal.empty("execution_error"));
+            });
+            return new AgentResults(policy, sector, trend);
+        }
+    }
+
+    /**
+     * SynthesisAgent综合研判，到达端到端截止时间时中断并降级为规则合成
+     *
+     * @param fieldListener 研判字段监听器，可为 null
+     */
+    private SynthesisResult runSynthesis(RetrievalResult retrieval, AgentResults agents, AnalysisQuery query,
+                                         AnalysisDeadline deadline, StreamFieldListener fieldListener) {
+        SynthesisInput synthesisInput = SynthesisInput.builder()
+            .retrievalResult(retrieval)
+            .policyImpact(agents.policy())
+            .sectorHeat(agents.sector())
+            .trendSignal(agents.trend())
+            .query(query)
+            .build();
+
+        try (DeadlineScope scope = new DeadlineScope(executor)) {
+            Future<SynthesisResult> synthesisTask = scope.fork(() -> synthesisAgent.analyze(synthesisInput, fieldListener));
+            if (!scope.joinUntil(deadline.synthesisDeadline())) {
+                log.warn("SynthesisAgent未在截止时间内完成，降级为规则合成，板块={}", query.getSectorName());
+            }
+            return DeadlineScope.resultOr(synthesisTask, ex -> {
+                SynthesisResult result = SynthesisResult.fallback(agents.policy(), agents.sector(), agents.trend());
+                if (ex instanceof TimeoutException) {
+                    result.setStatus(AnalysisStatus.degraded(AnalysisStatus.MSG_DEADLINE_EXCEEDED));
+                } else {
+                    log.error("SynthesisAgent执行失败", ex);
+                }
+                return result;
+            });
+        }
+    }
+
+    /**
+     * 计算本次请求的截止时间：请求指定的预算优先，否则使用配置的默认预算
+     */
+    private AnalysisDeadline startDeadline(AnalysisQuery query) {
+        Long budget = query.getBudgetMillis();
+        if (budget == null) {
+            if (!Boolean.TRUE.equals(deadlineConfig.getEnabled())) {
+                return AnalysisDeadline.unbounded();
+            }
+            budget = deadlineConfig.getBudgetMillis();
+        }
+        return AnalysisDeadline.start(budget, deadlineConfig.getRetrievalRatio(), deadlineConfig.getAgentRatio());
+    }
+
+    /**
+     * 超时降级状态：规则分析的临时状态改为超时降级，无数据等已确定的状态保持不变
+     */
+    private static AnalysisStatus deadlineStatus(AnalysisStatus ruleStatus) {
+        return ruleStatus != null && ruleStatus.isProvisional()
+            ? AnalysisStatus.degraded(AnalysisStatus.MSG_DEADLINE_EXCEEDED)
+            : ruleStatus;
+    }
+
+    /** 三个子Agent的结果 */
+    private record AgentResults(PolicyImpact policy, SectorHeat sector, TrendSignal trend) {
+    }
+
+    /**
+     * 渐进式报告状态
+     *
+     * 持有各维度的最新结果，任一维度更新后重新组装报告并推送；加锁保证推送的报告按更新顺序单调升级
+     * 综合研判的流式字段叠加在当前规则合成之上推送，最终报告推送后不再接受任何更新
+     */
+    private final class ProgressiveReport {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final AnalysisQuery query;
+        private final RetrievalResult retrieval;
+        private final ReportUpdateListener listener;
+        private PolicyImpact policy;
+        private SectorHeat sector;
+        private TrendSignal trend;
+        /** 综合研判流式生成中已到达的字段，首个字段到达前为 null */
+        private SynthesisResult streamingSynthesis;
+        private boolean completed;
+
+        private ProgressiveReport(AnalysisQuery query, RetrievalResult retrieval, ReportUpdateListener listener,
+                                  PolicyImpact policy, SectorHeat sector, TrendSignal trend) {
+            this.query = query;
+            this.retrieval = retrieval;
+            this.listener = listener;
+            this.policy = policy;
+            this.sector = sector;
+            this.trend = trend;
+        }
+
+        AnalysisReport snapshot() {
+            lock.lock();
+            try {
+                return assemble(provisionalSynthesis());
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        PolicyImpact updatePolicy(PolicyImpact result) {
+            lock.lock();
+            try {
+                policy = result;
+                publish(AgentType.POLICY, result.getStatus(), false, provisionalSynthesis());
+            } finally {
+                lock.unlock();
+            }
+            return result;
+        }
+
+        SectorHeat updateSector(SectorHeat result) {
+            lock.lock();
+            try {
+                sector = result;
+                publish(AgentType.SECTOR, result.getStatus(), false, provisionalSynthesis());
+            } finally {
+                lock.unlock();
+            }
+            return result;
+        }
+
+        TrendSignal updateTrend(TrendSignal result) {
+            lock.lock();
+            try {
+                trend = result;
+                publish(AgentType.TREND, result.getStatus(), false, provisionalSynthesis());
+            } finally {
+                lock.unlock();
+            }
+            return result;
+        }
+
+        /**
+         * 综合研判字段到达：叠加到临时综合研判并推送，无法识别的字段或取值忽略
+         * <p>
+         * 回调中抛出异常会中止生成，因此推送失败只记录日志
+         */
+        void onSynthesisField(String name, Object value) {
+            lock.lock();
+            try {
+                if (completed) {
+                    return;
+                }
+                SynthesisResult result = streamingSynthesis != null ? streamingSynthesis : provisionalSynthesis();
+                if (!applySynthesisField(result, name, value)) {
+                    return;
+                }
+                streamingSynthesis = result;
+                publish(AgentType.SYNTHESIS, result.getStatus(), false, result);
+            } catch (RuntimeException e) {
+                log.warn("综合研判字段推送失败，字段={}", name, e);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * 推送最终报告
+         *
+         * @param synthesis 综合研判结果，为 null 时使用当前各维度的规则合成
+         */
+        void complete(SynthesisResult synthesis) {
+            lock.lock();
+            try {
+                if (completed) {
+                    return;
+                }
+                completed = true;
+                SynthesisResult result = synthesis != null ? synthesis : SynthesisResult.fallback(policy, sector, trend);
+                publish(AgentType.SYNTHESIS, result.getStatus(), true, result);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /** 子Agent未全部完成前，综合研判为当前结果的规则合成 */
+        private SynthesisResult provisionalSynthesis() {
+            SynthesisResult result = SynthesisResult.fallback(policy, sector, trend);
+            result.setStatus(AnalysisStatus.provisional());
+            return result;
+        }
+
+        /**
+         * 将单个研判字段写入结果
+         *
+         * @return 字段被识别且取值有效时返回 true
+         */
+        private static boolean applySynthesisField(SynthesisResult result, String name, Object value) {
+            switch (name) {
+                case "overallRating" -> {
+                    if (!(value instanceof String rating)) {
+                        return false;
+                    }
+                    try {
+                        result.setOverallRating(OverallRating.valueOf(rating));
+                    } catch (IllegalArgumentException e) {
+                        return false;
+                    }
+                }
+                case "overallScore" -> {
+                    if (!(value instanceof Number score)) {
+                        return false;
+                    }
+                    result.setOverallScore(Math.max(0, Math.min(100, score.intValue())));
+                }
+                case "crossDimensionInsights" -> {
+                    if (!(value instanceof Collection<?> insights)) {
+                        return false;
+                    }
+                    List<String> texts = insights.stream()
+                        .filter(insight -> insight != null && !insight.toString().isBlank())
+                        .map(Object::toString)
+                        .toList();
+                    result.setCrossDimensionInsights(texts);
+                }
+                case "summary" -> {
+                    if (!(value instanceof String summary) || summary.isBlank()) {
+                        return false;
+                    }
+                    result.setSummary(summary);
+                }
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private AnalysisReport assemble(SynthesisResult synthesis) {
+            return reportGenerator.generate(query, retrieval, policy, sector, trend, synthesis);
+        }
+
+        private void publish(AgentType section, AnalysisStatus status, boolean complete, SynthesisResult synthesis) {
+            try {
+                listener.onUpdate(new ReportUpdate(section, status, complete, assemble(synthesis)));
+            } catch (Exception e) {
+                log.warn("报告更新回调失败，维度={}", section, e);
+            }
+        }
+    }
 }
@@ -0,0 +1,76 @@
+package com.ershi.aspider.analysis.orchestration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分析请求截止时间
+ *
+ * 以 {@link System#nanoTime()} 为基准的三个累计截止点：检索 ≤ 子Agent ≤ 综合研判（即端到端截止）
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+final class AnalysisDeadline {
+
+    /** 无截止时间 */
+    private static final long UNBOUNDED = Long.MAX_VALUE;
+
+    private final long retrievalDeadline;
+
+    private final long agentDeadline;
+
+    private final long synthesisDeadline;
+
+    private AnalysisDeadline(long retrievalDeadline, long agentDeadline, long synthesisDeadline) {
+        this.retrievalDeadline = retrievalDeadline;
+        this.agentDeadline = agentDeadline;
+        this.synthesisDeadline = synthesisDeadline;
+    }
+
+    /**
+     * 从当前时刻开始计算截止点
+     *
+     * @param budgetMillis   端到端预算（毫秒）
+     * @param retrievalRatio 检索阶段占比
+     * @param agentRatio     子Agent阶段占比
+     */
+    static AnalysisDeadline start(long budgetMillis, double retrievalRatio, double agentRatio) {
+        long start = System.nanoTime();
+        long budget = budgetMillis * 1_000_000L;
+        return new AnalysisDeadline(
+            start + (long) (budget * retrievalRatio),
+            start + (long) (budget * (retrievalRatio + agentRatio)),
+            start + budget);
+    }
+
+    static AnalysisDeadline unbounded() {
+        return new AnalysisDeadline(UNBOUNDED, UNBOUNDED, UNBOUNDED);
+    }
+
+    /**
+     * 检索阶段超时毫秒数（无截止时间时为 0，表示不限时；已过期时至少为 1）
+     */
+    long retrievalTimeoutMillis() {
+        if (retrievalDeadline == UNBOUNDED) {
+            return 0;
+        }
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining(retrievalDeadline)));
+    }
+
+    /** 子Agent阶段截止点 */
+    long agentDeadline() {
+        return agentDeadline;
+    }
+
+    /** 综合研判阶段截止点 */
+    long synthesisDeadline() {
+        return synthesisDeadline;
+    }
+
+    /**
+     * 距截止点的剩余纳秒（已过期时为负数，无截止时间时为 Long.MAX_VALUE）
+     */
+    static long remaining(long deadline) {
+        return deadline == UNBOUNDED ? UNBOUNDED : deadline - System.nanoTime();
+    }
+}
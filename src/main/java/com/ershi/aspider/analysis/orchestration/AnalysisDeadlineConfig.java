@@ -0,0 +1,32 @@
+package com.ershi.aspider.analysis.orchestration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 分析请求截止时间配置
+ *
+ * 端到端预算按比例切分为检索、子Agent、综合研判三个阶段的截止点；
+ * 截止点为累计值，前一阶段提前完成时剩余时间自动顺延给后续阶段
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "analysis.deadline")
+public class AnalysisDeadlineConfig {
+
+    /** 是否启用截止时间（关闭时无限等待） */
+    private Boolean enabled = true;
+
+    /** 端到端预算（毫秒），请求未指定 budgetMillis 时使用 */
+    private Long budgetMillis = 60_000L;
+
+    /** 检索阶段占比 */
+    private Double retrievalRatio = 0.2;
+
+    /** 子Agent阶段占比（剩余部分归综合研判） */
+    private Double agentRatio = 0.5;
+}
@@ -0,0 +1,105 @@
+package com.ershi.aspider.analysis.orchestration;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * 带截止时间的结构化任务作用域
+ *
+ * 子任务在作用域内派生，{@link #joinUntil(long)} 等待全部完成或到达截止点；
+ * 到达截止点（或作用域关闭）时中断取消所有未完成的子任务，子任务不会脱离作用域继续运行。
+ * 虚拟线程上阻塞的 Socket 读写可被中断，挂起的LLM调用随之终止
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@Slf4j
+final class DeadlineScope implements AutoCloseable {
+
+    private final Executor executor;
+
+    private final List<FutureTask<?>> tasks = new ArrayList<>();
+
+    DeadlineScope(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * 派生子任务
+     */
+    <T> Future<T> fork(Callable<T> callable) {
+        FutureTask<T> task = new FutureTask<>(callable);
+        tasks.add(task);
+        executor.execute(task);
+        return task;
+    }
+
+    /**
+     * 等待全部子任务完成，到达截止点时取消未完成的子任务
+     *
+     * @param deadline 截止点（{@link System#nanoTime()} 基准）
+     * @return 全部子任务是否在截止点前完成
+     */
+    boolean joinUntil(long deadline) {
+        boolean allDone = true;
+        for (FutureTask<?> task : tasks) {
+            try {
+                task.get(Math.max(AnalysisDeadline.remaining(deadline), 0), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException | CancellationException e) {
+                // 单个子任务的失败由 resultOr 处理
+            } catch (TimeoutException e) {
+                allDone = false;
+                break;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                allDone = false;
+                break;
+            }
+        }
+        cancelPending();
+        return allDone;
+    }
+
+    /**
+     * 获取子任务结果，未完成（已被取消）或执行失败时使用降级结果
+     *
+     * @param fallback 降级结果，参数为失败原因（超时取消时为 {@link TimeoutException}）
+     */
+    static <T> T resultOr(Future<T> task, Function<Throwable, T> fallback) {
+        if (task.isCancelled() || !task.isDone()) {
+            return fallback.apply(new TimeoutException("已到达截止时间"));
+        }
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            return fallback.apply(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return fallback.apply(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        cancelPending();
+    }
+
+    private void cancelPending() {
+        for (FutureTask<?> task : tasks) {
+            if (!task.isDone() && task.cancel(true)) {
+                log.warn("子任务已到达截止时间，已中断取消");
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.ershi.aspider.analysis.orchestration;
+
+import com.ershi.aspider.analysis.agent.domain.AgentType;
+import com.ershi.aspider.analysis.agent.domain.AnalysisStatus;
+import com.ershi.aspider.analysis.report.domain.AnalysisReport;
+
+/**
+ * 渐进式报告更新
+ *
+ * @param section  本次升级的分析维度
+ * @param status   该维度的分析状态（PROVISIONAL 为规则引擎临时结果，其余为最终结果）
+ * @param complete 是否为最后一次更新（综合研判已完成，报告不再变化）
+ * @param report   按当前各维度最新结果重新组装的完整报告
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public record ReportUpdate(AgentType section, AnalysisStatus status, boolean complete, AnalysisReport report) {
+
+    /** 该维度是否已是最终结果 */
+    public boolean isFinal() {
+        return status == null || !status.isProvisional();
+    }
+}
@@ -0,0 +1,18 @@
+package com.ershi.aspider.analysis.orchestration;
+
+/**
+ * 渐进式报告更新监听器
+ *
+ * 在执行Agent的线程上回调，实现方应尽快返回；回调抛出的异常只记录日志，不影响后续更新
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@FunctionalInterface
+public interface ReportUpdateListener {
+
+    /**
+     * 某一维度完成LLM分析（或降级）后回调
+     */
+    void onUpdate(ReportUpdate update);
+}
@@ -16,6 +16,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 分析检索门面
@@ -50,6 +51,19 @@ public class AnalysisRetriever {
      * @return 综合检索结果
      */
     public RetrievalResult retrieve(AnalysisQuery query) {
+        return retrieve(query, 0);
+    }
+
+    /**
+     * 统一检索入口（带超时）
+     * <p>
+     * 超时未返回的检索项按检索失败处理，返回空结果，由下游Agent降级。
+     *
+     * @param query         分析查询请求
+     * @param timeoutMillis 超时时间（毫秒），不大于 0 时不限时
+     * @return 综合检索结果
+     */
+    public RetrievalResult retrieve(AnalysisQuery query, long timeoutMillis) {
         AnalysisQuery safeQuery = query != null ? query : new AnalysisQuery();
         log.info("开始综合检索，板块={}, 日期={}", safeQuery.getSectorName(), safeQuery.getTradeDate());
 
@@ -57,14 +71,20 @@ public class AnalysisRetriever {
 
         // 并行执行检索
         CompletableFuture<NewsRetrievalResult> newsFuture = CompletableFuture
-            .supplyAsync(() -> newsRetriever.retrieve(safeQuery), executor)
+            .supplyAsync(() -> newsRetriever.retrieve(safeQuery), executor);
+        CompletableFuture<SectorDataResult> sectorFuture = CompletableFuture
+            .supplyAsync(() -> sectorDataRetriever.retrieve(safeQuery), executor);
+        if (timeoutMillis > 0) {
+            newsFuture = newsFuture.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+            sectorFuture = sectorFuture.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+        newsFuture = newsFuture
             .exceptionally(ex -> {
                 log.error("新闻检索失败", ex);
                 return emptyNewsResult();
             });
 
-        CompletableFuture<SectorDataResult> sectorFuture = CompletableFuture
-            .supplyAsync(() -> sectorDataRetriever.retrieve(safeQuery), executor)
+        sectorFuture = sectorFuture
             .exceptionally(ex -> {
                 log.error("板块数据检索失败", ex);
                 return emptySectorResult();
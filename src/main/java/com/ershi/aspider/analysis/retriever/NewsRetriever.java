@@ -8,7 +8,10 @@ import com.ershi.aspider.analysis.summary.SummaryFallbackService;
 import com.ershi.aspider.data.datasource.domain.FinancialArticle;
 import com.ershi.aspider.data.datasource.domain.NewsTypeEnum;
 import com.ershi.aspider.data.embedding.service.EmbeddingService;
-import com.ershi.aspider.data.storage.elasticsearch.service.FinancialArticleStorageService;
+import com.ershi.aspider.data.storage.memory.ArticleQueryCache;
+import com.ershi.aspider.data.storage.memory.SectorDirectoryCache;
+import com.ershi.aspider.data.storage.memory.SectorEntry;
+import com.ershi.aspider.data.storage.repository.FinancialArticleRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -19,12 +22,17 @@ import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
 /**
  * 新闻检索器
  * <p>
  * 综合混合检索（语义+关键词）、政策类新闻过滤、高重要性新闻过滤三种检索源，
- * 合并去重后按相关性评分降序返回结果。
+ * 三个检索源并发执行，合并去重后按相关性评分降序返回结果。
+ * 政策类与高重要性检索与板块无关，结果经 {@link ArticleQueryCache} 在并发分析间共享查询，
+ * 每次检索拿到各自的文章副本，摘要兜底写入副本，不影响缓存与其他分析。
  *
  * @author Ershi-Gu
  */
@@ -46,16 +54,25 @@ public class NewsRetriever implements DataRetriever<AnalysisQuery, NewsRetrieval
     /** 排名衰减因子：每下降一位扣减的分数 */
     private static final double RANK_DECAY = 0.01;
 
-    private final FinancialArticleStorageService storageService;
+    private final FinancialArticleRepository storageService;
     private final EmbeddingService embeddingService;
     private final SummaryFallbackService summaryFallbackService;
+    private final SectorDirectoryCache sectorDirectory;
+    private final ArticleQueryCache articleQueryCache;
+    private final Executor executor;
 
-    public NewsRetriever(FinancialArticleStorageService storageService,
+    public NewsRetriever(FinancialArticleRepository storageService,
                          EmbeddingService embeddingService,
-                         SummaryFallbackService summaryFallbackService) {
+                         SummaryFallbackService summaryFallbackService,
+                         SectorDirectoryCache sectorDirectory,
+                         ArticleQueryCache articleQueryCache,
+                         Executor aspiderVirtualExecutor) {
         this.storageService = storageService;
         this.embeddingService = embeddingService;
         this.summaryFallbackService = summaryFallbackService;
+        this.sectorDirectory = sectorDirectory;
+        this.articleQueryCache = articleQueryCache;
+        this.executor = aspiderVirtualExecutor;
     }
 
     @Override
@@ -67,12 +84,18 @@ public class NewsRetriever implements DataRetriever<AnalysisQuery, NewsRetrieval
 
         log.info("开始新闻检索，查询词={}, 天数={}, topK={}", queryText, days, topK);
 
-        // 多源检索
-        List<RetrievedArticle> sectorArticles = queryText == null
-            ? Collections.emptyList()
-            : retrieveBySectorName(queryText, days, topK);
-        List<RetrievedArticle> policyArticles = retrievePolicyNews(days, topK);
-        List<RetrievedArticle> importantArticles = retrieveImportantNews(DEFAULT_MIN_IMPORTANCE, days, topK);
+        // 多源并发检索：过滤查询不依赖查询向量，与向量化 + 混合检索同时进行，耗时取两者较大值
+        CompletableFuture<List<RetrievedArticle>> sectorFuture = queryText == null
+            ? CompletableFuture.completedFuture(Collections.emptyList())
+            : supplySource("混合检索", () -> retrieveBySectorName(queryText, days, topK));
+        CompletableFuture<List<RetrievedArticle>> policyFuture =
+            supplySource("政策新闻检索", () -> retrievePolicyNews(days, topK));
+        CompletableFuture<List<RetrievedArticle>> importantFuture =
+            supplySource("重要新闻检索", () -> retrieveImportantNews(DEFAULT_MIN_IMPORTANCE, days, topK));
+
+        List<RetrievedArticle> sectorArticles = sectorFuture.join();
+        List<RetrievedArticle> policyArticles = policyFuture.join();
+        List<RetrievedArticle> importantArticles = importantFuture.join();
 
         int totalCandidates = sectorArticles.size() + policyArticles.size() + importantArticles.size();
 
@@ -91,6 +114,18 @@ public class NewsRetriever implements DataRetriever<AnalysisQuery, NewsRetrieval
         return result;
     }
 
+    /**
+     * 异步执行单个检索源，失败时记录日志并按空结果处理，不影响其他检索源
+     */
+    private CompletableFuture<List<RetrievedArticle>> supplySource(String sourceName,
+                                                                   Supplier<List<RetrievedArticle>> source) {
+        return CompletableFuture.supplyAsync(source, executor)
+            .exceptionally(ex -> {
+                log.error("{}失败，按空结果处理", sourceName, ex);
+                return Collections.emptyList();
+            });
+    }
+
     /**
      * 按板块名称进行混合语义检索
      *
@@ -117,7 +152,8 @@ public class NewsRetriever implements DataRetriever<AnalysisQuery, NewsRetrieval
      * 检索政策类新闻
      */
     public List<RetrievedArticle> retrievePolicyNews(int days, int topK) {
-        List<FinancialArticle> articles = storageService.findByNewsTypeAndDays(NewsTypeEnum.POLICY, days, topK);
+        List<FinancialArticle> articles = articleQueryCache.getOrLoad("policy:" + days + ":" + topK,
+            () -> storageService.findByNewsTypeAndDays(NewsTypeEnum.POLICY, days, topK));
         return toRetrievedArticles(articles, RetrievalSource.TYPE_FILTER, POLICY_BASE_SCORE);
     }
 
@@ -125,7 +161,9 @@ public class NewsRetriever implements DataRetriever<AnalysisQuery, NewsRetrieval
      * 检索高重要性新闻
      */
     public List<RetrievedArticle> retrieveImportantNews(int minImportance, int days, int topK) {
-        List<FinancialArticle> articles = storageService.findByImportanceAndDays(minImportance, days, topK);
+        List<FinancialArticle> articles = articleQueryCache.getOrLoad(
+            "importance:" + minImportance + ":" + days + ":" + topK,
+            () -> storageService.findByImportanceAndDays(minImportance, days, topK));
         return toRetrievedArticles(articles, RetrievalSource.IMPORTANCE_FILTER, IMPORTANT_BASE_SCORE);
     }
 
@@ -206,13 +244,14 @@ public class NewsRetriever implements DataRetriever<AnalysisQuery, NewsRetrieval
         return result;
     }
 
-    /** 优先使用板块名称作为查询词，其次使用板块代码 */
+    /** 优先使用板块名称作为查询词，其次由板块目录将板块代码换成名称，目录未收录时直接使用代码 */
     private String resolveQueryText(AnalysisQuery query) {
         if (query.getSectorName() != null && !query.getSectorName().isBlank()) {
             return query.getSectorName();
         }
         if (query.getSectorCode() != null && !query.getSectorCode().isBlank()) {
-            return query.getSectorCode();
+            SectorEntry entry = sectorDirectory.findByCode(query.getSectorCode());
+            return entry != null ? entry.sectorName() : query.getSectorCode();
         }
         return null;
     }
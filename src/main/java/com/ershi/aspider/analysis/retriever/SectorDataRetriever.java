@@ -4,23 +4,36 @@ import com.ershi.aspider.analysis.retriever.domain.AnalysisQuery;
 import com.ershi.aspider.analysis.retriever.domain.SectorDataResult;
 import com.ershi.aspider.analysis.retriever.domain.enums.TrendDirection;
 import com.ershi.aspider.analysis.retriever.domain.TrendIndicator;
+import com.ershi.aspider.data.datasource.domain.CompactMoneyFlow;
+import com.ershi.aspider.data.datasource.domain.FixedPoint;
 import com.ershi.aspider.data.datasource.domain.SectorMoneyFlow;
 import com.ershi.aspider.data.datasource.domain.SectorQuote;
-import com.ershi.aspider.data.storage.elasticsearch.service.SectorMoneyFlowStorageService;
-import com.ershi.aspider.data.storage.elasticsearch.service.SectorQuoteStorageService;
+import com.ershi.aspider.data.storage.memory.MarketSnapshot;
+import com.ershi.aspider.data.storage.memory.MarketSnapshotCache;
+import com.ershi.aspider.data.storage.memory.SectorDirectoryCache;
+import com.ershi.aspider.data.storage.memory.SectorEntry;
+import com.ershi.aspider.data.storage.repository.SectorMoneyFlowRepository;
+import com.ershi.aspider.data.storage.repository.SectorQuoteRepository;
+import com.ershi.aspider.data.storage.timeseries.MoneyFlowColumn;
+import com.ershi.aspider.data.storage.timeseries.SectorTimeSeriesStore;
+import com.ershi.aspider.data.storage.timeseries.SectorWindow;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * 板块数据检索器
  * <p>
  * 获取指定板块的资金流向、行情数据，并计算趋势指标。
+ * 先通过板块目录把名称解析为代码，从全市场快照读取当日资金流向、排名、总数，再并发查询近N日资金流向与当日行情，
+ * 检索耗时约为一次存储往返。
  *
  * @author Ershi-Gu
  */
@@ -37,13 +50,25 @@ public class SectorDataRetriever implements DataRetriever<AnalysisQuery, SectorD
     private static final double DOWN_THRESHOLD = -0.3;
     private static final double STRONG_DOWN_THRESHOLD = -2.0;
 
-    private final SectorMoneyFlowStorageService moneyFlowStorage;
-    private final SectorQuoteStorageService quoteStorage;
-
-    public SectorDataRetriever(SectorMoneyFlowStorageService moneyFlowStorage,
-                               SectorQuoteStorageService quoteStorage) {
+    private final SectorMoneyFlowRepository moneyFlowStorage;
+    private final SectorQuoteRepository quoteStorage;
+    private final SectorTimeSeriesStore timeSeriesStore;
+    private final MarketSnapshotCache marketSnapshotCache;
+    private final SectorDirectoryCache sectorDirectory;
+    private final Executor executor;
+
+    public SectorDataRetriever(SectorMoneyFlowRepository moneyFlowStorage,
+                               SectorQuoteRepository quoteStorage,
+                               SectorTimeSeriesStore timeSeriesStore,
+                               MarketSnapshotCache marketSnapshotCache,
+                               SectorDirectoryCache sectorDirectory,
+                               Executor aspiderVirtualExecutor) {
         this.moneyFlowStorage = moneyFlowStorage;
         this.quoteStorage = quoteStorage;
+        this.timeSeriesStore = timeSeriesStore;
+        this.marketSnapshotCache = marketSnapshotCache;
+        this.sectorDirectory = sectorDirectory;
+        this.executor = aspiderVirtualExecutor;
     }
 
     @Override
@@ -56,38 +81,39 @@ public class SectorDataRetriever implements DataRetriever<AnalysisQuery, SectorD
 
         log.info("开始板块数据检索，日期={}，板块代码={}，板块名称={}", tradeDate, sectorCode, sectorName);
 
-        // 获取当日资金流向
-        SectorMoneyFlow todayFlow = resolveTodayFlow(sectorCode, sectorName, tradeDate);
-
-        // 若通过名称找到了资金流向，提取板块代码用于后续查询
-        String resolvedCode = sectorCode;
-        if ((resolvedCode == null || resolvedCode.isBlank()) && todayFlow != null) {
-            resolvedCode = todayFlow.getSectorCode();
-        }
+        // 1. 先定位板块：未给出代码时由板块目录解析名称（精确/前缀/模糊），当日资金流向、排名、总数从全市场快照读取
+        String directoryCode = resolveSectorCode(sectorCode, sectorName);
+        MarketSnapshot snapshot = marketSnapshotCache.get(tradeDate);
+        SectorMoneyFlow todayFlow = resolveTodayFlow(snapshot, directoryCode, sectorName, tradeDate);
 
-        // 获取近N日资金流向（用于趋势分析）
-        List<SectorMoneyFlow> recentFlows = (resolvedCode == null || resolvedCode.isBlank())
-            ? Collections.emptyList()
-            : moneyFlowStorage.findRecentBySectorCode(resolvedCode, trendDays);
+        // 目录未收录时，从按名称找到的资金流向中提取板块代码用于后续查询
+        String resolvedCode = (directoryCode == null || directoryCode.isBlank()) && todayFlow != null
+            ? todayFlow.getSectorCode() : directoryCode;
 
-        // 获取当日行情
-        SectorQuote todayQuote = resolveTodayQuote(resolvedCode, sectorName, tradeDate);
+        // 2. 其余查询只依赖板块代码，并发执行：近N日资金流向（趋势分析）、当日行情
+        CompletableFuture<RecentFlows> recentFlowsFuture = CompletableFuture.supplyAsync(
+            () -> (resolvedCode == null || resolvedCode.isBlank()) ? RecentFlows.EMPTY
+                : findRecentFlows(resolvedCode, trendDays),
+            executor);
+        CompletableFuture<SectorQuote> todayQuoteFuture = CompletableFuture.supplyAsync(
+            () -> resolveTodayQuote(resolvedCode, sectorName, tradeDate), executor);
 
-        // 计算排名
-        int inflowRank = (resolvedCode == null || resolvedCode.isBlank())
-            ? -1
-            : moneyFlowStorage.calculateInflowRank(resolvedCode, tradeDate);
-        long totalSectors = moneyFlowStorage.countByTradeDate(tradeDate);
+        int inflowRank = snapshot.inflowRank(resolvedCode);
+        long totalSectors = snapshot.count();
+        RecentFlows recentFlows = recentFlowsFuture.join();
+        SectorQuote todayQuote = todayQuoteFuture.join();
 
         // 计算趋势指标
-        TrendIndicator trendIndicator = calculateTrendFromFlows(recentFlows);
+        TrendIndicator trendIndicator = calculateTrendFromFlows(recentFlows.compacts());
 
         log.info("板块数据检索完成，排名={}/{}, 连续流入天数={}", inflowRank, totalSectors,
                  trendIndicator.getConsecutiveInflowDays());
 
         SectorDataResult result = new SectorDataResult();
         result.setTodayFlow(todayFlow);
-        result.setRecentFlows(recentFlows);
+        // 快照构建时已换算定点数；按名称回查存储得到的资金流向由结果按需换算
+        result.setTodayCompactFlow(todayFlow != null ? snapshot.compactBySectorCode(todayFlow.getSectorCode()) : null);
+        result.setRecentFlows(recentFlows.flows());
         result.setTodayQuote(todayQuote);
         result.setInflowRank(inflowRank);
         result.setTotalSectors(totalSectors);
@@ -107,10 +133,11 @@ public class SectorDataRetriever implements DataRetriever<AnalysisQuery, SectorD
             return Collections.emptyList();
         }
         TopSectorType resolvedType = type != null ? type : TopSectorType.INFLOW;
+        MarketSnapshot snapshot = marketSnapshotCache.get(date);
         if (resolvedType == TopSectorType.CHANGE) {
-            return moneyFlowStorage.findTopByChangePercent(date, topN);
+            return snapshot.topByChange(topN);
         }
-        return moneyFlowStorage.findTopByMainNetInflow(date, topN);
+        return snapshot.topByInflow(topN);
     }
 
     /**
@@ -121,29 +148,48 @@ public class SectorDataRetriever implements DataRetriever<AnalysisQuery, SectorD
             return emptyTrend();
         }
         int trendDays = days > 0 ? days : DEFAULT_TREND_DAYS;
-        List<SectorMoneyFlow> recentFlows = moneyFlowStorage.findRecentBySectorCode(sectorCode, trendDays);
-        return calculateTrendFromFlows(recentFlows);
+        return calculateTrendFromFlows(findRecentFlows(sectorCode, trendDays).compacts());
     }
 
-    /** 根据板块代码或名称获取当日资金流向 */
-    private SectorMoneyFlow resolveTodayFlow(String sectorCode, String sectorName, LocalDate tradeDate) {
-        // 优先通过板块名称查询
-        if (sectorName != null && !sectorName.isBlank()) {
-            SectorMoneyFlow flow = moneyFlowStorage.findBySectorNameAndDate(sectorName, tradeDate);
-            if (flow != null) {
-                return flow;
+    /**
+     * 获取近N日资金流向及其定点数形式：时序列存储就绪时由同一次窗口读取生成两种视图，否则查询主存储并在加载时换算一次
+     */
+    private RecentFlows findRecentFlows(String sectorCode, int days) {
+        if (timeSeriesStore.isReady()) {
+            SectorWindow<MoneyFlowColumn> window = timeSeriesStore.moneyFlowWindow(sectorCode, LocalDate.now(), days);
+            if (!window.isEmpty()) {
+                return new RecentFlows(SectorTimeSeriesStore.toMoneyFlows(window),
+                    SectorTimeSeriesStore.toCompactFlows(window));
             }
         }
-        // 其次通过板块代码查询
+        List<SectorMoneyFlow> flows = moneyFlowStorage.findRecentBySectorCode(sectorCode, days);
+        return new RecentFlows(flows, flows.stream().filter(Objects::nonNull).map(CompactMoneyFlow::of).toList());
+    }
+
+    /** 解析板块代码：优先使用查询给出的代码，其次由板块目录按名称解析 */
+    private String resolveSectorCode(String sectorCode, String sectorName) {
         if (sectorCode != null && !sectorCode.isBlank()) {
-            List<SectorMoneyFlow> flows = moneyFlowStorage.findRecentBySectorCode(sectorCode, 1);
-            if (!flows.isEmpty()) {
-                SectorMoneyFlow flow = flows.get(0);
-                if (tradeDate.equals(flow.getTradeDate())) {
-                    return flow;
-                }
+            return sectorCode;
+        }
+        SectorEntry entry = sectorDirectory.resolve(sectorName);
+        return entry != null ? entry.sectorCode() : null;
+    }
+
+    /** 根据板块代码或名称获取当日资金流向（快照即当日全量数据，名称均未命中时再按名称全文查询存储） */
+    private SectorMoneyFlow resolveTodayFlow(MarketSnapshot snapshot, String sectorCode, String sectorName,
+                                             LocalDate tradeDate) {
+        // 优先通过板块代码查询
+        if (sectorCode != null && !sectorCode.isBlank()) {
+            SectorMoneyFlow flow = snapshot.findBySectorCode(sectorCode);
+            if (flow != null) {
+                return flow;
             }
         }
+        // 其次通过板块名称查询
+        if (sectorName != null && !sectorName.isBlank()) {
+            SectorMoneyFlow flow = snapshot.findBySectorName(sectorName);
+            return flow != null ? flow : moneyFlowStorage.findBySectorNameAndDate(sectorName, tradeDate);
+        }
         return null;
     }
 
@@ -173,37 +219,31 @@ public class SectorDataRetriever implements DataRetriever<AnalysisQuery, SectorD
         return null;
     }
 
-    /** 根据近N日资金流向计算趋势指标 */
-    private TrendIndicator calculateTrendFromFlows(List<SectorMoneyFlow> flows) {
+    /** 根据近N日资金流向计算趋势指标（定点数累加：金额单位分，涨跌幅单位基点） */
+    private TrendIndicator calculateTrendFromFlows(List<CompactMoneyFlow> flows) {
         if (flows == null || flows.isEmpty()) {
             return emptyTrend();
         }
 
-        double totalInflow = 0;
-        double totalChange = 0;
+        long totalInflow = 0;
+        long totalChange = 0;
         int changeCount = 0;
         int consecutive = 0;
         boolean counting = true;
 
-        for (SectorMoneyFlow flow : flows) {
-            if (flow == null) {
-                continue;
+        for (CompactMoneyFlow compact : flows) {
+            if (compact.hasMainNetInflow()) {
+                totalInflow += compact.mainNetInflow();
             }
 
-            BigDecimal inflow = flow.getMainNetInflow();
-            if (inflow != null) {
-                totalInflow += inflow.doubleValue();
-            }
-
-            BigDecimal changePercent = flow.getChangePercent();
-            if (changePercent != null) {
-                totalChange += changePercent.doubleValue();
+            if (compact.hasChangePercent()) {
+                totalChange += compact.changePercent();
                 changeCount++;
             }
 
             // 统计连续资金流入天数
             if (counting) {
-                if (inflow != null && inflow.compareTo(BigDecimal.ZERO) > 0) {
+                if (compact.hasMainNetInflow() && compact.mainNetInflow() > 0) {
                     consecutive++;
                 } else {
                     counting = false;
@@ -211,11 +251,12 @@ public class SectorDataRetriever implements DataRetriever<AnalysisQuery, SectorD
             }
         }
 
-        double avgChange = changeCount > 0 ? totalChange / changeCount : 0;
+        double avgChange = changeCount > 0
+            ? (double) totalChange / changeCount / FixedPoint.BP_PER_PERCENT : 0;
 
         TrendIndicator indicator = new TrendIndicator();
         indicator.setConsecutiveInflowDays(consecutive);
-        indicator.setTotalInflow(totalInflow);
+        indicator.setTotalInflow((double) totalInflow / FixedPoint.FEN_PER_YUAN);
         indicator.setAvgChangePercent(avgChange);
         indicator.setDirection(resolveDirection(avgChange, consecutive));
         return indicator;
@@ -247,6 +288,14 @@ public class SectorDataRetriever implements DataRetriever<AnalysisQuery, SectorD
         return TrendDirection.NEUTRAL;
     }
 
+    /**
+     * 近N日资金流向（报告展示）与对应的定点数形式（趋势计算），按交易日期倒序
+     */
+    private record RecentFlows(List<SectorMoneyFlow> flows, List<CompactMoneyFlow> compacts) {
+
+        static final RecentFlows EMPTY = new RecentFlows(List.of(), List.of());
+    }
+
     /** Top板块排序类型 */
     public enum TopSectorType {
         INFLOW,
@@ -45,4 +45,7 @@ public class AnalysisQuery {
 
     /** 分析类型 */
     private AnalysisType analysisType;
+
+    /** 端到端分析预算（毫秒），为空时使用 analysis.deadline.budget-millis */
+    private Long budgetMillis;
 }
@@ -1,5 +1,6 @@
 package com.ershi.aspider.analysis.retriever.domain;
 
+import com.ershi.aspider.data.datasource.domain.CompactMoneyFlow;
 import com.ershi.aspider.data.datasource.domain.SectorMoneyFlow;
 import com.ershi.aspider.data.datasource.domain.SectorQuote;
 import lombok.Data;
@@ -17,6 +18,9 @@ public class SectorDataResult {
     /** 当日资金流向 */
     private SectorMoneyFlow todayFlow;
 
+    /** 当日资金流向的定点数形式（由检索器从全市场快照取得，分析计算使用） */
+    private CompactMoneyFlow todayCompactFlow;
+
     /** 近N日资金流向（按日期降序） */
     private List<SectorMoneyFlow> recentFlows;
 
@@ -31,4 +35,22 @@ public class SectorDataResult {
 
     /** 趋势指标 */
     private TrendIndicator trendIndicator;
+
+    /**
+     * 设置当日资金流向（同时清除旧的定点数形式）
+     */
+    public void setTodayFlow(SectorMoneyFlow todayFlow) {
+        this.todayFlow = todayFlow;
+        this.todayCompactFlow = null;
+    }
+
+    /**
+     * 当日资金流向的定点数形式；未由检索器填充时（如手工构建的结果）按当日资金流向换算一次并保存
+     */
+    public CompactMoneyFlow getTodayCompactFlow() {
+        if (todayCompactFlow == null && todayFlow != null) {
+            todayCompactFlow = CompactMoneyFlow.of(todayFlow);
+        }
+        return todayCompactFlow;
+    }
 }
@@ -1,6 +1,7 @@
 package com.ershi.aspider.analysis.summary;
 
 import com.ershi.aspider.analysis.retriever.domain.RetrievedArticle;
+import com.ershi.aspider.common.llm.LlmPriority;
 import com.ershi.aspider.data.datasource.domain.FinancialArticle;
 import com.ershi.aspider.data.datasource.domain.SummarySourceEnum;
 import com.ershi.aspider.data.processor.summary.service.LLMSummaryService;
@@ -11,6 +12,7 @@ import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -18,7 +20,8 @@ import java.util.concurrent.atomic.AtomicInteger;
  * 分析阶段摘要兜底服务
  * <p>
  * 对检索到的TopK文章进行摘要质量检查，低质量摘要实时生成。
- * 支持内存缓存，避免重复调用LLM。
+ * 支持内存缓存，避免重复调用LLM；并发分析同时需要同一文章的摘要时，只调用一次LLM，其余等待其结果。
+ * 兜底摘要写入检索结果中的文章对象，调用方需保证该对象为本次分析独占（检索层返回副本）。
  *
  * @author Ershi-Gu
  */
@@ -32,6 +35,9 @@ public class SummaryFallbackService {
 
     private final Map<String, String> summaryCache = new ConcurrentHashMap<>();
 
+    /** 生成中的摘要，同一文章的并发请求共享一次LLM调用 */
+    private final Map<String, CompletableFuture<String>> pending = new ConcurrentHashMap<>();
+
     public SummaryFallbackService(SummaryFallbackConfig config,
                                    @Autowired(required = false) LLMSummaryService llmSummaryService) {
         this.config = config;
@@ -89,8 +95,7 @@ public class SummaryFallbackService {
 
         String cachedSummary = summaryCache.get(cacheKey);
         if (cachedSummary != null) {
-            article.setSummary(cachedSummary);
-            article.setSummarySource(SummarySourceEnum.ANALYSIS_LLM);
+            applySummary(article, cachedSummary);
             log.debug("使用缓存摘要：{}", article.getTitle());
             return;
         }
@@ -101,11 +106,24 @@ public class SummaryFallbackService {
             return;
         }
 
+        CompletableFuture<String> created = new CompletableFuture<>();
+        CompletableFuture<String> inFlight = pending.putIfAbsent(cacheKey, created);
+        if (inFlight != null) {
+            // 其他分析正在生成同一文章的摘要，等待其结果（失败时为 null，保留原摘要）
+            String shared = inFlight.join();
+            if (shared != null) {
+                applySummary(article, shared);
+                log.debug("使用并发生成的摘要：{}", article.getTitle());
+            }
+            return;
+        }
+
+        String generated = null;
         try {
-            String newSummary = llmSummaryService.generateSummary(content);
+            String newSummary = llmSummaryService.generateSummary(content, LlmPriority.INTERACTIVE);
             if (newSummary != null && !newSummary.trim().isEmpty()) {
-                article.setSummary(newSummary);
-                article.setSummarySource(SummarySourceEnum.ANALYSIS_LLM);
+                generated = newSummary;
+                applySummary(article, newSummary);
                 llmCount.incrementAndGet();
 
                 putCache(cacheKey, newSummary);
@@ -114,9 +132,17 @@ public class SummaryFallbackService {
             }
         } catch (Exception e) {
             log.warn("分析兜底摘要生成失败：{}", article.getTitle(), e);
+        } finally {
+            pending.remove(cacheKey, created);
+            created.complete(generated);
         }
     }
 
+    private static void applySummary(FinancialArticle article, String summary) {
+        article.setSummary(summary);
+        article.setSummarySource(SummarySourceEnum.ANALYSIS_LLM);
+    }
+
     /**
      * 生成缓存Key
      */
@@ -0,0 +1,281 @@
+package com.ershi.aspider.common.llm;
+
+import com.ershi.aspider.common.llm.config.AdaptiveConcurrencyConfig;
+import com.openai.core.http.Headers;
+import com.openai.errors.OpenAIServiceException;
+
+import java.io.InterruptedIOException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 自适应并发限制器（AIMD：加性增、乘性减）
+ * <p>
+ * 在并发已打满、延迟与错误率均健康的情况下，每完成约一个并发窗口的调用将上限加 1；
+ * 遇到限流（429/503）或超时时将上限按比例缩减，同一轮拥塞内只缩减一次。
+ * 调用方截止时间到达而被中断取消的调用不视为超时，不影响上限。
+ * 响应带有 Retry-After（或 retry-after-ms）时，在指定时间内暂停发起新调用。
+ * <p>
+ * 延迟基线为健康调用耗时的指数滑动平均；错误率同样按指数滑动平均统计。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    /** 调用结果分类（CANCELLED：调用方截止时间到达而中断，只释放并发，不计入延迟、错误率与拥塞） */
+    public enum Outcome {
+        SUCCESS, ERROR, RATE_LIMITED, TIMEOUT, CANCELLED
+    }
+
+    /** 延迟基线的平滑系数 */
+    private static final double LATENCY_ALPHA = 0.05;
+
+    /** 错误率的平滑系数 */
+    private static final double ERROR_ALPHA = 0.1;
+
+    /** 两次乘性缩减的最小间隔（在基线延迟未知时使用） */
+    private static final long MIN_CUT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /** 异常链最大检查深度 */
+    private static final int MAX_CAUSE_DEPTH = 10;
+
+    private final String name;
+
+    private final AdaptiveConcurrencyConfig config;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition released = lock.newCondition();
+
+    private double limit;
+
+    private int inflight;
+
+    /** Retry-After 暂停截止时间（nanoTime），0 表示未暂停 */
+    private long pausedUntil;
+
+    private double latencyBaselineNanos;
+
+    private double errorRate;
+
+    private long lastCutNanos;
+
+    private boolean cutBefore;
+
+    private final LongAdder rateLimited = new LongAdder();
+
+    private final LongAdder timeouts = new LongAdder();
+
+    public AdaptiveConcurrencyLimiter(String name, AdaptiveConcurrencyConfig config) {
+        this.name = name;
+        this.config = config;
+        this.limit = clamp(config.getInitialLimit());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 在并发上限内执行调用，按调用结果调整上限
+     */
+    public <T> T execute(Supplier<T> call) {
+        if (!Boolean.TRUE.equals(config.getEnabled())) {
+            return call.get();
+        }
+
+        acquire();
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            onComplete(Outcome.SUCCESS, System.nanoTime() - start, 0);
+            return result;
+        } catch (RuntimeException | Error e) {
+            onComplete(classify(e), System.nanoTime() - start, retryAfterNanos(e));
+            throw e;
+        }
+    }
+
+    /**
+     * 当前生效的并发上限
+     */
+    public int currentLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 并发统计快照
+     */
+    public AdaptiveLimitStats stats() {
+        lock.lock();
+        try {
+            return new AdaptiveLimitStats(name, (int) limit, inflight, rateLimited.sum(), timeouts.sum(),
+                latencyBaselineNanos / 1_000_000.0, errorRate);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void acquire() {
+        lock.lock();
+        try {
+            while (true) {
+                long now = System.nanoTime();
+                if (pausedUntil != 0 && now - pausedUntil < 0) {
+                    released.awaitNanos(pausedUntil - now);
+                } else if (inflight >= (int) limit) {
+                    released.await();
+                } else {
+                    inflight++;
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("等待[" + name + "]并发配额时被中断", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void onComplete(Outcome outcome, long latencyNanos, long retryAfterNanos) {
+        lock.lock();
+        try {
+            boolean saturated = inflight >= (int) limit;
+            inflight--;
+            long now = System.nanoTime();
+
+            if (outcome == Outcome.SUCCESS) {
+                errorRate *= 1 - ERROR_ALPHA;
+                boolean latencyHealthy = latencyBaselineNanos == 0
+                    || latencyNanos <= latencyBaselineNanos * config.getLatencyTolerance();
+                latencyBaselineNanos = latencyBaselineNanos == 0
+                    ? latencyNanos
+                    : latencyBaselineNanos + LATENCY_ALPHA * (latencyNanos - latencyBaselineNanos);
+                if (saturated && latencyHealthy && errorRate < config.getErrorRateThreshold()) {
+                    limit = Math.min(config.getMaxLimit(), limit + 1.0 / limit);
+                }
+            } else if (outcome != Outcome.CANCELLED) {
+                errorRate += ERROR_ALPHA * (1 - errorRate);
+                if (outcome == Outcome.RATE_LIMITED || outcome == Outcome.TIMEOUT) {
+                    if (outcome == Outcome.RATE_LIMITED) {
+                        rateLimited.increment();
+                    } else {
+                        timeouts.increment();
+                    }
+                    long cutInterval = Math.max(MIN_CUT_INTERVAL_NANOS, (long) latencyBaselineNanos);
+                    if (!cutBefore || now - lastCutNanos >= cutInterval) {
+                        limit = Math.max(config.getMinLimit(), limit * config.getBackoffRatio());
+                        lastCutNanos = now;
+                        cutBefore = true;
+                    }
+                }
+            }
+
+            if (retryAfterNanos > 0) {
+                long pause = Math.min(retryAfterNanos, TimeUnit.SECONDS.toNanos(config.getMaxRetryAfterSeconds()));
+                long until = now + pause;
+                if (pausedUntil == 0 || until - pausedUntil > 0) {
+                    pausedUntil = until;
+                }
+            }
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 按异常链分类调用结果：调用被中断取消为取消（需在调用线程上判断），429/503 为限流，
+     * 408/504 与各类超时异常为超时，其余为普通错误
+     */
+    static Outcome classify(Throwable error) {
+        if (LlmCancellation.isCancelled(error)) {
+            return Outcome.CANCELLED;
+        }
+        Throwable current = error;
+        for (int depth = 0; current != null && depth < MAX_CAUSE_DEPTH; depth++) {
+            if (current instanceof OpenAIServiceException serviceException) {
+                int status = serviceException.statusCode();
+                if (status == 429 || status == 503) {
+                    return Outcome.RATE_LIMITED;
+                }
+                if (status == 408 || status == 504) {
+                    return Outcome.TIMEOUT;
+                }
+                return Outcome.ERROR;
+            }
+            if (current instanceof InterruptedIOException || current instanceof HttpTimeoutException
+                || current instanceof TimeoutException) {
+                return Outcome.TIMEOUT;
+            }
+            current = current.getCause();
+        }
+        return Outcome.ERROR;
+    }
+
+    /**
+     * 从异常链中的服务端响应头解析 Retry-After，优先 retry-after-ms，其次 retry-after（秒数或 HTTP 日期）
+     *
+     * @return 需暂停的纳秒数，无此响应头返回 0
+     */
+    static long retryAfterNanos(Throwable error) {
+        Throwable current = error;
+        for (int depth = 0; current != null && depth < MAX_CAUSE_DEPTH; depth++) {
+            if (current instanceof OpenAIServiceException serviceException) {
+                return parseRetryAfter(serviceException.headers());
+            }
+            current = current.getCause();
+        }
+        return 0;
+    }
+
+    private static long parseRetryAfter(Headers headers) {
+        List<String> millis = headers.values("retry-after-ms");
+        if (!millis.isEmpty()) {
+            try {
+                return TimeUnit.MILLISECONDS.toNanos((long) Double.parseDouble(millis.getFirst().trim()));
+            } catch (NumberFormatException ignored) {
+                // 继续尝试 retry-after
+            }
+        }
+
+        List<String> values = headers.values("retry-after");
+        if (values.isEmpty()) {
+            return 0;
+        }
+        String value = values.getFirst().trim();
+        try {
+            return TimeUnit.MILLISECONDS.toNanos((long) (Double.parseDouble(value) * 1000));
+        } catch (NumberFormatException ignored) {
+            // HTTP 日期格式
+        }
+        try {
+            Duration wait = Duration.between(ZonedDateTime.now(),
+                ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME));
+            return Math.max(0, wait.toNanos());
+        } catch (DateTimeParseException e) {
+            return 0;
+        }
+    }
+
+    private double clamp(int value) {
+        return Math.max(config.getMinLimit(), Math.min(config.getMaxLimit(), value));
+    }
+}
@@ -0,0 +1,77 @@
+package com.ershi.aspider.common.llm;
+
+import com.ershi.aspider.common.llm.config.AdaptiveConcurrencyConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 自适应并发限制器注册表
+ * <p>
+ * 向量化、摘要生成、Agent 分析各自持有一个按名称区分的限制器，当前并发上限通过 {@link #stats()} 获取，
+ * 并在上限变化时输出到日志。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@Component
+public class AdaptiveConcurrencyRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveConcurrencyRegistry.class);
+
+    /** 向量化调用 */
+    public static final String EMBEDDING = "embedding";
+
+    /** 摘要生成调用 */
+    public static final String SUMMARY = "summary";
+
+    /** Agent 分析与综合研判调用 */
+    public static final String ANALYSIS = "analysis";
+
+    private final AdaptiveConcurrencyConfig config;
+
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    /** 上次输出日志时的各限制器上限 */
+    private final Map<String, Integer> lastLoggedLimits = new ConcurrentHashMap<>();
+
+    public AdaptiveConcurrencyRegistry(AdaptiveConcurrencyConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * 获取（或创建）指定名称的限制器
+     */
+    public AdaptiveConcurrencyLimiter get(String name) {
+        return limiters.computeIfAbsent(name, key -> new AdaptiveConcurrencyLimiter(key, config));
+    }
+
+    /**
+     * 全部限制器的实时统计
+     */
+    public List<AdaptiveLimitStats> stats() {
+        return limiters.values().stream()
+            .map(AdaptiveConcurrencyLimiter::stats)
+            .toList();
+    }
+
+    /**
+     * 定时输出并发上限（仅在上限变化时输出）
+     */
+    @Scheduled(cron = "0 * * * * ?")
+    public void logStats() {
+        for (AdaptiveLimitStats stats : stats()) {
+            Integer previous = lastLoggedLimits.put(stats.name(), stats.limit());
+            if (previous == null || previous != stats.limit()) {
+                log.info("自适应并发[{}]：上限{}，并发{}，限流{}次，超时{}次，延迟基线{}ms，错误率{}",
+                    stats.name(), stats.limit(), stats.inflight(), stats.rateLimited(), stats.timeouts(),
+                    String.format("%.0f", stats.latencyBaselineMs()), String.format("%.2f", stats.errorRate()));
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.ershi.aspider.common.llm;
+
+/**
+ * 自适应并发统计
+ *
+ * @param name              限制器名称
+ * @param limit             当前生效的并发上限
+ * @param inflight          当前并发数
+ * @param rateLimited       累计限流次数
+ * @param timeouts          累计超时次数
+ * @param latencyBaselineMs 延迟基线（毫秒）
+ * @param errorRate         错误率（指数滑动平均）
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public record AdaptiveLimitStats(String name, int limit, int inflight, long rateLimited, long timeouts,
+                                 double latencyBaselineMs, double errorRate) {
+}
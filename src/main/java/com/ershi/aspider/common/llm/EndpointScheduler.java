@@ -0,0 +1,273 @@
+package com.ershi.aspider.common.llm;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.EstimationProbe;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 单个端点的配额调度器
+ * <p>
+ * 以两个令牌桶分别约束每分钟请求数（RPM）与每分钟 token 数（TPM），未配置的维度不限制。等待中的调用按优先级通道排队，
+ * 同一通道内按调用方轮转（公平队列），任意时刻只有队首调用尝试获取配额，其余调用等待队首变化。
+ * 后台通道的调用需在扣除交互式预留后仍有余量时才能获取配额。
+ * <p>
+ * 令牌桶的扣减与校正均在锁内完成，保证本节点内"检查-扣减"的原子性；令牌桶保存在共享存储时，
+ * 各节点共享同一配额，跨节点的抢占由扣减结果兜底。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+final class EndpointScheduler {
+
+    /** 估算可扣减但实际扣减失败（被其他节点抢先）时的重试间隔 */
+    private static final long RETRY_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final String baseUrl;
+
+    private final Bucket requestBucket;
+
+    private final Bucket tokenBucket;
+
+    private final long tokenCapacity;
+
+    /** 后台通道需保留给交互式通道的请求数 */
+    private final long reservedRequests;
+
+    /** 后台通道需保留给交互式通道的 token 数 */
+    private final long reservedTokens;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition changed = lock.newCondition();
+
+    private final Map<LlmPriority, FairQueue> lanes = new EnumMap<>(LlmPriority.class);
+
+    EndpointScheduler(String baseUrl, int rpm, int tpm, int reservePercent) {
+        this(baseUrl,
+            Bucket.builder().addLimit(requestLimit(rpm)).build(),
+            Bucket.builder().addLimit(tokenLimit(tpm)).build(),
+            rpm, tpm, reservePercent);
+    }
+
+    /**
+     * @param requestBucket RPM 令牌桶，带宽需为 {@link #requestLimit}；为 null 时不限制请求数
+     * @param tokenBucket   TPM 令牌桶，带宽需为 {@link #tokenLimit}；为 null 时不限制 token 数
+     */
+    EndpointScheduler(String baseUrl, Bucket requestBucket, Bucket tokenBucket, int rpm, int tpm, int reservePercent) {
+        this.baseUrl = baseUrl;
+        this.requestBucket = requestBucket;
+        this.tokenBucket = tokenBucket;
+        this.tokenCapacity = tokenBucket != null ? tpm : Long.MAX_VALUE;
+        this.reservedRequests = requestBucket != null ? (long) rpm * reservePercent / 100 : 0;
+        this.reservedTokens = tokenBucket != null ? (long) tpm * reservePercent / 100 : 0;
+        for (LlmPriority priority : LlmPriority.values()) {
+            lanes.put(priority, new FairQueue());
+        }
+    }
+
+    String baseUrl() {
+        return baseUrl;
+    }
+
+    static Bandwidth requestLimit(int rpm) {
+        return Bandwidth.simple(rpm, Duration.ofMinutes(1));
+    }
+
+    static Bandwidth tokenLimit(int tpm) {
+        return Bandwidth.simple(tpm, Duration.ofMinutes(1));
+    }
+
+    /**
+     * 排队等待配额
+     *
+     * @param priority     优先级通道
+     * @param tenant       调用方标识
+     * @param tokens       预占 token 数（超过桶容量时按容量预占）
+     * @param maxWaitNanos 最长等待时间
+     * @return 实际预占的 token 数，调用完成后需通过 {@link #reconcile} 校正
+     * @throws TimeoutException 等待超时
+     */
+    long acquire(LlmPriority priority, String tenant, long tokens, long maxWaitNanos)
+        throws InterruptedException, TimeoutException {
+        Ticket ticket = new Ticket(tenant, Math.min(Math.max(tokens, 1), tokenCapacity));
+        long deadline = System.nanoTime() + maxWaitNanos;
+
+        lock.lock();
+        try {
+            lanes.get(priority).add(ticket);
+            while (true) {
+                long waitNanos = Long.MAX_VALUE;
+                if (head() == ticket) {
+                    waitNanos = tryGrant(priority, ticket.tokens);
+                    if (waitNanos == 0) {
+                        lanes.get(priority).remove(ticket);
+                        changed.signalAll();
+                        return ticket.tokens;
+                    }
+                }
+
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    lanes.get(priority).remove(ticket);
+                    changed.signalAll();
+                    throw new TimeoutException("LLM网关排队超时: " + baseUrl + "，通道=" + priority.getDesc());
+                }
+                try {
+                    changed.awaitNanos(Math.min(waitNanos, remaining));
+                } catch (InterruptedException e) {
+                    lanes.get(priority).remove(ticket);
+                    changed.signalAll();
+                    throw e;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 按实际用量校正预占的 token 数
+     */
+    void reconcile(long reserved, long actualTokens) {
+        long diff = actualTokens - reserved;
+        if (diff == 0 || tokenBucket == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (diff > 0) {
+                tokenBucket.consumeIgnoringRateLimits(diff);
+            } else {
+                tokenBucket.addTokens(-diff);
+                changed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 当前排队数
+     */
+    int waiting(LlmPriority priority) {
+        lock.lock();
+        try {
+            return lanes.get(priority).size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 尝试为队首调用扣减配额
+     *
+     * @return 0 表示已扣减；否则为预计需等待的纳秒数
+     */
+    private long tryGrant(LlmPriority priority, long tokens) {
+        boolean background = priority == LlmPriority.BACKGROUND;
+        long requestWait = waitNanos(requestBucket, 1 + (background ? reservedRequests : 0));
+        long tokenWait = waitNanos(tokenBucket, Math.min(tokens + (background ? reservedTokens : 0), tokenCapacity));
+        if (requestWait == 0 && tokenWait == 0) {
+            // 共享存储下其他节点可能在估算后抢先扣减，扣减失败时归还已扣的请求数并稍后重试
+            if (requestBucket != null && !requestBucket.tryConsume(1)) {
+                return RETRY_NANOS;
+            }
+            if (tokenBucket != null && !tokenBucket.tryConsume(tokens)) {
+                if (requestBucket != null) {
+                    requestBucket.addTokens(1);
+                }
+                return RETRY_NANOS;
+            }
+            return 0;
+        }
+        return Math.max(1, Math.max(requestWait, tokenWait));
+    }
+
+    /**
+     * 令牌桶可扣减指定数量前需等待的纳秒数，未限制（桶为 null）时为 0
+     */
+    private static long waitNanos(Bucket bucket, long amount) {
+        if (bucket == null) {
+            return 0;
+        }
+        EstimationProbe probe = bucket.estimateAbilityToConsume(amount);
+        return probe.canBeConsumed() ? 0 : probe.getNanosToWaitForRefill();
+    }
+
+    /** 高优先级通道优先，通道内按调用方轮转 */
+    private Ticket head() {
+        for (FairQueue lane : lanes.values()) {
+            Ticket ticket = lane.peek();
+            if (ticket != null) {
+                return ticket;
+            }
+        }
+        return null;
+    }
+
+    /** 排队中的调用 */
+    private static final class Ticket {
+
+        private final String tenant;
+
+        private final long tokens;
+
+        private Ticket(String tenant, long tokens) {
+            this.tenant = tenant;
+            this.tokens = tokens;
+        }
+    }
+
+    /**
+     * 按调用方轮转的公平队列：每个调用方一个 FIFO 队列，队首调用方获得配额后轮转到末尾
+     */
+    private static final class FairQueue {
+
+        private final Map<String, ArrayDeque<Ticket>> byTenant = new HashMap<>();
+
+        private final ArrayDeque<String> rotation = new ArrayDeque<>();
+
+        private int size;
+
+        void add(Ticket ticket) {
+            byTenant.computeIfAbsent(ticket.tenant, tenant -> {
+                rotation.addLast(tenant);
+                return new ArrayDeque<>();
+            }).addLast(ticket);
+            size++;
+        }
+
+        Ticket peek() {
+            String tenant = rotation.peekFirst();
+            return tenant != null ? byTenant.get(tenant).peekFirst() : null;
+        }
+
+        void remove(Ticket ticket) {
+            ArrayDeque<Ticket> queue = byTenant.get(ticket.tenant);
+            if (queue == null) {
+                return;
+            }
+            boolean wasHead = queue.peekFirst() == ticket && ticket.tenant.equals(rotation.peekFirst());
+            if (!queue.remove(ticket)) {
+                return;
+            }
+            size--;
+            if (queue.isEmpty()) {
+                byTenant.remove(ticket.tenant);
+                rotation.remove(ticket.tenant);
+            } else if (wasHead) {
+                rotation.addLast(rotation.pollFirst());
+            }
+        }
+    }
+}
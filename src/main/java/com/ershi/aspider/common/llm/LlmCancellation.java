@@ -0,0 +1,43 @@
+package com.ershi.aspider.common.llm;
+
+import java.nio.channels.ClosedByInterruptException;
+import java.util.concurrent.CancellationException;
+
+/**
+ * LLM调用取消判定
+ * <p>
+ * 分析请求到达截止时间时，未完成的调用被中断取消（{@code Future.cancel(true)}）。
+ * 这类失败由调用方的预算决定，与LLM端点是否健康无关，不应计入熔断统计或并发限制的拥塞信号。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public final class LlmCancellation {
+
+    /** 异常链最大检查深度 */
+    private static final int MAX_CAUSE_DEPTH = 10;
+
+    private LlmCancellation() {
+    }
+
+    /**
+     * 判断调用失败是否由取消引起：当前线程带中断标记，或异常链中含中断、取消异常
+     * <p>
+     * 需在失败调用所在的线程上判断。OkHttp 的调用超时同样以 InterruptedIOException 报告，
+     * 因此 InterruptedIOException 本身不视为取消，仅以线程的中断标记区分
+     */
+    public static boolean isCancelled(Throwable error) {
+        if (Thread.currentThread().isInterrupted()) {
+            return true;
+        }
+        Throwable current = error;
+        for (int depth = 0; current != null && depth < MAX_CAUSE_DEPTH; depth++) {
+            if (current instanceof InterruptedException || current instanceof CancellationException
+                || current instanceof ClosedByInterruptException) {
+                return true;
+            }
+            current = current.getCause();
+        }
+        return false;
+    }
+}
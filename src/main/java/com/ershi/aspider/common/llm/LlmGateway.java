@@ -0,0 +1,329 @@
+package com.ershi.aspider.common.llm;
+
+import com.ershi.aspider.common.llm.config.LlmGatewayConfig;
+import com.ershi.aspider.common.ratelimit.RateLimitBucketFactory;
+import com.openai.client.OpenAIClient;
+import com.openai.core.http.StreamResponse;
+import com.openai.models.ChatCompletion;
+import com.openai.models.ChatCompletionChunk;
+import com.openai.models.ChatCompletionCreateParams;
+import com.openai.models.CompletionUsage;
+import io.github.bucket4j.Bucket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 统一 LLM 网关
+ * <p>
+ * 摘要生成、Agent 分析与综合研判的全部 LLM 调用经由本网关发出，同一端点（API 根路径）共享 RPM / TPM 配额。
+ * 端点配额只取自 {@code llm.gateway.endpoints}，未配置的端点（或维度）不限流，直接调用。
+ * 调用方自身的 RPM 上限（如摘要服务的 rpm-limit）只约束该调用方的后台通道调用，不作为端点配额。
+ * 配额令牌桶由 {@link RateLimitBucketFactory} 创建，使用共享存储后端时 RPM / TPM 为集群总配额。
+ * 调用按优先级通道排队：交互式分析优先获得配额，采集入库的后台摘要只使用剩余配额；
+ * 同一通道内按调用方轮转，避免单一调用方占满通道。
+ * <p>
+ * TPM 按 Prompt 估算值加预期输出预占，调用完成后按响应中的实际用量校正。
+ * 各通道的排队耗时与超时次数通过 {@link #stats()} 获取，并定时输出到日志。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@Component
+public class LlmGateway {
+
+    private static final Logger log = LoggerFactory.getLogger(LlmGateway.class);
+
+    private static final String CHAT_COMPLETIONS_PATH = "/chat/completions";
+
+    private final LlmGatewayConfig config;
+
+    private final RateLimitBucketFactory bucketFactory;
+
+    private final Map<String, EndpointScheduler> schedulers = new ConcurrentHashMap<>();
+
+    /** 未配置配额的端点（直接调用） */
+    private final Set<String> unlimitedEndpoints = ConcurrentHashMap.newKeySet();
+
+    /** 调用方在后台通道的 RPM 上限 */
+    private final Map<String, Bucket> backgroundTenantLimits = new ConcurrentHashMap<>();
+
+    private final Map<LlmPriority, LaneMetrics> metrics = new EnumMap<>(LlmPriority.class);
+
+    /** 上次输出统计时的已授予调用数，用于跳过无调用的周期 */
+    private long lastLoggedGranted;
+
+    public LlmGateway(LlmGatewayConfig config, RateLimitBucketFactory bucketFactory) {
+        this.config = config;
+        this.bucketFactory = bucketFactory;
+        for (LlmPriority priority : LlmPriority.values()) {
+            metrics.put(priority, new LaneMetrics());
+        }
+    }
+
+    /**
+     * 限制调用方在后台通道的每分钟请求数，不影响其交互式调用与其他调用方
+     *
+     * @param tenant 调用方标识
+     * @param rpm    每分钟请求数
+     */
+    public void limitBackgroundTenant(String tenant, int rpm) {
+        backgroundTenantLimits.put(tenant,
+            bucketFactory.create("llm:tenant:" + tenant, EndpointScheduler.requestLimit(rpm)));
+        log.info("LLM网关登记调用方后台通道上限：{}，RPM={}", tenant, rpm);
+    }
+
+    /**
+     * 经网关发起对话补全调用
+     *
+     * @param client OpenAI 客户端
+     * @param route  路由信息（端点、优先级、调用方）
+     * @param prompt Prompt 文本，用于估算 token 数
+     * @param params 请求参数
+     * @return 补全结果
+     */
+    public ChatCompletion complete(OpenAIClient client, LlmRoute route, String prompt,
+                                   ChatCompletionCreateParams params) {
+        return complete(client, route, prompt, params, null);
+    }
+
+    /**
+     * 经网关发起对话补全调用，获得配额后在自适应并发上限内执行
+     *
+     * @param limiter 调用方的自适应并发限制器，为 null 时不限制并发
+     */
+    public ChatCompletion complete(OpenAIClient client, LlmRoute route, String prompt,
+                                   ChatCompletionCreateParams params, AdaptiveConcurrencyLimiter limiter) {
+        return submit(route, prompt, limiter,
+            () -> client.chat().completions().create(params),
+            completion -> completion.usage().map(CompletionUsage::totalTokens).orElse(null));
+    }
+
+    /**
+     * 经网关发起流式对话补全调用，逐段回调输出内容
+     * <p>
+     * 回调抛出异常时立即关闭流（中止生成）并向上抛出。请求参数需开启
+     * {@code stream_options.include_usage} 才能按实际用量校正 TPM，否则按预占值计。
+     *
+     * @param onDelta 增量内容回调
+     * @return 完整输出内容
+     */
+    public String completeStreaming(OpenAIClient client, LlmRoute route, String prompt,
+                                    ChatCompletionCreateParams params, AdaptiveConcurrencyLimiter limiter,
+                                    Consumer<String> onDelta) {
+        return submit(route, prompt, limiter,
+            () -> stream(client, params, onDelta),
+            StreamedCompletion::totalTokens).content();
+    }
+
+    /**
+     * 排队获取配额后执行调用，调用完成后按 usage 返回的实际 token 数校正 TPM
+     */
+    <T> T submit(LlmRoute route, String prompt, AdaptiveConcurrencyLimiter limiter,
+                 Supplier<T> request, Function<T, Long> usage) {
+        Supplier<T> call = limiter != null ? () -> limiter.execute(request) : request;
+        if (!Boolean.TRUE.equals(config.getEnabled())) {
+            return call.get();
+        }
+
+        EndpointScheduler scheduler = scheduler(route.baseUrl());
+        LaneMetrics lane = metrics.get(route.priority());
+        long estimated = TokenEstimator.estimate(prompt) + config.getExpectedCompletionTokens();
+
+        long reserved = 0;
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(config.getMaxQueueSeconds());
+        try {
+            awaitTenantLimit(route, deadline);
+            if (scheduler != null) {
+                reserved = scheduler.acquire(route.priority(), route.tenant(), estimated, deadline - System.nanoTime());
+            }
+        } catch (TimeoutException e) {
+            lane.timedOut.increment();
+            throw new RuntimeException(e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("等待LLM配额时被中断", e);
+        }
+        lane.record(System.nanoTime() - start);
+
+        if (scheduler == null) {
+            return call.get();
+        }
+        T result = null;
+        try {
+            result = call.get();
+            return result;
+        } finally {
+            Long actual = result != null ? usage.apply(result) : null;
+            scheduler.reconcile(reserved, actual != null ? actual : reserved);
+        }
+    }
+
+    private static StreamedCompletion stream(OpenAIClient client, ChatCompletionCreateParams params,
+                                             Consumer<String> onDelta) {
+        StringBuilder content = new StringBuilder();
+        Long totalTokens = null;
+        try (StreamResponse<ChatCompletionChunk> response = client.chat().completions().createStreaming(params)) {
+            Iterator<ChatCompletionChunk> chunks = response.stream().iterator();
+            while (chunks.hasNext()) {
+                ChatCompletionChunk chunk = chunks.next();
+                for (ChatCompletionChunk.Choice choice : chunk.choices()) {
+                    String delta = choice.delta().content().orElse("");
+                    if (!delta.isEmpty()) {
+                        content.append(delta);
+                        onDelta.accept(delta);
+                    }
+                }
+                Optional<CompletionUsage> usage = chunk.usage();
+                if (usage.isPresent()) {
+                    totalTokens = usage.get().totalTokens();
+                }
+            }
+        }
+        return new StreamedCompletion(content.toString(), totalTokens);
+    }
+
+    /**
+     * 各优先级通道的排队统计
+     */
+    public List<LlmLaneStats> stats() {
+        List<LlmLaneStats> result = new ArrayList<>();
+        for (LlmPriority priority : LlmPriority.values()) {
+            int waiting = 0;
+            for (EndpointScheduler scheduler : schedulers.values()) {
+                waiting += scheduler.waiting(priority);
+            }
+            result.add(metrics.get(priority).snapshot(priority, waiting));
+        }
+        return result;
+    }
+
+    /**
+     * 定时输出通道统计（无新调用时跳过）
+     */
+    @Scheduled(cron = "0 * * * * ?")
+    public void logStats() {
+        List<LlmLaneStats> stats = stats();
+        long granted = stats.stream().mapToLong(LlmLaneStats::granted).sum();
+        if (granted == lastLoggedGranted) {
+            return;
+        }
+        lastLoggedGranted = granted;
+        for (LlmLaneStats lane : stats) {
+            log.info("LLM网关[{}]通道：排队{}，已授予{}，超时{}，平均排队{}ms，最大排队{}ms",
+                lane.priority().getDesc(), lane.waiting(), lane.granted(), lane.timedOut(),
+                String.format("%.1f", lane.avgQueueMillis()), String.format("%.1f", lane.maxQueueMillis()));
+        }
+    }
+
+    /**
+     * 后台通道调用先占用调用方自身的 RPM 上限，等待不阻塞其他调用方的排队
+     */
+    private void awaitTenantLimit(LlmRoute route, long deadline) throws InterruptedException, TimeoutException {
+        Bucket limit = route.priority() == LlmPriority.BACKGROUND ? backgroundTenantLimits.get(route.tenant()) : null;
+        if (limit == null) {
+            return;
+        }
+        long remaining = deadline - System.nanoTime();
+        boolean granted = remaining > 0
+            ? limit.asBlocking().tryConsume(1, Duration.ofNanos(remaining))
+            : limit.tryConsume(1);
+        if (!granted) {
+            throw new TimeoutException("LLM网关排队超时: 调用方" + route.tenant() + "超出后台通道RPM上限");
+        }
+    }
+
+    /**
+     * 端点调度器，端点未配置配额时返回 null（不限流）
+     */
+    private EndpointScheduler scheduler(String baseUrl) {
+        String key = normalize(baseUrl);
+        EndpointScheduler existing = schedulers.get(key);
+        if (existing != null || unlimitedEndpoints.contains(key)) {
+            return existing;
+        }
+
+        LlmGatewayConfig.Endpoint endpoint = config.getEndpoints().stream()
+            .filter(e -> key.equals(normalize(e.getBaseUrl())))
+            .findFirst()
+            .orElse(null);
+        if (endpoint == null || (endpoint.getRpm() == null && endpoint.getTpm() == null)) {
+            if (unlimitedEndpoints.add(key)) {
+                log.info("LLM网关端点未配置配额，不限流：{}", key);
+            }
+            return null;
+        }
+        return schedulers.computeIfAbsent(key, k -> {
+            Integer rpm = endpoint.getRpm();
+            Integer tpm = endpoint.getTpm();
+            log.info("LLM网关登记端点：{}，RPM={}，TPM={}", k, rpm != null ? rpm : "不限", tpm != null ? tpm : "不限");
+            return new EndpointScheduler(k,
+                rpm != null ? bucketFactory.create("llm:rpm:" + k, EndpointScheduler.requestLimit(rpm)) : null,
+                tpm != null ? bucketFactory.create("llm:tpm:" + k, EndpointScheduler.tokenLimit(tpm)) : null,
+                rpm != null ? rpm : 0, tpm != null ? tpm : 0, config.getInteractiveReservePercent());
+        });
+    }
+
+    /** 统一端点写法：去掉末尾斜杠与 /chat/completions 路径 */
+    static String normalize(String baseUrl) {
+        if (baseUrl == null) {
+            return "";
+        }
+        String result = baseUrl.trim();
+        while (result.endsWith("/")) {
+            result = result.substring(0, result.length() - 1);
+        }
+        if (result.endsWith(CHAT_COMPLETIONS_PATH)) {
+            result = result.substring(0, result.length() - CHAT_COMPLETIONS_PATH.length());
+        }
+        return result;
+    }
+
+    /** 流式调用结果，totalTokens 为 null 表示服务端未返回用量 */
+    private record StreamedCompletion(String content, Long totalTokens) {
+    }
+
+    /** 单个通道的累计统计 */
+    private static final class LaneMetrics {
+
+        private final LongAdder granted = new LongAdder();
+
+        private final LongAdder timedOut = new LongAdder();
+
+        private final LongAdder queueNanos = new LongAdder();
+
+        private final LongAccumulator maxQueueNanos = new LongAccumulator(Math::max, 0);
+
+        void record(long nanos) {
+            granted.increment();
+            queueNanos.add(nanos);
+            maxQueueNanos.accumulate(nanos);
+        }
+
+        LlmLaneStats snapshot(LlmPriority priority, int waiting) {
+            long count = granted.sum();
+            double avgMillis = count > 0 ? queueNanos.sum() / 1_000_000.0 / count : 0;
+            return new LlmLaneStats(priority, waiting, count, timedOut.sum(),
+                avgMillis, maxQueueNanos.get() / 1_000_000.0);
+        }
+    }
+}
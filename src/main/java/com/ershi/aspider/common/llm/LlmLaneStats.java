@@ -0,0 +1,17 @@
+package com.ershi.aspider.common.llm;
+
+/**
+ * 优先级通道排队统计（进程启动以来累计）
+ *
+ * @param priority       优先级通道
+ * @param waiting        当前排队数
+ * @param granted        已获得配额的调用数
+ * @param timedOut       排队超时数
+ * @param avgQueueMillis 平均排队耗时（毫秒）
+ * @param maxQueueMillis 最大排队耗时（毫秒）
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public record LlmLaneStats(LlmPriority priority, int waiting, long granted, long timedOut,
+                           double avgQueueMillis, double maxQueueMillis) {
+}
@@ -0,0 +1,25 @@
+package com.ershi.aspider.common.llm;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * LLM 调用优先级通道
+ * <p>
+ * 网关按声明顺序调度：交互式通道有请求排队时，后台通道不获得配额。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@Getter
+@AllArgsConstructor
+public enum LlmPriority {
+
+    /** 交互式分析（Agent 分析、综合研判、分析阶段摘要兜底） */
+    INTERACTIVE("交互式"),
+
+    /** 后台任务（采集入库时的摘要生成），只使用交互式通道剩余的配额 */
+    BACKGROUND("后台");
+
+    private final String desc;
+}
@@ -0,0 +1,13 @@
+package com.ershi.aspider.common.llm;
+
+/**
+ * LLM 调用路由信息
+ *
+ * @param baseUrl  API 根路径，同一端点的调用共享配额
+ * @param priority 优先级通道
+ * @param tenant   调用方标识，同一通道内按调用方轮转，避免单一调用方占满通道
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public record LlmRoute(String baseUrl, LlmPriority priority, String tenant) {
+}
@@ -0,0 +1,34 @@
+package com.ershi.aspider.common.llm;
+
+/**
+ * 本地 token 估算
+ * <p>
+ * 不依赖模型分词器，用于 TPM 预占与 Prompt 预算控制：中日韩字符按每字1个 token，其余字符按每4个字符1个 token。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public final class TokenEstimator {
+
+    private TokenEstimator() {
+    }
+
+    /**
+     * 粗略估算 token 数
+     */
+    public static long estimate(CharSequence text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        long cjk = 0;
+        long other = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.UnicodeScript.of(text.charAt(i)) == Character.UnicodeScript.HAN) {
+                cjk++;
+            } else {
+                other++;
+            }
+        }
+        return cjk + (other + 3) / 4;
+    }
+}
@@ -0,0 +1,41 @@
+package com.ershi.aspider.common.llm.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 模型调用自适应并发（AIMD）配置
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "llm.adaptive-concurrency")
+public class AdaptiveConcurrencyConfig {
+
+    /** 是否启用自适应并发控制，关闭时不限制并发 */
+    private Boolean enabled = true;
+
+    /** 初始并发上限 */
+    private Integer initialLimit = 4;
+
+    /** 并发上限的下界 */
+    private Integer minLimit = 1;
+
+    /** 并发上限的上界 */
+    private Integer maxLimit = 32;
+
+    /** 遇到限流（429）或超时时并发上限的乘性缩减比例 */
+    private Double backoffRatio = 0.5;
+
+    /** 延迟健康阈值：单次耗时不超过基线延迟的该倍数视为健康 */
+    private Double latencyTolerance = 2.0;
+
+    /** 错误率健康阈值（指数滑动平均），超过时停止增长 */
+    private Double errorRateThreshold = 0.1;
+
+    /** Retry-After 暂停时长上限（秒），防止异常响应头导致长时间停摆 */
+    private Integer maxRetryAfterSeconds = 60;
+}
@@ -0,0 +1,51 @@
+package com.ershi.aspider.common.llm.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * LLM 网关配置
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "llm.gateway")
+public class LlmGatewayConfig {
+
+    /** 是否启用网关限流与优先级调度，关闭时直接调用 */
+    private Boolean enabled = true;
+
+    /** 预估的单次输出 token 数，与 Prompt 估算值一起预占 TPM，调用完成后按实际用量校正 */
+    private Integer expectedCompletionTokens = 512;
+
+    /** 为交互式通道预留的配额百分比，后台通道只能使用预留以外的部分 */
+    private Integer interactiveReservePercent = 20;
+
+    /** 最长排队时间（秒），超时抛出异常 */
+    private Integer maxQueueSeconds = 120;
+
+    /** 按端点配置的配额，未配置的端点不限流 */
+    private List<Endpoint> endpoints = new ArrayList<>();
+
+    /**
+     * 端点配额
+     */
+    @Data
+    public static class Endpoint {
+
+        /** API 根路径 */
+        private String baseUrl;
+
+        /** 每分钟请求数（未配置时不限制） */
+        private Integer rpm;
+
+        /** 每分钟 token 数（未配置时不限制） */
+        private Integer tpm;
+    }
+}
@@ -0,0 +1,131 @@
+package com.ershi.aspider.common.ratelimit;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.OpType;
+import co.elastic.clients.elasticsearch.core.GetResponse;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.CompareAndSwapOperation;
+import io.github.bucket4j.distributed.remote.RemoteBucketState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 基于 Elasticsearch 的令牌桶存储
+ * <p>
+ * 每个令牌桶对应索引中的一个文档，状态以 binary 字段保存。读取时记录文档的 seq_no / primary_term，
+ * 写入时带上二者做乐观并发控制（首次写入使用 create），冲突时重新读取重试。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+final class ElasticsearchProxyManager extends SyncCompareAndSwapProxyManager<String> {
+
+    private static final Logger log = LoggerFactory.getLogger(ElasticsearchProxyManager.class);
+
+    private static final String STATE_FIELD = "state";
+
+    private static final int STATUS_CONFLICT = 409;
+
+    private final ElasticsearchClient elasticsearchClient;
+
+    private final String index;
+
+    private volatile boolean indexReady;
+
+    ElasticsearchProxyManager(ElasticsearchClient elasticsearchClient, String index) {
+        this.elasticsearchClient = elasticsearchClient;
+        this.index = index;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    protected CompareAndSwapOperation beginCompareAndSwapOperation(String key) {
+        ensureIndex();
+        return new CompareAndSwapOperation() {
+
+            private Long seqNo;
+
+            private Long primaryTerm;
+
+            @Override
+            public Optional<byte[]> getStateData() {
+                try {
+                    GetResponse<Map> response = elasticsearchClient.get(g -> g.index(index).id(key), Map.class);
+                    if (!response.found() || response.source() == null) {
+                        seqNo = null;
+                        primaryTerm = null;
+                        return Optional.empty();
+                    }
+                    seqNo = response.seqNo();
+                    primaryTerm = response.primaryTerm();
+                    Object state = response.source().get(STATE_FIELD);
+                    return Optional.ofNullable(state != null ? Base64.getDecoder().decode(state.toString()) : null);
+                } catch (IOException e) {
+                    throw new RuntimeException("读取令牌桶状态失败: " + key, e);
+                }
+            }
+
+            @Override
+            public boolean compareAndSwap(byte[] originalData, byte[] newData, RemoteBucketState newState) {
+                Map<String, Object> document = Map.of(STATE_FIELD, Base64.getEncoder().encodeToString(newData));
+                try {
+                    if (originalData == null || seqNo == null) {
+                        elasticsearchClient.index(i -> i.index(index).id(key).opType(OpType.Create).document(document));
+                    } else {
+                        elasticsearchClient.index(i -> i.index(index).id(key)
+                            .ifSeqNo(seqNo).ifPrimaryTerm(primaryTerm).document(document));
+                    }
+                    return true;
+                } catch (ElasticsearchException e) {
+                    if (e.status() == STATUS_CONFLICT) {
+                        return false;
+                    }
+                    throw e;
+                } catch (IOException e) {
+                    throw new RuntimeException("写入令牌桶状态失败: " + key, e);
+                }
+            }
+        };
+    }
+
+    @Override
+    public void removeProxy(String key) {
+        try {
+            elasticsearchClient.delete(d -> d.index(index).id(key));
+        } catch (IOException e) {
+            throw new RuntimeException("删除令牌桶状态失败: " + key, e);
+        }
+    }
+
+    /**
+     * 状态索引不存在时创建（状态字段为 binary，不参与索引）
+     */
+    private void ensureIndex() {
+        if (indexReady) {
+            return;
+        }
+        try {
+            if (!elasticsearchClient.indices().exists(e -> e.index(index)).value()) {
+                elasticsearchClient.indices().create(c -> c
+                    .index(index)
+                    .settings(st -> st.numberOfShards("1").numberOfReplicas("1"))
+                    .mappings(m -> m.properties(STATE_FIELD, p -> p.binary(b -> b)))
+                );
+                log.info("已创建令牌桶状态索引 {}", index);
+            }
+            indexReady = true;
+        } catch (ElasticsearchException e) {
+            if (!"resource_already_exists_exception".equals(e.error().type())) {
+                throw e;
+            }
+            indexReady = true;
+        } catch (IOException e) {
+            throw new RuntimeException("创建令牌桶状态索引失败", e);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.ershi.aspider.common.ratelimit;
+
+import io.github.bucket4j.distributed.proxy.ClientSideConfig;
+import io.github.bucket4j.distributed.proxy.generic.pessimistic_locking.AbstractLockBasedProxyManager;
+import io.github.bucket4j.distributed.proxy.generic.pessimistic_locking.LockBasedTransaction;
+import io.github.bucket4j.distributed.remote.RemoteBucketState;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 基于共享目录文件锁的令牌桶存储
+ * <p>
+ * 每个令牌桶对应目录下的一个状态文件，读写前对文件加排他锁，多节点挂载同一目录即可共享配额。
+ * 文件锁以进程为持有者，同一进程内的线程另以按文件区分的本地锁互斥。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+final class FileLockProxyManager extends AbstractLockBasedProxyManager<String> {
+
+    private static final String FILE_SUFFIX = ".bucket";
+
+    /** 文件锁不可在同一进程内重复持有，按文件路径在进程范围内互斥 */
+    private static final Map<Path, ReentrantLock> LOCAL_LOCKS = new ConcurrentHashMap<>();
+
+    private final Path dir;
+
+    FileLockProxyManager(Path dir) {
+        super(ClientSideConfig.getDefault());
+        this.dir = dir;
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException e) {
+            throw new RuntimeException("创建令牌桶状态目录失败: " + dir, e);
+        }
+    }
+
+    @Override
+    protected LockBasedTransaction allocateTransaction(String key) {
+        return new FileTransaction(key);
+    }
+
+    @Override
+    public void removeProxy(String key) {
+        ReentrantLock localLock = localLock(key);
+        localLock.lock();
+        try {
+            Files.deleteIfExists(path(key));
+        } catch (IOException e) {
+            throw new RuntimeException("删除令牌桶状态文件失败: " + key, e);
+        } finally {
+            localLock.unlock();
+        }
+    }
+
+    private ReentrantLock localLock(String key) {
+        return LOCAL_LOCKS.computeIfAbsent(path(key).toAbsolutePath().normalize(), k -> new ReentrantLock());
+    }
+
+    /** 键可能包含 URL 等字符，编码后作为文件名 */
+    private Path path(String key) {
+        String name = Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+        return dir.resolve(name + FILE_SUFFIX);
+    }
+
+    /**
+     * 单次读改写事务：lockAndGet 加锁并读取，create/update 覆盖写入，unlock 释放锁
+     */
+    private final class FileTransaction implements LockBasedTransaction {
+
+        private final String key;
+
+        private ReentrantLock localLock;
+
+        private FileChannel channel;
+
+        private FileLock fileLock;
+
+        private FileTransaction(String key) {
+            this.key = key;
+        }
+
+        @Override
+        public void begin() {
+            // 文件读写无需事务
+        }
+
+        @Override
+        public byte[] lockAndGet() {
+            localLock = localLock(key);
+            localLock.lock();
+            try {
+                channel = FileChannel.open(path(key),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                fileLock = channel.lock();
+                int size = (int) channel.size();
+                if (size == 0) {
+                    return null;
+                }
+                ByteBuffer buffer = ByteBuffer.allocate(size);
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, buffer.position()) < 0) {
+                        break;
+                    }
+                }
+                return buffer.array();
+            } catch (IOException e) {
+                unlock();
+                throw new RuntimeException("读取令牌桶状态文件失败: " + key, e);
+            }
+        }
+
+        @Override
+        public void create(byte[] data, RemoteBucketState state) {
+            write(data);
+        }
+
+        @Override
+        public void update(byte[] data, RemoteBucketState state) {
+            write(data);
+        }
+
+        @Override
+        public void unlock() {
+            try {
+                if (fileLock != null) {
+                    fileLock.release();
+                }
+                if (channel != null) {
+                    channel.close();
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("释放令牌桶状态文件锁失败: " + key, e);
+            } finally {
+                fileLock = null;
+                channel = null;
+                if (localLock != null && localLock.isHeldByCurrentThread()) {
+                    localLock.unlock();
+                }
+                localLock = null;
+            }
+        }
+
+        @Override
+        public void commit() {
+            // 写入已在 create/update 中完成
+        }
+
+        @Override
+        public void rollback() {
+            // 写入为整体覆盖，无需回滚
+        }
+
+        @Override
+        public void release() {
+            // 资源已在 unlock 中释放
+        }
+
+        private void write(byte[] data) {
+            try {
+                channel.truncate(0);
+                ByteBuffer buffer = ByteBuffer.wrap(data);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer, buffer.position());
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("写入令牌桶状态文件失败: " + key, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.ershi.aspider.common.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 令牌桶存储后端
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@Getter
+@AllArgsConstructor
+public enum RateLimitBackend {
+
+    MEMORY("进程内存"),
+    FILE("共享目录文件锁"),
+    ELASTICSEARCH("Elasticsearch"),
+    REDIS("Redis");
+
+    private final String desc;
+}
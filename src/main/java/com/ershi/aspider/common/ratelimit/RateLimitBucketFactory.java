@@ -0,0 +1,98 @@
+package com.ershi.aspider.common.ratelimit;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import com.ershi.aspider.common.ratelimit.config.RateLimitConfig;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConfigurationBuilder;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.local.LocalBucketBuilder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * 令牌桶工厂
+ * <p>
+ * 按 {@code rate-limit.backend} 创建令牌桶：memory 为进程内令牌桶；其余后端通过 bucket4j 的分布式代理
+ * 将令牌桶状态保存在共享存储中，同名令牌桶在所有节点间共享配额。
+ * 同一键的令牌桶以首次创建时的配置为准，各节点应使用一致的限流配置。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@Component
+public class RateLimitBucketFactory {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitBucketFactory.class);
+
+    private final RateLimitConfig config;
+
+    private final ProxyManager<String> proxyManager;
+
+    private final RespClient respClient;
+
+    public RateLimitBucketFactory(RateLimitConfig config, ObjectProvider<ElasticsearchClient> elasticsearchClient) {
+        this.config = config;
+        RateLimitConfig.Redis redis = config.getRedis();
+        this.respClient = config.getBackend() == RateLimitBackend.REDIS
+            ? new RespClient(redis.getHost(), redis.getPort(), redis.getPassword(), redis.getDatabase(),
+                redis.getTimeoutMillis())
+            : null;
+        this.proxyManager = switch (config.getBackend()) {
+            case MEMORY -> null;
+            case FILE -> new FileLockProxyManager(Path.of(config.getFile().getDir()));
+            case ELASTICSEARCH -> {
+                ElasticsearchClient client = elasticsearchClient.getIfAvailable();
+                if (client == null) {
+                    throw new IllegalStateException("令牌桶存储后端为elasticsearch，但未启用ES存储（storage.type）");
+                }
+                yield new ElasticsearchProxyManager(client, config.getElasticsearch().getIndex());
+            }
+            case REDIS -> new RedisProxyManager(respClient, redis.getKeyPrefix());
+        };
+        log.info("令牌桶存储后端：{}", config.getBackend().getDesc());
+    }
+
+    /**
+     * 创建令牌桶
+     *
+     * @param key    令牌桶键，共享存储下同键的令牌桶共享配额
+     * @param limits 限流带宽
+     * @return 令牌桶
+     */
+    public Bucket create(String key, Bandwidth... limits) {
+        if (proxyManager == null) {
+            LocalBucketBuilder builder = Bucket.builder();
+            for (Bandwidth limit : limits) {
+                builder.addLimit(limit);
+            }
+            return builder.build();
+        }
+
+        ConfigurationBuilder builder = BucketConfiguration.builder();
+        for (Bandwidth limit : limits) {
+            builder.addLimit(limit);
+        }
+        return proxyManager.builder().build(key, builder.build());
+    }
+
+    /**
+     * 当前存储后端
+     */
+    public RateLimitBackend backend() {
+        return config.getBackend();
+    }
+
+    @PreDestroy
+    public void close() {
+        if (respClient != null) {
+            respClient.close();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.ershi.aspider.common.ratelimit;
+
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.CompareAndSwapOperation;
+import io.github.bucket4j.distributed.remote.RemoteBucketState;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于 Redis（RESP 协议）的令牌桶存储
+ * <p>
+ * 读取状态后以 Lua 脚本做比较并交换：仅当存储值仍为读取时的值才写入新状态，否则重新读取重试。
+ * 状态键的过期时间设为令牌完全补满所需时长，空闲的令牌桶到期自动清理（到期即视为满桶，不影响限流结果）。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+final class RedisProxyManager extends SyncCompareAndSwapProxyManager<String> {
+
+    /** ARGV[1]：原值是否存在；ARGV[2]：原值；ARGV[3]：新值；ARGV[4]：过期毫秒数 */
+    static final String CAS_SCRIPT = """
+        local current = redis.call('GET', KEYS[1])
+        if ARGV[1] == '0' then
+          if current then return 0 end
+        elseif current ~= ARGV[2] then
+          return 0
+        end
+        redis.call('SET', KEYS[1], ARGV[3], 'PX', ARGV[4])
+        return 1
+        """;
+
+    /** 过期时间在完全补满时长之外的余量 */
+    private static final long EXPIRE_MARGIN_MILLIS = 1000;
+
+    private final RespClient client;
+
+    private final String keyPrefix;
+
+    RedisProxyManager(RespClient client, String keyPrefix) {
+        this.client = client;
+        this.keyPrefix = keyPrefix;
+    }
+
+    @Override
+    protected CompareAndSwapOperation beginCompareAndSwapOperation(String key) {
+        String redisKey = keyPrefix + key;
+        return new CompareAndSwapOperation() {
+            @Override
+            public Optional<byte[]> getStateData() {
+                return Optional.ofNullable((byte[]) client.execute("GET", redisKey));
+            }
+
+            @Override
+            public boolean compareAndSwap(byte[] originalData, byte[] newData, RemoteBucketState newState) {
+                long nowNanos = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+                long expireMillis = TimeUnit.NANOSECONDS.toMillis(newState.calculateFullRefillingTime(nowNanos))
+                    + EXPIRE_MARGIN_MILLIS;
+                Object swapped = client.execute("EVAL", CAS_SCRIPT, "1", redisKey,
+                    originalData != null ? "1" : "0",
+                    originalData != null ? originalData : new byte[0],
+                    newData,
+                    String.valueOf(expireMillis));
+                return Long.valueOf(1).equals(swapped);
+            }
+        };
+    }
+
+    @Override
+    public void removeProxy(String key) {
+        client.execute("DEL", keyPrefix + key);
+    }
+}
@@ -0,0 +1,190 @@
+package com.ershi.aspider.common.ratelimit;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 精简的 RESP2 协议客户端
+ * <p>
+ * 仅满足令牌桶存储所需的 GET / EVAL / DEL 等命令，单连接串行执行，连接异常后在下一次命令时重连。
+ * 兼容 Redis 及实现 RESP 协议的同类服务。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+final class RespClient implements Closeable {
+
+    private final String host;
+
+    private final int port;
+
+    private final String password;
+
+    private final int database;
+
+    private final int timeoutMillis;
+
+    /** 使用显式锁而非 synchronized，避免虚拟线程在等待网络读写时占住载体线程 */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private Socket socket;
+
+    private InputStream in;
+
+    private OutputStream out;
+
+    RespClient(String host, int port, String password, int database, int timeoutMillis) {
+        this.host = host;
+        this.port = port;
+        this.password = password;
+        this.database = database;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * 执行命令
+     *
+     * @param args 命令及参数
+     * @return 简单字符串为 String，整数为 Long，批量字符串为 byte[]（不存在时为 null），数组为 List
+     */
+    Object execute(Object... args) {
+        lock.lock();
+        try {
+            ensureConnected();
+            return send(args);
+        } catch (IOException e) {
+            closeQuietly();
+            throw new RuntimeException("Redis命令执行失败: " + host + ":" + port, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closeQuietly();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void ensureConnected() throws IOException {
+        if (socket != null) {
+            return;
+        }
+        Socket newSocket = new Socket();
+        try {
+            newSocket.connect(new InetSocketAddress(host, port), timeoutMillis);
+            newSocket.setSoTimeout(timeoutMillis);
+            newSocket.setTcpNoDelay(true);
+            socket = newSocket;
+            in = new BufferedInputStream(newSocket.getInputStream());
+            out = new BufferedOutputStream(newSocket.getOutputStream());
+            if (password != null && !password.isEmpty()) {
+                send("AUTH", password);
+            }
+            if (database != 0) {
+                send("SELECT", String.valueOf(database));
+            }
+        } catch (IOException | RuntimeException e) {
+            closeQuietly();
+            throw e;
+        }
+    }
+
+    private Object send(Object... args) throws IOException {
+        out.write(('*' + String.valueOf(args.length) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        for (Object arg : args) {
+            byte[] bytes = arg instanceof byte[] raw ? raw : String.valueOf(arg).getBytes(StandardCharsets.UTF_8);
+            out.write(('$' + String.valueOf(bytes.length) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.write(bytes);
+            out.write('\r');
+            out.write('\n');
+        }
+        out.flush();
+        return read();
+    }
+
+    private Object read() throws IOException {
+        int type = in.read();
+        if (type < 0) {
+            throw new EOFException("Redis连接已关闭");
+        }
+        String line = readLine();
+        switch (type) {
+            case '+':
+                return line;
+            case '-':
+                throw new RuntimeException("Redis返回错误: " + line);
+            case ':':
+                return Long.parseLong(line);
+            case '$': {
+                int length = Integer.parseInt(line);
+                if (length < 0) {
+                    return null;
+                }
+                byte[] data = in.readNBytes(length);
+                if (data.length < length) {
+                    throw new EOFException("Redis响应不完整");
+                }
+                readLine();
+                return data;
+            }
+            case '*': {
+                int count = Integer.parseInt(line);
+                if (count < 0) {
+                    return null;
+                }
+                List<Object> items = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    items.add(read());
+                }
+                return items;
+            }
+            default:
+                throw new IOException("无法识别的Redis响应类型: " + (char) type);
+        }
+    }
+
+    private String readLine() throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        while (true) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Redis连接已关闭");
+            }
+            if (b == '\r') {
+                in.read();
+                return line.toString(StandardCharsets.UTF_8);
+            }
+            line.write(b);
+        }
+    }
+
+    private void closeQuietly() {
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // 关闭失败无需处理
+            }
+        }
+        socket = null;
+        in = null;
+        out = null;
+    }
+}
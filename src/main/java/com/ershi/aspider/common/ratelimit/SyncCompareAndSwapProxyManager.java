@@ -0,0 +1,121 @@
+package com.ershi.aspider.common.ratelimit;
+
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.BucketExceptions;
+import io.github.bucket4j.TimeMeter;
+import io.github.bucket4j.distributed.BucketProxy;
+import io.github.bucket4j.distributed.proxy.AsyncProxyManager;
+import io.github.bucket4j.distributed.proxy.ClientSideConfig;
+import io.github.bucket4j.distributed.proxy.CommandExecutor;
+import io.github.bucket4j.distributed.proxy.DefaultBucketProxy;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.distributed.proxy.RecoveryStrategy;
+import io.github.bucket4j.distributed.proxy.RemoteBucketBuilder;
+import io.github.bucket4j.distributed.proxy.generic.GenericEntry;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.CompareAndSwapOperation;
+import io.github.bucket4j.distributed.proxy.optimization.Optimization;
+import io.github.bucket4j.distributed.remote.CommandResult;
+import io.github.bucket4j.distributed.remote.RemoteCommand;
+import io.github.bucket4j.distributed.remote.commands.GetConfigurationCommand;
+import io.github.bucket4j.distributed.versioning.Version;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * 仅同步模式的比较并交换令牌桶存储
+ * <p>
+ * 每次命令先读取状态，在本地执行后以 {@link CompareAndSwapOperation#compareAndSwap} 写回，
+ * 写回失败（状态已被其他节点修改）时重新读取重试。与 bucket4j 自带的比较并交换基类逻辑一致，
+ * 但不要求子类提供异步实现：{@link #isAsyncModeSupported()} 恒为 false，按接口约定 {@link #asAsync()} 拒绝调用。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+abstract class SyncCompareAndSwapProxyManager<K> implements ProxyManager<K> {
+
+    private final Version version = ClientSideConfig.getDefault().getBackwardCompatibilityVersion();
+
+    private final TimeMeter clock = TimeMeter.SYSTEM_MILLISECONDS;
+
+    /**
+     * 开始一次比较并交换：返回的操作先读取状态，再按读取到的值写回
+     */
+    protected abstract CompareAndSwapOperation beginCompareAndSwapOperation(K key);
+
+    @Override
+    public RemoteBucketBuilder<K> builder() {
+        return new Builder();
+    }
+
+    @Override
+    public Optional<BucketConfiguration> getProxyConfiguration(K key) {
+        CommandResult<BucketConfiguration> result = execute(key, new GetConfigurationCommand());
+        return result.isBucketNotFound() ? Optional.empty() : Optional.of(result.getData());
+    }
+
+    @Override
+    public boolean isAsyncModeSupported() {
+        return false;
+    }
+
+    @Override
+    public AsyncProxyManager<K> asAsync() {
+        throw new UnsupportedOperationException("该令牌桶存储仅支持同步模式");
+    }
+
+    private <T> CommandResult<T> execute(K key, RemoteCommand<T> command) {
+        long nowNanos = clock.currentTimeNanos();
+        CompareAndSwapOperation operation = beginCompareAndSwapOperation(key);
+        while (true) {
+            byte[] originalData = operation.getStateData().orElse(null);
+            GenericEntry entry = new GenericEntry(originalData, version);
+            CommandResult<T> result = command.execute(entry, nowNanos);
+            if (!entry.isModified()
+                || operation.compareAndSwap(originalData, entry.getModifiedStateBytes(), entry.getModifiedState())) {
+                return result;
+            }
+        }
+    }
+
+    private final class Builder implements RemoteBucketBuilder<K> {
+
+        private RecoveryStrategy recoveryStrategy = RecoveryStrategy.RECONSTRUCT;
+
+        private Optimization optimization = Optimization.NONE_OPTIMIZED;
+
+        @Override
+        public RemoteBucketBuilder<K> withRecoveryStrategy(RecoveryStrategy recoveryStrategy) {
+            this.recoveryStrategy = recoveryStrategy;
+            return this;
+        }
+
+        @Override
+        public RemoteBucketBuilder<K> withOptimization(Optimization optimization) {
+            this.optimization = optimization;
+            return this;
+        }
+
+        @Override
+        public BucketProxy build(K key, BucketConfiguration configuration) {
+            if (configuration == null) {
+                throw BucketExceptions.nullConfiguration();
+            }
+            return build(key, () -> configuration);
+        }
+
+        @Override
+        public BucketProxy build(K key, Supplier<BucketConfiguration> configurationSupplier) {
+            if (configurationSupplier == null) {
+                throw BucketExceptions.nullConfigurationSupplier();
+            }
+            CommandExecutor executor = new CommandExecutor() {
+                @Override
+                public <T> CommandResult<T> execute(RemoteCommand<T> command) {
+                    return SyncCompareAndSwapProxyManager.this.execute(key, command);
+                }
+            };
+            return new DefaultBucketProxy(configurationSupplier, optimization.apply(executor), recoveryStrategy);
+        }
+    }
+}
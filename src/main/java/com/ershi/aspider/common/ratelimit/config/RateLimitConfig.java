@@ -0,0 +1,78 @@
+package com.ershi.aspider.common.ratelimit.config;
+
+import com.ershi.aspider.common.ratelimit.RateLimitBackend;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 令牌桶存储配置
+ * <p>
+ * 默认令牌桶保存在本进程内存中，多节点部署时各自计数；切换为共享存储后，
+ * 同名令牌桶的配额在所有节点间共享，配置的 RPM / TPM 即为集群总预算。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitConfig {
+
+    /** 令牌桶存储后端：memory（进程内）/ file（共享目录文件锁）/ elasticsearch / redis */
+    private RateLimitBackend backend = RateLimitBackend.MEMORY;
+
+    /** 文件锁后端配置 */
+    private File file = new File();
+
+    /** Elasticsearch 后端配置 */
+    private Elasticsearch elasticsearch = new Elasticsearch();
+
+    /** Redis 后端配置（兼容 RESP 协议的服务均可） */
+    private Redis redis = new Redis();
+
+    /**
+     * 文件锁后端
+     */
+    @Data
+    public static class File {
+
+        /** 令牌桶状态文件所在目录，多节点需挂载同一共享目录 */
+        private String dir = "data/rate-limit";
+    }
+
+    /**
+     * Elasticsearch 后端
+     */
+    @Data
+    public static class Elasticsearch {
+
+        /** 令牌桶状态索引名 */
+        private String index = "aspider_rate_limit";
+    }
+
+    /**
+     * Redis 后端
+     */
+    @Data
+    public static class Redis {
+
+        /** 服务地址 */
+        private String host = "localhost";
+
+        /** 服务端口 */
+        private Integer port = 6379;
+
+        /** 密码，为空时不认证 */
+        private String password;
+
+        /** 数据库编号 */
+        private Integer database = 0;
+
+        /** 键前缀 */
+        private String keyPrefix = "aspider:rate-limit:";
+
+        /** 连接与读取超时（毫秒） */
+        private Integer timeoutMillis = 2000;
+    }
+}
@@ -0,0 +1,61 @@
+package com.ershi.aspider.data.datasource.domain;
+
+import java.time.LocalDate;
+
+/**
+ * 板块资金流向的定点数表示（金额单位为分，百分比单位为基点，缺失值见 {@link FixedPoint}）
+ * <p>
+ * 供趋势、热度等分析计算使用，避免在循环中反复进行 {@link java.math.BigDecimal} 运算。
+ * 在全市场快照构建、时序列读取、主存储加载时生成一次，分析路径只读取已生成的值。
+ *
+ * @param tradeDate              交易日期
+ * @param mainNetInflow          主力净流入（分）
+ * @param superLargeInflow       超大单净流入（分）
+ * @param largeInflow            大单净流入（分）
+ * @param changePercent          涨跌幅（bp）
+ * @param mainNetInflowRatio     主力净流入占比（bp）
+ * @param superLargeInflowRatio  超大单净流入占比（bp）
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public record CompactMoneyFlow(LocalDate tradeDate,
+                               long mainNetInflow,
+                               long superLargeInflow,
+                               long largeInflow,
+                               int changePercent,
+                               int mainNetInflowRatio,
+                               int superLargeInflowRatio) {
+
+    public static CompactMoneyFlow of(SectorMoneyFlow flow) {
+        return new CompactMoneyFlow(
+            flow.getTradeDate(),
+            FixedPoint.toFen(flow.getMainNetInflow()),
+            FixedPoint.toFen(flow.getSuperLargeInflow()),
+            FixedPoint.toFen(flow.getLargeInflow()),
+            FixedPoint.toBasisPoints(flow.getChangePercent()),
+            FixedPoint.toBasisPoints(flow.getMainNetInflowRatio()),
+            FixedPoint.toBasisPoints(flow.getSuperLargeInflowRatio()));
+    }
+
+    public boolean hasMainNetInflow() {
+        return mainNetInflow != FixedPoint.NULL_AMOUNT;
+    }
+
+    public boolean hasChangePercent() {
+        return changePercent != FixedPoint.NULL_BP;
+    }
+
+    /**
+     * 超大单占比（bp）：优先使用数据源给出的占比，否则按 |超大单| / (|超大单| + |大单|) 计算，无法计算时为0
+     */
+    public int superLargeRatio() {
+        if (superLargeInflowRatio != FixedPoint.NULL_BP) {
+            return superLargeInflowRatio;
+        }
+        if (superLargeInflow == FixedPoint.NULL_AMOUNT || largeInflow == FixedPoint.NULL_AMOUNT) {
+            return 0;
+        }
+        long superLarge = Math.abs(superLargeInflow);
+        return FixedPoint.ratioBasisPoints(superLarge, superLarge + Math.abs(largeInflow));
+    }
+}
@@ -1,6 +1,7 @@
 package com.ershi.aspider.data.datasource.domain;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import org.springframework.util.DigestUtils;
 
@@ -75,6 +76,33 @@ public class FinancialArticle {
     /** 是否已完成向量化处理（采集即向量化架构下，采集完成即为true） */
     private Boolean processed = false;
 
+    /** 检索融合分数 0-1（仅检索结果携带，不落库） */
+    @JsonIgnore
+    private Double searchScore;
+
+    /**
+     * 复制不含向量的新闻对象（检索结果在多个调用方间共享时，各自修改副本，不影响共享数据）
+     */
+    public FinancialArticle copyWithoutVectors() {
+        FinancialArticle copy = new FinancialArticle();
+        copy.setUniqueId(uniqueId);
+        copy.setTitle(title);
+        copy.setContentUrl(contentUrl);
+        copy.setSummary(summary);
+        copy.setSummaryRaw(summaryRaw);
+        copy.setSummarySource(summarySource);
+        copy.setSummaryQualityScore(summaryQualityScore);
+        copy.setSummaryQualityLevel(summaryQualityLevel);
+        copy.setContent(content);
+        copy.setPublishTime(publishTime);
+        copy.setCrawlTime(crawlTime);
+        copy.setImportance(importance);
+        copy.setNewsType(newsType);
+        copy.setProcessed(processed);
+        copy.setSearchScore(searchScore);
+        return copy;
+    }
+
     /**
      * 生成唯一ID（基于 title + contentUrl）
      */
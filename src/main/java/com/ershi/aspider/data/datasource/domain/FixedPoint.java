@@ -0,0 +1,78 @@
+package com.ershi.aspider.data.datasource.domain;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * 定点数换算
+ * <p>
+ * 金额以「分」为单位存为 long（元 × 100），百分比以基点存为 int（1% = 100bp），
+ * 分析计算在整数上完成，只在报告输出时换算回 {@link BigDecimal}。缺失值以 {@link #NULL_AMOUNT}/{@link #NULL_BP} 表示。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public final class FixedPoint {
+
+    /** 缺失金额 */
+    public static final long NULL_AMOUNT = Long.MIN_VALUE;
+
+    /** 缺失百分比 */
+    public static final int NULL_BP = Integer.MIN_VALUE;
+
+    /** 1元 = 100分 */
+    public static final long FEN_PER_YUAN = 100;
+
+    /** 1% = 100bp */
+    public static final int BP_PER_PERCENT = 100;
+
+    /** 100% 对应的基点数 */
+    public static final int FULL_BP = 100 * BP_PER_PERCENT;
+
+    private FixedPoint() {
+    }
+
+    /**
+     * 元 → 分（四舍五入）
+     */
+    public static long toFen(BigDecimal yuan) {
+        if (yuan == null) {
+            return NULL_AMOUNT;
+        }
+        return yuan.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * 百分比 → 基点（四舍五入）
+     */
+    public static int toBasisPoints(BigDecimal percent) {
+        if (percent == null) {
+            return NULL_BP;
+        }
+        return percent.setScale(2, RoundingMode.HALF_UP).unscaledValue().intValueExact();
+    }
+
+    /**
+     * 分 → 元（报告输出）
+     */
+    public static BigDecimal toYuan(long fen) {
+        return fen == NULL_AMOUNT ? null : BigDecimal.valueOf(fen, 2);
+    }
+
+    /**
+     * 基点 → 百分比（报告输出，保留2位小数）
+     */
+    public static BigDecimal toPercent(int basisPoints) {
+        return basisPoints == NULL_BP ? null : BigDecimal.valueOf(basisPoints, 2);
+    }
+
+    /**
+     * 非负数的比例，以基点表示（四舍五入）：numerator / denominator × 10000
+     */
+    public static int ratioBasisPoints(long numerator, long denominator) {
+        if (denominator <= 0) {
+            return 0;
+        }
+        return (int) ((numerator * FULL_BP * 2 + denominator) / (denominator * 2));
+    }
+}
@@ -1,5 +1,8 @@
 package com.ershi.aspider.data.embedding;
 
+import com.ershi.aspider.common.llm.AdaptiveConcurrencyLimiter;
+import com.ershi.aspider.common.llm.AdaptiveConcurrencyRegistry;
+import com.ershi.aspider.common.ratelimit.RateLimitBucketFactory;
 import com.ershi.aspider.common.utils.BatchUtils;
 import com.ershi.aspider.data.embedding.config.EmbeddingConfig;
 import com.ershi.aspider.data.embedding.service.EmbeddingService;
@@ -17,6 +20,8 @@ import java.util.concurrent.Executor;
 
 /**
  * 向量化执行器，提供统一的向量化执行接口
+ * <p>
+ * 批次请求先经令牌桶限制速率，再由自适应并发限制器按延迟与限流情况控制同时在途的批次数
  *
  * @author Ershi-Gu.
  * @since 2025-11-14
@@ -26,6 +31,9 @@ public class EmbeddingExecutor {
 
     private static final Logger log = LoggerFactory.getLogger(EmbeddingExecutor.class);
 
+    /** 令牌桶键，共享存储后端下各节点共用同一 RPM 配额 */
+    private static final String RATE_LIMIT_KEY = "embedding:rpm";
+
     /** 向量化服务 */
     private final EmbeddingService embeddingService;
 
@@ -38,14 +46,18 @@ public class EmbeddingExecutor {
     /** 向量化配置 */
     private final EmbeddingConfig embeddingConfig;
 
+    /** 自适应并发限制器 */
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
     public EmbeddingExecutor(EmbeddingService embeddingService, Executor aspiderVirtualExecutor,
-                             EmbeddingConfig embeddingConfig) {
+                             EmbeddingConfig embeddingConfig, AdaptiveConcurrencyRegistry concurrencyRegistry,
+                             RateLimitBucketFactory bucketFactory) {
         this.embeddingService = embeddingService;
         this.aspiderVirtualExecutor = aspiderVirtualExecutor;
         this.embeddingConfig = embeddingConfig;
-        this.bucket = Bucket.builder()
-            .addLimit(Bandwidth.simple(embeddingConfig.getRpmLimit(), Duration.ofMinutes(1)))
-            .build();
+        this.concurrencyLimiter = concurrencyRegistry.get(AdaptiveConcurrencyRegistry.EMBEDDING);
+        this.bucket = bucketFactory.create(RATE_LIMIT_KEY,
+            Bandwidth.simple(embeddingConfig.getRpmLimit(), Duration.ofMinutes(1)));
         log.info("向量化执行器初始化完成，RPM限制：{}", embeddingConfig.getRpmLimit());
     }
 
@@ -133,7 +145,7 @@ public class EmbeddingExecutor {
     }
 
     /**
-     * 处理单个批次（基于Bucket4j令牌桶的速率限制）
+     * 处理单个批次（基于Bucket4j令牌桶的速率限制 + 自适应并发控制）
      *
      * @param batch 批次数据
      * @param batchIndex 批次索引
@@ -149,8 +161,8 @@ public class EmbeddingExecutor {
             log.debug("批次 [{}/{}] 开始向量化，大小：{}",
                       batchIndex + 1, totalBatches, batch.size());
 
-            // 调用向量化API
-            List<List<Double>> vectors = embeddingService.batchEmbed(batch);
+            // 调用向量化API（自适应并发控制）
+            List<List<Double>> vectors = concurrencyLimiter.execute(() -> embeddingService.batchEmbed(batch));
 
             long duration = System.currentTimeMillis() - startTime;
             log.debug("批次 [{}/{}] 向量化完成，耗时：{} ms",
@@ -2,9 +2,12 @@ package com.ershi.aspider.data.job;
 
 import com.ershi.aspider.data.datasource.domain.FinancialArticleDSTypeEnum;
 import com.ershi.aspider.data.orchestration.service.FinancialArticleDataService;
-import com.ershi.aspider.data.storage.elasticsearch.service.FinancialArticleStorageService;
+import com.ershi.aspider.data.storage.elasticsearch.service.FinancialArticleColdTierService;
+import com.ershi.aspider.data.storage.memory.HotTierArticleIndex;
+import com.ershi.aspider.data.storage.repository.FinancialArticleRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
@@ -17,7 +20,7 @@ import java.time.LocalDateTime;
  * 定时任务：
  * <ul>
  *   <li>每2小时采集新闻数据（采集即向量化）</li>
- *   <li>每日凌晨2:00分层清理90天前的低重要性数据</li>
+ *   <li>每日凌晨2:00分层清理90天前的低重要性数据（启用冷数据层时先将重要新闻迁入冷索引）</li>
  * </ul>
  *
  * @author Ershi-Gu.
@@ -35,12 +38,20 @@ public class FinancialArticleDataJob {
     private static final int MIN_IMPORTANCE_FOR_RETENTION = 3;
 
     private final FinancialArticleDataService financialArticleDataService;
-    private final FinancialArticleStorageService financialArticleStorageService;
+    private final FinancialArticleRepository financialArticleRepository;
+
+    /** 冷数据层与热数据索引仅在ES存储后端下存在 */
+    private final ObjectProvider<FinancialArticleColdTierService> financialArticleColdTierService;
+    private final ObjectProvider<HotTierArticleIndex> hotTierArticleIndex;
 
     public FinancialArticleDataJob(FinancialArticleDataService financialArticleDataService,
-                                   FinancialArticleStorageService financialArticleStorageService) {
+                                   FinancialArticleRepository financialArticleRepository,
+                                   ObjectProvider<FinancialArticleColdTierService> financialArticleColdTierService,
+                                   ObjectProvider<HotTierArticleIndex> hotTierArticleIndex) {
         this.financialArticleDataService = financialArticleDataService;
-        this.financialArticleStorageService = financialArticleStorageService;
+        this.financialArticleRepository = financialArticleRepository;
+        this.financialArticleColdTierService = financialArticleColdTierService;
+        this.hotTierArticleIndex = hotTierArticleIndex;
     }
 
     /**
@@ -64,7 +75,8 @@ public class FinancialArticleDataJob {
     /**
      * 定时清理任务：每日凌晨2:00分层清理过期新闻数据
      * <p>
-     * 清理规则：删除 crawlTime 早于90天且 importance < 3 的普通新闻
+     * 清理规则：删除 crawlTime 早于90天且 importance < 3 的普通新闻；
+     * 启用冷数据层时，importance >= 3 的重要新闻先迁入冷索引，热索引只保留90天内数据
      */
     @Async
     @Scheduled(cron = "0 0 2 * * ?")
@@ -73,9 +85,17 @@ public class FinancialArticleDataJob {
 
         try {
             LocalDateTime expireTime = LocalDateTime.now().minusDays(RETENTION_DAYS);
-            long deletedCount = financialArticleStorageService.deleteByTimeAndImportance(expireTime, MIN_IMPORTANCE_FOR_RETENTION);
+            FinancialArticleColdTierService coldTierService = financialArticleColdTierService.getIfAvailable();
+            if (coldTierService != null && coldTierService.isEnabled()) {
+                long migratedCount = coldTierService.migrateToCold(expireTime, MIN_IMPORTANCE_FOR_RETENTION);
+                log.info("冷数据迁移完成，共迁移 {} 条重要新闻", migratedCount);
+            }
+            long deletedCount = financialArticleRepository.deleteByTimeAndImportance(expireTime, MIN_IMPORTANCE_FOR_RETENTION);
             log.info("定时清理任务完成，共清理 {} 条低重要性过期数据", deletedCount);
 
+            // 重建进程内热数据索引，剔除滑出窗口的数据
+            hotTierArticleIndex.ifAvailable(HotTierArticleIndex::compact);
+
         } catch (Exception e) {
             log.error("定时任务执行失败：分层清理过期新闻数据", e);
         }
@@ -8,7 +8,8 @@ import com.ershi.aspider.data.embedding.EmbeddingExecutor;
 import com.ershi.aspider.data.processor.cleaner.FinancialArticleCleaner;
 import com.ershi.aspider.data.processor.scorer.ArticleScorer;
 import com.ershi.aspider.data.processor.summary.SummaryProcessor;
-import com.ershi.aspider.data.storage.elasticsearch.service.FinancialArticleStorageService;
+import com.ershi.aspider.data.storage.memory.ArticleQueryCache;
+import com.ershi.aspider.data.storage.repository.FinancialArticleRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -33,20 +34,23 @@ public class FinancialArticleDataService {
     private final EmbeddingExecutor embeddingExecutor;
     private final ArticleScorer articleScorer;
     private final SummaryProcessor summaryProcessor;
-    private final FinancialArticleStorageService storageService;
+    private final FinancialArticleRepository storageService;
+    private final ArticleQueryCache articleQueryCache;
 
     public FinancialArticleDataService(FinancialArticleDSFactory financialArticleDSFactory,
                                        FinancialArticleCleaner financialArticleCleaner,
                                        EmbeddingExecutor embeddingExecutor,
                                        ArticleScorer articleScorer,
                                        SummaryProcessor summaryProcessor,
-                                       FinancialArticleStorageService storageService) {
+                                       FinancialArticleRepository storageService,
+                                       ArticleQueryCache articleQueryCache) {
         this.financialArticleDSFactory = financialArticleDSFactory;
         this.financialArticleCleaner = financialArticleCleaner;
         this.embeddingExecutor = embeddingExecutor;
         this.articleScorer = articleScorer;
         this.summaryProcessor = summaryProcessor;
         this.storageService = storageService;
+        this.articleQueryCache = articleQueryCache;
     }
 
     /**
@@ -104,7 +108,12 @@ public class FinancialArticleDataService {
         // 4. 向量化 + 持久化
         embedData(cleanedData);
         cleanedData.forEach(item -> item.setProcessed(true));
-        int successCount = storageService.batchSaveToEs(cleanedData);
+        int successCount = storageService.batchSave(cleanedData);
+        financialArticleCleaner.markIngested(cleanedData);
+        if (successCount > 0) {
+            // 新文章已入库且可查询（batchSave 已刷新索引），与板块无关的过滤查询结果需重新查询
+            articleQueryCache.invalidate();
+        }
         log.info("[Step 4/4] 向量化与持久化完成，成功保存 {} 条数据", successCount);
 
         log.info("========== 采集即向量化流程完成 ==========");
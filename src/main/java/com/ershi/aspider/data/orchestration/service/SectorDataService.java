@@ -5,8 +5,11 @@ import com.ershi.aspider.data.datasource.domain.SectorQuote;
 import com.ershi.aspider.data.datasource.domain.SectorTypeEnum;
 import com.ershi.aspider.data.datasource.provider.SectorMoneyFlowDataSource;
 import com.ershi.aspider.data.datasource.provider.SectorQuoteDataSource;
-import com.ershi.aspider.data.storage.elasticsearch.service.SectorMoneyFlowStorageService;
-import com.ershi.aspider.data.storage.elasticsearch.service.SectorQuoteStorageService;
+import com.ershi.aspider.data.storage.memory.MarketSnapshotCache;
+import com.ershi.aspider.data.storage.memory.SectorDirectoryCache;
+import com.ershi.aspider.data.storage.repository.SectorMoneyFlowRepository;
+import com.ershi.aspider.data.storage.repository.SectorQuoteRepository;
+import com.ershi.aspider.data.storage.timeseries.SectorTimeSeriesStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -25,18 +28,27 @@ public class SectorDataService {
     private static final Logger log = LoggerFactory.getLogger(SectorDataService.class);
 
     private final SectorMoneyFlowDataSource sectorMoneyFlowDataSource;
-    private final SectorMoneyFlowStorageService sectorMoneyFlowStorageService;
+    private final SectorMoneyFlowRepository sectorMoneyFlowRepository;
     private final SectorQuoteDataSource sectorQuoteDataSource;
-    private final SectorQuoteStorageService sectorQuoteStorageService;
+    private final SectorQuoteRepository sectorQuoteRepository;
+    private final SectorTimeSeriesStore sectorTimeSeriesStore;
+    private final MarketSnapshotCache marketSnapshotCache;
+    private final SectorDirectoryCache sectorDirectoryCache;
 
     public SectorDataService(SectorMoneyFlowDataSource sectorMoneyFlowDataSource,
-                             SectorMoneyFlowStorageService sectorMoneyFlowStorageService,
+                             SectorMoneyFlowRepository sectorMoneyFlowRepository,
                              SectorQuoteDataSource sectorQuoteDataSource,
-                             SectorQuoteStorageService sectorQuoteStorageService) {
+                             SectorQuoteRepository sectorQuoteRepository,
+                             SectorTimeSeriesStore sectorTimeSeriesStore,
+                             MarketSnapshotCache marketSnapshotCache,
+                             SectorDirectoryCache sectorDirectoryCache) {
         this.sectorMoneyFlowDataSource = sectorMoneyFlowDataSource;
-        this.sectorMoneyFlowStorageService = sectorMoneyFlowStorageService;
+        this.sectorMoneyFlowRepository = sectorMoneyFlowRepository;
         this.sectorQuoteDataSource = sectorQuoteDataSource;
-        this.sectorQuoteStorageService = sectorQuoteStorageService;
+        this.sectorQuoteRepository = sectorQuoteRepository;
+        this.sectorTimeSeriesStore = sectorTimeSeriesStore;
+        this.marketSnapshotCache = marketSnapshotCache;
+        this.sectorDirectoryCache = sectorDirectoryCache;
     }
 
     // ==================== 资金流向 ====================
@@ -55,7 +67,10 @@ public class SectorDataService {
             return 0;
         }
 
-        int successCount = sectorMoneyFlowStorageService.batchSaveToEs(allData);
+        int successCount = sectorMoneyFlowRepository.batchSave(allData);
+        sectorTimeSeriesStore.appendMoneyFlows(allData);
+        marketSnapshotCache.refresh(allData);
+        sectorDirectoryCache.registerMoneyFlows(allData);
         log.info("========== 板块资金流向数据处理完成，保存 {} 条数据 ==========", successCount);
         return successCount;
     }
@@ -75,7 +90,10 @@ public class SectorDataService {
             return 0;
         }
 
-        int successCount = sectorMoneyFlowStorageService.batchSaveToEs(data);
+        int successCount = sectorMoneyFlowRepository.batchSave(data);
+        sectorTimeSeriesStore.appendMoneyFlows(data);
+        marketSnapshotCache.refresh(data);
+        sectorDirectoryCache.registerMoneyFlows(data);
         log.info("========== {}资金流向数据处理完成，保存 {} 条数据 ==========", sectorType.getDesc(), successCount);
         return successCount;
     }
@@ -96,7 +114,9 @@ public class SectorDataService {
             return 0;
         }
 
-        int successCount = sectorQuoteStorageService.batchSaveToEs(allData);
+        int successCount = sectorQuoteRepository.batchSave(allData);
+        sectorTimeSeriesStore.appendQuotes(allData);
+        sectorDirectoryCache.registerQuotes(allData);
         log.info("========== 板块行情数据处理完成，保存 {} 条数据 ==========", successCount);
         return successCount;
     }
@@ -116,7 +136,9 @@ public class SectorDataService {
             return 0;
         }
 
-        int successCount = sectorQuoteStorageService.batchSaveToEs(data);
+        int successCount = sectorQuoteRepository.batchSave(data);
+        sectorTimeSeriesStore.appendQuotes(data);
+        sectorDirectoryCache.registerQuotes(data);
         log.info("========== {}行情数据处理完成，保存 {} 条数据 ==========", sectorType.getDesc(), successCount);
         return successCount;
     }
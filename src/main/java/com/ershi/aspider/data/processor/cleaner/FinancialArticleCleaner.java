@@ -1,18 +1,13 @@
 package com.ershi.aspider.data.processor.cleaner;
 
-import co.elastic.clients.elasticsearch.ElasticsearchClient;
-import co.elastic.clients.elasticsearch._types.FieldValue;
-import co.elastic.clients.elasticsearch._types.query_dsl.Query;
-import co.elastic.clients.elasticsearch.core.SearchRequest;
-import co.elastic.clients.elasticsearch.core.SearchResponse;
-import co.elastic.clients.elasticsearch.core.search.Hit;
 import com.ershi.aspider.data.datasource.domain.FinancialArticle;
+import com.ershi.aspider.data.storage.repository.FinancialArticleRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
-import java.io.IOException;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -26,12 +21,15 @@ import java.util.stream.Collectors;
 public class FinancialArticleCleaner {
 
     private static final Logger log = LoggerFactory.getLogger(FinancialArticleCleaner.class);
-    private static final String NEWS_DATA_INDEX = "financial_article";
 
-    private final ElasticsearchClient elasticsearchClient;
+    private final FinancialArticleRepository financialArticleRepository;
 
-    public FinancialArticleCleaner(ElasticsearchClient elasticsearchClient) {
-        this.elasticsearchClient = elasticsearchClient;
+    private final IngestedArticleIdFilter ingestedArticleIdFilter;
+
+    public FinancialArticleCleaner(FinancialArticleRepository financialArticleRepository,
+                                   IngestedArticleIdFilter ingestedArticleIdFilter) {
+        this.financialArticleRepository = financialArticleRepository;
+        this.ingestedArticleIdFilter = ingestedArticleIdFilter;
     }
 
     /**
@@ -81,8 +79,22 @@ public class FinancialArticleCleaner {
         financialArticle.removeIf(item -> existUniqueIds.contains(item.getUniqueId()));
     }
 
+    /**
+     * 记录已入库的唯一ID，供后续去重在本地快速判定
+     *
+     * @param financialArticle 已持久化的新闻
+     */
+    public void markIngested(List<FinancialArticle> financialArticle) {
+        ingestedArticleIdFilter.markIngested(financialArticle.stream()
+            .map(FinancialArticle::getUniqueId)
+            .filter(Objects::nonNull)
+            .toList());
+    }
+
     /**
      * 批量检查唯一ID是否已存在
+     * <p>
+     * 先由布隆过滤器排除一定不存在的ID，剩余可能重复的ID再向存储确认（含冷数据）；确认失败时按全部为新数据处理（同ID写入为覆盖）
      *
      * @param uniqueIds 唯一ID列表
      * @return 已存在的唯一ID集合
@@ -92,50 +104,21 @@ public class FinancialArticleCleaner {
             return Set.of();
         }
 
+        List<String> candidates = ingestedArticleIdFilter.probableHits(uniqueIds);
+        if (candidates.isEmpty()) {
+            log.info("批量检查 {} 条数据，布隆过滤器判定全部为新数据", uniqueIds.size());
+            return Set.of();
+        }
+
         try {
-            // 构建查询：查询uniqueId在给定列表中的文档
-            Query query = Query.of(q -> q
-                .terms(t -> t
-                    .field("uniqueId")
-                    .terms(tv -> tv.value(
-                        uniqueIds.stream()
-                            .map(FieldValue::of)
-                            .toList()
-                    ))
-                )
-            );
-
-            // 构建搜索请求（只返回uniqueId字段）
-            SearchRequest searchRequest = SearchRequest.of(s -> s
-                .index(NEWS_DATA_INDEX)
-                .query(query)
-                .source(src -> src
-                    .filter(f -> f
-                        .includes("uniqueId")
-                    )
-                )
-                // 限制返回条数最大为请求条数
-                .size(uniqueIds.size())
-            );
-
-            // 执行查询
-            SearchResponse<FinancialArticleClearEsDTO> response = elasticsearchClient.search(
-                searchRequest,
-                FinancialArticleClearEsDTO.class
-            );
-
-            // 提取已存在的uniqueId
-            Set<String> existingIds = response.hits().hits().stream()
-                .map(Hit::source)
-                .filter(item -> item != null && item.getUniqueId() != null)
-                .map(FinancialArticleClearEsDTO::getUniqueId)
-                .collect(Collectors.toSet());
-
-            log.info("批量检查 {} 条数据，发现 {} 条已存在", uniqueIds.size(), existingIds.size());
+            Set<String> existingIds = financialArticleRepository.findExistingIds(candidates);
+
+            log.info("批量检查 {} 条数据，布隆过滤器放行 {} 条需存储确认，发现 {} 条已存在",
+                uniqueIds.size(), candidates.size(), existingIds.size());
             return existingIds;
 
-        } catch (IOException e) {
-            log.error("查询ES失败", e);
+        } catch (RuntimeException e) {
+            log.error("查询已存在数据失败", e);
             return Set.of();
         }
     }
@@ -0,0 +1,165 @@
+package com.ershi.aspider.data.processor.cleaner;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 分代扩容布隆过滤器
+ * <p>
+ * 写入只进最新一代，查询检查全部代；最新一代写满时追加新的一代，已写入的元素永不丢弃，
+ * 因此不会出现漏判（"一定不存在"的结论始终可靠），代数增加只会抬高误判率（多一次存储确认）。
+ * 内存回收由调用方定期按存储现状重建完成。非线程安全，由调用方同步。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+final class GenerationalBloomFilter {
+
+    /** 快照格式版本 */
+    private static final int SNAPSHOT_VERSION = 2;
+
+    private final int capacity;
+    private final int numBits;
+    private final int numHashes;
+
+    private final List<long[]> generations = new ArrayList<>();
+    private int currentCount;
+    private long createdAt;
+
+    /**
+     * @param expectedInsertions 单代预期容量
+     * @param falsePositiveRate  单代目标误判率
+     */
+    GenerationalBloomFilter(int expectedInsertions, double falsePositiveRate) {
+        this.capacity = Math.max(1, expectedInsertions);
+        // m = -n·ln(p) / (ln2)^2，k = m/n·ln2
+        long bits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.numBits = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, bits));
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / capacity * Math.log(2)));
+        this.generations.add(new long[(numBits + 63) >>> 6]);
+        this.createdAt = System.currentTimeMillis();
+    }
+
+    private GenerationalBloomFilter(int capacity, int numBits, int numHashes) {
+        this.capacity = capacity;
+        this.numBits = numBits;
+        this.numHashes = numHashes;
+    }
+
+    /**
+     * 写入元素（最新一代写满时追加新的一代）
+     */
+    void put(String value) {
+        if (currentCount >= capacity) {
+            generations.add(new long[(numBits + 63) >>> 6]);
+            currentCount = 0;
+        }
+        long[] current = generations.getLast();
+        long h1 = hash(value);
+        long h2 = mix(h1);
+        for (int i = 0; i < numHashes; i++) {
+            int bit = index(h1 + i * h2);
+            current[bit >>> 6] |= 1L << bit;
+        }
+        currentCount++;
+    }
+
+    /**
+     * 元素是否可能存在（false 表示一定不存在）
+     */
+    boolean mightContain(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1);
+        for (long[] generation : generations) {
+            if (contains(generation, h1, h2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int generationCount() {
+        return generations.size();
+    }
+
+    /**
+     * 创建（重建）时间
+     */
+    long createdAt() {
+        return createdAt;
+    }
+
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(SNAPSHOT_VERSION);
+        out.writeInt(capacity);
+        out.writeInt(numBits);
+        out.writeInt(numHashes);
+        out.writeInt(currentCount);
+        out.writeLong(createdAt);
+        out.writeInt(generations.size());
+        for (long[] generation : generations) {
+            for (long word : generation) {
+                out.writeLong(word);
+            }
+        }
+    }
+
+    /**
+     * 从快照恢复（容量取快照中的值）
+     *
+     * @return 恢复的过滤器，快照格式不兼容时返回 null
+     */
+    static GenerationalBloomFilter readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != SNAPSHOT_VERSION) {
+            return null;
+        }
+        GenerationalBloomFilter filter = new GenerationalBloomFilter(in.readInt(), in.readInt(), in.readInt());
+        filter.currentCount = in.readInt();
+        filter.createdAt = in.readLong();
+        int count = in.readInt();
+        int words = (filter.numBits + 63) >>> 6;
+        for (int g = 0; g < count; g++) {
+            long[] generation = new long[words];
+            for (int i = 0; i < words; i++) {
+                generation[i] = in.readLong();
+            }
+            filter.generations.add(generation);
+        }
+        return count > 0 ? filter : null;
+    }
+
+    private boolean contains(long[] bits, long h1, long h2) {
+        for (int i = 0; i < numHashes; i++) {
+            int bit = index(h1 + i * h2);
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int index(long combined) {
+        return (int) ((combined & Long.MAX_VALUE) % numBits);
+    }
+
+    /** FNV-1a 64位哈希 */
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    /** splitmix64 混淆，作为双重哈希的第二个哈希值 */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return (z ^ (z >>> 31)) | 1L;
+    }
+}
@@ -0,0 +1,226 @@
+package com.ershi.aspider.data.processor.cleaner;
+
+import com.ershi.aspider.data.processor.cleaner.config.DedupConfig;
+import com.ershi.aspider.data.storage.repository.FinancialArticleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 已入库新闻ID过滤器
+ * <p>
+ * 以分代布隆过滤器记录已入库的 uniqueId，在本地回答"一定是新数据"，只有可能重复的ID才需要查询存储确认。
+ * 启动时先加载本地快照，再异步从存储重建；重建完成前（未就绪）所有ID都交由存储判定，保证不漏判重复。
+ * <p>
+ * 过滤器只追加不丢弃ID，重建时按存储中的ID数量确定容量；写满后追加新的一代（误判率上升但不漏判），
+ * 代数过多或超过重建周期时从存储重新构建，以释放已删除新闻占用的空间。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@Component
+public class IngestedArticleIdFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestedArticleIdFilter.class);
+
+    /** 代数超过该值时提前重建（误判率约为单代的代数倍） */
+    private static final int MAX_GENERATIONS = 3;
+
+    /** 重建时容量相对存储中ID数量的余量 */
+    private static final double REBUILD_HEADROOM = 1.5;
+
+    private final FinancialArticleRepository financialArticleRepository;
+
+    private final DedupConfig dedupConfig;
+
+    private final Executor aspiderVirtualExecutor;
+
+    private GenerationalBloomFilter filter;
+
+    /** 是否有重建任务在执行 */
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    /** 重建期间新入库的ID（重建完成后补入新过滤器，避免替换时丢失） */
+    private List<String> pendingDuringRebuild;
+
+    /** 是否可用于判定（快照加载成功或重建完成） */
+    private volatile boolean ready;
+
+    public IngestedArticleIdFilter(FinancialArticleRepository financialArticleRepository, DedupConfig dedupConfig,
+                                   Executor aspiderVirtualExecutor) {
+        this.financialArticleRepository = financialArticleRepository;
+        this.dedupConfig = dedupConfig;
+        this.aspiderVirtualExecutor = aspiderVirtualExecutor;
+        this.filter = newFilter(dedupConfig.getExpectedInsertions());
+    }
+
+    /**
+     * 启动完成后加载快照并异步从存储重建
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (!Boolean.TRUE.equals(dedupConfig.getBloomEnabled())) {
+            return;
+        }
+        loadSnapshot();
+        scheduleRebuild();
+    }
+
+    /**
+     * 筛选可能已存在的ID（需存储确认）；未就绪时原样返回全部ID
+     *
+     * @param uniqueIds 待检查ID
+     * @return 可能已存在的ID
+     */
+    public List<String> probableHits(List<String> uniqueIds) {
+        if (!ready) {
+            return uniqueIds;
+        }
+        List<String> result = new ArrayList<>();
+        synchronized (this) {
+            for (String id : uniqueIds) {
+                if (id != null && filter.mightContain(id)) {
+                    result.add(id);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 记录已入库ID并持久化快照；代数过多或超过重建周期时异步重建
+     */
+    public void markIngested(Collection<String> uniqueIds) {
+        if (!Boolean.TRUE.equals(dedupConfig.getBloomEnabled()) || uniqueIds.isEmpty()) {
+            return;
+        }
+        boolean stale;
+        synchronized (this) {
+            uniqueIds.forEach(filter::put);
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.addAll(uniqueIds);
+            }
+            long age = System.currentTimeMillis() - filter.createdAt();
+            stale = filter.generationCount() > MAX_GENERATIONS
+                || age >= Duration.ofDays(dedupConfig.getRebuildDays()).toMillis();
+        }
+        saveSnapshot();
+        if (stale) {
+            scheduleRebuild();
+        }
+    }
+
+    /**
+     * 异步重建（已有重建任务执行时忽略）
+     */
+    void scheduleRebuild() {
+        if (rebuilding.compareAndSet(false, true)) {
+            aspiderVirtualExecutor.execute(() -> {
+                try {
+                    rebuild();
+                } finally {
+                    rebuilding.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * 扫描存储中全部已入库ID重建过滤器（容量按存储中的ID数量确定），完成后整体替换
+     */
+    void rebuild() {
+        long start = System.currentTimeMillis();
+        long[] total = {0};
+        synchronized (this) {
+            pendingDuringRebuild = new ArrayList<>();
+        }
+
+        try {
+            long stored = financialArticleRepository.countIds();
+            int capacity = (int) Math.min(Integer.MAX_VALUE,
+                Math.max(dedupConfig.getExpectedInsertions(), (long) Math.ceil(stored * REBUILD_HEADROOM)));
+            GenerationalBloomFilter rebuilt = newFilter(capacity);
+            financialArticleRepository.forEachId(id -> {
+                rebuilt.put(id);
+                total[0]++;
+            });
+
+            synchronized (this) {
+                pendingDuringRebuild.forEach(rebuilt::put);
+                pendingDuringRebuild = null;
+                filter = rebuilt;
+            }
+            ready = true;
+            saveSnapshot();
+            log.info("已入库ID过滤器重建完成，共 {} 条，容量 {}，耗时 {} ms",
+                total[0], capacity, System.currentTimeMillis() - start);
+
+        } catch (Exception e) {
+            // 重建失败时保持快照状态（或未就绪，全部交由存储判定）
+            synchronized (this) {
+                pendingDuringRebuild = null;
+            }
+            log.error("已入库ID过滤器重建失败", e);
+        }
+    }
+
+    private void loadSnapshot() {
+        Path path = Path.of(dedupConfig.getSnapshotPath());
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            GenerationalBloomFilter loaded = GenerationalBloomFilter.readFrom(in);
+            if (loaded != null) {
+                synchronized (this) {
+                    filter = loaded;
+                }
+                ready = true;
+                log.info("已加载已入库ID过滤器快照 {}", path);
+            } else {
+                log.warn("已入库ID过滤器快照格式不兼容，忽略快照 {}", path);
+            }
+        } catch (IOException e) {
+            log.warn("加载已入库ID过滤器快照失败 {}", path, e);
+        }
+    }
+
+    private void saveSnapshot() {
+        Path path = Path.of(dedupConfig.getSnapshotPath());
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                synchronized (this) {
+                    filter.writeTo(out);
+                }
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("保存已入库ID过滤器快照失败 {}", path, e);
+        }
+    }
+
+    private GenerationalBloomFilter newFilter(int capacity) {
+        return new GenerationalBloomFilter(capacity, dedupConfig.getFalsePositiveRate());
+    }
+}
@@ -0,0 +1,32 @@
+package com.ershi.aspider.data.processor.cleaner.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 新闻去重配置
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "processor.dedup")
+public class DedupConfig {
+
+    /** 是否启用布隆过滤器（关闭后每次均查询ES） */
+    private Boolean bloomEnabled = true;
+
+    /** 布隆过滤器的最小单代容量（重建时按存储中ID数量的1.5倍扩大） */
+    private Integer expectedInsertions = 200000;
+
+    /** 目标误判率 */
+    private Double falsePositiveRate = 0.01;
+
+    /** 重建周期（天），定期从存储重建以释放已删除新闻占用的空间 */
+    private Integer rebuildDays = 30;
+
+    /** 快照文件路径（启动时先加载快照，再从ES重建） */
+    private String snapshotPath = "data/dedup/article-ids.bloom";
+}
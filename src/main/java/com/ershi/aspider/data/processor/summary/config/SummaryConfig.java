@@ -124,7 +124,7 @@ public class SummaryConfig {
         /** 单批次 LLM 调用上限 */
         private Integer maxPerBatch = 40;
 
-        /** RPM 限制：每分钟最大请求数 */
+        /** RPM 限制：采集入库后台摘要的每分钟最大请求数（网关后台通道内的调用方上限，不作为端点配额） */
         private Integer rpmLimit = 15;
     }
 }
@@ -1,19 +1,21 @@
 package com.ershi.aspider.data.processor.summary.service;
 
+import com.ershi.aspider.common.llm.AdaptiveConcurrencyLimiter;
+import com.ershi.aspider.common.llm.AdaptiveConcurrencyRegistry;
+import com.ershi.aspider.common.llm.LlmGateway;
+import com.ershi.aspider.common.llm.LlmPriority;
+import com.ershi.aspider.common.llm.LlmRoute;
 import com.ershi.aspider.data.processor.summary.config.SummaryConfig;
 import com.openai.client.OpenAIClient;
 import com.openai.client.okhttp.OpenAIOkHttpClient;
 import com.openai.models.ChatCompletion;
 import com.openai.models.ChatCompletionCreateParams;
-import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
-import java.time.Duration;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -25,6 +27,9 @@ import java.util.stream.Collectors;
  * <p>
  * 注意：base-url 配置应为 API 根路径（如 https://api.openai.com/v1），
  * SDK 会自动拼接 /chat/completions 等路径
+ * <p>
+ * 调用经 {@link LlmGateway} 发出：采集入库时按后台优先级排队，分析阶段兜底按交互式优先级排队；
+ * 并发数由自适应并发限制器按延迟与限流情况动态调整
  *
  * @author Ershi-Gu
  */
@@ -34,12 +39,19 @@ public class LLMSummaryService {
 
     private static final Logger log = LoggerFactory.getLogger(LLMSummaryService.class);
 
+    /** 网关内的调用方标识 */
+    private static final String GATEWAY_TENANT = "summary";
+
     private final SummaryConfig config;
+    private final LlmGateway llmGateway;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
     private OpenAIClient client;
-    private Bucket bucket;
 
-    public LLMSummaryService(SummaryConfig config) {
+    public LLMSummaryService(SummaryConfig config, LlmGateway llmGateway,
+                             AdaptiveConcurrencyRegistry concurrencyRegistry) {
         this.config = config;
+        this.llmGateway = llmGateway;
+        this.concurrencyLimiter = concurrencyRegistry.get(AdaptiveConcurrencyRegistry.SUMMARY);
     }
 
     @PostConstruct
@@ -52,11 +64,9 @@ public class LLMSummaryService {
             .apiKey(llmConfig.getApiKey())
             .build();
 
-        // 初始化 RPM 限流器
+        // 摘要的 RPM 配置只约束采集入库的后台摘要，端点配额由网关配置（llm.gateway.endpoints）决定
         Integer rpmLimit = llmConfig.getRpmLimit();
-        this.bucket = Bucket.builder()
-            .addLimit(Bandwidth.simple(rpmLimit, Duration.ofMinutes(1)))
-            .build();
+        llmGateway.limitBackgroundTenant(GATEWAY_TENANT, rpmLimit);
 
         log.info("LLM摘要服务初始化完成，模型：{}，端点：{}，RPM限制：{}",
             llmConfig.getModel(),
@@ -71,10 +81,24 @@ public class LLMSummaryService {
         return generateSummary(content, config.getLlm().getTargetLength());
     }
 
+    /**
+     * 生成摘要（指定调用优先级，使用配置的目标长度）
+     */
+    public String generateSummary(String content, LlmPriority priority) {
+        return generateSummary(content, config.getLlm().getTargetLength(), priority);
+    }
+
     /**
      * 生成摘要（指定目标长度）
      */
     public String generateSummary(String content, int targetLength) {
+        return generateSummary(content, targetLength, LlmPriority.BACKGROUND);
+    }
+
+    /**
+     * 生成摘要（指定目标长度与调用优先级）
+     */
+    public String generateSummary(String content, int targetLength, LlmPriority priority) {
         if (content == null || content.trim().isEmpty()) {
             log.warn("输入内容为空，跳过摘要生成");
             return "";
@@ -82,7 +106,7 @@ public class LLMSummaryService {
 
         try {
             String prompt = String.format(SummaryConfig.SUMMARY_PROMPT_TEMPLATE, targetLength, content);
-            return callLlmApi(prompt);
+            return callLlmApi(prompt, priority);
         } catch (Exception e) {
             log.error("LLM摘要生成失败", e);
             return "";
@@ -112,12 +136,9 @@ public class LLMSummaryService {
     }
 
     /**
-     * 调用 OpenAI SDK（带限流）
+     * 调用 OpenAI SDK（经网关限流）
      */
-    private String callLlmApi(String prompt) throws Exception {
-        // 限流等待
-        bucket.asBlocking().consume(1);
-
+    private String callLlmApi(String prompt, LlmPriority priority) {
         SummaryConfig.Llm llmConfig = config.getLlm();
 
         // 构建请求参数
@@ -128,7 +149,8 @@ public class LLMSummaryService {
             .build();
 
         // 调用 LLM
-        ChatCompletion completion = client.chat().completions().create(params);
+        LlmRoute route = new LlmRoute(llmConfig.getBaseUrl(), priority, GATEWAY_TENANT);
+        ChatCompletion completion = llmGateway.complete(client, route, prompt, params, concurrencyLimiter);
 
         // 提取响应内容
         String summary = completion.choices().get(0).message().content().orElse("");
@@ -0,0 +1,22 @@
+package com.ershi.aspider.data.storage.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 仅在使用ES存储后端（{@code storage.type=elasticsearch}，默认）时注册的组件
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ConditionalOnProperty(prefix = "storage", name = "type", havingValue = "elasticsearch", matchIfMissing = true)
+public @interface ConditionalOnElasticsearchStorage {
+}
@@ -0,0 +1,32 @@
+package com.ershi.aspider.data.storage.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 存储后端配置
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "storage")
+public class StorageConfig {
+
+    /** 存储后端类型 */
+    private Type type = Type.ELASTICSEARCH;
+
+    /**
+     * 存储后端类型
+     */
+    public enum Type {
+
+        /** Elasticsearch（默认） */
+        ELASTICSEARCH,
+
+        /** 本地嵌入式存储（内存映射段文件 + 进程内索引），适用于单机小规模部署与无ES环境 */
+        EMBEDDED
+    }
+}
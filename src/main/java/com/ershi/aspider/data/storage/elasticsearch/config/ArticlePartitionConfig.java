@@ -0,0 +1,41 @@
+package com.ershi.aspider.data.storage.elasticsearch.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 新闻索引时间分区配置
+ * <p>
+ * 开启后新闻按采集时间写入按月/按周滚动的分区索引（financial_article-*），
+ * 读写分别通过别名访问，过期数据按分区整体处理。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "elasticsearch.article-partition")
+public class ArticlePartitionConfig {
+
+    /** 是否启用时间分区索引（关闭时使用单一 financial_article 索引） */
+    private Boolean enabled = false;
+
+    /** 分区粒度 */
+    private Granularity granularity = Granularity.MONTHLY;
+
+    /** 分区列表的缓存时间（秒），超时后查询前重新获取，使只读节点也能看到其他节点创建或删除的分区 */
+    private Integer refreshSeconds = 60;
+
+    /**
+     * 分区粒度
+     */
+    public enum Granularity {
+
+        /** 按月分区，如 financial_article-2026.10 */
+        MONTHLY,
+
+        /** 按ISO周分区，如 financial_article-2026.w42 */
+        WEEKLY
+    }
+}
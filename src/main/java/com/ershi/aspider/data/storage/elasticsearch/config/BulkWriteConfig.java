@@ -0,0 +1,35 @@
+package com.ershi.aspider.data.storage.elasticsearch.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * ES批量写入配置
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "elasticsearch.bulk")
+public class BulkWriteConfig {
+
+    /** 单个bulk请求的最大操作数 */
+    private Integer maxOperations = 500;
+
+    /** 单个bulk请求的最大字节数（MB） */
+    private Integer maxSizeMb = 5;
+
+    /** 同时进行中的bulk请求数上限 */
+    private Integer maxConcurrentRequests = 2;
+
+    /** 被拒绝（429）操作的最大重试次数 */
+    private Integer maxRetries = 5;
+
+    /** 重试初始退避时间（毫秒），之后指数增长 */
+    private Long initialBackoffMs = 200L;
+
+    /** 是否启用gzip请求压缩（作用于ES客户端全部请求） */
+    private Boolean compression = false;
+}
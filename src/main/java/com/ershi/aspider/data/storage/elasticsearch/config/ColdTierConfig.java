@@ -0,0 +1,29 @@
+package com.ershi.aspider.data.storage.elasticsearch.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 新闻冷数据层配置
+ * <p>
+ * 开启后超过保留期的重要新闻从热索引迁移到冷索引 financial_article_cold：
+ * 仅保留 int8 量化的摘要向量（或不保留向量），正文 gzip 压缩存储，热索引的 HNSW 图保持精简。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "elasticsearch.cold-tier")
+public class ColdTierConfig {
+
+    /** 是否启用冷数据迁移 */
+    private Boolean enabled = false;
+
+    /** 冷数据是否保留摘要向量（int8量化），关闭后冷数据仅可按关键词检索 */
+    private Boolean keepVector = true;
+
+    /** 每批迁移的文档数 */
+    private Integer batchSize = 200;
+}
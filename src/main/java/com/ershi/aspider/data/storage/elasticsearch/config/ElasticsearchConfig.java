@@ -4,6 +4,7 @@ import co.elastic.clients.elasticsearch.ElasticsearchClient;
 import co.elastic.clients.json.jackson.Jackson3JsonpMapper;
 import co.elastic.clients.transport.rest5_client.Rest5ClientTransport;
 import co.elastic.clients.transport.rest5_client.low_level.Rest5Client;
+import com.ershi.aspider.data.storage.config.ConditionalOnElasticsearchStorage;
 import org.apache.hc.core5.http.HttpHost;
 import org.apache.hc.core5.util.Timeout;
 import org.springframework.beans.factory.annotation.Value;
@@ -19,6 +20,7 @@ import java.util.concurrent.TimeUnit;
  * @since 2025-11-05
  */
 @Configuration
+@ConditionalOnElasticsearchStorage
 public class ElasticsearchConfig {
 
     /** es节点所在服务器地址 */
@@ -30,8 +32,10 @@ public class ElasticsearchConfig {
     private int port;
 
     @Bean
-    public Rest5Client rest5Client() {
+    public Rest5Client rest5Client(BulkWriteConfig bulkWriteConfig) {
         return Rest5Client.builder(new HttpHost("http", host, port))
+            // 可选gzip压缩，降低大批量写入的网络开销
+            .setCompressionEnabled(Boolean.TRUE.equals(bulkWriteConfig.getCompression()))
             .setRequestConfigCallback(requestConfig -> requestConfig
                 // 连接超时10秒
                 .setConnectionRequestTimeout(Timeout.of(10, TimeUnit.SECONDS))
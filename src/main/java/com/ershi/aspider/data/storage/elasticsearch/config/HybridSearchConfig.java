@@ -0,0 +1,43 @@
+package com.ershi.aspider.data.storage.elasticsearch.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 混合检索配置
+ * <p>
+ * 控制混合检索的融合方式：客户端固定基准归一化，或由ES retriever在服务端完成RRF/线性融合。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "elasticsearch.hybrid-search")
+public class HybridSearchConfig {
+
+    /** 混合检索模式 */
+    private Mode mode = Mode.NORMALIZED;
+
+    /** 服务端融合时每路召回的候选窗口（rank_window_size）相对 topK 的倍数 */
+    private Integer rankWindowFactor = 5;
+
+    /** RRF 排名常数 k（越大越削弱头部排名的优势） */
+    private Integer rankConstant = 60;
+
+    /**
+     * 混合检索模式
+     */
+    public enum Mode {
+
+        /** 客户端融合：过量拉取候选，按固定基准归一化后过滤 */
+        NORMALIZED,
+
+        /** 服务端倒数排名融合（Reciprocal Rank Fusion） */
+        RRF,
+
+        /** 服务端线性加权融合 */
+        LINEAR
+    }
+}
@@ -0,0 +1,23 @@
+package com.ershi.aspider.data.storage.elasticsearch.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 索引模板启动引导配置
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "elasticsearch.bootstrap")
+public class IndexBootstrapConfig {
+
+    /** 启动时是否安装/升级索引模板 */
+    private Boolean enabled = true;
+
+    /** 是否检查现有索引mapping与模板的偏差 */
+    private Boolean detectDrift = true;
+}
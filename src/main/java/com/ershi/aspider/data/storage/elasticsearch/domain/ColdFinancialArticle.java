@@ -0,0 +1,133 @@
+package com.ershi.aspider.data.storage.elasticsearch.domain;
+
+import com.ershi.aspider.data.datasource.domain.FinancialArticle;
+import com.ershi.aspider.data.datasource.domain.NewsTypeEnum;
+import com.ershi.aspider.data.datasource.domain.SummarySourceEnum;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Data;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 冷数据层新闻文档
+ * <p>
+ * 相比热索引去掉标题向量，摘要向量在冷索引中以 int8 量化存储，正文 gzip 压缩后以 binary 字段保存（不建索引）。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@Data
+public class ColdFinancialArticle {
+
+    /** 去重标识 */
+    private String uniqueId;
+
+    /** 标题 */
+    private String title;
+
+    /** 文章详情url */
+    private String contentUrl;
+
+    /** 摘要 */
+    private String summary;
+
+    /** 摘要来源 */
+    private SummarySourceEnum summarySource;
+
+    /** 摘要向量（可为空） */
+    private List<Double> summaryVector;
+
+    /** gzip压缩后Base64编码的正文 */
+    private String contentGzip;
+
+    /** 发布时间 */
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime publishTime;
+
+    /** 获取时间 */
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime crawlTime;
+
+    /** 重要性评分 1-5 */
+    private Integer importance;
+
+    /** 新闻类型 */
+    private NewsTypeEnum newsType;
+
+    /**
+     * 由热数据转换为冷数据文档
+     *
+     * @param article    热索引中的新闻
+     * @param keepVector 是否保留摘要向量
+     */
+    public static ColdFinancialArticle from(FinancialArticle article, boolean keepVector) {
+        ColdFinancialArticle cold = new ColdFinancialArticle();
+        cold.setUniqueId(article.getUniqueId());
+        cold.setTitle(article.getTitle());
+        cold.setContentUrl(article.getContentUrl());
+        cold.setSummary(article.getSummary());
+        cold.setSummarySource(article.getSummarySource());
+        cold.setSummaryVector(keepVector ? article.getSummaryVector() : null);
+        cold.setContentGzip(compress(article.getContent()));
+        cold.setPublishTime(article.getPublishTime());
+        cold.setCrawlTime(article.getCrawlTime());
+        cold.setImportance(article.getImportance());
+        cold.setNewsType(article.getNewsType());
+        return cold;
+    }
+
+    /**
+     * 还原为新闻对象（不含向量，正文按需解压）
+     *
+     * @param withContent 是否解压正文
+     */
+    public FinancialArticle toArticle(boolean withContent) {
+        FinancialArticle article = new FinancialArticle();
+        article.setUniqueId(uniqueId);
+        article.setTitle(title);
+        article.setContentUrl(contentUrl);
+        article.setSummary(summary);
+        article.setSummarySource(summarySource);
+        article.setContent(withContent ? decompress(contentGzip) : null);
+        article.setPublishTime(publishTime);
+        article.setCrawlTime(crawlTime);
+        article.setImportance(importance);
+        article.setNewsType(newsType);
+        article.setProcessed(true);
+        return article;
+    }
+
+    private static String compress(String text) {
+        if (text == null || text.isEmpty()) {
+            return null;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(text.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("压缩正文失败", e);
+        }
+        return Base64.getEncoder().encodeToString(bytes.toByteArray());
+    }
+
+    private static String decompress(String encoded) {
+        if (encoded == null || encoded.isEmpty()) {
+            return null;
+        }
+        byte[] compressed = Base64.getDecoder().decode(encoded);
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("解压正文失败", e);
+        }
+    }
+}
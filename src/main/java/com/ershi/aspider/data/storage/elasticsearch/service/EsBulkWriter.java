@@ -0,0 +1,147 @@
+package com.ershi.aspider.data.storage.elasticsearch.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._helpers.bulk.BulkIngester;
+import co.elastic.clients.elasticsearch._helpers.bulk.BulkListener;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.transport.BackoffPolicy;
+import com.ershi.aspider.data.storage.config.ConditionalOnElasticsearchStorage;
+import com.ershi.aspider.data.storage.elasticsearch.config.BulkWriteConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * ES批量写入器
+ * <p>
+ * 基于 {@link BulkIngester}：按操作数与字节数切分bulk请求，限制并发请求数，
+ * 被拒绝（429 / es_rejected_execution_exception）的操作按指数退避重试，重试耗尽仍被拒绝的计为失败。
+ * 每次写入使用独立的ingester并在返回前关闭，调用方仍是同步语义。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@Component
+@ConditionalOnElasticsearchStorage
+public class EsBulkWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(EsBulkWriter.class);
+
+    /** ES拒绝写入（队列已满）的状态码 */
+    private static final int STATUS_TOO_MANY_REQUESTS = 429;
+
+    /** 操作结果：未收到响应 / 成功 / 失败 */
+    private static final int PENDING = 0;
+    private static final int SUCCEEDED = 1;
+    private static final int FAILED = 2;
+
+    private final ElasticsearchClient elasticsearchClient;
+
+    private final BulkWriteConfig bulkWriteConfig;
+
+    public EsBulkWriter(ElasticsearchClient elasticsearchClient, BulkWriteConfig bulkWriteConfig) {
+        this.elasticsearchClient = elasticsearchClient;
+        this.bulkWriteConfig = bulkWriteConfig;
+    }
+
+    /**
+     * 批量写入文档（按id覆盖写）
+     *
+     * @param index     目标索引或写别名
+     * @param documents 待写入文档
+     * @param idMapper  文档id提取函数
+     * @return 成功写入的文档数
+     */
+    public <T> int write(String index, List<T> documents, Function<T, String> idMapper) {
+        if (documents == null || documents.isEmpty()) {
+            return 0;
+        }
+
+        // 以操作序号为上下文追踪每条操作的最终结果（同一批内id可能重复，不能按id归并）；
+        // 可重试的 429 由ingester重新提交，不会回调到监听器，回调中的 429 即为重试耗尽
+        AtomicIntegerArray outcomes = new AtomicIntegerArray(documents.size());
+        AtomicReference<Throwable> requestFailure = new AtomicReference<>();
+        BulkListener<Integer> listener = new BulkListener<>() {
+            @Override
+            public void beforeBulk(long executionId, BulkRequest request, List<Integer> contexts) {
+            }
+
+            @Override
+            public void afterBulk(long executionId, BulkRequest request, List<Integer> contexts, BulkResponse response) {
+                List<BulkResponseItem> items = response.items();
+                for (int i = 0; i < items.size() && i < contexts.size(); i++) {
+                    BulkResponseItem item = items.get(i);
+                    int operation = contexts.get(i);
+                    if (item.error() == null) {
+                        outcomes.set(operation, SUCCEEDED);
+                    } else {
+                        outcomes.set(operation, FAILED);
+                        if (item.status() == STATUS_TOO_MANY_REQUESTS) {
+                            log.error("保存失败，重试耗尽仍被拒绝 [ID: {}]: {}", item.id(), item.error().reason());
+                        } else {
+                            log.error("保存失败 [ID: {}]: {}", item.id(), item.error().reason());
+                        }
+                    }
+                }
+            }
+
+            @Override
+            public void afterBulk(long executionId, BulkRequest request, List<Integer> contexts, Throwable failure) {
+                log.error("bulk请求执行失败，涉及 {} 条操作", contexts.size(), failure);
+                requestFailure.compareAndSet(null, failure);
+                contexts.forEach(operation -> outcomes.compareAndSet(operation, PENDING, FAILED));
+            }
+        };
+
+        BulkIngester<Integer> ingester = BulkIngester.of(b -> b
+            .client(elasticsearchClient)
+            .maxOperations(bulkWriteConfig.getMaxOperations())
+            .maxSize(bulkWriteConfig.getMaxSizeMb() * 1024L * 1024L)
+            .maxConcurrentRequests(bulkWriteConfig.getMaxConcurrentRequests())
+            .backoffPolicy(BackoffPolicy.exponentialBackoff(
+                bulkWriteConfig.getInitialBackoffMs(), bulkWriteConfig.getMaxRetries()))
+            .listener(listener)
+        );
+
+        try {
+            for (int i = 0; i < documents.size(); i++) {
+                T document = documents.get(i);
+                String id = idMapper.apply(document);
+                ingester.add(op -> op
+                    .index(idx -> idx
+                        .index(index)
+                        .id(id)
+                        .document(document)
+                    ),
+                    i
+                );
+            }
+        } finally {
+            // 关闭时刷出剩余操作并等待所有请求（含重试）完成
+            ingester.close();
+        }
+
+        int successCount = 0;
+        for (int i = 0; i < outcomes.length(); i++) {
+            if (outcomes.get(i) == SUCCEEDED) {
+                successCount++;
+            }
+        }
+        int failureCount = documents.size() - successCount;
+
+        // 全部失败且存在请求级异常（如ES不可用）时与原同步写入一致，向上抛出
+        if (successCount == 0 && requestFailure.get() != null) {
+            throw new RuntimeException("批量保存到ES失败", requestFailure.get());
+        }
+        log.info("ES批量保存完成 [{}]，成功: {}，失败: {}，bulk请求数: {}",
+            index, successCount, failureCount, ingester.requestCount());
+        return successCount;
+    }
+}
@@ -0,0 +1,342 @@
+package com.ershi.aspider.data.storage.elasticsearch.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.Refresh;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.mapping.DenseVectorIndexOptionsType;
+import co.elastic.clients.elasticsearch._types.mapping.DenseVectorSimilarity;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import com.ershi.aspider.data.datasource.domain.FinancialArticle;
+import com.ershi.aspider.data.storage.config.ConditionalOnElasticsearchStorage;
+import com.ershi.aspider.data.storage.elasticsearch.config.ColdTierConfig;
+import com.ershi.aspider.data.storage.elasticsearch.domain.ColdFinancialArticle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 新闻冷数据层服务
+ * <p>
+ * 负责将超过保留期的重要新闻从热索引迁移到冷索引，并提供冷索引的关键词与向量检索。
+ * 冷索引由代码创建：摘要向量使用 int8_hnsw 量化，正文以 gzip 压缩的 binary 字段保存，索引使用 best_compression 编码。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@Service
+@ConditionalOnElasticsearchStorage
+public class FinancialArticleColdTierService {
+
+    private static final Logger log = LoggerFactory.getLogger(FinancialArticleColdTierService.class);
+
+    /** 冷数据索引名 */
+    public static final String COLD_INDEX = "financial_article_cold";
+
+    /** 冷数据向量检索的最低相似度分数（与热数据向量检索阈值一致） */
+    private static final double MIN_SCORE_THRESHOLD = 0.6;
+
+    /** 关键词检索中标题匹配的权重（与热数据一致） */
+    private static final float TITLE_BOOST = 3.0f;
+
+    /** 关键词检索中摘要匹配的权重（与热数据一致） */
+    private static final float SUMMARY_BOOST = 1.5f;
+
+    /** 检索结果中无需返回的大字段 */
+    private static final List<String> SEARCH_SOURCE_EXCLUDES = List.of("summaryVector", "contentGzip");
+
+    /** 日期字段格式（与热索引一致） */
+    private static final String DATE_FORMAT = "yyyy-MM-dd HH:mm:ss||yyyy-MM-dd||epoch_millis";
+
+    private final ElasticsearchClient elasticsearchClient;
+
+    private final ColdTierConfig coldTierConfig;
+
+    private final FinancialArticleIndexManager indexManager;
+
+    /** 冷索引是否已确认存在 */
+    private volatile boolean coldIndexReady;
+
+    public FinancialArticleColdTierService(ElasticsearchClient elasticsearchClient,
+                                           ColdTierConfig coldTierConfig,
+                                           FinancialArticleIndexManager indexManager) {
+        this.elasticsearchClient = elasticsearchClient;
+        this.coldTierConfig = coldTierConfig;
+        this.indexManager = indexManager;
+    }
+
+    /**
+     * 是否启用冷数据层
+     */
+    public boolean isEnabled() {
+        return Boolean.TRUE.equals(coldTierConfig.getEnabled());
+    }
+
+    /**
+     * 将采集时间早于指定时间的重要新闻迁移到冷索引
+     * <p>
+     * 每批先写入冷索引，再从热索引所在的具体分区删除已写入的文档；任一批出现失败即停止，避免重复迁移或丢数据。
+     * 按 crawlTime + uniqueId 排序的 search_after 翻页，无法迁移的文档留在热索引中且不会被重复拉取
+     *
+     * @param beforeTime    迁移此时间之前采集的数据
+     * @param minImportance 最低迁移重要性（低于此值的数据由保留策略删除，不进入冷数据层）
+     * @return 迁移的数据条数
+     */
+    public long migrateToCold(LocalDateTime beforeTime, int minImportance) {
+        String timeStr = beforeTime.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+        log.info("开始迁移 {} 之前、重要性 >= {} 的新闻到冷数据层", timeStr, minImportance);
+
+        ensureColdIndex();
+        boolean keepVector = Boolean.TRUE.equals(coldTierConfig.getKeepVector());
+        long migrated = 0;
+
+        try {
+            List<FieldValue> searchAfter = null;
+            while (true) {
+                List<FieldValue> after = searchAfter;
+                SearchResponse<FinancialArticle> response = elasticsearchClient.search(s -> {
+                        s.index(indexManager.readTarget())
+                            .query(q -> q
+                                .bool(b -> b
+                                    .filter(f -> f
+                                        .range(r -> r
+                                            .date(dr -> dr
+                                                .field("crawlTime")
+                                                .lt(timeStr)
+                                            )
+                                        )
+                                    )
+                                    .filter(f -> f
+                                        .range(r -> r
+                                            .number(nr -> nr
+                                                .field("importance")
+                                                .gte((double) minImportance)
+                                            )
+                                        )
+                                    )
+                                )
+                            )
+                            .size(coldTierConfig.getBatchSize())
+                            .sort(so -> so
+                                .field(f -> f
+                                    .field("crawlTime")
+                                    .order(SortOrder.Asc)
+                                )
+                            )
+                            .sort(so -> so.field(f -> f.field("uniqueId").order(SortOrder.Asc)));
+                        if (after != null) {
+                            s.searchAfter(after);
+                        }
+                        return s;
+                    },
+                    FinancialArticle.class
+                );
+
+                List<Hit<FinancialArticle>> hits = response.hits().hits();
+                if (hits.isEmpty()) {
+                    break;
+                }
+                // 缺少 _source 的文档不迁移也不删除，游标越过它们继续下一批
+                searchAfter = hits.getLast().sort();
+
+                // 写入冷索引
+                BulkRequest.Builder coldBulk = new BulkRequest.Builder();
+                List<Hit<FinancialArticle>> copied = new ArrayList<>(hits.size());
+                for (Hit<FinancialArticle> hit : hits) {
+                    if (hit.source() == null) {
+                        log.warn("热索引文档缺少_source，跳过迁移：index={}, id={}", hit.index(), hit.id());
+                        continue;
+                    }
+                    hit.source().setUniqueId(hit.id());
+                    ColdFinancialArticle cold = ColdFinancialArticle.from(hit.source(), keepVector);
+                    coldBulk.operations(op -> op
+                        .index(idx -> idx
+                            .index(COLD_INDEX)
+                            .id(hit.id())
+                            .document(cold)
+                        )
+                    );
+                    copied.add(hit);
+                }
+                if (copied.isEmpty()) {
+                    continue;
+                }
+                BulkResponse coldResponse = elasticsearchClient.bulk(coldBulk.build());
+                if (coldResponse.errors()) {
+                    log.error("写入冷索引存在失败，停止迁移，已迁移 {} 条", migrated);
+                    break;
+                }
+
+                // 只删除已写入冷索引的文档（按命中的具体分区删除，并等待刷新以免下一批重复拉取）
+                BulkRequest.Builder hotBulk = new BulkRequest.Builder().refresh(Refresh.WaitFor);
+                for (Hit<FinancialArticle> hit : copied) {
+                    hotBulk.operations(op -> op
+                        .delete(del -> del
+                            .index(hit.index())
+                            .id(hit.id())
+                        )
+                    );
+                }
+                BulkResponse hotResponse = elasticsearchClient.bulk(hotBulk.build());
+                if (hotResponse.errors()) {
+                    log.error("从热索引删除存在失败，停止迁移，已迁移 {} 条", migrated);
+                    break;
+                }
+
+                migrated += copied.size();
+            }
+
+            log.info("冷数据迁移完成，共迁移 {} 条", migrated);
+            return migrated;
+
+        } catch (IOException e) {
+            log.error("迁移冷数据失败", e);
+            throw new RuntimeException("迁移冷数据失败", e);
+        }
+    }
+
+    /**
+     * 冷数据关键词检索（BM25，标题/摘要至少命中其一，权重与热数据关键词召回一致）
+     * <p>
+     * 不依赖摘要向量，keep-vector 关闭时冷数据仍可被检索到
+     *
+     * @param queryText 查询文本
+     * @param topK      返回数量
+     * @return 相关新闻列表（按BM25分数降序，不含正文与向量）
+     */
+    public List<FinancialArticle> searchColdKeyword(String queryText, int topK) {
+        if (!isEnabled() || queryText == null || queryText.isBlank()) {
+            return List.of();
+        }
+
+        try {
+            SearchResponse<ColdFinancialArticle> response = elasticsearchClient.search(s -> s
+                    .index(COLD_INDEX)
+                    .ignoreUnavailable(true)
+                    .query(q -> q
+                        .bool(b -> b
+                            .should(sh -> sh.match(m -> m.field("title").query(queryText).boost(TITLE_BOOST)))
+                            .should(sh -> sh.match(m -> m.field("summary").query(queryText).boost(SUMMARY_BOOST)))
+                            .minimumShouldMatch("1")
+                        )
+                    )
+                    .size(topK)
+                    .source(src -> src.filter(f -> f.excludes(SEARCH_SOURCE_EXCLUDES))),
+                ColdFinancialArticle.class
+            );
+            return toArticles(response);
+
+        } catch (IOException e) {
+            log.error("冷数据关键词检索失败", e);
+            throw new RuntimeException("冷数据关键词检索失败", e);
+        }
+    }
+
+    /**
+     * 冷数据向量检索（基于int8量化的摘要向量，未保留向量时返回空）
+     *
+     * @param queryVector 查询向量
+     * @param topK        返回数量
+     * @return 相关新闻列表（按相似度降序，不含正文与向量）
+     */
+    public List<FinancialArticle> searchColdVector(List<Float> queryVector, int topK) {
+        if (!isEnabled() || !Boolean.TRUE.equals(coldTierConfig.getKeepVector())) {
+            return List.of();
+        }
+
+        try {
+            SearchResponse<ColdFinancialArticle> response = elasticsearchClient.search(s -> s
+                    .index(COLD_INDEX)
+                    .ignoreUnavailable(true)
+                    .knn(k -> k
+                        .field("summaryVector")
+                        .queryVector(queryVector)
+                        .k(topK)
+                        .numCandidates(topK * 10)
+                    )
+                    .minScore(MIN_SCORE_THRESHOLD)
+                    .size(topK)
+                    .source(src -> src.filter(f -> f.excludes(SEARCH_SOURCE_EXCLUDES))),
+                ColdFinancialArticle.class
+            );
+            return toArticles(response);
+
+        } catch (IOException e) {
+            log.error("冷数据检索失败", e);
+            throw new RuntimeException("冷数据检索失败", e);
+        }
+    }
+
+    private static List<FinancialArticle> toArticles(SearchResponse<ColdFinancialArticle> response) {
+        List<FinancialArticle> result = new ArrayList<>();
+        for (Hit<ColdFinancialArticle> hit : response.hits().hits()) {
+            if (hit.source() != null && hit.score() != null) {
+                FinancialArticle article = hit.source().toArticle(false);
+                article.setUniqueId(hit.id());
+                article.setSearchScore(hit.score());
+                result.add(article);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 冷索引不存在时按冷数据mapping创建
+     */
+    private void ensureColdIndex() {
+        if (coldIndexReady) {
+            return;
+        }
+
+        try {
+            if (!elasticsearchClient.indices().exists(e -> e.index(COLD_INDEX)).value()) {
+                elasticsearchClient.indices().create(c -> c
+                    .index(COLD_INDEX)
+                    .settings(st -> st
+                        .numberOfShards("1")
+                        .numberOfReplicas("1")
+                        .codec("best_compression")
+                    )
+                    .mappings(m -> m
+                        .properties("uniqueId", p -> p.keyword(k -> k))
+                        .properties("title", p -> p.text(t -> t.analyzer("ik_max_word").searchAnalyzer("ik_smart")))
+                        .properties("contentUrl", p -> p.keyword(k -> k.index(false)))
+                        .properties("summary", p -> p.text(t -> t.analyzer("ik_max_word").searchAnalyzer("ik_smart")))
+                        .properties("summarySource", p -> p.keyword(k -> k))
+                        .properties("summaryVector", p -> p.denseVector(dv -> dv
+                            .index(true)
+                            .similarity(DenseVectorSimilarity.Cosine)
+                            .indexOptions(io -> io.type(DenseVectorIndexOptionsType.Int8Hnsw))
+                        ))
+                        .properties("contentGzip", p -> p.binary(b -> b))
+                        .properties("publishTime", p -> p.date(dt -> dt.format(DATE_FORMAT)))
+                        .properties("crawlTime", p -> p.date(dt -> dt.format(DATE_FORMAT)))
+                        .properties("importance", p -> p.integer(i -> i))
+                        .properties("newsType", p -> p.keyword(k -> k))
+                    )
+                );
+                log.info("已创建冷数据索引 {}", COLD_INDEX);
+            }
+            coldIndexReady = true;
+
+        } catch (ElasticsearchException e) {
+            if (!"resource_already_exists_exception".equals(e.error().type())) {
+                throw e;
+            }
+            coldIndexReady = true;
+        } catch (IOException e) {
+            log.error("创建冷数据索引失败", e);
+            throw new RuntimeException("创建冷数据索引失败", e);
+        }
+    }
+}
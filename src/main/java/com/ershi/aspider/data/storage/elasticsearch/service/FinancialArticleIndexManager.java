@@ -0,0 +1,436 @@
+package com.ershi.aspider.data.storage.elasticsearch.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch.core.ReindexResponse;
+import com.ershi.aspider.data.storage.config.ConditionalOnElasticsearchStorage;
+import com.ershi.aspider.data.storage.elasticsearch.config.ArticlePartitionConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.IsoFields;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 新闻分区索引管理
+ * <p>
+ * 分区按采集时间（crawlTime）滚动，所有分区挂在读别名 financial_article 下，
+ * 当前分区额外挂写别名 financial_article_write。由于发布时间不晚于采集时间，
+ * 按 publishTime 的时间窗口查询只需命中结束时间晚于窗口起点的分区。
+ * <p>
+ * 过期分区先按重要性 reindex 到保留分区（financial_article-xxx-retained），再整体删除原分区，
+ * 替代对全索引的 deleteByQuery。未启用分区或集群中仍存在同名单一索引时，退化为单索引模式。
+ * <p>
+ * 分区可能由其他节点创建或删除，本地分区列表超过缓存时间、或当前日期已超出最新已知分区时，
+ * 查询前重新获取；获取失败时退回读别名（调用方均带发布时间过滤，结果不变，只是不做分区裁剪）。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@Component
+@ConditionalOnElasticsearchStorage
+public class FinancialArticleIndexManager {
+
+    private static final Logger log = LoggerFactory.getLogger(FinancialArticleIndexManager.class);
+
+    /** 读别名（未启用分区时即单一索引名） */
+    public static final String READ_ALIAS = "financial_article";
+
+    /** 写别名，始终指向当前分区 */
+    public static final String WRITE_ALIAS = "financial_article_write";
+
+    /** 分区索引名前缀 */
+    private static final String PARTITION_PREFIX = "financial_article-";
+
+    /** 保留分区后缀（过期分区收缩后的结果） */
+    private static final String RETAINED_SUFFIX = "-retained";
+
+    /** 当前日期超出最新已知分区时，两次重新获取分区列表的最小间隔（毫秒），避免新分区创建前每次查询都请求ES */
+    private static final long MIN_REFRESH_INTERVAL_MILLIS = 5000;
+
+    private final ElasticsearchClient elasticsearchClient;
+
+    private final ArticlePartitionConfig partitionConfig;
+
+    /** 是否处于分区模式（首次使用时确定） */
+    private volatile Boolean partitioned;
+
+    /** 当前写入分区名 */
+    private volatile String currentPartition;
+
+    /** 已存在的分区（按起始日期升序） */
+    private volatile List<Partition> partitions = List.of();
+
+    /** 分区列表最近一次获取的时间（毫秒） */
+    private volatile long partitionsRefreshedAt;
+
+    public FinancialArticleIndexManager(ElasticsearchClient elasticsearchClient,
+                                        ArticlePartitionConfig partitionConfig) {
+        this.elasticsearchClient = elasticsearchClient;
+        this.partitionConfig = partitionConfig;
+    }
+
+    /**
+     * 写入目标：分区模式下为写别名（必要时先滚动到当前分区），否则为单一索引
+     */
+    public String writeTarget() {
+        if (!isPartitioned()) {
+            return READ_ALIAS;
+        }
+        ensureCurrentPartition();
+        return WRITE_ALIAS;
+    }
+
+    /**
+     * 全量读取目标
+     */
+    public String readTarget() {
+        return READ_ALIAS;
+    }
+
+    /**
+     * 按时间窗口裁剪的读取目标
+     *
+     * @param days 最近N天（0表示不限制）
+     * @return 需要查询的索引列表
+     */
+    public List<String> searchTargets(int days) {
+        if (days <= 0 || !isPartitioned()) {
+            return List.of(READ_ALIAS);
+        }
+
+        List<Partition> known = knownPartitions();
+        if (known == null) {
+            return List.of(READ_ALIAS);
+        }
+
+        LocalDate windowStart = LocalDateTime.now().minusDays(days).toLocalDate();
+        List<String> targets = known.stream()
+            .filter(p -> p.end().isAfter(windowStart))
+            .map(Partition::index)
+            .toList();
+
+        // 无命中时退回读别名，避免空索引列表被解释为全部索引
+        return targets.isEmpty() ? List.of(READ_ALIAS) : targets;
+    }
+
+    /**
+     * 查询使用的分区列表：超过缓存时间，或当前日期已超出最新已知分区（可能已由其他节点滚动）时重新获取
+     *
+     * @return 分区列表，重新获取失败时返回 null
+     */
+    private List<Partition> knownPartitions() {
+        List<Partition> known = partitions;
+        long age = System.currentTimeMillis() - partitionsRefreshedAt;
+        boolean expired = age >= partitionConfig.getRefreshSeconds() * 1000L;
+        boolean behind = known.isEmpty() || !known.getLast().end().isAfter(LocalDate.now());
+        if (!expired && !(behind && age >= MIN_REFRESH_INTERVAL_MILLIS)) {
+            return known;
+        }
+
+        try {
+            refreshPartitions();
+            return partitions;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 是否处于分区模式
+     */
+    public boolean isPartitioned() {
+        Boolean result = partitioned;
+        if (result == null) {
+            result = initialize();
+        }
+        return result;
+    }
+
+    /**
+     * 分区保留策略：整体过期的分区收缩为仅保留重要新闻，再删除原分区
+     *
+     * @param beforeTime    采集时间早于此时间的分区视为过期（需整个分区都早于该时间）
+     * @param minImportance 最低保留重要性
+     * @return 删除的数据条数
+     */
+    public long applyRetention(LocalDateTime beforeTime, int minImportance) {
+        refreshPartitions();
+        LocalDate cutoff = beforeTime.toLocalDate();
+        long totalDropped = 0;
+
+        for (Partition partition : partitions) {
+            if (partition.end().isAfter(cutoff)) {
+                continue;
+            }
+            if (partition.retained()) {
+                dropIfEmpty(partition.index());
+                continue;
+            }
+            totalDropped += shrinkPartition(partition.index(), minImportance);
+        }
+
+        refreshPartitions();
+        return totalDropped;
+    }
+
+    /**
+     * 将过期分区 reindex 为仅含重要新闻的保留分区，并原子地切换别名、删除原分区
+     */
+    private long shrinkPartition(String index, int minImportance) {
+        String retainedIndex = index + RETAINED_SUFFIX;
+        log.info("开始收缩过期分区 {} -> {}，保留重要性 >= {}", index, retainedIndex, minImportance);
+
+        try {
+            long before = elasticsearchClient.count(c -> c.index(index)).count();
+            long toKeep = elasticsearchClient.count(c -> c
+                .index(index)
+                .query(q -> q
+                    .range(rg -> rg
+                        .number(nr -> nr
+                            .field("importance")
+                            .gte((double) minImportance)
+                        )
+                    )
+                )
+            ).count();
+
+            // 无需保留的数据（如重要新闻已迁入冷数据层）时直接删除整个分区
+            if (toKeep == 0) {
+                elasticsearchClient.indices().delete(d -> d.index(index));
+                log.info("分区 {} 无需保留数据，已整体删除 {} 条", index, before);
+                return before;
+            }
+
+            ReindexResponse response = elasticsearchClient.reindex(r -> r
+                .source(s -> s
+                    .index(index)
+                    .query(q -> q
+                        .range(rg -> rg
+                            .number(nr -> nr
+                                .field("importance")
+                                .gte((double) minImportance)
+                            )
+                        )
+                    )
+                )
+                .dest(d -> d.index(retainedIndex))
+                .refresh(true)
+            );
+
+            if (response.failures() != null && !response.failures().isEmpty()) {
+                log.error("分区 {} reindex 存在 {} 条失败，保留原分区", index, response.failures().size());
+                return 0;
+            }
+
+            long kept = response.created() != null ? response.created() : 0;
+
+            // 保留分区挂读别名与删除原分区在同一次别名操作中完成，读取方不会看到中间状态
+            elasticsearchClient.indices().updateAliases(u -> u
+                .actions(a -> a.add(ad -> ad.index(retainedIndex).alias(READ_ALIAS)))
+                .actions(a -> a.removeIndex(ri -> ri.index(index)))
+            );
+
+            long dropped = before - kept;
+            log.info("分区 {} 收缩完成，保留 {} 条，删除 {} 条", index, kept, dropped);
+            return dropped;
+
+        } catch (IOException e) {
+            log.error("收缩过期分区 {} 失败", index, e);
+            throw new RuntimeException("收缩过期分区失败", e);
+        }
+    }
+
+    /**
+     * 删除已清空的保留分区（其中的重要新闻已全部迁入冷数据层）
+     */
+    private void dropIfEmpty(String index) {
+        try {
+            if (elasticsearchClient.count(c -> c.index(index)).count() == 0) {
+                elasticsearchClient.indices().delete(d -> d.index(index));
+                log.info("保留分区 {} 已清空，删除该分区", index);
+            }
+        } catch (IOException e) {
+            log.error("删除空保留分区 {} 失败", index, e);
+            throw new RuntimeException("删除空保留分区失败", e);
+        }
+    }
+
+    /**
+     * 确保写别名指向当前时间所属的分区
+     */
+    private void ensureCurrentPartition() {
+        String name = partitionName(LocalDate.now());
+        if (name.equals(currentPartition)) {
+            return;
+        }
+
+        synchronized (this) {
+            if (name.equals(currentPartition)) {
+                return;
+            }
+
+            try {
+                if (!elasticsearchClient.indices().exists(e -> e.index(name)).value()) {
+                    createPartition(name);
+                }
+
+                // 写别名从旧分区摘除，挂到当前分区
+                Set<String> holders = elasticsearchClient.indices().existsAlias(e -> e.name(WRITE_ALIAS)).value()
+                    ? elasticsearchClient.indices().getAlias(g -> g.name(WRITE_ALIAS)).aliases().keySet()
+                    : Set.of();
+                if (!holders.equals(Set.of(name))) {
+                    elasticsearchClient.indices().updateAliases(u -> {
+                        holders.stream()
+                            .filter(h -> !h.equals(name))
+                            .forEach(h -> u.actions(a -> a.remove(r -> r.index(h).alias(WRITE_ALIAS))));
+                        return u.actions(a -> a.add(ad -> ad.index(name).alias(WRITE_ALIAS).isWriteIndex(true)));
+                    });
+                    log.info("写别名 {} 已切换到分区 {}", WRITE_ALIAS, name);
+                }
+
+                currentPartition = name;
+                refreshPartitions();
+
+            } catch (IOException e) {
+                log.error("切换当前分区 {} 失败", name, e);
+                throw new RuntimeException("切换当前分区失败", e);
+            }
+        }
+    }
+
+    /**
+     * 创建分区索引（mapping 由 financial_article-* 索引模板提供），并发创建时忽略已存在错误
+     */
+    private void createPartition(String name) throws IOException {
+        try {
+            elasticsearchClient.indices().create(c -> c
+                .index(name)
+                .aliases(READ_ALIAS, a -> a)
+            );
+            log.info("已创建新闻分区索引 {}", name);
+        } catch (ElasticsearchException e) {
+            if (!"resource_already_exists_exception".equals(e.error().type())) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * 刷新已存在分区列表
+     */
+    private void refreshPartitions() {
+        try {
+            Set<String> indices = elasticsearchClient.indices()
+                .get(g -> g.index(PARTITION_PREFIX + "*").allowNoIndices(true))
+                .indices().keySet();
+
+            List<Partition> result = new ArrayList<>();
+            for (String index : indices) {
+                Partition partition = parsePartition(index);
+                if (partition != null) {
+                    result.add(partition);
+                }
+            }
+            result.sort(Comparator.comparing(Partition::start));
+            partitions = List.copyOf(result);
+            partitionsRefreshedAt = System.currentTimeMillis();
+
+        } catch (IOException e) {
+            log.error("获取新闻分区列表失败", e);
+            throw new RuntimeException("获取新闻分区列表失败", e);
+        }
+    }
+
+    /**
+     * 首次使用时确定是否启用分区：集群中存在同名单一索引时无法建立读别名，需先迁移
+     */
+    private synchronized boolean initialize() {
+        if (partitioned != null) {
+            return partitioned;
+        }
+        if (!Boolean.TRUE.equals(partitionConfig.getEnabled())) {
+            partitioned = false;
+            return false;
+        }
+
+        try {
+            boolean legacyIndex = elasticsearchClient.indices().exists(e -> e.index(READ_ALIAS)).value()
+                && !elasticsearchClient.indices().existsAlias(e -> e.name(READ_ALIAS)).value();
+            if (legacyIndex) {
+                log.error("检测到单一索引 {}，需迁移到分区索引后才能启用分区，当前退化为单索引模式", READ_ALIAS);
+                partitioned = false;
+                return false;
+            }
+
+            refreshPartitions();
+            partitioned = true;
+            log.info("新闻索引分区模式已启用，粒度={}，现有分区 {} 个",
+                partitionConfig.getGranularity(), partitions.size());
+            return true;
+
+        } catch (IOException e) {
+            // 不缓存结果，下次使用时重试
+            log.error("检查新闻索引分区状态失败", e);
+            throw new RuntimeException("检查新闻索引分区状态失败", e);
+        }
+    }
+
+    /**
+     * 计算日期所属分区名
+     */
+    private String partitionName(LocalDate date) {
+        if (partitionConfig.getGranularity() == ArticlePartitionConfig.Granularity.WEEKLY) {
+            LocalDate monday = date.with(DayOfWeek.MONDAY);
+            return String.format("%s%d.w%02d", PARTITION_PREFIX,
+                monday.get(IsoFields.WEEK_BASED_YEAR), monday.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+        }
+        return String.format("%s%d.%02d", PARTITION_PREFIX, date.getYear(), date.getMonthValue());
+    }
+
+    /**
+     * 解析分区索引名（兼容按月/按周两种命名，粒度切换后旧分区仍可识别）
+     */
+    private Partition parsePartition(String index) {
+        if (!index.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        boolean retained = index.endsWith(RETAINED_SUFFIX);
+        String period = index.substring(PARTITION_PREFIX.length(),
+            retained ? index.length() - RETAINED_SUFFIX.length() : index.length());
+
+        try {
+            String[] parts = period.split("\\.");
+            if (parts.length != 2) {
+                return null;
+            }
+            int year = Integer.parseInt(parts[0]);
+            if (parts[1].startsWith("w")) {
+                LocalDate start = LocalDate.of(year, 1, 4)
+                    .with(IsoFields.WEEK_OF_WEEK_BASED_YEAR, Integer.parseInt(parts[1].substring(1)))
+                    .with(DayOfWeek.MONDAY);
+                return new Partition(index, start, start.plusWeeks(1), retained);
+            }
+            LocalDate start = LocalDate.of(year, Integer.parseInt(parts[1]), 1);
+            return new Partition(index, start, start.plusMonths(1), retained);
+
+        } catch (RuntimeException e) {
+            log.warn("无法识别的新闻分区索引名: {}", index);
+            return null;
+        }
+    }
+
+    /**
+     * 分区索引及其覆盖的采集时间区间 [start, end)
+     */
+    private record Partition(String index, LocalDate start, LocalDate end, boolean retained) {
+    }
+}
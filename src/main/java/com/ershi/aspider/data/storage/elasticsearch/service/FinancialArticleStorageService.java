@@ -1,38 +1,54 @@
 package com.ershi.aspider.data.storage.elasticsearch.service;
 
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
-import co.elastic.clients.elasticsearch.core.BulkRequest;
-import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.InnerRetriever;
+import co.elastic.clients.elasticsearch._types.Retriever;
+import co.elastic.clients.elasticsearch._types.ScoreNormalizer;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
 import co.elastic.clients.elasticsearch.core.DeleteByQueryResponse;
 import co.elastic.clients.elasticsearch.core.SearchResponse;
-import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
 import co.elastic.clients.elasticsearch.core.search.Hit;
 import com.ershi.aspider.data.datasource.domain.FinancialArticle;
+import com.ershi.aspider.data.datasource.domain.NewsTypeEnum;
+import com.ershi.aspider.data.storage.config.ConditionalOnElasticsearchStorage;
+import com.ershi.aspider.data.storage.elasticsearch.config.HybridSearchConfig;
+import com.ershi.aspider.data.storage.memory.HotTierArticleIndex;
+import com.ershi.aspider.data.storage.repository.FinancialArticleRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import com.ershi.aspider.data.datasource.domain.NewsTypeEnum;
-
 import java.io.IOException;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
- * 新闻数据存储服务
+ * 新闻数据存储服务（Elasticsearch 实现）
  *
  * @author Ershi-Gu.
  * @since 2025-11-15
  */
 @Service
-public class FinancialArticleStorageService {
+@ConditionalOnElasticsearchStorage
+public class FinancialArticleStorageService implements FinancialArticleRepository {
 
     private static final Logger log = LoggerFactory.getLogger(FinancialArticleStorageService.class);
 
-    private static final String NEWS_DATA_INDEX = "financial_article";
-
     /** 向量检索最低相似度分数阈值 */
     private static final double MIN_SCORE_THRESHOLD = 0.6;
 
@@ -57,19 +73,64 @@ public class FinancialArticleStorageService {
     /** 重要新闻的boost权重 */
     private static final float IMPORTANCE_BOOST = 1.5f;
 
+    /** 线性融合中关键词召回路的权重（分数经minmax归一化到0-1） */
+    private static final float KEYWORD_RETRIEVER_WEIGHT = 1.0f;
+
+    /** 线性融合权重之和，用于将融合分数还原到0-1范围 */
+    private static final double LINEAR_TOTAL_WEIGHT = SUMMARY_VECTOR_BOOST + TITLE_VECTOR_BOOST + KEYWORD_RETRIEVER_WEIGHT;
+
+    /** 服务端融合的召回路数（摘要向量、标题向量、关键词） */
+    private static final int FUSION_RETRIEVER_COUNT = 3;
+
+    /**
+     * 向量召回路的最低余弦相似度
+     * <p>
+     * cosine相似度下ES的kNN分数为 (1 + cos) / 2，由向量检索阈值反推出等价的余弦相似度门槛
+     */
+    private static final float KNN_MIN_SIMILARITY = (float) (2 * MIN_SCORE_THRESHOLD - 1);
+
+    /** 遍历全部ID时每页扫描的文档数 */
+    private static final int ID_SCAN_PAGE_SIZE = 5000;
+
+    /** 检索结果中无需返回的大字段（向量仅用于召回，不参与后续分析） */
+    private static final String[] SEARCH_SOURCE_EXCLUDES = {"titleVector", "summaryVector"};
+
     private final ElasticsearchClient elasticsearchClient;
 
-    public FinancialArticleStorageService(ElasticsearchClient elasticsearchClient) {
+    private final HybridSearchConfig hybridSearchConfig;
+
+    private final FinancialArticleIndexManager indexManager;
+
+    private final FinancialArticleColdTierService coldTierService;
+
+    private final EsBulkWriter bulkWriter;
+
+    private final HotTierArticleIndex hotTierIndex;
+
+    public FinancialArticleStorageService(ElasticsearchClient elasticsearchClient,
+                                          HybridSearchConfig hybridSearchConfig,
+                                          FinancialArticleIndexManager indexManager,
+                                          FinancialArticleColdTierService coldTierService,
+                                          EsBulkWriter bulkWriter,
+                                          HotTierArticleIndex hotTierIndex) {
         this.elasticsearchClient = elasticsearchClient;
+        this.bulkWriter = bulkWriter;
+        this.hotTierIndex = hotTierIndex;
+        this.hybridSearchConfig = hybridSearchConfig;
+        this.indexManager = indexManager;
+        this.coldTierService = coldTierService;
     }
 
     /**
-     * 批量保存到Elasticsearch
+     * 批量保存到Elasticsearch（同步写入进程内热数据索引）
+     * <p>
+     * BulkIngester 不触发 refresh，写入成功后显式刷新写入目标，使新数据无需等待 refresh_interval 即可被检索
      *
      * @param financialArticle 待保存的新闻数据
      * @return 成功保存的数据条数
      */
-    public int batchSaveToEs(List<FinancialArticle> financialArticle) {
+    @Override
+    public int batchSave(List<FinancialArticle> financialArticle) {
         if (financialArticle == null || financialArticle.isEmpty()) {
             log.warn("无数据需要保存");
             return 0;
@@ -77,44 +138,25 @@ public class FinancialArticleStorageService {
 
         log.info("开始批量保存 {} 条数据到ES", financialArticle.size());
 
-        try {
-            // 构建批量请求
-            BulkRequest.Builder bulkBuilder = new BulkRequest.Builder();
-
-            for (FinancialArticle item : financialArticle) {
-                bulkBuilder.operations(op -> op
-                    .index(idx -> idx
-                        .index(NEWS_DATA_INDEX)
-                        .id(item.getUniqueId())
-                        .document(item)
-                    )
-                );
-            }
-
-            // 执行批量保存
-            BulkResponse response = elasticsearchClient.bulk(bulkBuilder.build());
-
-            // 统计结果
-            int successCount = 0;
-            int failureCount = 0;
-
-            for (BulkResponseItem item : response.items()) {
-                if (item.error() != null) {
-                    failureCount++;
-                    log.error("保存失败 [ID: {}]: {}",
-                              item.id(),
-                              item.error().reason());
-                } else {
-                    successCount++;
-                }
-            }
+        String target = indexManager.writeTarget();
+        int successCount = bulkWriter.write(target, financialArticle, FinancialArticle::getUniqueId);
+        if (successCount > 0) {
+            refreshForSearch(target);
+        }
 
-            log.info("ES批量保存完成，成功: {}，失败: {}", successCount, failureCount);
-            return successCount;
+        // 同步写入进程内热数据索引
+        hotTierIndex.index(financialArticle);
+        return successCount;
+    }
 
-        } catch (IOException e) {
-            log.error("批量保存到ES失败", e);
-            throw new RuntimeException("批量保存到ES失败", e);
+    /**
+     * 刷新写入目标（失败只记录日志：数据已写入，最迟在 refresh_interval 后可见）
+     */
+    private void refreshForSearch(String target) {
+        try {
+            elasticsearchClient.indices().refresh(r -> r.index(target));
+        } catch (IOException | ElasticsearchException e) {
+            log.warn("刷新新闻索引 {} 失败，新数据将在 refresh_interval 后可见", target, e);
         }
     }
 
@@ -126,6 +168,7 @@ public class FinancialArticleStorageService {
      * @param size 查询数量限制
      * @return 新闻列表
      */
+    @Override
     public List<FinancialArticle> findRecentByDays(int days, int size) {
         log.info("开始查询最近 {} 天的新闻数据", days);
 
@@ -133,7 +176,7 @@ public class FinancialArticleStorageService {
             String timeStr = formatTimeFilter(days);
 
             SearchResponse<FinancialArticle> response = elasticsearchClient.search(s -> s
-                    .index(NEWS_DATA_INDEX)
+                    .index(indexManager.searchTargets(days))
                     .query(q -> q
                         .range(r -> r
                             .date(dr -> dr
@@ -168,18 +211,28 @@ public class FinancialArticleStorageService {
      * 清理策略：
      * - 90天前且重要性 < 3 的普通新闻：删除
      * - 90天前且重要性 >= 3 的重要新闻：保留
+     * <p>
+     * 分区模式下按分区整体处理（reindex 保留重要新闻后删除原分区），否则对单一索引执行 deleteByQuery
      *
      * @param beforeTime 清理此时间之前的数据
      * @param minImportance 最低保留重要性（低于此值的删除）
      * @return 删除的数据条数
      */
+    @Override
     public long deleteByTimeAndImportance(LocalDateTime beforeTime, int minImportance) {
+        if (indexManager.isPartitioned()) {
+            log.info("开始按分区清理 {} 之前、重要性 < {} 的过期新闻数据", beforeTime, minImportance);
+            long dropped = indexManager.applyRetention(beforeTime, minImportance);
+            log.info("分区清理完成，共删除 {} 条低重要性过期数据", dropped);
+            return dropped;
+        }
+
         String timeStr = beforeTime.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
         log.info("开始分层清理 {} 之前、重要性 < {} 的过期新闻数据", timeStr, minImportance);
 
         try {
             DeleteByQueryResponse response = elasticsearchClient.deleteByQuery(d -> d
-                .index(NEWS_DATA_INDEX)
+                .index(indexManager.readTarget())
                 .query(q -> q
                     .bool(b -> b
                         // 时间条件：指定时间之前
@@ -236,6 +289,7 @@ public class FinancialArticleStorageService {
      * @param days        时间范围（最近N天，0表示不限制）
      * @return 语义相关的新闻列表
      */
+    @Override
     public List<FinancialArticle> searchByVector(List<Float> queryVector, int topK, int days) {
         log.info("开始向量KNN检索，topK={}, days={}, 最低分数阈值={}", topK, days, MIN_SCORE_THRESHOLD);
 
@@ -247,7 +301,7 @@ public class FinancialArticleStorageService {
                 String timeStr = formatTimeFilter(days);
 
                 response = elasticsearchClient.search(s -> s
-                        .index(NEWS_DATA_INDEX)
+                        .index(indexManager.searchTargets(days))
                         .knn(k -> k
                             .field("summaryVector")
                             .queryVector(queryVector)
@@ -267,7 +321,7 @@ public class FinancialArticleStorageService {
             } else {
                 // 不带时间过滤的KNN检索
                 response = elasticsearchClient.search(s -> s
-                        .index(NEWS_DATA_INDEX)
+                        .index(indexManager.readTarget())
                         .knn(k -> k
                             .field("summaryVector")
                             .queryVector(queryVector)
@@ -299,23 +353,29 @@ public class FinancialArticleStorageService {
      * @param size     数量限制
      * @return 新闻列表
      */
+    @Override
     public List<FinancialArticle> findByNewsTypeAndDays(NewsTypeEnum newsType, int days, int size) {
         log.info("查询{}类型新闻，最近{}天，限制{}条", newsType.getDescription(), days, size);
 
+        if (hotTierIndex.covers(days)) {
+            return hotTierIndex.findByNewsType(newsType, days, size);
+        }
+
         try {
             String timeStr = formatTimeFilter(days);
 
             SearchResponse<FinancialArticle> response = elasticsearchClient.search(s -> s
-                    .index(NEWS_DATA_INDEX)
+                    .index(indexManager.searchTargets(days))
+                    .requestCache(true)
                     .query(q -> q
                         .bool(b -> b
-                            .must(m -> m
+                            .filter(m -> m
                                 .term(t -> t
                                     .field("newsType")
                                     .value(newsType.getCode())
                                 )
                             )
-                            .must(m -> m
+                            .filter(m -> m
                                 .range(r -> r
                                     .date(dr -> dr
                                         .field("publishTime")
@@ -353,17 +413,23 @@ public class FinancialArticleStorageService {
      * @param size          数量限制
      * @return 新闻列表
      */
+    @Override
     public List<FinancialArticle> findByImportanceAndDays(int minImportance, int days, int size) {
         log.info("查询重要性>={}的新闻，最近{}天，限制{}条", minImportance, days, size);
 
+        if (hotTierIndex.covers(days)) {
+            return hotTierIndex.findByImportance(minImportance, days, size);
+        }
+
         try {
             String timeStr = formatTimeFilter(days);
 
             SearchResponse<FinancialArticle> response = elasticsearchClient.search(s -> s
-                    .index(NEWS_DATA_INDEX)
+                    .index(indexManager.searchTargets(days))
+                    .requestCache(true)
                     .query(q -> q
                         .bool(b -> b
-                            .must(m -> m
+                            .filter(m -> m
                                 .range(r -> r
                                     .number(nr -> nr
                                         .field("importance")
@@ -371,7 +437,7 @@ public class FinancialArticleStorageService {
                                     )
                                 )
                             )
-                            .must(m -> m
+                            .filter(m -> m
                                 .range(r -> r
                                     .date(dr -> dr
                                         .field("publishTime")
@@ -410,7 +476,9 @@ public class FinancialArticleStorageService {
     /**
      * 混合检索：向量语义检索 + 关键词匹配
      * <p>
-     * 结合向量相似度和关键词匹配，提高检索准确性
+     * 结合向量相似度和关键词匹配，提高检索准确性。
+     * 配置为 RRF / LINEAR 模式时转由 {@link #fusionSearch} 在服务端完成融合，
+     * 查询窗口在进程内热数据索引覆盖范围内时改由本地索引按相同模式融合（NORMALIZED 模式始终走ES）
      *
      * @param queryText   查询文本（用于关键词匹配）
      * @param queryVector 查询向量（用于语义检索）
@@ -418,7 +486,16 @@ public class FinancialArticleStorageService {
      * @param days        时间范围（最近N天，0表示不限制）
      * @return 相关新闻列表
      */
+    @Override
     public List<FinancialArticle> hybridSearch(String queryText, List<Float> queryVector, int topK, int days) {
+        if (hotTierIndex.coversHybridSearch(days)) {
+            return hotTierIndex.hybridSearch(queryText, queryVector, topK, days);
+        }
+
+        if (hybridSearchConfig.getMode() != HybridSearchConfig.Mode.NORMALIZED) {
+            return fusionSearch(queryText, queryVector, topK, days);
+        }
+
         log.info("开始混合检索，查询词={}, topK={}, days={}", queryText, topK, days);
 
         try {
@@ -429,7 +506,7 @@ public class FinancialArticleStorageService {
                 String timeStr = formatTimeFilter(days);
 
                 response = elasticsearchClient.search(s -> s
-                        .index(NEWS_DATA_INDEX)
+                        .index(indexManager.searchTargets(days))
                         // 关键词查询部分
                         .query(q -> q
                             .bool(b -> b
@@ -491,7 +568,7 @@ public class FinancialArticleStorageService {
             } else {
                 // 不带时间过滤的混合检索
                 response = elasticsearchClient.search(s -> s
-                        .index(NEWS_DATA_INDEX)
+                        .index(indexManager.readTarget())
                         .query(q -> q
                             .bool(b -> b
                                 .should(sh -> sh
@@ -552,6 +629,326 @@ public class FinancialArticleStorageService {
         }
     }
 
+    /**
+     * 冷热全量检索：热数据混合检索 + 冷数据关键词检索 + 冷数据向量检索，按倒数排名融合（RRF）
+     * <p>
+     * 各路分数尺度不同（热数据为归一化融合分、冷数据为BM25或kNN原始分），只按排名融合；
+     * 融合分按理论最大值归一化到0-1写入 searchScore。
+     * 用于长期趋势、重大事件回溯；日常检索仍走 {@link #hybridSearch}，不触及冷索引
+     *
+     * @param queryText   查询文本（用于关键词匹配）
+     * @param queryVector 查询向量（用于语义检索）
+     * @param topK        返回数量
+     * @return 相关新闻列表（按融合分数降序）
+     */
+    @Override
+    public List<FinancialArticle> searchAllTiers(String queryText, List<Float> queryVector, int topK) {
+        List<FinancialArticle> hot = hybridSearch(queryText, queryVector, topK, 0);
+        if (!coldTierService.isEnabled()) {
+            return hot;
+        }
+
+        List<FinancialArticle> coldKeyword = coldTierService.searchColdKeyword(queryText, topK);
+        List<FinancialArticle> coldVector = coldTierService.searchColdVector(queryVector, topK);
+        List<FinancialArticle> fused = reciprocalRankFusion(
+            List.of(hot, coldKeyword, coldVector), hybridSearchConfig.getRankConstant(), topK);
+
+        log.info("冷热全量检索完成，热数据 {} 条，冷数据关键词 {} 条，冷数据向量 {} 条，融合后 {} 条",
+            hot.size(), coldKeyword.size(), coldVector.size(), fused.size());
+        return fused;
+    }
+
+    /**
+     * 客户端倒数排名融合：score = Σ 1 / (rankConstant + rank)，同一 uniqueId 在多路出现时累加
+     *
+     * @param rankings     各路按相关性降序的结果
+     * @param rankConstant RRF 排名常数 k
+     * @param topK         返回数量
+     * @return 融合结果（searchScore 为按理论最大值归一化到0-1的融合分）
+     */
+    static List<FinancialArticle> reciprocalRankFusion(List<List<FinancialArticle>> rankings, int rankConstant, int topK) {
+        Map<String, FinancialArticle> articles = new LinkedHashMap<>();
+        Map<String, Double> scores = new HashMap<>();
+        for (List<FinancialArticle> ranking : rankings) {
+            for (int i = 0; i < ranking.size(); i++) {
+                FinancialArticle article = ranking.get(i);
+                articles.putIfAbsent(article.getUniqueId(), article);
+                scores.merge(article.getUniqueId(), 1.0 / (rankConstant + i + 1), Double::sum);
+            }
+        }
+
+        // 文档在每一路都排第1时取得的理论最大分
+        double maxScore = rankings.size() / (double) (rankConstant + 1);
+        List<FinancialArticle> result = articles.values().stream()
+            .sorted(Comparator.comparingDouble((FinancialArticle a) -> scores.get(a.getUniqueId())).reversed())
+            .limit(topK)
+            .collect(Collectors.toCollection(ArrayList::new));
+        for (FinancialArticle article : result) {
+            article.setSearchScore(scores.get(article.getUniqueId()) / maxScore);
+        }
+        return result;
+    }
+
+    /**
+     * 批量检查唯一ID是否已存在（热数据读别名 + 冷数据索引）
+     * <p>
+     * uniqueId 即文档 _id；热数据读别名在分区模式下对应多个索引，无法使用 mget，改用按 _id 的 ids 查询，不返回 _source
+     */
+    @Override
+    public Set<String> findExistingIds(Collection<String> uniqueIds) {
+        if (uniqueIds == null || uniqueIds.isEmpty()) {
+            return Set.of();
+        }
+        List<String> ids = List.copyOf(uniqueIds);
+
+        try {
+            SearchResponse<Void> response = elasticsearchClient.search(s -> s
+                    .index(indexManager.readTarget(), FinancialArticleColdTierService.COLD_INDEX)
+                    .ignoreUnavailable(true)
+                    .query(q -> q.ids(i -> i.values(ids)))
+                    .source(src -> src.fetch(false))
+                    .trackTotalHits(t -> t.enabled(false))
+                    // 限制返回条数最大为请求条数
+                    .size(ids.size()),
+                Void.class
+            );
+
+            return response.hits().hits().stream()
+                .map(Hit::id)
+                .collect(Collectors.toSet());
+
+        } catch (IOException e) {
+            log.error("批量检查新闻ID失败", e);
+            throw new RuntimeException("批量检查新闻ID失败", e);
+        }
+    }
+
+    /**
+     * 遍历全部已入库ID（热数据读别名 + 冷数据索引，按 uniqueId 排序的 search_after 翻页）
+     */
+    @Override
+    public void forEachId(Consumer<String> consumer) {
+        try {
+            List<FieldValue> searchAfter = null;
+            while (true) {
+                List<FieldValue> after = searchAfter;
+                SearchResponse<Void> response = elasticsearchClient.search(s -> {
+                        s.index(indexManager.readTarget(), FinancialArticleColdTierService.COLD_INDEX)
+                            .ignoreUnavailable(true)
+                            .allowNoIndices(true)
+                            .source(src -> src.fetch(false))
+                            .size(ID_SCAN_PAGE_SIZE)
+                            .trackTotalHits(t -> t.enabled(false))
+                            .sort(so -> so.field(f -> f.field("uniqueId").order(SortOrder.Asc)));
+                        if (after != null) {
+                            s.searchAfter(after);
+                        }
+                        return s;
+                    },
+                    Void.class
+                );
+
+                List<Hit<Void>> hits = response.hits().hits();
+                hits.forEach(hit -> consumer.accept(hit.id()));
+
+                if (hits.size() < ID_SCAN_PAGE_SIZE) {
+                    return;
+                }
+                searchAfter = hits.getLast().sort();
+            }
+
+        } catch (IOException e) {
+            log.error("遍历新闻ID失败", e);
+            throw new RuntimeException("遍历新闻ID失败", e);
+        }
+    }
+
+    /**
+     * 已入库新闻数量（热数据读别名 + 冷数据索引）
+     */
+    @Override
+    public long countIds() {
+        try {
+            return elasticsearchClient.count(c -> c
+                .index(indexManager.readTarget(), FinancialArticleColdTierService.COLD_INDEX)
+                .ignoreUnavailable(true)
+                .allowNoIndices(true)
+            ).count();
+        } catch (IOException e) {
+            log.error("统计新闻数量失败", e);
+            throw new RuntimeException("统计新闻数量失败", e);
+        }
+    }
+
+    /**
+     * 服务端融合检索：由ES retriever完成摘要向量、标题向量、关键词三路召回的融合
+     * <p>
+     * 与客户端归一化相比，只返回最终 topK 条结果（不含向量字段），融合分数写入 searchScore：
+     * <ul>
+     *   <li>LINEAR：各路加权求和后除以权重之和得到0-1融合分，阈值通过 min_score 下推到服务端</li>
+     *   <li>RRF：排名融合没有绝对分值，阈值换算为余弦相似度门槛下推到向量召回路，融合分按理论最大值归一化到0-1</li>
+     * </ul>
+     * 两种模式下向量召回路均带相似度门槛，不相关查询不会因排名靠前而被召回
+     *
+     * @param queryText   查询文本（用于关键词匹配）
+     * @param queryVector 查询向量（用于语义检索）
+     * @param topK        返回数量
+     * @param days        时间范围（最近N天，0表示不限制）
+     * @return 相关新闻列表（按融合分数降序）
+     */
+    public List<FinancialArticle> fusionSearch(String queryText, List<Float> queryVector, int topK, int days) {
+        boolean rrf = hybridSearchConfig.getMode() == HybridSearchConfig.Mode.RRF;
+        int rankWindow = topK * hybridSearchConfig.getRankWindowFactor();
+        int rankConstant = hybridSearchConfig.getRankConstant();
+        log.info("开始服务端融合检索，模式={}, 查询词={}, topK={}, days={}",
+            rrf ? "RRF" : "LINEAR", queryText, topK, days);
+
+        List<Query> filters = days > 0 ? List.of(buildPublishTimeFilter(days)) : List.of();
+
+        Retriever summaryKnn = buildKnnRetriever("summaryVector", queryVector, rankWindow, filters);
+        Retriever titleKnn = buildKnnRetriever("titleVector", queryVector, rankWindow, filters);
+        Retriever keyword = buildKeywordRetriever(queryText, filters);
+
+        Retriever fused;
+        double maxScore;
+        if (rrf) {
+            fused = Retriever.of(r -> r
+                .rrf(rr -> rr
+                    .retrievers(summaryKnn, titleKnn, keyword)
+                    .rankConstant(rankConstant)
+                    .rankWindowSize(rankWindow)
+                )
+            );
+            // 文档在每一路都排第1时取得的理论最大分
+            maxScore = FUSION_RETRIEVER_COUNT / (double) (rankConstant + 1);
+        } else {
+            fused = Retriever.of(r -> r
+                .linear(l -> l
+                    .retrievers(
+                        buildInnerRetriever(summaryKnn, SUMMARY_VECTOR_BOOST, ScoreNormalizer.None),
+                        buildInnerRetriever(titleKnn, TITLE_VECTOR_BOOST, ScoreNormalizer.None),
+                        buildInnerRetriever(keyword, KEYWORD_RETRIEVER_WEIGHT, ScoreNormalizer.Minmax)
+                    )
+                    .rankWindowSize(rankWindow)
+                    .minScore((float) (HYBRID_SCORE_THRESHOLD * LINEAR_TOTAL_WEIGHT))
+                )
+            );
+            maxScore = LINEAR_TOTAL_WEIGHT;
+        }
+
+        try {
+            SearchResponse<FinancialArticle> response = elasticsearchClient.search(s -> s
+                    .index(indexManager.searchTargets(days))
+                    .retriever(fused)
+                    .size(topK)
+                    .source(src -> src.filter(f -> f.excludes(List.of(SEARCH_SOURCE_EXCLUDES)))),
+                FinancialArticle.class
+            );
+
+            List<FinancialArticle> result = new ArrayList<>();
+            for (Hit<FinancialArticle> hit : response.hits().hits()) {
+                if (hit.source() != null) {
+                    FinancialArticle article = hit.source();
+                    article.setUniqueId(hit.id());
+                    article.setSearchScore(hit.score() != null ? Math.min(hit.score() / maxScore, 1.0) : 0);
+                    result.add(article);
+                }
+            }
+
+            log.info("服务端融合检索完成，返回 {} 条结果", result.size());
+            return result;
+
+        } catch (IOException e) {
+            log.error("服务端融合检索失败", e);
+            throw new RuntimeException("服务端融合检索失败", e);
+        }
+    }
+
+    /**
+     * 构建带相似度门槛的kNN召回路
+     */
+    private Retriever buildKnnRetriever(String field, List<Float> queryVector, int rankWindow, List<Query> filters) {
+        return Retriever.of(r -> r
+            .knn(k -> k
+                .field(field)
+                .queryVector(queryVector)
+                .k(rankWindow)
+                .numCandidates(rankWindow * 4)
+                .similarity(KNN_MIN_SIMILARITY)
+                .filter(filters)
+            )
+        );
+    }
+
+    /**
+     * 构建关键词召回路：标题/摘要至少命中其一，重要新闻加权
+     */
+    private Retriever buildKeywordRetriever(String queryText, List<Query> filters) {
+        return Retriever.of(r -> r
+            .standard(st -> st
+                .query(q -> q
+                    .bool(b -> b
+                        .must(m -> m
+                            .bool(mb -> mb
+                                .should(sh -> sh
+                                    .match(mt -> mt
+                                        .field("title")
+                                        .query(queryText)
+                                        .boost(TITLE_BOOST)
+                                    )
+                                )
+                                .should(sh -> sh
+                                    .match(mt -> mt
+                                        .field("summary")
+                                        .query(queryText)
+                                        .boost(SUMMARY_BOOST)
+                                    )
+                                )
+                                .minimumShouldMatch("1")
+                            )
+                        )
+                        .should(sh -> sh
+                            .range(rg -> rg
+                                .number(nr -> nr
+                                    .field("importance")
+                                    .gte(3.0)
+                                    .boost(IMPORTANCE_BOOST)
+                                )
+                            )
+                        )
+                        .filter(filters)
+                    )
+                )
+            )
+        );
+    }
+
+    /**
+     * 构建线性融合的加权子召回路
+     */
+    private InnerRetriever buildInnerRetriever(Retriever retriever, float weight, ScoreNormalizer normalizer) {
+        return InnerRetriever.of(i -> i
+            .retriever(retriever)
+            .weight(weight)
+            .normalizer(normalizer)
+        );
+    }
+
+    /**
+     * 构建发布时间过滤条件
+     */
+    private Query buildPublishTimeFilter(int days) {
+        String timeStr = formatTimeFilter(days);
+        return Query.of(q -> q
+            .range(r -> r
+                .date(dr -> dr
+                    .field("publishTime")
+                    .gte(timeStr)
+                )
+            )
+        );
+    }
+
     /**
      * 通用方法：过滤并限制搜索结果（带固定基准归一化）
      * <p>
@@ -573,21 +970,24 @@ public class FinancialArticleStorageService {
                 // 使用固定基准归一化分数到0-1范围
                 double normalizedScore = Math.min(hit.score() / HYBRID_SCORE_NORMALIZATION_BASE, 1.0);
 
-                // 输出归一化后的分数用于诊断
-                log.info("候选文章: {} | 原始分数: {} | 归一化分数: {}",
-                    article.getTitle().substring(0, Math.min(30, article.getTitle().length())),
-                    hit.score(),
-                    String.format("%.3f", normalizedScore));
+                // 输出归一化后的分数用于诊断（逐条输出，仅调试级别）
+                if (log.isDebugEnabled()) {
+                    log.debug("候选文章: {} | 原始分数: {} | 归一化分数: {}",
+                        article.getTitle().substring(0, Math.min(30, article.getTitle().length())),
+                        hit.score(),
+                        String.format("%.3f", normalizedScore));
+                }
 
                 // 过滤低分结果
                 if (normalizedScore >= scoreThreshold) {
+                    article.setSearchScore(normalizedScore);
                     result.add(article);
 
                     // 达到topK就停止
                     if (result.size() >= topK) {
                         break;
                     }
-                } else {
+                } else if (log.isDebugEnabled()) {
                     log.debug("过滤低分文章: {} | 归一化分数: {} < {}",
                         article.getTitle().substring(0, Math.min(30, article.getTitle().length())),
                         String.format("%.3f", normalizedScore), scoreThreshold);
@@ -617,13 +1017,16 @@ public class FinancialArticleStorageService {
                 article.setUniqueId(hit.id());
                 Double score = hit.score();
 
-                // 输出相似度分数用于诊断
-                log.info("候选文章: {} | 相似度分数: {}",
-                    article.getTitle().substring(0, Math.min(30, article.getTitle().length())),
-                    score);
+                // 输出相似度分数用于诊断（逐条输出，仅调试级别）
+                if (log.isDebugEnabled()) {
+                    log.debug("候选文章: {} | 相似度分数: {}",
+                        article.getTitle().substring(0, Math.min(30, article.getTitle().length())),
+                        score);
+                }
 
                 // 过滤低分结果
                 if (score >= scoreThreshold) {
+                    article.setSearchScore(score);
                     result.add(article);
 
                     // 达到topK就停止
@@ -642,14 +1045,24 @@ public class FinancialArticleStorageService {
     }
 
     /**
-     * 通用方法：格式化时间过滤条件
+     * 通用方法：构建时间过滤条件
+     * <p>
+     * 使用取整到小时的日期表达式（如 now+8h-7d/h）代替精确到秒的时间字符串，同一小时内的查询条件完全一致，
+     * 可命中ES分片请求缓存与过滤器缓存。publishTime 以不带时区的本地时间入库、按UTC解析，
+     * 因此 now 需先加上本地时区偏移，过滤窗口与原先按本地时间计算的结果一致（取整使窗口起点最多提前1小时）。
      *
      * @param days 最近N天
-     * @return 格式化后的时间字符串
+     * @return 日期表达式
      */
     private String formatTimeFilter(int days) {
-        LocalDateTime startTime = LocalDateTime.now().minusDays(days);
-        return startTime.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+        int offsetSeconds = ZoneId.systemDefault().getRules().getOffset(Instant.now()).getTotalSeconds();
+        String offset = "";
+        if (offsetSeconds != 0) {
+            String sign = offsetSeconds > 0 ? "+" : "-";
+            int abs = Math.abs(offsetSeconds);
+            offset = abs % 3600 == 0 ? sign + (abs / 3600) + "h" : sign + (abs / 60) + "m";
+        }
+        return "now" + offset + "-" + days + "d/h";
     }
 
     /**
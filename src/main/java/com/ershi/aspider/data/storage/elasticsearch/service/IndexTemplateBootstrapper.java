@@ -0,0 +1,191 @@
+package com.ershi.aspider.data.storage.elasticsearch.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.mapping.Property;
+import co.elastic.clients.elasticsearch.indices.GetMappingResponse;
+import co.elastic.clients.elasticsearch.indices.get_index_template.IndexTemplateItem;
+import co.elastic.clients.elasticsearch.indices.get_mapping.IndexMappingRecord;
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONObject;
+import com.ershi.aspider.data.storage.config.ConditionalOnElasticsearchStorage;
+import com.ershi.aspider.data.storage.elasticsearch.config.IndexBootstrapConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 索引模板启动引导
+ * <p>
+ * 索引模板随代码发布（classpath:es/templates/*.json），启动时按 version 安装或升级，
+ * 新建索引（含时间分区、保留分区）自动套用模板。已存在的索引无法修改字段类型与索引排序，
+ * 因此同时将现有索引的 mapping 与模板比对，输出偏差供重建索引时参考。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@Component
+@ConditionalOnElasticsearchStorage
+public class IndexTemplateBootstrapper {
+
+    private static final Logger log = LoggerFactory.getLogger(IndexTemplateBootstrapper.class);
+
+    /** 随代码发布的索引模板（模板名即文件名） */
+    private static final List<String> TEMPLATE_NAMES = List.of("financial_article", "sector_money_flow", "sector_quote");
+
+    /** 模板文件目录 */
+    private static final String TEMPLATE_LOCATION = "es/templates/";
+
+    private final ElasticsearchClient elasticsearchClient;
+
+    private final IndexBootstrapConfig bootstrapConfig;
+
+    public IndexTemplateBootstrapper(ElasticsearchClient elasticsearchClient,
+                                     IndexBootstrapConfig bootstrapConfig) {
+        this.elasticsearchClient = elasticsearchClient;
+        this.bootstrapConfig = bootstrapConfig;
+    }
+
+    /**
+     * 应用启动完成后安装模板并检查偏差（失败只记录日志，不影响启动）
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        if (!Boolean.TRUE.equals(bootstrapConfig.getEnabled())) {
+            return;
+        }
+
+        for (String name : TEMPLATE_NAMES) {
+            try {
+                String body = loadTemplate(name);
+                installTemplate(name, body);
+
+                if (Boolean.TRUE.equals(bootstrapConfig.getDetectDrift())) {
+                    List<String> drifts = detectDrift(body);
+                    if (drifts.isEmpty()) {
+                        log.info("索引模板 [{}] 与现有索引mapping一致", name);
+                    } else {
+                        log.warn("索引模板 [{}] 与现有索引mapping存在 {} 处偏差（需重建索引后生效）:\n  {}",
+                            name, drifts.size(), String.join("\n  ", drifts));
+                    }
+                }
+            } catch (Exception e) {
+                log.error("索引模板 [{}] 引导失败", name, e);
+            }
+        }
+    }
+
+    /**
+     * 模板不存在或线上版本低于代码版本时安装模板
+     */
+    private void installTemplate(String name, String body) throws IOException {
+        long codeVersion = JSON.parseObject(body).getLongValue("version");
+
+        Long liveVersion = null;
+        if (elasticsearchClient.indices().existsIndexTemplate(e -> e.name(name)).value()) {
+            List<IndexTemplateItem> items = elasticsearchClient.indices()
+                .getIndexTemplate(g -> g.name(name))
+                .indexTemplates();
+            if (!items.isEmpty()) {
+                liveVersion = items.getFirst().indexTemplate().version();
+            }
+        }
+
+        if (liveVersion != null && liveVersion >= codeVersion) {
+            log.info("索引模板 [{}] 已是最新版本 v{}", name, liveVersion);
+            return;
+        }
+
+        try (InputStream in = new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8))) {
+            elasticsearchClient.indices().putIndexTemplate(p -> p.withJson(in).name(name));
+        }
+        log.info("索引模板 [{}] 已安装 v{}（线上版本: {}）", name, codeVersion, liveVersion);
+    }
+
+    /**
+     * 比对模板与匹配该模板的现有索引mapping
+     * <p>
+     * 检查项：模板字段缺失、字段类型不一致、向量量化方式不一致、text 字段是否建索引、模板外的多余字段
+     *
+     * @param body 模板JSON
+     * @return 偏差描述（为空表示一致）
+     */
+    private List<String> detectDrift(String body) throws IOException {
+        JSONObject template = JSON.parseObject(body);
+        List<String> patterns = template.getJSONArray("index_patterns").toJavaList(String.class);
+        JSONObject expected = template.getJSONObject("template")
+            .getJSONObject("mappings")
+            .getJSONObject("properties");
+
+        GetMappingResponse response = elasticsearchClient.indices().getMapping(g -> g
+            .index(patterns)
+            .allowNoIndices(true)
+            .ignoreUnavailable(true)
+        );
+
+        List<String> drifts = new ArrayList<>();
+        for (Map.Entry<String, IndexMappingRecord> entry : response.mappings().entrySet()) {
+            String index = entry.getKey();
+            Map<String, Property> live = entry.getValue().mappings().properties();
+
+            for (String field : expected.keySet()) {
+                JSONObject spec = expected.getJSONObject(field);
+                Property property = live.get(field);
+                if (property == null) {
+                    drifts.add(index + "." + field + ": 缺失");
+                    continue;
+                }
+
+                String expectedType = spec.getString("type");
+                String liveType = property._kind().jsonValue();
+                if (!Objects.equals(expectedType, liveType)) {
+                    drifts.add(index + "." + field + ": 类型 " + liveType + "，期望 " + expectedType);
+                    continue;
+                }
+
+                if (property.isDenseVector()) {
+                    String expectedOptions = spec.getJSONObject("index_options").getString("type");
+                    String liveOptions = property.denseVector().indexOptions() != null
+                        && property.denseVector().indexOptions().type() != null
+                        ? property.denseVector().indexOptions().type().jsonValue() : null;
+                    if (!Objects.equals(expectedOptions, liveOptions)) {
+                        drifts.add(index + "." + field + ": 向量索引 " + liveOptions + "，期望 " + expectedOptions);
+                    }
+                }
+
+                if (property.isText() && spec.containsKey("index")) {
+                    boolean expectedIndexed = spec.getBooleanValue("index");
+                    boolean liveIndexed = !Boolean.FALSE.equals(property.text().index());
+                    if (expectedIndexed != liveIndexed) {
+                        drifts.add(index + "." + field + ": index=" + liveIndexed + "，期望 " + expectedIndexed);
+                    }
+                }
+            }
+
+            for (String field : live.keySet()) {
+                if (!expected.containsKey(field)) {
+                    drifts.add(index + "." + field + ": 模板中不存在（旧mapping或动态映射）");
+                }
+            }
+        }
+        return drifts;
+    }
+
+    private String loadTemplate(String name) throws IOException {
+        ClassPathResource resource = new ClassPathResource(TEMPLATE_LOCATION + name + ".json");
+        try (InputStream in = resource.getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -1,12 +1,11 @@
 package com.ershi.aspider.data.storage.elasticsearch.service;
 
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
-import co.elastic.clients.elasticsearch.core.BulkRequest;
-import co.elastic.clients.elasticsearch.core.BulkResponse;
 import co.elastic.clients.elasticsearch.core.SearchResponse;
-import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
 import co.elastic.clients.elasticsearch.core.search.Hit;
 import com.ershi.aspider.data.datasource.domain.SectorMoneyFlow;
+import com.ershi.aspider.data.storage.config.ConditionalOnElasticsearchStorage;
+import com.ershi.aspider.data.storage.repository.SectorMoneyFlowRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -17,13 +16,14 @@ import java.util.ArrayList;
 import java.util.List;
 
 /**
- * 板块资金流向存储服务
+ * 板块资金流向存储服务（Elasticsearch 实现）
  *
  * @author Ershi-Gu.
  * @since 2025-12-25
  */
 @Service
-public class SectorMoneyFlowStorageService {
+@ConditionalOnElasticsearchStorage
+public class SectorMoneyFlowStorageService implements SectorMoneyFlowRepository {
 
     private static final Logger log = LoggerFactory.getLogger(SectorMoneyFlowStorageService.class);
 
@@ -31,8 +31,11 @@ public class SectorMoneyFlowStorageService {
 
     private final ElasticsearchClient elasticsearchClient;
 
-    public SectorMoneyFlowStorageService(ElasticsearchClient elasticsearchClient) {
+    private final EsBulkWriter bulkWriter;
+
+    public SectorMoneyFlowStorageService(ElasticsearchClient elasticsearchClient, EsBulkWriter bulkWriter) {
         this.elasticsearchClient = elasticsearchClient;
+        this.bulkWriter = bulkWriter;
     }
 
     /**
@@ -41,7 +44,8 @@ public class SectorMoneyFlowStorageService {
      * @param dataList 待保存的资金流向数据
      * @return 成功保存的数据条数
      */
-    public int batchSaveToEs(List<SectorMoneyFlow> dataList) {
+    @Override
+    public int batchSave(List<SectorMoneyFlow> dataList) {
         if (dataList == null || dataList.isEmpty()) {
             log.warn("无数据需要保存");
             return 0;
@@ -49,40 +53,7 @@ public class SectorMoneyFlowStorageService {
 
         log.info("开始批量保存 {} 条板块资金流向数据到ES", dataList.size());
 
-        try {
-            BulkRequest.Builder bulkBuilder = new BulkRequest.Builder();
-
-            for (SectorMoneyFlow item : dataList) {
-                bulkBuilder.operations(op -> op
-                    .index(idx -> idx
-                        .index(INDEX_NAME)
-                        .id(item.getUniqueId())
-                        .document(item)
-                    )
-                );
-            }
-
-            BulkResponse response = elasticsearchClient.bulk(bulkBuilder.build());
-
-            int successCount = 0;
-            int failureCount = 0;
-
-            for (BulkResponseItem item : response.items()) {
-                if (item.error() != null) {
-                    failureCount++;
-                    log.error("保存失败 [ID: {}]: {}", item.id(), item.error().reason());
-                } else {
-                    successCount++;
-                }
-            }
-
-            log.info("ES批量保存完成，成功: {}，失败: {}", successCount, failureCount);
-            return successCount;
-
-        } catch (IOException e) {
-            log.error("批量保存到ES失败", e);
-            throw new RuntimeException("批量保存到ES失败", e);
-        }
+        return bulkWriter.write(INDEX_NAME, dataList, SectorMoneyFlow::getUniqueId);
     }
 
     /**
@@ -91,6 +62,7 @@ public class SectorMoneyFlowStorageService {
      * @param tradeDate 交易日期
      * @return {@link List }<{@link SectorMoneyFlow }>
      */
+    @Override
     public List<SectorMoneyFlow> findByTradeDate(LocalDate tradeDate) {
         try {
             SearchResponse<SectorMoneyFlow> response = elasticsearchClient.search(s -> s
@@ -123,11 +95,13 @@ public class SectorMoneyFlowStorageService {
      * @param limit      返回条数
      * @return {@link List }<{@link SectorMoneyFlow }>
      */
+    @Override
     public List<SectorMoneyFlow> findBySectorCode(String sectorCode, int limit) {
         try {
             SearchResponse<SectorMoneyFlow> response = elasticsearchClient.search(s -> s
                     .index(INDEX_NAME)
                     .query(q -> q.term(t -> t.field("sectorCode").value(sectorCode)))
+                    .sort(sort -> sort.field(f -> f.field("tradeDate").order(co.elastic.clients.elasticsearch._types.SortOrder.Desc)))
                     .size(limit),
                 SectorMoneyFlow.class
             );
@@ -155,6 +129,7 @@ public class SectorMoneyFlowStorageService {
      * @param topN      数量
      * @return 按主力净流入降序排列的板块列表
      */
+    @Override
     public List<SectorMoneyFlow> findTopByMainNetInflow(LocalDate tradeDate, int topN) {
         log.info("查询{}主力净流入Top{}板块", tradeDate, topN);
 
@@ -193,6 +168,7 @@ public class SectorMoneyFlowStorageService {
      * @param topN      数量
      * @return 按涨幅降序排列的板块列表
      */
+    @Override
     public List<SectorMoneyFlow> findTopByChangePercent(LocalDate tradeDate, int topN) {
         log.info("查询{}涨幅Top{}板块", tradeDate, topN);
 
@@ -231,6 +207,7 @@ public class SectorMoneyFlowStorageService {
      * @param days       天数
      * @return 按日期降序排列的资金流向列表
      */
+    @Override
     public List<SectorMoneyFlow> findRecentBySectorCode(String sectorCode, int days) {
         log.info("查询板块{}最近{}日资金流向", sectorCode, days);
 
@@ -269,6 +246,7 @@ public class SectorMoneyFlowStorageService {
      * @param tradeDate  交易日期
      * @return 板块资金流向，未找到返回null
      */
+    @Override
     public SectorMoneyFlow findBySectorNameAndDate(String sectorName, LocalDate tradeDate) {
         log.info("查询板块[{}]在{}的资金流向", sectorName, tradeDate);
 
@@ -307,6 +285,7 @@ public class SectorMoneyFlowStorageService {
      * @param tradeDate  交易日期
      * @return 排名（从1开始），未找到返回-1
      */
+    @Override
     public int calculateInflowRank(String sectorCode, LocalDate tradeDate) {
         try {
             // 查询当日所有板块，按主力净流入降序
@@ -343,6 +322,7 @@ public class SectorMoneyFlowStorageService {
      * @param tradeDate 交易日期
      * @return 板块总数
      */
+    @Override
     public long countByTradeDate(LocalDate tradeDate) {
         try {
             SearchResponse<SectorMoneyFlow> response = elasticsearchClient.search(s -> s
@@ -1,12 +1,11 @@
 package com.ershi.aspider.data.storage.elasticsearch.service;
 
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
-import co.elastic.clients.elasticsearch.core.BulkRequest;
-import co.elastic.clients.elasticsearch.core.BulkResponse;
 import co.elastic.clients.elasticsearch.core.SearchResponse;
-import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
 import co.elastic.clients.elasticsearch.core.search.Hit;
 import com.ershi.aspider.data.datasource.domain.SectorQuote;
+import com.ershi.aspider.data.storage.config.ConditionalOnElasticsearchStorage;
+import com.ershi.aspider.data.storage.repository.SectorQuoteRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -17,13 +16,14 @@ import java.util.ArrayList;
 import java.util.List;
 
 /**
- * 板块行情存储服务
+ * 板块行情存储服务（Elasticsearch 实现）
  *
  * @author Ershi-Gu.
  * @since 2025-12-25
  */
 @Service
-public class SectorQuoteStorageService {
+@ConditionalOnElasticsearchStorage
+public class SectorQuoteStorageService implements SectorQuoteRepository {
 
     private static final Logger log = LoggerFactory.getLogger(SectorQuoteStorageService.class);
 
@@ -31,8 +31,11 @@ public class SectorQuoteStorageService {
 
     private final ElasticsearchClient elasticsearchClient;
 
-    public SectorQuoteStorageService(ElasticsearchClient elasticsearchClient) {
+    private final EsBulkWriter bulkWriter;
+
+    public SectorQuoteStorageService(ElasticsearchClient elasticsearchClient, EsBulkWriter bulkWriter) {
         this.elasticsearchClient = elasticsearchClient;
+        this.bulkWriter = bulkWriter;
     }
 
     /**
@@ -41,7 +44,8 @@ public class SectorQuoteStorageService {
      * @param dataList 待保存的行情数据
      * @return 成功保存的数据条数
      */
-    public int batchSaveToEs(List<SectorQuote> dataList) {
+    @Override
+    public int batchSave(List<SectorQuote> dataList) {
         if (dataList == null || dataList.isEmpty()) {
             log.warn("无数据需要保存");
             return 0;
@@ -49,40 +53,7 @@ public class SectorQuoteStorageService {
 
         log.info("开始批量保存 {} 条板块行情数据到ES", dataList.size());
 
-        try {
-            BulkRequest.Builder bulkBuilder = new BulkRequest.Builder();
-
-            for (SectorQuote item : dataList) {
-                bulkBuilder.operations(op -> op
-                    .index(idx -> idx
-                        .index(INDEX_NAME)
-                        .id(item.getUniqueId())
-                        .document(item)
-                    )
-                );
-            }
-
-            BulkResponse response = elasticsearchClient.bulk(bulkBuilder.build());
-
-            int successCount = 0;
-            int failureCount = 0;
-
-            for (BulkResponseItem item : response.items()) {
-                if (item.error() != null) {
-                    failureCount++;
-                    log.error("保存失败 [ID: {}]: {}", item.id(), item.error().reason());
-                } else {
-                    successCount++;
-                }
-            }
-
-            log.info("ES批量保存完成，成功: {}，失败: {}", successCount, failureCount);
-            return successCount;
-
-        } catch (IOException e) {
-            log.error("批量保存到ES失败", e);
-            throw new RuntimeException("批量保存到ES失败", e);
-        }
+        return bulkWriter.write(INDEX_NAME, dataList, SectorQuote::getUniqueId);
     }
 
     /**
@@ -91,6 +62,7 @@ public class SectorQuoteStorageService {
      * @param tradeDate 交易日期
      * @return {@link List }<{@link SectorQuote }>
      */
+    @Override
     public List<SectorQuote> findByTradeDate(LocalDate tradeDate) {
         try {
             SearchResponse<SectorQuote> response = elasticsearchClient.search(s -> s
@@ -123,6 +95,7 @@ public class SectorQuoteStorageService {
      * @param limit      返回条数
      * @return {@link List }<{@link SectorQuote }>
      */
+    @Override
     public List<SectorQuote> findBySectorCode(String sectorCode, int limit) {
         try {
             SearchResponse<SectorQuote> response = elasticsearchClient.search(s -> s
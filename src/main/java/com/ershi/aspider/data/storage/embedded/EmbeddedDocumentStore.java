@@ -0,0 +1,140 @@
+package com.ershi.aspider.data.storage.embedded;
+
+import com.alibaba.fastjson2.JSON;
+import org.springframework.beans.BeanUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 嵌入式文档存储：段文件日志持久化 + 内存主键表
+ * <p>
+ * 文档以JSON落盘，启动时重放日志恢复主键表；查询在内存中过滤排序，返回文档副本，调用方修改不影响存储。
+ * 适用于板块数据这类结构化小文档（每日数百条）。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+final class EmbeddedDocumentStore<T> implements AutoCloseable {
+
+    private final Class<T> type;
+
+    private final Function<T, String> idMapper;
+
+    private final MappedSegmentLog segmentLog;
+
+    private final Map<String, T> documents = new LinkedHashMap<>();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    EmbeddedDocumentStore(Path directory, int segmentSize, Class<T> type, Function<T, String> idMapper) throws IOException {
+        this.type = type;
+        this.idMapper = idMapper;
+        this.segmentLog = new MappedSegmentLog(directory, segmentSize);
+        this.segmentLog.replay(this::apply);
+    }
+
+    /**
+     * 批量写入（同一ID覆盖）
+     *
+     * @return 写入条数
+     */
+    int putAll(List<T> docs) throws IOException {
+        List<MappedSegmentLog.Entry> entries = new ArrayList<>(docs.size());
+        for (T doc : docs) {
+            String id = idMapper.apply(doc);
+            if (id != null) {
+                entries.add(MappedSegmentLog.Entry.put(id, JSON.toJSONBytes(doc)));
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            segmentLog.append(entries);
+            for (T doc : docs) {
+                String id = idMapper.apply(doc);
+                if (id != null) {
+                    documents.put(id, copyOf(doc));
+                }
+            }
+            segmentLog.compactIfNeeded(documents::containsKey, documents.size());
+            return entries.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 按条件过滤、排序并截取
+     *
+     * @param condition 过滤条件
+     * @param order     排序方式（null 表示保持写入顺序）
+     * @param limit     数量限制
+     * @return 文档副本
+     */
+    List<T> find(Predicate<T> condition, Comparator<T> order, int limit) {
+        lock.readLock().lock();
+        try {
+            List<T> matched = new ArrayList<>();
+            for (T doc : documents.values()) {
+                if (condition.test(doc)) {
+                    matched.add(doc);
+                }
+            }
+            if (order != null) {
+                matched.sort(order);
+            }
+            return matched.stream().limit(limit).map(this::copyOf).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 统计满足条件的文档数
+     */
+    long count(Predicate<T> condition) {
+        lock.readLock().lock();
+        try {
+            return documents.values().stream().filter(condition).count();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            segmentLog.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(byte op, String id, ByteBuffer payload) {
+        if (op == MappedSegmentLog.PUT) {
+            byte[] bytes = new byte[payload.remaining()];
+            payload.get(bytes);
+            documents.put(id, JSON.parseObject(new String(bytes, StandardCharsets.UTF_8), type));
+        } else {
+            documents.remove(id);
+        }
+    }
+
+    private T copyOf(T source) {
+        T copy = BeanUtils.instantiateClass(type);
+        BeanUtils.copyProperties(source, copy);
+        return copy;
+    }
+}
@@ -0,0 +1,314 @@
+package com.ershi.aspider.data.storage.embedded;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.filter.PropertyFilter;
+import com.ershi.aspider.data.datasource.domain.FinancialArticle;
+import com.ershi.aspider.data.datasource.domain.NewsTypeEnum;
+import com.ershi.aspider.data.storage.config.ConditionalOnEmbeddedStorage;
+import com.ershi.aspider.data.storage.embedded.config.EmbeddedStorageConfig;
+import com.ershi.aspider.data.storage.memory.LocalArticleIndex;
+import com.ershi.aspider.data.storage.repository.FinancialArticleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * 新闻数据嵌入式存储
+ * <p>
+ * 新闻以段文件日志持久化（JSON + float32 向量），启动时重放日志构建暴力扫描向量的 {@link LocalArticleIndex}，
+ * 所有查询在进程内完成，分数语义与ES LINEAR 融合一致。不区分冷热层：分层清理保留的重要新闻始终可检索。
+ * 检索结果不含向量字段。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@Service
+@ConditionalOnEmbeddedStorage
+public class EmbeddedFinancialArticleRepository implements FinancialArticleRepository, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(EmbeddedFinancialArticleRepository.class);
+
+    private static final String DIRECTORY = "financial_article";
+
+    /** 向量检索最低相似度分数阈值（与ES实现一致） */
+    private static final double MIN_SCORE_THRESHOLD = 0.6;
+
+    /** 落盘JSON中不包含的字段（向量单独以 float32 存储，检索分数不落库） */
+    private static final PropertyFilter PAYLOAD_FILTER = (object, name, value) ->
+        !"titleVector".equals(name) && !"summaryVector".equals(name) && !"searchScore".equals(name);
+
+    private static final Comparator<FinancialArticle> NEWEST_FIRST =
+        Comparator.comparing(FinancialArticle::getPublishTime).reversed();
+
+    private final MappedSegmentLog segmentLog;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private LocalArticleIndex index = LocalArticleIndex.flat();
+
+    public EmbeddedFinancialArticleRepository(EmbeddedStorageConfig config) {
+        long start = System.currentTimeMillis();
+        try {
+            this.segmentLog = new MappedSegmentLog(Path.of(config.getDataDir(), DIRECTORY),
+                config.getSegmentSizeMb() * 1024 * 1024);
+        } catch (IOException e) {
+            throw new RuntimeException("打开新闻本地存储失败", e);
+        }
+
+        segmentLog.replay((op, id, payload) -> {
+            if (op == MappedSegmentLog.PUT) {
+                index.add(decode(id, payload));
+            } else {
+                index.remove(id);
+            }
+        });
+        if (index.docCount() > index.liveCount()) {
+            index = index.rebuild(article -> true);
+        }
+        log.info("新闻本地存储加载完成，共 {} 条，耗时 {} ms", index.liveCount(), System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public int batchSave(List<FinancialArticle> financialArticle) {
+        if (financialArticle == null || financialArticle.isEmpty()) {
+            log.warn("无数据需要保存");
+            return 0;
+        }
+
+        List<FinancialArticle> valid = financialArticle.stream().filter(a -> a.getUniqueId() != null).toList();
+        List<MappedSegmentLog.Entry> entries = new ArrayList<>(valid.size());
+        for (FinancialArticle article : valid) {
+            entries.add(MappedSegmentLog.Entry.put(article.getUniqueId(), encode(article)));
+        }
+
+        lock.writeLock().lock();
+        try {
+            segmentLog.append(entries);
+            valid.forEach(index::add);
+
+            // 覆盖写入同样产生旧记录，墓碑过多时重建索引并压缩日志
+            compactIfNeeded();
+            log.info("批量保存 {} 条新闻数据到本地存储", valid.size());
+            return valid.size();
+        } catch (IOException e) {
+            log.error("保存新闻数据失败", e);
+            throw new RuntimeException("保存新闻数据失败", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<FinancialArticle> findRecentByDays(int days, int size) {
+        lock.readLock().lock();
+        try {
+            return index.scan(article -> true, cutoffOf(days), NEWEST_FIRST, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long deleteByTimeAndImportance(LocalDateTime beforeTime, int minImportance) {
+        lock.writeLock().lock();
+        try {
+            List<String> removed = index.removeIf(article -> article.getCrawlTime() != null
+                && article.getCrawlTime().isBefore(beforeTime)
+                && (article.getImportance() == null || article.getImportance() < minImportance));
+            if (removed.isEmpty()) {
+                return 0;
+            }
+
+            segmentLog.append(removed.stream().map(MappedSegmentLog.Entry::delete).toList());
+
+            // 墓碑过多时重建索引并压缩日志
+            compactIfNeeded();
+
+            log.info("分层清理完成，共删除 {} 条低重要性过期数据", removed.size());
+            return removed.size();
+        } catch (IOException e) {
+            log.error("分层清理过期新闻数据失败", e);
+            throw new RuntimeException("分层清理过期新闻数据失败", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<FinancialArticle> searchByVector(List<Float> queryVector, int topK, int days) {
+        lock.readLock().lock();
+        try {
+            return index.vectorSearch(queryVector, topK, days > 0 ? cutoffOf(days) : null, MIN_SCORE_THRESHOLD, 0);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<FinancialArticle> findByNewsTypeAndDays(NewsTypeEnum newsType, int days, int size) {
+        lock.readLock().lock();
+        try {
+            return index.scan(article -> article.getNewsType() == newsType, cutoffOf(days), NEWEST_FIRST, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<FinancialArticle> findByImportanceAndDays(int minImportance, int days, int size) {
+        lock.readLock().lock();
+        try {
+            return index.scan(article -> article.getImportance() != null && article.getImportance() >= minImportance,
+                cutoffOf(days),
+                Comparator.comparing(FinancialArticle::getImportance).reversed().thenComparing(NEWEST_FIRST),
+                size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<FinancialArticle> hybridSearch(String queryText, List<Float> queryVector, int topK, int days) {
+        lock.readLock().lock();
+        try {
+            List<FinancialArticle> result = index.hybridSearch(queryText, queryVector, topK,
+                days > 0 ? cutoffOf(days) : null, 0);
+            log.info("本地混合检索完成，查询词={}, 返回 {} 条", queryText, result.size());
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<FinancialArticle> searchAllTiers(String queryText, List<Float> queryVector, int topK) {
+        return hybridSearch(queryText, queryVector, topK, 0);
+    }
+
+    @Override
+    public Set<String> findExistingIds(Collection<String> uniqueIds) {
+        lock.readLock().lock();
+        try {
+            Set<String> existing = new HashSet<>();
+            for (String id : uniqueIds) {
+                if (id != null && index.contains(id)) {
+                    existing.add(id);
+                }
+            }
+            return existing;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void forEachId(Consumer<String> consumer) {
+        List<String> ids = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            index.forEachId(ids::add);
+        } finally {
+            lock.readLock().unlock();
+        }
+        ids.forEach(consumer);
+    }
+
+    @Override
+    public long countIds() {
+        lock.readLock().lock();
+        try {
+            return index.liveCount();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            segmentLog.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 墓碑过多时重建索引，日志垃圾记录过多时压缩（调用方持有写锁）
+     */
+    private void compactIfNeeded() throws IOException {
+        if (index.docCount() - index.liveCount() > index.liveCount()) {
+            index = index.rebuild(article -> true);
+        }
+        LocalArticleIndex current = index;
+        segmentLog.compactIfNeeded(current::contains, current.liveCount());
+    }
+
+    private static LocalDateTime cutoffOf(int days) {
+        return LocalDateTime.now().minusDays(days);
+    }
+
+    /**
+     * 编码：jsonLength(4) + json + summaryDim(4) + summary(float32) + titleDim(4) + title(float32)
+     */
+    private static byte[] encode(FinancialArticle article) {
+        byte[] json = JSON.toJSONBytes(article, PAYLOAD_FILTER);
+        List<Double> summary = article.getSummaryVector();
+        List<Double> title = article.getTitleVector();
+        int summaryDim = summary != null ? summary.size() : 0;
+        int titleDim = title != null ? title.size() : 0;
+
+        ByteBuffer buffer = ByteBuffer.allocate(12 + json.length + 4 * (summaryDim + titleDim));
+        buffer.putInt(json.length).put(json);
+        putVector(buffer, summary);
+        putVector(buffer, title);
+        return buffer.array();
+    }
+
+    private static FinancialArticle decode(String id, ByteBuffer payload) {
+        byte[] json = new byte[payload.getInt()];
+        payload.get(json);
+        FinancialArticle article = JSON.parseObject(new String(json, StandardCharsets.UTF_8), FinancialArticle.class);
+        article.setUniqueId(id);
+        article.setSummaryVector(getVector(payload));
+        article.setTitleVector(getVector(payload));
+        return article;
+    }
+
+    private static void putVector(ByteBuffer buffer, List<Double> vector) {
+        if (vector == null) {
+            buffer.putInt(0);
+            return;
+        }
+        buffer.putInt(vector.size());
+        for (Double value : vector) {
+            buffer.putFloat(value != null ? value.floatValue() : 0f);
+        }
+    }
+
+    private static List<Double> getVector(ByteBuffer buffer) {
+        int dim = buffer.getInt();
+        if (dim == 0) {
+            return null;
+        }
+        List<Double> vector = new ArrayList<>(dim);
+        for (int i = 0; i < dim; i++) {
+            vector.add((double) buffer.getFloat());
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,134 @@
+package com.ershi.aspider.data.storage.embedded;
+
+import com.ershi.aspider.data.datasource.domain.SectorMoneyFlow;
+import com.ershi.aspider.data.storage.config.ConditionalOnEmbeddedStorage;
+import com.ershi.aspider.data.storage.embedded.config.EmbeddedStorageConfig;
+import com.ershi.aspider.data.storage.repository.SectorMoneyFlowRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 板块资金流向嵌入式存储
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@Service
+@ConditionalOnEmbeddedStorage
+public class EmbeddedSectorMoneyFlowRepository implements SectorMoneyFlowRepository, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(EmbeddedSectorMoneyFlowRepository.class);
+
+    private static final String DIRECTORY = "sector_money_flow";
+
+    /** 单日查询上限（与ES实现一致） */
+    private static final int MAX_DAILY_SIZE = 1000;
+
+    private static final Comparator<SectorMoneyFlow> BY_MAIN_NET_INFLOW_DESC =
+        Comparator.comparing(SectorMoneyFlow::getMainNetInflow, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    private static final Comparator<SectorMoneyFlow> BY_TRADE_DATE_DESC =
+        Comparator.comparing(SectorMoneyFlow::getTradeDate, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    private final EmbeddedDocumentStore<SectorMoneyFlow> store;
+
+    public EmbeddedSectorMoneyFlowRepository(EmbeddedStorageConfig config) {
+        try {
+            this.store = new EmbeddedDocumentStore<>(Path.of(config.getDataDir(), DIRECTORY),
+                config.getSegmentSizeMb() * 1024 * 1024, SectorMoneyFlow.class, SectorMoneyFlow::getUniqueId);
+        } catch (IOException e) {
+            throw new RuntimeException("打开板块资金流向本地存储失败", e);
+        }
+    }
+
+    @Override
+    public int batchSave(List<SectorMoneyFlow> dataList) {
+        if (dataList == null || dataList.isEmpty()) {
+            log.warn("无数据需要保存");
+            return 0;
+        }
+
+        try {
+            int count = store.putAll(dataList);
+            log.info("批量保存 {} 条板块资金流向数据到本地存储", count);
+            return count;
+        } catch (IOException e) {
+            log.error("保存板块资金流向数据失败", e);
+            throw new RuntimeException("保存板块资金流向数据失败", e);
+        }
+    }
+
+    @Override
+    public List<SectorMoneyFlow> findByTradeDate(LocalDate tradeDate) {
+        return store.find(flow -> tradeDate.equals(flow.getTradeDate()), null, MAX_DAILY_SIZE);
+    }
+
+    @Override
+    public List<SectorMoneyFlow> findBySectorCode(String sectorCode, int limit) {
+        return store.find(flow -> sectorCode.equals(flow.getSectorCode()), BY_TRADE_DATE_DESC, limit);
+    }
+
+    @Override
+    public List<SectorMoneyFlow> findTopByMainNetInflow(LocalDate tradeDate, int topN) {
+        return store.find(flow -> tradeDate.equals(flow.getTradeDate()), BY_MAIN_NET_INFLOW_DESC, topN);
+    }
+
+    @Override
+    public List<SectorMoneyFlow> findTopByChangePercent(LocalDate tradeDate, int topN) {
+        return store.find(flow -> tradeDate.equals(flow.getTradeDate()),
+            Comparator.comparing(SectorMoneyFlow::getChangePercent, Comparator.nullsLast(Comparator.reverseOrder())),
+            topN);
+    }
+
+    @Override
+    public List<SectorMoneyFlow> findRecentBySectorCode(String sectorCode, int days) {
+        return store.find(flow -> sectorCode.equals(flow.getSectorCode()), BY_TRADE_DATE_DESC, days);
+    }
+
+    /**
+     * 先按名称精确匹配，未命中时按包含关系匹配（近似ES的分词匹配）
+     */
+    @Override
+    public SectorMoneyFlow findBySectorNameAndDate(String sectorName, LocalDate tradeDate) {
+        List<SectorMoneyFlow> exact = store.find(flow -> tradeDate.equals(flow.getTradeDate())
+            && sectorName.equals(flow.getSectorName()), null, 1);
+        if (!exact.isEmpty()) {
+            return exact.getFirst();
+        }
+
+        List<SectorMoneyFlow> partial = store.find(flow -> tradeDate.equals(flow.getTradeDate())
+            && flow.getSectorName() != null
+            && (flow.getSectorName().contains(sectorName) || sectorName.contains(flow.getSectorName())), null, 1);
+        return partial.isEmpty() ? null : partial.getFirst();
+    }
+
+    @Override
+    public int calculateInflowRank(String sectorCode, LocalDate tradeDate) {
+        List<SectorMoneyFlow> ranked = store.find(flow -> tradeDate.equals(flow.getTradeDate()),
+            BY_MAIN_NET_INFLOW_DESC, MAX_DAILY_SIZE);
+        for (int i = 0; i < ranked.size(); i++) {
+            if (Objects.equals(sectorCode, ranked.get(i).getSectorCode())) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public long countByTradeDate(LocalDate tradeDate) {
+        return store.count(flow -> tradeDate.equals(flow.getTradeDate()));
+    }
+
+    @Override
+    public void close() throws IOException {
+        store.close();
+    }
+}
@@ -0,0 +1,77 @@
+package com.ershi.aspider.data.storage.embedded;
+
+import com.ershi.aspider.data.datasource.domain.SectorQuote;
+import com.ershi.aspider.data.storage.config.ConditionalOnEmbeddedStorage;
+import com.ershi.aspider.data.storage.embedded.config.EmbeddedStorageConfig;
+import com.ershi.aspider.data.storage.repository.SectorQuoteRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 板块行情嵌入式存储
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@Service
+@ConditionalOnEmbeddedStorage
+public class EmbeddedSectorQuoteRepository implements SectorQuoteRepository, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(EmbeddedSectorQuoteRepository.class);
+
+    private static final String DIRECTORY = "sector_quote";
+
+    /** 单日查询上限（与ES实现一致） */
+    private static final int MAX_DAILY_SIZE = 1000;
+
+    private final EmbeddedDocumentStore<SectorQuote> store;
+
+    public EmbeddedSectorQuoteRepository(EmbeddedStorageConfig config) {
+        try {
+            this.store = new EmbeddedDocumentStore<>(Path.of(config.getDataDir(), DIRECTORY),
+                config.getSegmentSizeMb() * 1024 * 1024, SectorQuote.class, SectorQuote::getUniqueId);
+        } catch (IOException e) {
+            throw new RuntimeException("打开板块行情本地存储失败", e);
+        }
+    }
+
+    @Override
+    public int batchSave(List<SectorQuote> dataList) {
+        if (dataList == null || dataList.isEmpty()) {
+            log.warn("无数据需要保存");
+            return 0;
+        }
+
+        try {
+            int count = store.putAll(dataList);
+            log.info("批量保存 {} 条板块行情数据到本地存储", count);
+            return count;
+        } catch (IOException e) {
+            log.error("保存板块行情数据失败", e);
+            throw new RuntimeException("保存板块行情数据失败", e);
+        }
+    }
+
+    @Override
+    public List<SectorQuote> findByTradeDate(LocalDate tradeDate) {
+        return store.find(quote -> tradeDate.equals(quote.getTradeDate()), null, MAX_DAILY_SIZE);
+    }
+
+    @Override
+    public List<SectorQuote> findBySectorCode(String sectorCode, int limit) {
+        return store.find(quote -> sectorCode.equals(quote.getSectorCode()),
+            Comparator.comparing(SectorQuote::getTradeDate, Comparator.nullsLast(Comparator.reverseOrder())), limit);
+    }
+
+    @Override
+    public void close() throws IOException {
+        store.close();
+    }
+}
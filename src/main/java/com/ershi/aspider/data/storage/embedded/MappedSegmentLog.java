@@ -0,0 +1,359 @@
+package com.ershi.aspider.data.storage.embedded;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 内存映射段文件日志
+ * <p>
+ * 只追加的记录日志，按固定大小切分为段文件并整体映射到内存，写入即内存拷贝，批次结束时 force 落盘。
+ * 段文件头记录有效写入位置，每条记录带 CRC32 校验，重放时遇到损坏的尾部记录即截断（进程崩溃时的半条记录）。
+ * 覆盖写入与删除均以追加记录表达，垃圾记录过多时由 {@link #compact} 把有效记录复制到新段并删除旧段。
+ * 段关闭时立即释放内存映射，不等待GC回收缓冲区（映射未释放时删除的文件仍占用磁盘，部分平台上无法删除）。
+ * <p>
+ * 段格式：magic(4) + version(4) + writeOffset(8)，随后为记录：length(4) + crc(4) + [op(1) + idLength(2) + id + payload]。
+ * 非线程安全，由调用方加锁。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+final class MappedSegmentLog implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(MappedSegmentLog.class);
+
+    /** 写入/覆盖记录 */
+    static final byte PUT = 1;
+
+    /** 删除记录 */
+    static final byte DELETE = 2;
+
+    private static final int MAGIC = 0x4153_4C47;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int WRITE_OFFSET_POSITION = 8;
+    private static final int RECORD_HEADER_SIZE = 8;
+
+    /** 垃圾记录数超过有效记录数且不少于该值时才压缩，避免小数据量下频繁重写 */
+    private static final long MIN_GARBAGE_FOR_COMPACTION = 1024;
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d{8})\\.log");
+
+    /** 释放映射缓冲区的方法（sun.misc.Unsafe#invokeCleaner），不可用时为 null，映射由GC释放 */
+    private static final MethodHandle INVOKE_CLEANER = lookupCleaner();
+
+    private final Path directory;
+
+    private final int segmentSize;
+
+    private final List<Segment> segments = new ArrayList<>();
+
+    /** 日志中的记录总数（含被覆盖与删除的记录） */
+    private long recordCount;
+
+    MappedSegmentLog(Path directory, int segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.filter(p -> SEGMENT_NAME.matcher(p.getFileName().toString()).matches()).sorted().toList();
+        }
+        for (Path file : files) {
+            segments.add(Segment.open(file, sequenceOf(file)));
+        }
+    }
+
+    /**
+     * 按写入顺序重放全部记录
+     */
+    void replay(RecordVisitor visitor) {
+        long count = 0;
+        for (Segment segment : segments) {
+            int position = HEADER_SIZE;
+            while (position + RECORD_HEADER_SIZE <= segment.writeOffset) {
+                int length = segment.buffer.getInt(position);
+                int crc = segment.buffer.getInt(position + 4);
+                int bodyStart = position + RECORD_HEADER_SIZE;
+                if (length <= 0 || bodyStart + length > segment.writeOffset
+                    || crc != crc32(segment.buffer.slice(bodyStart, length))) {
+                    log.warn("段文件 {} 在偏移 {} 处记录损坏，截断其后 {} 字节",
+                        segment.path.getFileName(), position, segment.writeOffset - position);
+                    segment.setWriteOffset(position);
+                    break;
+                }
+
+                byte op = segment.buffer.get(bodyStart);
+                int idLength = Short.toUnsignedInt(segment.buffer.getShort(bodyStart + 1));
+                byte[] id = new byte[idLength];
+                segment.buffer.get(bodyStart + 3, id);
+                int payloadStart = bodyStart + 3 + idLength;
+                ByteBuffer payload = segment.buffer.slice(payloadStart, bodyStart + length - payloadStart).asReadOnlyBuffer();
+                visitor.visit(op, new String(id, StandardCharsets.UTF_8), payload);
+
+                count++;
+                position = bodyStart + length;
+            }
+        }
+        recordCount = count;
+    }
+
+    /**
+     * 追加一批记录并落盘
+     */
+    void append(List<Entry> entries) throws IOException {
+        Set<Segment> touched = new LinkedHashSet<>();
+        for (Entry entry : entries) {
+            byte[] id = entry.id().getBytes(StandardCharsets.UTF_8);
+            byte[] payload = entry.payload() != null ? entry.payload() : new byte[0];
+            int length = 3 + id.length + payload.length;
+
+            ByteBuffer body = ByteBuffer.allocate(length);
+            body.put(entry.op()).putShort((short) id.length).put(id).put(payload).flip();
+
+            Segment segment = writableSegment(RECORD_HEADER_SIZE + length);
+            int position = segment.writeOffset;
+            segment.buffer.putInt(position, length);
+            segment.buffer.putInt(position + 4, crc32(body.duplicate()));
+            segment.buffer.put(position + RECORD_HEADER_SIZE, body, 0, length);
+            segment.setWriteOffset(position + RECORD_HEADER_SIZE + length);
+            touched.add(segment);
+            recordCount++;
+        }
+        for (Segment segment : touched) {
+            segment.buffer.force();
+        }
+    }
+
+    /**
+     * 垃圾记录过多时压缩
+     *
+     * @param isLive    ID 是否仍有效
+     * @param liveCount 有效记录数
+     */
+    void compactIfNeeded(Predicate<String> isLive, long liveCount) throws IOException {
+        long garbage = recordCount - liveCount;
+        if (garbage > liveCount && garbage >= MIN_GARBAGE_FOR_COMPACTION) {
+            compact(isLive);
+        }
+    }
+
+    /**
+     * 压缩：把每个有效ID的最后一条写入记录复制到新段，随后删除旧段
+     * <p>
+     * 新段序号大于旧段，复制中途崩溃时旧段仍完整，重放结果不变
+     */
+    void compact(Predicate<String> isLive) throws IOException {
+        List<Segment> oldSegments = new ArrayList<>(segments);
+        long before = recordCount;
+
+        // 第一遍：定位每个有效ID最后一次写入的记录
+        Map<String, Long> latest = new HashMap<>();
+        long[] ordinal = {0};
+        replay((op, id, payload) -> {
+            if (op == PUT && isLive.test(id)) {
+                latest.put(id, ordinal[0]);
+            } else {
+                latest.remove(id);
+            }
+            ordinal[0]++;
+        });
+
+        // 第二遍：按原顺序复制
+        List<Entry> live = new ArrayList<>(latest.size());
+        ordinal[0] = 0;
+        replay((op, id, payload) -> {
+            Long keep = latest.get(id);
+            if (keep != null && keep == ordinal[0]) {
+                byte[] bytes = new byte[payload.remaining()];
+                payload.get(bytes);
+                live.add(new Entry(PUT, id, bytes));
+            }
+            ordinal[0]++;
+        });
+
+        segments.add(Segment.create(segmentPath(nextSequence()), nextSequence(), segmentSize));
+        recordCount = 0;
+        append(live);
+
+        // 先释放映射再删除，旧段的缓冲区此后不再访问
+        for (Segment segment : oldSegments) {
+            segments.remove(segment);
+            segment.close();
+            Files.deleteIfExists(segment.path);
+        }
+        log.info("段日志 {} 压缩完成，记录数 {} -> {}，段文件 {} -> {}",
+            directory.getFileName(), before, recordCount, oldSegments.size(), segments.size());
+    }
+
+    long recordCount() {
+        return recordCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Segment segment : segments) {
+            segment.buffer.force();
+            segment.close();
+        }
+        segments.clear();
+    }
+
+    private Segment writableSegment(int recordSize) throws IOException {
+        Segment active = segments.isEmpty() ? null : segments.getLast();
+        if (active == null || active.writeOffset + recordSize > active.buffer.capacity()) {
+            // 超大记录单独占用一个足够大的段
+            active = Segment.create(segmentPath(nextSequence()), nextSequence(), Math.max(segmentSize, HEADER_SIZE + recordSize));
+            segments.add(active);
+        }
+        return active;
+    }
+
+    private long nextSequence() {
+        return segments.isEmpty() ? 1 : segments.getLast().sequence + 1;
+    }
+
+    private Path segmentPath(long sequence) {
+        return directory.resolve(String.format("segment-%08d.log", sequence));
+    }
+
+    private static long sequenceOf(Path file) {
+        Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+        return matcher.matches() ? Long.parseLong(matcher.group(1)) : 0;
+    }
+
+    private static MethodHandle lookupCleaner() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            return MethodHandles.lookup()
+                .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                .bindTo(field.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.warn("无法获取映射缓冲区释放方法，段文件映射将由GC释放", e);
+            return null;
+        }
+    }
+
+    private static int crc32(ByteBuffer buffer) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * 重放回调
+     */
+    @FunctionalInterface
+    interface RecordVisitor {
+
+        /**
+         * @param op      记录类型（{@link #PUT} / {@link #DELETE}）
+         * @param id      文档ID
+         * @param payload 文档内容（只读，仅在回调内有效）
+         */
+        void visit(byte op, String id, ByteBuffer payload);
+    }
+
+    /**
+     * 待追加的记录
+     */
+    record Entry(byte op, String id, byte[] payload) {
+
+        static Entry put(String id, byte[] payload) {
+            return new Entry(PUT, id, payload);
+        }
+
+        static Entry delete(String id) {
+            return new Entry(DELETE, id, null);
+        }
+    }
+
+    /**
+     * 段文件：整体映射为可写缓冲区
+     */
+    private static final class Segment {
+
+        private final Path path;
+        private final long sequence;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int writeOffset;
+
+        private Segment(Path path, long sequence, FileChannel channel, MappedByteBuffer buffer, int writeOffset) {
+            this.path = path;
+            this.sequence = sequence;
+            this.channel = channel;
+            this.buffer = buffer;
+            this.writeOffset = writeOffset;
+        }
+
+        static Segment create(Path path, long sequence, int size) throws IOException {
+            FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            Segment segment = new Segment(path, sequence, channel, buffer, HEADER_SIZE);
+            segment.setWriteOffset(HEADER_SIZE);
+            buffer.force();
+            return segment;
+        }
+
+        static Segment open(Path path, long sequence) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                channel.close();
+                throw new IOException("无法识别的段文件: " + path);
+            }
+            long writeOffset = buffer.getLong(WRITE_OFFSET_POSITION);
+            int offset = Math.clamp(writeOffset, HEADER_SIZE, buffer.capacity());
+            return new Segment(path, sequence, channel, buffer, offset);
+        }
+
+        void setWriteOffset(int writeOffset) {
+            this.writeOffset = writeOffset;
+            buffer.putLong(WRITE_OFFSET_POSITION, writeOffset);
+        }
+
+        /**
+         * 关闭文件并释放映射，此后不可再访问缓冲区
+         */
+        void close() throws IOException {
+            channel.close();
+            if (INVOKE_CLEANER != null) {
+                try {
+                    INVOKE_CLEANER.invokeExact((ByteBuffer) buffer);
+                } catch (Throwable e) {
+                    log.warn("释放段文件映射失败: {}", path.getFileName(), e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.ershi.aspider.data.storage.embedded.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 本地嵌入式存储配置（{@code storage.type=embedded} 时生效）
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "storage.embedded")
+public class EmbeddedStorageConfig {
+
+    /** 数据目录，每类数据一个子目录 */
+    private String dataDir = "data/embedded";
+
+    /** 单个段文件大小（MB），写满后滚动到新段 */
+    private Integer segmentSizeMb = 64;
+}
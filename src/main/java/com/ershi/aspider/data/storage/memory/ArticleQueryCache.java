@@ -0,0 +1,149 @@
+package com.ershi.aspider.data.storage.memory;
+
+import com.ershi.aspider.data.datasource.domain.FinancialArticle;
+import com.ershi.aspider.data.storage.memory.config.ArticleQueryCacheConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 与板块无关的新闻过滤查询结果缓存
+ * <p>
+ * 政策类、高重要性等过滤查询的结果与分析的板块无关，不同板块的并发分析会发出完全相同的查询。
+ * 本缓存按查询键保存结果，在有效期内直接复用；同一键的并发请求共享同一次进行中的查询，只访问一次存储。
+ * 新闻入库后调用 {@link #invalidate()} 提前失效。主存储的 batchSave 返回时新数据已可查询（ES实现会先刷新写入索引），
+ * 因此失效后的下一次查询能看到新入库的文章；若刷新失败，最迟在有效期结束后可见。
+ * <p>
+ * 查询失败的条目会被移除，不缓存异常；失效前已发起的查询仅返回给当时的等待方，不再写回缓存。
+ * 每个调用方拿到各自的文章副本（不含向量），分析阶段的摘要兜底等修改不会影响缓存内容或其他分析。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@Component
+public class ArticleQueryCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ArticleQueryCache.class);
+
+    private final ArticleQueryCacheConfig config;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    public ArticleQueryCache(ArticleQueryCacheConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * 获取缓存结果，未命中或已过期时执行查询并缓存
+     *
+     * @param key    查询键，需包含全部查询参数
+     * @param loader 实际查询
+     * @return 查询结果（调用方独占的副本）
+     */
+    public List<FinancialArticle> getOrLoad(String key, Supplier<List<FinancialArticle>> loader) {
+        if (!Boolean.TRUE.equals(config.getEnabled())) {
+            return loader.get();
+        }
+
+        long now = System.nanoTime();
+        Entry current = entries.get(key);
+        if (current != null && !current.isExpired(now)) {
+            hits.increment();
+            return copyOf(await(current.future));
+        }
+
+        if (entries.size() >= config.getMaxEntries()) {
+            evict(now);
+        }
+
+        Entry created = new Entry(new CompletableFuture<>(),
+            now + TimeUnit.SECONDS.toNanos(config.getTtlSeconds()));
+        Entry winner = entries.compute(key, (k, existing) ->
+            existing != null && !existing.isExpired(now) ? existing : created);
+        if (winner != created) {
+            hits.increment();
+            return copyOf(await(winner.future));
+        }
+
+        misses.increment();
+        try {
+            List<FinancialArticle> result = loader.get();
+            List<FinancialArticle> readOnly = result == null
+                ? Collections.emptyList()
+                : Collections.unmodifiableList(new ArrayList<>(result));
+            created.future.complete(readOnly);
+            return copyOf(readOnly);
+        } catch (RuntimeException | Error e) {
+            entries.remove(key, created);
+            created.future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * 清空全部缓存结果（新闻入库后调用）
+     */
+    public void invalidate() {
+        if (!entries.isEmpty()) {
+            entries.clear();
+            log.debug("新闻过滤查询缓存已失效");
+        }
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    private void evict(long now) {
+        entries.values().removeIf(entry -> entry.isExpired(now));
+        if (entries.size() >= config.getMaxEntries()) {
+            entries.clear();
+        }
+    }
+
+    private static List<FinancialArticle> copyOf(List<FinancialArticle> cached) {
+        List<FinancialArticle> copies = new ArrayList<>(cached.size());
+        for (FinancialArticle article : cached) {
+            copies.add(article != null ? article.copyWithoutVectors() : null);
+        }
+        return copies;
+    }
+
+    private static List<FinancialArticle> await(CompletableFuture<List<FinancialArticle>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /** 缓存条目：进行中或已完成的查询，以及过期时间 */
+    private record Entry(CompletableFuture<List<FinancialArticle>> future, long expiresAtNanos) {
+
+        boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+}
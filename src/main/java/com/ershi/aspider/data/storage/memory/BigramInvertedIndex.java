@@ -0,0 +1,133 @@
+package com.ershi.aspider.data.storage.memory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 二元组倒排索引（BM25）
+ * <p>
+ * 中文按相邻两字切分二元组，英文与数字按整词切分，无需分词器即可覆盖板块名等短查询。
+ * 文档编号由调用方指定且需连续递增，删除由调用方过滤。非线程安全，由调用方加锁。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+final class BigramInvertedIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private int[] docLengths = new int[1024];
+    private int docCount;
+    private long totalLength;
+
+    /**
+     * 写入文档
+     */
+    void add(int docId, String text) {
+        List<String> tokens = tokenize(text);
+        ensureCapacity(docId + 1);
+        docLengths[docId] = tokens.size();
+        docCount = Math.max(docCount, docId + 1);
+        totalLength += tokens.size();
+
+        Map<String, Integer> termFrequencies = new HashMap<>();
+        for (String token : tokens) {
+            termFrequencies.merge(token, 1, Integer::sum);
+        }
+        termFrequencies.forEach((term, tf) -> postings.computeIfAbsent(term, k -> new Postings()).add(docId, tf));
+    }
+
+    /**
+     * 按BM25为命中查询词的文档打分
+     *
+     * @return 文档编号 → 分数
+     */
+    Map<Integer, Double> score(List<String> queryTokens) {
+        Map<Integer, Double> scores = new HashMap<>();
+        if (docCount == 0) {
+            return scores;
+        }
+        double avgLength = Math.max(1, (double) totalLength / docCount);
+        for (String token : queryTokens) {
+            Postings list = postings.get(token);
+            if (list == null) {
+                continue;
+            }
+            double idf = Math.log(1 + (docCount - list.size + 0.5) / (list.size + 0.5));
+            for (int i = 0; i < list.size; i++) {
+                int doc = list.docs[i];
+                int tf = list.tfs[i];
+                double norm = tf + K1 * (1 - B + B * docLengths[doc] / avgLength);
+                scores.merge(doc, idf * tf * (K1 + 1) / norm, Double::sum);
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * 切分为二元组（中文）与整词（英文/数字）
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        StringBuilder word = new StringBuilder();
+        char previousCjk = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.UnicodeScript.of(c) == Character.UnicodeScript.HAN) {
+                flushWord(word, tokens);
+                if (previousCjk != 0) {
+                    tokens.add(new String(new char[]{previousCjk, c}));
+                }
+                previousCjk = c;
+            } else if (Character.isLetterOrDigit(c)) {
+                previousCjk = 0;
+                word.append(Character.toLowerCase(c));
+            } else {
+                previousCjk = 0;
+                flushWord(word, tokens);
+            }
+        }
+        flushWord(word, tokens);
+        return tokens;
+    }
+
+    private static void flushWord(StringBuilder word, List<String> tokens) {
+        if (!word.isEmpty()) {
+            tokens.add(word.toString());
+            word.setLength(0);
+        }
+    }
+
+    private void ensureCapacity(int size) {
+        if (size > docLengths.length) {
+            docLengths = Arrays.copyOf(docLengths, Math.max(size, docLengths.length * 2));
+        }
+    }
+
+    /**
+     * 倒排列表（文档编号递增追加）
+     */
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int[] tfs = new int[4];
+        private int size;
+
+        void add(int doc, int tf) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                tfs = Arrays.copyOf(tfs, size * 2);
+            }
+            docs[size] = doc;
+            tfs[size] = tf;
+            size++;
+        }
+    }
+}
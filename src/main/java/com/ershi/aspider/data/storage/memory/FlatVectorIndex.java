@@ -0,0 +1,68 @@
+package com.ershi.aspider.data.storage.memory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.IntPredicate;
+
+/**
+ * 暴力扫描向量索引（精确检索）
+ * <p>
+ * 逐个计算点积并以小顶堆保留 top k，过滤条件在打分前生效，结果不受过滤比例影响。
+ * 适用于数据量在万级的小规模部署，写入无需建图。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+final class FlatVectorIndex implements VectorIndex {
+
+    private final List<float[]> vectors = new ArrayList<>();
+
+    @Override
+    public int size() {
+        return vectors.size();
+    }
+
+    @Override
+    public int add(float[] vector) {
+        vectors.add(vector == null ? null : VectorIndex.normalize(vector));
+        return vectors.size() - 1;
+    }
+
+    @Override
+    public List<Candidate> search(float[] query, int k, int ef, IntPredicate accept) {
+        if (k <= 0) {
+            return List.of();
+        }
+        float[] normalized = VectorIndex.normalize(query);
+        PriorityQueue<Candidate> results = new PriorityQueue<>((a, b) -> Double.compare(a.similarity(), b.similarity()));
+        for (int node = 0; node < vectors.size(); node++) {
+            float[] vector = vectors.get(node);
+            if (vector == null || !accept.test(node)) {
+                continue;
+            }
+            double sim = VectorIndex.dot(normalized, vector);
+            if (results.size() < k) {
+                results.add(new Candidate(node, sim));
+            } else if (sim > results.peek().similarity()) {
+                results.poll();
+                results.add(new Candidate(node, sim));
+            }
+        }
+
+        List<Candidate> sorted = new ArrayList<>(results);
+        sorted.sort((a, b) -> Double.compare(b.similarity(), a.similarity()));
+        return sorted;
+    }
+
+    @Override
+    public double similarity(float[] normalizedQuery, int node) {
+        float[] vector = vectors.get(node);
+        return vector == null ? -1 : VectorIndex.dot(normalizedQuery, vector);
+    }
+
+    @Override
+    public float[] vector(int node) {
+        return vectors.get(node);
+    }
+}
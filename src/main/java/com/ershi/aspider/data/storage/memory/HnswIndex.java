@@ -0,0 +1,231 @@
+package com.ershi.aspider.data.storage.memory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntPredicate;
+
+/**
+ * HNSW 近似最近邻索引（余弦相似度）
+ * <p>
+ * 写入时向量先归一化，相似度即点积。节点编号由调用方指定且需连续递增，
+ * 删除由调用方在结果中过滤（墓碑），定期整体重建。非线程安全，由调用方加锁。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+final class HnswIndex implements VectorIndex {
+
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+
+    private final List<float[]> vectors = new ArrayList<>();
+    /** neighbors[node][level] 为邻居数组，counts[node][level] 为有效邻居数 */
+    private final List<int[][]> neighbors = new ArrayList<>();
+    private final List<int[]> counts = new ArrayList<>();
+
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    HnswIndex(int m, int efConstruction) {
+        this.m = m;
+        this.maxM0 = m * 2;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1 / Math.log(m);
+    }
+
+    @Override
+    public int size() {
+        return vectors.size();
+    }
+
+    @Override
+    public int add(float[] vector) {
+        int node = vectors.size();
+        float[] normalized = vector == null ? null : VectorIndex.normalize(vector);
+        int level = normalized == null ? 0 : randomLevel();
+
+        vectors.add(normalized);
+        int[][] nodeNeighbors = new int[level + 1][];
+        for (int l = 0; l <= level; l++) {
+            nodeNeighbors[l] = new int[(l == 0 ? maxM0 : m) + 1];
+        }
+        neighbors.add(nodeNeighbors);
+        counts.add(new int[level + 1]);
+
+        if (normalized == null) {
+            return node;
+        }
+        if (entryPoint < 0) {
+            entryPoint = node;
+            maxLevel = level;
+            return node;
+        }
+
+        int current = entryPoint;
+        for (int l = maxLevel; l > level; l--) {
+            current = greedyClosest(normalized, current, l);
+        }
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            List<Candidate> candidates = searchLayer(normalized, current, efConstruction, l);
+            int maxNeighbors = l == 0 ? maxM0 : m;
+            int connected = 0;
+            for (Candidate candidate : candidates) {
+                if (connected >= m) {
+                    break;
+                }
+                connect(node, candidate.node(), l, maxNeighbors);
+                connect(candidate.node(), node, l, maxNeighbors);
+                connected++;
+            }
+            current = candidates.getFirst().node();
+        }
+
+        if (level > maxLevel) {
+            maxLevel = level;
+            entryPoint = node;
+        }
+        return node;
+    }
+
+    /**
+     * 近似检索：先取图上最相似的 k 个节点，再过滤不满足条件的节点（结果可能少于 k）
+     */
+    @Override
+    public List<Candidate> search(float[] query, int k, int ef, IntPredicate accept) {
+        if (entryPoint < 0) {
+            return List.of();
+        }
+        float[] normalized = VectorIndex.normalize(query);
+        int current = entryPoint;
+        for (int l = maxLevel; l > 0; l--) {
+            current = greedyClosest(normalized, current, l);
+        }
+        List<Candidate> result = searchLayer(normalized, current, Math.max(ef, k), 0);
+        return (result.size() > k ? result.subList(0, k) : result).stream()
+            .filter(candidate -> accept.test(candidate.node()))
+            .toList();
+    }
+
+    @Override
+    public double similarity(float[] normalizedQuery, int node) {
+        float[] vector = vectors.get(node);
+        return vector == null ? -1 : VectorIndex.dot(normalizedQuery, vector);
+    }
+
+    @Override
+    public float[] vector(int node) {
+        return vectors.get(node);
+    }
+
+    private int greedyClosest(float[] query, int start, int level) {
+        int current = start;
+        double best = dot(query, vectors.get(current));
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            int[] nodeNeighbors = neighbors.get(current)[level];
+            int count = counts.get(current)[level];
+            for (int i = 0; i < count; i++) {
+                int candidate = nodeNeighbors[i];
+                double sim = dot(query, vectors.get(candidate));
+                if (sim > best) {
+                    best = sim;
+                    current = candidate;
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 单层 beam search，返回按相似度降序的候选
+     */
+    private List<Candidate> searchLayer(float[] query, int start, int ef, int level) {
+        boolean[] visited = new boolean[vectors.size()];
+        // 候选队列（相似度高者优先）与结果集（相似度低者在堆顶，便于淘汰）
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>((a, b) -> Double.compare(b.similarity(), a.similarity()));
+        PriorityQueue<Candidate> results = new PriorityQueue<>((a, b) -> Double.compare(a.similarity(), b.similarity()));
+
+        Candidate first = new Candidate(start, dot(query, vectors.get(start)));
+        visited[start] = true;
+        candidates.add(first);
+        results.add(first);
+
+        while (!candidates.isEmpty()) {
+            Candidate current = candidates.poll();
+            if (results.size() >= ef && current.similarity() < results.peek().similarity()) {
+                break;
+            }
+            int[][] nodeNeighbors = neighbors.get(current.node());
+            if (level >= nodeNeighbors.length) {
+                continue;
+            }
+            int count = counts.get(current.node())[level];
+            for (int i = 0; i < count; i++) {
+                int next = nodeNeighbors[level][i];
+                if (visited[next]) {
+                    continue;
+                }
+                visited[next] = true;
+                double sim = dot(query, vectors.get(next));
+                if (results.size() < ef || sim > results.peek().similarity()) {
+                    Candidate candidate = new Candidate(next, sim);
+                    candidates.add(candidate);
+                    results.add(candidate);
+                    if (results.size() > ef) {
+                        results.poll();
+                    }
+                }
+            }
+        }
+
+        List<Candidate> sorted = new ArrayList<>(results);
+        sorted.sort((a, b) -> Double.compare(b.similarity(), a.similarity()));
+        return sorted;
+    }
+
+    /**
+     * 添加单向连接，超出容量时只保留与该节点最相似的邻居
+     */
+    private void connect(int from, int to, int level, int maxNeighbors) {
+        int[] nodeNeighbors = neighbors.get(from)[level];
+        int[] nodeCounts = counts.get(from);
+        int count = nodeCounts[level];
+        for (int i = 0; i < count; i++) {
+            if (nodeNeighbors[i] == to) {
+                return;
+            }
+        }
+        nodeNeighbors[count++] = to;
+        if (count > maxNeighbors) {
+            // 淘汰与该节点最不相似的邻居（容量只多出一个，线性查找即可）
+            float[] base = vectors.get(from);
+            int worst = 0;
+            double worstSimilarity = Double.MAX_VALUE;
+            for (int i = 0; i < count; i++) {
+                double sim = dot(base, vectors.get(nodeNeighbors[i]));
+                if (sim < worstSimilarity) {
+                    worstSimilarity = sim;
+                    worst = i;
+                }
+            }
+            nodeNeighbors[worst] = nodeNeighbors[count - 1];
+            count = maxNeighbors;
+        }
+        nodeCounts[level] = count;
+    }
+
+    private int randomLevel() {
+        double random = ThreadLocalRandom.current().nextDouble();
+        return (int) Math.floor(-Math.log(1 - random) * levelMultiplier);
+    }
+
+    private static double dot(float[] a, float[] b) {
+        return VectorIndex.dot(a, b);
+    }
+}
@@ -0,0 +1,329 @@
+package com.ershi.aspider.data.storage.memory;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import com.ershi.aspider.data.datasource.domain.FinancialArticle;
+import com.ershi.aspider.data.datasource.domain.NewsTypeEnum;
+import com.ershi.aspider.data.storage.config.ConditionalOnElasticsearchStorage;
+import com.ershi.aspider.data.storage.elasticsearch.config.HybridSearchConfig;
+import com.ershi.aspider.data.storage.elasticsearch.service.FinancialArticleIndexManager;
+import com.ershi.aspider.data.storage.memory.config.HotTierConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * 进程内热数据索引
+ * <p>
+ * 常驻最近 N 天（默认7天）的新闻，以 HNSW 图为向量索引构建 {@link LocalArticleIndex}，
+ * 窗口内的混合检索、类型/重要性过滤直接在本地完成，更长窗口仍由ES响应。
+ * 混合检索遵循 {@link HybridSearchConfig#getMode()}：LINEAR / RRF 在本地按相同语义融合；
+ * NORMALIZED 依赖ES原始打分的固定基准归一化，本地无法复现，混合检索仍走ES。
+ * <p>
+ * 启动时从ES分页加载窗口内数据，之后由本节点入库流程同步写入。其他节点的写入与ES侧的删除不经过本节点，
+ * 因此按 {@code storage.hot-tier.refresh-interval-minutes} 定期从ES整体重新加载，本地视图最多滞后一个刷新周期；
+ * 过期数据在每日清理时通过整体重建剔除。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@Component
+@ConditionalOnElasticsearchStorage
+public class HotTierArticleIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(HotTierArticleIndex.class);
+
+    /** 启动加载时每页文档数 */
+    private static final int LOAD_PAGE_SIZE = 500;
+
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /** 按发布时间倒序 */
+    private static final Comparator<FinancialArticle> NEWEST_FIRST =
+        Comparator.comparing(FinancialArticle::getPublishTime).reversed();
+
+    private final ElasticsearchClient elasticsearchClient;
+
+    private final FinancialArticleIndexManager indexManager;
+
+    private final HotTierConfig hotTierConfig;
+
+    private final HybridSearchConfig hybridSearchConfig;
+
+    private final Executor aspiderVirtualExecutor;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private LocalArticleIndex index;
+
+    /** 重新加载期间本节点入库的新闻（加载完成后补写到新索引，避免被整体替换丢弃），未在加载时为 null */
+    private List<FinancialArticle> writtenDuringLoad;
+
+    /** 是否正在从ES加载（启动加载与定期刷新互斥） */
+    private final AtomicBoolean loading = new AtomicBoolean();
+
+    /** 是否已完成启动加载 */
+    private volatile boolean ready;
+
+    public HotTierArticleIndex(ElasticsearchClient elasticsearchClient,
+                               FinancialArticleIndexManager indexManager,
+                               HotTierConfig hotTierConfig,
+                               HybridSearchConfig hybridSearchConfig,
+                               Executor aspiderVirtualExecutor) {
+        this.elasticsearchClient = elasticsearchClient;
+        this.indexManager = indexManager;
+        this.hotTierConfig = hotTierConfig;
+        this.hybridSearchConfig = hybridSearchConfig;
+        this.aspiderVirtualExecutor = aspiderVirtualExecutor;
+        this.index = newIndex();
+    }
+
+    /**
+     * 启动完成后异步从ES加载窗口内数据
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (isEnabled()) {
+            aspiderVirtualExecutor.execute(this::loadFromEs);
+        }
+    }
+
+    /**
+     * 定期从ES重新加载，纳入其他节点的写入并剔除ES侧已删除的数据（启动加载失败时也由此重试）
+     */
+    @Scheduled(initialDelayString = "${storage.hot-tier.refresh-interval-minutes:10}",
+        fixedDelayString = "${storage.hot-tier.refresh-interval-minutes:10}", timeUnit = TimeUnit.MINUTES)
+    public void refresh() {
+        if (isEnabled()) {
+            loadFromEs();
+        }
+    }
+
+    /**
+     * 查询窗口是否可由本地索引响应
+     */
+    public boolean covers(int days) {
+        return ready && days > 0 && days <= hotTierConfig.getWindowDays();
+    }
+
+    /**
+     * 混合检索是否可由本地索引响应：窗口在覆盖范围内，且融合模式可在本地复现（LINEAR / RRF）
+     */
+    public boolean coversHybridSearch(int days) {
+        return covers(days) && hybridSearchConfig.getMode() != HybridSearchConfig.Mode.NORMALIZED;
+    }
+
+    /**
+     * 入库同步：写入窗口内的新闻（同一 uniqueId 以新数据为准）
+     */
+    public void index(List<FinancialArticle> articles) {
+        if (!isEnabled() || articles == null || articles.isEmpty()) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(hotTierConfig.getWindowDays());
+
+        lock.writeLock().lock();
+        try {
+            for (FinancialArticle article : articles) {
+                if (inWindow(article, cutoff)) {
+                    index.add(article);
+                    if (writtenDuringLoad != null) {
+                        writtenDuringLoad.add(article);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 整体重建，剔除窗口外与被覆盖的数据
+     */
+    public void compact() {
+        if (!isEnabled()) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(hotTierConfig.getWindowDays());
+
+        lock.writeLock().lock();
+        try {
+            LocalArticleIndex old = index;
+            index = old.rebuild(article -> !article.getPublishTime().isBefore(cutoff));
+            log.info("热数据索引重建完成，文档数 {} -> {}", old.docCount(), index.liveCount());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 本地混合检索（按配置的融合模式，需先由 {@link #coversHybridSearch} 判断）
+     *
+     * @param queryText   查询文本
+     * @param queryVector 查询向量
+     * @param topK        返回数量
+     * @param days        时间范围（需在窗口内）
+     * @return 相关新闻列表（按融合分数降序，searchScore 为0-1融合分）
+     */
+    public List<FinancialArticle> hybridSearch(String queryText, List<Float> queryVector, int topK, int days) {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(days);
+
+        lock.readLock().lock();
+        try {
+            List<FinancialArticle> result = hybridSearchConfig.getMode() == HybridSearchConfig.Mode.RRF
+                ? index.rrfSearch(queryText, queryVector, topK, topK * hybridSearchConfig.getRankWindowFactor(),
+                    hybridSearchConfig.getRankConstant(), cutoff, hotTierConfig.getEfSearch())
+                : index.hybridSearch(queryText, queryVector, topK, cutoff, hotTierConfig.getEfSearch());
+            log.info("本地热数据混合检索完成，模式={}, 返回 {} 条", hybridSearchConfig.getMode(), result.size());
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 按新闻类型查询（按发布时间倒序）
+     */
+    public List<FinancialArticle> findByNewsType(NewsTypeEnum newsType, int days, int size) {
+        return scanRecent(article -> article.getNewsType() == newsType, NEWEST_FIRST, days, size);
+    }
+
+    /**
+     * 按最低重要性查询（按重要性、发布时间倒序，与ES排序一致）
+     */
+    public List<FinancialArticle> findByImportance(int minImportance, int days, int size) {
+        return scanRecent(article -> article.getImportance() != null && article.getImportance() >= minImportance,
+            Comparator.comparing(FinancialArticle::getImportance).reversed().thenComparing(NEWEST_FIRST), days, size);
+    }
+
+    private List<FinancialArticle> scanRecent(Predicate<FinancialArticle> condition, Comparator<FinancialArticle> order,
+                                              int days, int size) {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(days);
+
+        lock.readLock().lock();
+        try {
+            return index.scan(condition, cutoff, order, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 从ES分页加载窗口内数据到新索引后整体替换（按 publishTime + uniqueId 排序的 search_after 翻页）
+     * <p>
+     * 加载期间查询继续使用旧索引；期间本节点入库的新闻同时记录下来，替换时补写到新索引
+     */
+    void loadFromEs() {
+        if (!loading.compareAndSet(false, true)) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        int windowDays = hotTierConfig.getWindowDays();
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(windowDays);
+        String timeStr = cutoff.format(TIME_FORMATTER);
+        LocalArticleIndex loaded = newIndex();
+        long total = 0;
+
+        lock.writeLock().lock();
+        try {
+            writtenDuringLoad = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            List<FieldValue> searchAfter = null;
+            while (true) {
+                List<FieldValue> after = searchAfter;
+                SearchResponse<FinancialArticle> response = elasticsearchClient.search(s -> {
+                        s.index(indexManager.searchTargets(windowDays))
+                            .query(q -> q
+                                .range(r -> r
+                                    .date(dr -> dr
+                                        .field("publishTime")
+                                        .gte(timeStr)
+                                    )
+                                )
+                            )
+                            .size(LOAD_PAGE_SIZE)
+                            .sort(so -> so.field(f -> f.field("publishTime").order(SortOrder.Asc)))
+                            .sort(so -> so.field(f -> f.field("uniqueId").order(SortOrder.Asc)));
+                        if (after != null) {
+                            s.searchAfter(after);
+                        }
+                        return s;
+                    },
+                    FinancialArticle.class
+                );
+
+                List<Hit<FinancialArticle>> hits = response.hits().hits();
+                for (Hit<FinancialArticle> hit : hits) {
+                    if (hit.source() != null) {
+                        hit.source().setUniqueId(hit.id());
+                        if (inWindow(hit.source(), cutoff)) {
+                            loaded.add(hit.source());
+                        }
+                    }
+                }
+                total += hits.size();
+
+                if (hits.size() < LOAD_PAGE_SIZE) {
+                    break;
+                }
+                searchAfter = hits.getLast().sort();
+            }
+
+            lock.writeLock().lock();
+            try {
+                writtenDuringLoad.forEach(loaded::add);
+                index = loaded;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            ready = true;
+            log.info("热数据索引加载完成，近 {} 天共 {} 条，耗时 {} ms", windowDays, total, System.currentTimeMillis() - start);
+
+        } catch (Exception e) {
+            // 启动加载失败时保持未就绪，所有查询继续走ES；刷新失败时沿用旧索引，等待下次刷新
+            log.error("热数据索引加载失败，{}", ready ? "沿用现有本地索引" : "检索将继续使用ES", e);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                writtenDuringLoad = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            loading.set(false);
+        }
+    }
+
+    private static boolean inWindow(FinancialArticle article, LocalDateTime cutoff) {
+        return article.getUniqueId() != null && article.getPublishTime() != null
+            && !article.getPublishTime().isBefore(cutoff);
+    }
+
+    private boolean isEnabled() {
+        return Boolean.TRUE.equals(hotTierConfig.getEnabled());
+    }
+
+    private LocalArticleIndex newIndex() {
+        return LocalArticleIndex.hnsw(hotTierConfig.getHnswM(), hotTierConfig.getEfConstruction());
+    }
+}
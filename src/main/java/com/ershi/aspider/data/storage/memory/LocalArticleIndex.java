@@ -0,0 +1,385 @@
+package com.ershi.aspider.data.storage.memory;
+
+import com.ershi.aspider.data.datasource.domain.FinancialArticle;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * 本地新闻检索索引
+ * <p>
+ * 摘要/标题向量各建一个向量索引（HNSW 或暴力扫描），标题/摘要建二元组倒排索引，文档编号在各结构间保持一致，
+ * 覆盖写入与删除时旧文档打墓碑，由 {@link #rebuild} 整体重建回收。常驻文档不含向量字段。
+ * <p>
+ * 混合检索采用与 LINEAR 服务端融合一致的分数语义：向量分 (1+cos)/2 与 minmax 归一化的关键词分加权求和，
+ * 除以权重之和得到0-1分数，沿用0.6阈值；{@link #rrfSearch} 对应 RRF 服务端融合，按三路排名融合。
+ * 非线程安全，由调用方加锁。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public final class LocalArticleIndex {
+
+    /** 混合检索阈值（与ES混合检索一致） */
+    private static final double HYBRID_SCORE_THRESHOLD = 0.6;
+
+    /** 摘要向量权重 */
+    private static final double SUMMARY_VECTOR_WEIGHT = 2.0;
+
+    /** 标题向量权重 */
+    private static final double TITLE_VECTOR_WEIGHT = 1.5;
+
+    /** 关键词权重（归一化后） */
+    private static final double KEYWORD_WEIGHT = 1.0;
+
+    /** 权重之和 */
+    private static final double TOTAL_WEIGHT = SUMMARY_VECTOR_WEIGHT + TITLE_VECTOR_WEIGHT + KEYWORD_WEIGHT;
+
+    /** 关键词打分中标题匹配的权重 */
+    private static final double TITLE_BOOST = 3.0;
+
+    /** 关键词打分中摘要匹配的权重 */
+    private static final double SUMMARY_BOOST = 1.5;
+
+    /** 关键词命中时重要新闻（importance >= 3）的加分 */
+    private static final double IMPORTANCE_BOOST = 1.5;
+
+    /** 每路向量召回的候选数相对 topK 的倍数 */
+    private static final int RANK_WINDOW_FACTOR = 5;
+
+    /** RRF 融合中向量召回路的最低分数 (1+cos)/2（与ES向量召回路的相似度门槛一致） */
+    private static final double RRF_VECTOR_SCORE_THRESHOLD = 0.6;
+
+    /** RRF 融合的召回路数（摘要向量、标题向量、关键词） */
+    private static final int RRF_RETRIEVER_COUNT = 3;
+
+    private final Supplier<VectorIndex> vectorIndexFactory;
+
+    private final List<FinancialArticle> articles = new ArrayList<>();
+    private final Map<String, Integer> docIds = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    private final VectorIndex summaryVectors;
+    private final VectorIndex titleVectors;
+    private final BigramInvertedIndex titleIndex = new BigramInvertedIndex();
+    private final BigramInvertedIndex summaryIndex = new BigramInvertedIndex();
+
+    private LocalArticleIndex(Supplier<VectorIndex> vectorIndexFactory) {
+        this.vectorIndexFactory = vectorIndexFactory;
+        this.summaryVectors = vectorIndexFactory.get();
+        this.titleVectors = vectorIndexFactory.get();
+    }
+
+    /**
+     * 基于 HNSW 近似检索的索引（适合常驻大量数据）
+     */
+    public static LocalArticleIndex hnsw(int m, int efConstruction) {
+        return new LocalArticleIndex(() -> new HnswIndex(m, efConstruction));
+    }
+
+    /**
+     * 基于暴力扫描精确检索的索引（适合小规模数据，写入无需建图）
+     */
+    public static LocalArticleIndex flat() {
+        return new LocalArticleIndex(FlatVectorIndex::new);
+    }
+
+    /**
+     * 写入新闻（同一 uniqueId 以新数据为准）
+     */
+    public void add(FinancialArticle article) {
+        add(article, toFloatArray(article.getSummaryVector()), toFloatArray(article.getTitleVector()));
+    }
+
+    private void add(FinancialArticle article, float[] summaryVector, float[] titleVector) {
+        Integer previous = docIds.get(article.getUniqueId());
+        if (previous != null) {
+            deleted.set(previous);
+        }
+
+        int doc = articles.size();
+        articles.add(article.copyWithoutVectors());
+        docIds.put(article.getUniqueId(), doc);
+        summaryVectors.add(summaryVector);
+        titleVectors.add(titleVector);
+        titleIndex.add(doc, article.getTitle());
+        summaryIndex.add(doc, article.getSummary());
+    }
+
+    /**
+     * 按 uniqueId 删除（打墓碑）
+     *
+     * @return 是否存在
+     */
+    public boolean remove(String uniqueId) {
+        Integer doc = docIds.remove(uniqueId);
+        if (doc == null) {
+            return false;
+        }
+        deleted.set(doc);
+        return true;
+    }
+
+    /**
+     * 删除满足条件的新闻（打墓碑）
+     *
+     * @return 被删除的 uniqueId
+     */
+    public List<String> removeIf(Predicate<FinancialArticle> condition) {
+        List<String> removed = new ArrayList<>();
+        for (int doc = 0; doc < articles.size(); doc++) {
+            FinancialArticle article = articles.get(doc);
+            if (!deleted.get(doc) && condition.test(article)) {
+                deleted.set(doc);
+                docIds.remove(article.getUniqueId());
+                removed.add(article.getUniqueId());
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * 整体重建，剔除墓碑与不满足保留条件的数据
+     */
+    public LocalArticleIndex rebuild(Predicate<FinancialArticle> keep) {
+        LocalArticleIndex rebuilt = new LocalArticleIndex(vectorIndexFactory);
+        for (int doc = 0; doc < articles.size(); doc++) {
+            FinancialArticle article = articles.get(doc);
+            if (!deleted.get(doc) && keep.test(article)) {
+                rebuilt.add(article, summaryVectors.vector(doc), titleVectors.vector(doc));
+            }
+        }
+        return rebuilt;
+    }
+
+    public boolean contains(String uniqueId) {
+        return docIds.containsKey(uniqueId);
+    }
+
+    /**
+     * 遍历有效文档的 uniqueId
+     */
+    public void forEachId(Consumer<String> consumer) {
+        docIds.keySet().forEach(consumer);
+    }
+
+    /**
+     * 已写入文档数（含墓碑）
+     */
+    public int docCount() {
+        return articles.size();
+    }
+
+    /**
+     * 有效文档数
+     */
+    public int liveCount() {
+        return articles.size() - deleted.cardinality();
+    }
+
+    /**
+     * 混合检索
+     *
+     * @param queryText   查询文本
+     * @param queryVector 查询向量
+     * @param topK        返回数量
+     * @param cutoff      最早发布时间（null 表示不限制）
+     * @param ef          近似检索的候选队列大小
+     * @return 相关新闻列表（按融合分数降序，searchScore 为0-1融合分）
+     */
+    public List<FinancialArticle> hybridSearch(String queryText, List<Float> queryVector, int topK,
+                                               LocalDateTime cutoff, int ef) {
+        float[] query = VectorIndex.normalize(toFloatArrayFromFloats(queryVector));
+        int rankWindow = topK * RANK_WINDOW_FACTOR;
+        IntPredicate live = doc -> isLive(doc, cutoff);
+        Map<Integer, Double> keywordScores = keywordScores(queryText, live);
+
+        // 向量召回
+        Set<Integer> candidates = new HashSet<>(keywordScores.keySet());
+        int searchEf = Math.max(ef, rankWindow);
+        summaryVectors.search(query, rankWindow, searchEf, live).forEach(c -> candidates.add(c.node()));
+        titleVectors.search(query, rankWindow, searchEf, live).forEach(c -> candidates.add(c.node()));
+
+        double minKeyword = keywordScores.values().stream().mapToDouble(Double::doubleValue).min().orElse(0);
+        double maxKeyword = keywordScores.values().stream().mapToDouble(Double::doubleValue).max().orElse(0);
+
+        List<double[]> scored = new ArrayList<>();
+        for (int doc : candidates) {
+            double summaryScore = Math.max(0, (1 + summaryVectors.similarity(query, doc)) / 2);
+            double titleScore = Math.max(0, (1 + titleVectors.similarity(query, doc)) / 2);
+            Double keyword = keywordScores.get(doc);
+            double keywordScore = keyword == null ? 0
+                : maxKeyword > minKeyword ? (keyword - minKeyword) / (maxKeyword - minKeyword) : 1;
+
+            double fused = (SUMMARY_VECTOR_WEIGHT * summaryScore + TITLE_VECTOR_WEIGHT * titleScore
+                + KEYWORD_WEIGHT * keywordScore) / TOTAL_WEIGHT;
+            if (fused >= HYBRID_SCORE_THRESHOLD) {
+                scored.add(new double[]{doc, fused});
+            }
+        }
+
+        scored.sort((a, b) -> Double.compare(b[1], a[1]));
+        return toResult(scored, topK);
+    }
+
+    /**
+     * RRF 混合检索：摘要向量、标题向量、关键词三路各取前 rankWindow 名，按倒数排名求和
+     * <p>
+     * 与ES RRF 融合一致：向量召回路只保留 (1+cos)/2 不低于0.6的候选，关键词召回路要求标题或摘要命中；
+     * 融合分按每路都排第1时的理论最大值归一化到0-1
+     *
+     * @param queryText    查询文本
+     * @param queryVector  查询向量
+     * @param topK         返回数量
+     * @param rankWindow   每路召回的候选数
+     * @param rankConstant 排名常数 k
+     * @param cutoff       最早发布时间（null 表示不限制）
+     * @param ef           近似检索的候选队列大小
+     * @return 相关新闻列表（按融合分数降序，searchScore 为0-1融合分）
+     */
+    public List<FinancialArticle> rrfSearch(String queryText, List<Float> queryVector, int topK, int rankWindow,
+                                            int rankConstant, LocalDateTime cutoff, int ef) {
+        float[] query = VectorIndex.normalize(toFloatArrayFromFloats(queryVector));
+        IntPredicate live = doc -> isLive(doc, cutoff);
+        int searchEf = Math.max(ef, rankWindow);
+
+        List<Integer> keywordRanking = keywordScores(queryText, live).entrySet().stream()
+            .sorted(Map.Entry.<Integer, Double>comparingByValue().reversed())
+            .limit(rankWindow)
+            .map(Map.Entry::getKey)
+            .toList();
+
+        Map<Integer, Double> fusedScores = new HashMap<>();
+        for (VectorIndex vectors : List.of(summaryVectors, titleVectors)) {
+            int rank = 0;
+            for (VectorIndex.Candidate candidate : vectors.search(query, rankWindow, searchEf, live)) {
+                if ((1 + candidate.similarity()) / 2 < RRF_VECTOR_SCORE_THRESHOLD) {
+                    break;
+                }
+                fusedScores.merge(candidate.node(), 1.0 / (rankConstant + ++rank), Double::sum);
+            }
+        }
+        for (int i = 0; i < keywordRanking.size(); i++) {
+            fusedScores.merge(keywordRanking.get(i), 1.0 / (rankConstant + i + 1), Double::sum);
+        }
+
+        double maxScore = RRF_RETRIEVER_COUNT / (double) (rankConstant + 1);
+        List<double[]> scored = new ArrayList<>();
+        fusedScores.forEach((doc, score) -> scored.add(new double[]{doc, Math.min(score / maxScore, 1.0)}));
+        scored.sort((a, b) -> Double.compare(b[1], a[1]));
+        return toResult(scored, topK);
+    }
+
+    /**
+     * 关键词打分：标题/摘要二元组BM25加权，命中的重要新闻加分（仅保留满足条件的文档）
+     */
+    private Map<Integer, Double> keywordScores(String queryText, IntPredicate live) {
+        List<String> tokens = BigramInvertedIndex.tokenize(queryText);
+        Map<Integer, Double> keywordScores = new HashMap<>();
+        titleIndex.score(tokens).forEach((doc, score) -> keywordScores.merge(doc, score * TITLE_BOOST, Double::sum));
+        summaryIndex.score(tokens).forEach((doc, score) -> keywordScores.merge(doc, score * SUMMARY_BOOST, Double::sum));
+        keywordScores.replaceAll((doc, score) -> {
+            Integer importance = articles.get(doc).getImportance();
+            return importance != null && importance >= 3 ? score + IMPORTANCE_BOOST : score;
+        });
+        keywordScores.keySet().removeIf(doc -> !live.test(doc));
+        return keywordScores;
+    }
+
+    /**
+     * 摘要向量检索，分数为 (1+cos)/2（与ES cosine kNN 分数一致）
+     *
+     * @param queryVector 查询向量
+     * @param topK        返回数量
+     * @param cutoff      最早发布时间（null 表示不限制）
+     * @param minScore    最低分数
+     * @param ef          近似检索的候选队列大小
+     * @return 相关新闻列表（按分数降序）
+     */
+    public List<FinancialArticle> vectorSearch(List<Float> queryVector, int topK, LocalDateTime cutoff,
+                                               double minScore, int ef) {
+        float[] query = toFloatArrayFromFloats(queryVector);
+        List<double[]> scored = new ArrayList<>();
+        for (VectorIndex.Candidate candidate : summaryVectors.search(query, topK, ef, doc -> isLive(doc, cutoff))) {
+            double score = (1 + candidate.similarity()) / 2;
+            if (score >= minScore) {
+                scored.add(new double[]{candidate.node(), score});
+            }
+        }
+        return toResult(scored, topK);
+    }
+
+    /**
+     * 按条件过滤发布时间窗口内的新闻并排序
+     *
+     * @param condition 过滤条件
+     * @param cutoff    最早发布时间（null 表示不限制）
+     * @param order     排序方式
+     * @param size      数量限制
+     * @return 新闻列表（副本）
+     */
+    public List<FinancialArticle> scan(Predicate<FinancialArticle> condition, LocalDateTime cutoff,
+                                       Comparator<FinancialArticle> order, int size) {
+        List<FinancialArticle> matched = new ArrayList<>();
+        for (int doc = 0; doc < articles.size(); doc++) {
+            if (isLive(doc, cutoff) && condition.test(articles.get(doc))) {
+                matched.add(articles.get(doc));
+            }
+        }
+        matched.sort(order);
+        return matched.stream().limit(size).map(FinancialArticle::copyWithoutVectors).toList();
+    }
+
+    private boolean isLive(int doc, LocalDateTime cutoff) {
+        if (deleted.get(doc)) {
+            return false;
+        }
+        if (cutoff == null) {
+            return true;
+        }
+        LocalDateTime publishTime = articles.get(doc).getPublishTime();
+        return publishTime != null && !publishTime.isBefore(cutoff);
+    }
+
+    private List<FinancialArticle> toResult(List<double[]> scored, int topK) {
+        List<FinancialArticle> result = new ArrayList<>();
+        for (int i = 0; i < Math.min(topK, scored.size()); i++) {
+            // 复制后返回，避免调用方修改常驻数据
+            FinancialArticle article = articles.get((int) scored.get(i)[0]).copyWithoutVectors();
+            article.setSearchScore(scored.get(i)[1]);
+            result.add(article);
+        }
+        return result;
+    }
+
+    private static float[] toFloatArray(List<Double> vector) {
+        if (vector == null || vector.isEmpty()) {
+            return null;
+        }
+        float[] result = new float[vector.size()];
+        for (int i = 0; i < result.length; i++) {
+            Double value = vector.get(i);
+            result[i] = value != null ? value.floatValue() : 0f;
+        }
+        return result;
+    }
+
+    private static float[] toFloatArrayFromFloats(List<Float> vector) {
+        float[] result = new float[vector.size()];
+        for (int i = 0; i < result.length; i++) {
+            Float value = vector.get(i);
+            result[i] = value != null ? value : 0f;
+        }
+        return result;
+    }
+}
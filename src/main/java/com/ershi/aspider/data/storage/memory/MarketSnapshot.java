@@ -0,0 +1,223 @@
+package com.ershi.aspider.data.storage.memory;
+
+import com.ershi.aspider.data.datasource.domain.CompactMoneyFlow;
+import com.ershi.aspider.data.datasource.domain.FixedPoint;
+import com.ershi.aspider.data.datasource.domain.SectorMoneyFlow;
+import org.springframework.beans.BeanUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 某交易日的全市场板块资金流向快照（不可变）
+ * <p>
+ * 构建时按主力净流入、涨跌幅各排序一次，保存排序后的板块数组与对应的定点数形式（{@link CompactMoneyFlow}/基点），
+ * 排名、总数、Top N 均为数组/哈希表查找，可被并发分析无锁共享。缺失值排在末尾，与ES降序排序一致。
+ * 定点数只在构建时换算一次，分析直接读取 {@link #compactBySectorCode}，不再逐次进行 BigDecimal 换算。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public final class MarketSnapshot {
+
+    private final LocalDate tradeDate;
+
+    /** 按主力净流入降序 */
+    private final SectorMoneyFlow[] byInflow;
+
+    /** 与 byInflow 对应的定点数形式 */
+    private final CompactMoneyFlow[] compacts;
+
+    /** 按涨跌幅降序 */
+    private final SectorMoneyFlow[] byChange;
+
+    /** 与 byChange 对应的涨跌幅（bp） */
+    private final int[] changes;
+
+    /** 板块代码 → 资金流入排名（从1开始） */
+    private final Map<String, Integer> inflowRanks;
+
+    /** 板块名称 → 资金流入排名（从1开始） */
+    private final Map<String, Integer> nameRanks;
+
+    private MarketSnapshot(LocalDate tradeDate, SectorMoneyFlow[] byInflow, SectorMoneyFlow[] byChange) {
+        this.tradeDate = tradeDate;
+        this.byInflow = byInflow;
+        this.byChange = byChange;
+        this.compacts = new CompactMoneyFlow[byInflow.length];
+        this.changes = new int[byChange.length];
+
+        Map<String, Integer> ranks = new HashMap<>(byInflow.length * 2);
+        Map<String, Integer> names = new HashMap<>(byInflow.length * 2);
+        for (int i = 0; i < byInflow.length; i++) {
+            compacts[i] = CompactMoneyFlow.of(byInflow[i]);
+            ranks.putIfAbsent(byInflow[i].getSectorCode(), i + 1);
+            if (byInflow[i].getSectorName() != null) {
+                names.putIfAbsent(byInflow[i].getSectorName(), i + 1);
+            }
+        }
+        for (int i = 0; i < byChange.length; i++) {
+            changes[i] = FixedPoint.toBasisPoints(byChange[i].getChangePercent());
+        }
+        this.inflowRanks = Map.copyOf(ranks);
+        this.nameRanks = Map.copyOf(names);
+    }
+
+    /**
+     * 由当日全部资金流向构建快照（数据会被复制，调用方后续修改不影响快照）
+     */
+    public static MarketSnapshot of(LocalDate tradeDate, List<SectorMoneyFlow> flows) {
+        SectorMoneyFlow[] copies = flows.stream()
+            .filter(flow -> flow != null && flow.getSectorCode() != null)
+            .map(MarketSnapshot::copyOf)
+            .toArray(SectorMoneyFlow[]::new);
+
+        SectorMoneyFlow[] byInflow = copies.clone();
+        Arrays.sort(byInflow, Comparator.comparing(SectorMoneyFlow::getMainNetInflow,
+            Comparator.nullsLast(Comparator.reverseOrder())));
+        SectorMoneyFlow[] byChange = copies.clone();
+        Arrays.sort(byChange, Comparator.comparing(SectorMoneyFlow::getChangePercent,
+            Comparator.nullsLast(Comparator.reverseOrder())));
+        return new MarketSnapshot(tradeDate, byInflow, byChange);
+    }
+
+    /**
+     * 合并入库数据生成新快照：同一板块代码以新数据为准，其余板块保持不变
+     */
+    public MarketSnapshot merge(List<SectorMoneyFlow> updates) {
+        Map<String, SectorMoneyFlow> merged = new LinkedHashMap<>(byInflow.length * 2);
+        for (SectorMoneyFlow flow : byInflow) {
+            merged.put(flow.getSectorCode(), flow);
+        }
+        for (SectorMoneyFlow flow : updates) {
+            if (flow != null && flow.getSectorCode() != null) {
+                merged.put(flow.getSectorCode(), flow);
+            }
+        }
+        return of(tradeDate, new ArrayList<>(merged.values()));
+    }
+
+    public LocalDate tradeDate() {
+        return tradeDate;
+    }
+
+    /**
+     * 当日板块总数
+     */
+    public int count() {
+        return byInflow.length;
+    }
+
+    public boolean isEmpty() {
+        return byInflow.length == 0;
+    }
+
+    /**
+     * 资金流入排名
+     *
+     * @return 排名（从1开始），未找到返回-1
+     */
+    public int inflowRank(String sectorCode) {
+        Integer rank = sectorCode != null ? inflowRanks.get(sectorCode) : null;
+        return rank != null ? rank : -1;
+    }
+
+    /**
+     * 按板块代码查找（返回副本）
+     *
+     * @return 当日资金流向，未找到返回null
+     */
+    public SectorMoneyFlow findBySectorCode(String sectorCode) {
+        int rank = inflowRank(sectorCode);
+        return rank > 0 ? copyOf(byInflow[rank - 1]) : null;
+    }
+
+    /**
+     * 按板块代码取当日资金流向的定点数形式（构建时已换算，不可变，可直接共享）
+     *
+     * @return 定点数形式，未找到返回null
+     */
+    public CompactMoneyFlow compactBySectorCode(String sectorCode) {
+        int rank = inflowRank(sectorCode);
+        return rank > 0 ? compacts[rank - 1] : null;
+    }
+
+    /**
+     * 按板块名称查找：先精确匹配，再按包含关系匹配（返回副本）
+     *
+     * @return 当日资金流向，未找到返回null
+     */
+    public SectorMoneyFlow findBySectorName(String sectorName) {
+        if (sectorName == null || sectorName.isBlank()) {
+            return null;
+        }
+        Integer rank = nameRanks.get(sectorName);
+        if (rank != null) {
+            return copyOf(byInflow[rank - 1]);
+        }
+        for (SectorMoneyFlow flow : byInflow) {
+            if (flow.getSectorName() != null && flow.getSectorName().contains(sectorName)) {
+                return copyOf(flow);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 按排名取主力净流入（分）
+     *
+     * @param rank 排名（从1开始）
+     */
+    public long inflowAt(int rank) {
+        return compacts[rank - 1].mainNetInflow();
+    }
+
+    /**
+     * 按排名取涨跌幅（bp）
+     *
+     * @param rank 排名（从1开始）
+     */
+    public int changeAt(int rank) {
+        return changes[rank - 1];
+    }
+
+    /**
+     * 主力净流入 Top N（返回副本）
+     */
+    public List<SectorMoneyFlow> topByInflow(int topN) {
+        return top(byInflow, topN);
+    }
+
+    /**
+     * 涨跌幅 Top N（返回副本）
+     */
+    public List<SectorMoneyFlow> topByChange(int topN) {
+        return top(byChange, topN);
+    }
+
+    private static List<SectorMoneyFlow> top(SectorMoneyFlow[] sorted, int topN) {
+        int size = Math.min(Math.max(topN, 0), sorted.length);
+        if (size == 0) {
+            return Collections.emptyList();
+        }
+        List<SectorMoneyFlow> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(copyOf(sorted[i]));
+        }
+        return result;
+    }
+
+    private static SectorMoneyFlow copyOf(SectorMoneyFlow source) {
+        SectorMoneyFlow copy = new SectorMoneyFlow();
+        BeanUtils.copyProperties(Objects.requireNonNull(source), copy);
+        return copy;
+    }
+}
@@ -0,0 +1,100 @@
+package com.ershi.aspider.data.storage.memory;
+
+import com.ershi.aspider.data.datasource.domain.SectorMoneyFlow;
+import com.ershi.aspider.data.storage.repository.SectorMoneyFlowRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 全市场板块快照缓存
+ * <p>
+ * 按交易日缓存 {@link MarketSnapshot}，整体以不可变 Map 经 {@link AtomicReference} 发布，读取无锁。
+ * 未命中时从主存储加载当日数据构建（空结果不缓存，避免把暂时无数据或查询失败固化）；
+ * 板块数据入库后由 {@link #refresh} 把本次入库数据直接合并进当日快照，不回读主存储：
+ * ES 批量写入不触发 refresh，入库后立即查询可能读到旧数据或只含部分板块类型的当日数据。
+ * 只保留最近若干个交易日。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@Component
+public class MarketSnapshotCache {
+
+    private static final Logger log = LoggerFactory.getLogger(MarketSnapshotCache.class);
+
+    /** 最多缓存的交易日数 */
+    private static final int MAX_SNAPSHOTS = 8;
+
+    private final SectorMoneyFlowRepository sectorMoneyFlowRepository;
+
+    private final AtomicReference<Map<LocalDate, MarketSnapshot>> snapshots = new AtomicReference<>(Map.of());
+
+    public MarketSnapshotCache(SectorMoneyFlowRepository sectorMoneyFlowRepository) {
+        this.sectorMoneyFlowRepository = sectorMoneyFlowRepository;
+    }
+
+    /**
+     * 获取某交易日的快照（未命中时从主存储加载）
+     */
+    public MarketSnapshot get(LocalDate tradeDate) {
+        MarketSnapshot snapshot = snapshots.get().get(tradeDate);
+        return snapshot != null ? snapshot : load(tradeDate);
+    }
+
+    /**
+     * 入库后将本次数据合并进涉及交易日的快照
+     * <p>
+     * 当日已有快照时直接在其上合并；没有时以主存储当前可见的数据为底（可能滞后），再由本次入库数据补齐覆盖。
+     *
+     * @param ingested 本次入库的资金流向
+     */
+    public void refresh(List<SectorMoneyFlow> ingested) {
+        if (ingested == null || ingested.isEmpty()) {
+            return;
+        }
+        ingested.stream()
+            .filter(flow -> flow != null && flow.getTradeDate() != null)
+            .collect(Collectors.groupingBy(SectorMoneyFlow::getTradeDate))
+            .forEach(this::merge);
+    }
+
+    private void merge(LocalDate tradeDate, List<SectorMoneyFlow> updates) {
+        MarketSnapshot stored = snapshots.get().containsKey(tradeDate)
+            ? null : MarketSnapshot.of(tradeDate, sectorMoneyFlowRepository.findByTradeDate(tradeDate));
+        snapshots.updateAndGet(current -> {
+            MarketSnapshot base = current.getOrDefault(tradeDate, stored);
+            if (base == null) {
+                base = MarketSnapshot.of(tradeDate, List.of());
+            }
+            return publish(current, base.merge(updates));
+        });
+        log.info("板块快照已合并入库数据，交易日={}，合并板块数={}", tradeDate, updates.size());
+    }
+
+    private MarketSnapshot load(LocalDate tradeDate) {
+        MarketSnapshot snapshot = MarketSnapshot.of(tradeDate, sectorMoneyFlowRepository.findByTradeDate(tradeDate));
+        if (!snapshot.isEmpty()) {
+            snapshots.updateAndGet(current -> publish(current, snapshot));
+            log.info("板块快照已加载，交易日={}，板块数={}", tradeDate, snapshot.count());
+        }
+        return snapshot;
+    }
+
+    private static Map<LocalDate, MarketSnapshot> publish(Map<LocalDate, MarketSnapshot> current, MarketSnapshot snapshot) {
+        TreeMap<LocalDate, MarketSnapshot> next = new TreeMap<>(current);
+        next.put(snapshot.tradeDate(), snapshot);
+        while (next.size() > MAX_SNAPSHOTS) {
+            next.pollFirstEntry();
+        }
+        return Map.copyOf(next);
+    }
+}
@@ -0,0 +1,268 @@
+package com.ershi.aspider.data.storage.memory;
+
+import com.ershi.aspider.data.datasource.domain.SectorMoneyFlow;
+import com.ershi.aspider.data.datasource.domain.SectorQuote;
+import com.ershi.aspider.data.storage.repository.SectorMoneyFlowRepository;
+import com.ershi.aspider.data.storage.repository.SectorQuoteRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 板块目录缓存
+ * <p>
+ * 常驻 代码 → 名称 → 类型 的映射，按名称建有序表（前缀查找）与二元组倒排（包含/模糊查找），
+ * 整体以不可变目录经 {@link AtomicReference} 发布，查找无锁且不访问存储。
+ * <p>
+ * 启动时从最近一个有数据的交易日加载，之后由板块数据入库流程增量登记（同一代码以新名称为准）。
+ * 名称解析顺序：代码 → 精确名称 → 前缀（名称最短者优先） → 包含 → 二元组 Dice 相似度。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@Component
+public class SectorDirectoryCache {
+
+    private static final Logger log = LoggerFactory.getLogger(SectorDirectoryCache.class);
+
+    /** 启动加载时向前查找有数据交易日的最大天数 */
+    private static final int LOAD_LOOKBACK_DAYS = 10;
+
+    /** 模糊匹配的最低 Dice 相似度 */
+    private static final double MIN_FUZZY_SCORE = 0.5;
+
+    private static final double EXACT_SCORE = 4.0;
+    private static final double PREFIX_SCORE = 3.0;
+    private static final double CONTAINS_SCORE = 2.0;
+
+    private final SectorMoneyFlowRepository sectorMoneyFlowRepository;
+
+    private final SectorQuoteRepository sectorQuoteRepository;
+
+    private final Executor aspiderVirtualExecutor;
+
+    private final AtomicReference<Directory> directory = new AtomicReference<>(Directory.build(Map.of()));
+
+    public SectorDirectoryCache(SectorMoneyFlowRepository sectorMoneyFlowRepository,
+                                SectorQuoteRepository sectorQuoteRepository,
+                                Executor aspiderVirtualExecutor) {
+        this.sectorMoneyFlowRepository = sectorMoneyFlowRepository;
+        this.sectorQuoteRepository = sectorQuoteRepository;
+        this.aspiderVirtualExecutor = aspiderVirtualExecutor;
+    }
+
+    /**
+     * 启动完成后异步加载
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        aspiderVirtualExecutor.execute(this::load);
+    }
+
+    /**
+     * 登记资金流向中的板块
+     */
+    public void registerMoneyFlows(List<SectorMoneyFlow> flows) {
+        if (flows != null && !flows.isEmpty()) {
+            register(flows.stream()
+                .map(flow -> new SectorEntry(flow.getSectorCode(), flow.getSectorName(), flow.getSectorType()))
+                .toList());
+        }
+    }
+
+    /**
+     * 登记行情中的板块
+     */
+    public void registerQuotes(List<SectorQuote> quotes) {
+        if (quotes != null && !quotes.isEmpty()) {
+            register(quotes.stream()
+                .map(quote -> new SectorEntry(quote.getSectorCode(), quote.getSectorName(), quote.getSectorType()))
+                .toList());
+        }
+    }
+
+    public int size() {
+        return directory.get().byCode.size();
+    }
+
+    /**
+     * 按板块代码查找
+     *
+     * @return 目录条目，未找到返回null
+     */
+    public SectorEntry findByCode(String sectorCode) {
+        return sectorCode != null ? directory.get().byCode.get(sectorCode) : null;
+    }
+
+    /**
+     * 将板块名称（或代码）解析为目录条目，取最佳匹配
+     *
+     * @return 目录条目，无匹配返回null
+     */
+    public SectorEntry resolve(String nameOrCode) {
+        if (nameOrCode == null || nameOrCode.isBlank()) {
+            return null;
+        }
+        SectorEntry byCode = findByCode(nameOrCode.trim());
+        if (byCode != null) {
+            return byCode;
+        }
+        List<SectorEntry> matches = suggest(nameOrCode, 1);
+        return matches.isEmpty() ? null : matches.get(0);
+    }
+
+    /**
+     * 按名称联想，结果按 精确 > 前缀 > 包含 > 模糊 排序，同级名称短者优先
+     *
+     * @param text  查询文本
+     * @param limit 返回数量
+     */
+    public List<SectorEntry> suggest(String text, int limit) {
+        if (text == null || text.isBlank() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        String query = text.trim();
+        Directory current = directory.get();
+        Map<SectorEntry, Double> scores = new HashMap<>();
+
+        SectorEntry exact = current.byName.get(query);
+        if (exact != null) {
+            scores.put(exact, EXACT_SCORE);
+        }
+
+        // 前缀：有序表中 [query, query + Character.MAX_VALUE) 区间
+        for (SectorEntry entry : current.byName.subMap(query, true, query + Character.MAX_VALUE, false).values()) {
+            scores.putIfAbsent(entry, PREFIX_SCORE);
+        }
+
+        List<String> queryTokens = BigramInvertedIndex.tokenize(query);
+        if (queryTokens.isEmpty()) {
+            // 单字查询无二元组，直接按包含关系扫描
+            for (SectorEntry entry : current.byName.values()) {
+                if (entry.sectorName().contains(query)) {
+                    scores.putIfAbsent(entry, CONTAINS_SCORE);
+                }
+            }
+        } else {
+            scoreByBigrams(current, query, new HashSet<>(queryTokens), scores);
+        }
+
+        return scores.entrySet().stream()
+            .sorted(Map.Entry.<SectorEntry, Double>comparingByValue().reversed()
+                .thenComparing(e -> e.getKey().sectorName().length())
+                .thenComparing(e -> e.getKey().sectorCode()))
+            .limit(limit)
+            .map(Map.Entry::getKey)
+            .toList();
+    }
+
+    /** 二元组倒排召回候选：包含查询文本的计为包含匹配，其余按 Dice 相似度模糊匹配 */
+    private void scoreByBigrams(Directory current, String query, Set<String> queryTokens,
+                                Map<SectorEntry, Double> scores) {
+        Map<SectorEntry, Integer> overlaps = new HashMap<>();
+        for (String token : queryTokens) {
+            for (SectorEntry entry : current.postings.getOrDefault(token, List.of())) {
+                overlaps.merge(entry, 1, Integer::sum);
+            }
+        }
+        for (Map.Entry<SectorEntry, Integer> candidate : overlaps.entrySet()) {
+            SectorEntry entry = candidate.getKey();
+            if (entry.sectorName().contains(query)) {
+                scores.putIfAbsent(entry, CONTAINS_SCORE);
+                continue;
+            }
+            int nameTokens = current.tokenCounts.get(entry.sectorCode());
+            double dice = 2.0 * candidate.getValue() / (queryTokens.size() + nameTokens);
+            if (dice >= MIN_FUZZY_SCORE) {
+                scores.putIfAbsent(entry, dice);
+            }
+        }
+    }
+
+    /**
+     * 从最近一个有数据的交易日加载
+     */
+    void load() {
+        try {
+            LocalDate today = LocalDate.now();
+            for (int i = 0; i < LOAD_LOOKBACK_DAYS; i++) {
+                List<SectorMoneyFlow> flows = sectorMoneyFlowRepository.findByTradeDate(today.minusDays(i));
+                if (!flows.isEmpty()) {
+                    registerMoneyFlows(flows);
+                    registerQuotes(sectorQuoteRepository.findByTradeDate(today.minusDays(i)));
+                    break;
+                }
+            }
+            log.info("板块目录加载完成，共 {} 个板块", size());
+        } catch (Exception e) {
+            log.error("板块目录加载失败，等待入库时登记", e);
+        }
+    }
+
+    private void register(List<SectorEntry> entries) {
+        directory.updateAndGet(current -> {
+            Map<String, SectorEntry> merged = new LinkedHashMap<>(current.byCode);
+            for (SectorEntry entry : entries) {
+                if (entry.sectorCode() != null && entry.sectorName() != null && !entry.sectorName().isBlank()) {
+                    merged.put(entry.sectorCode(), entry);
+                }
+            }
+            return Directory.build(merged);
+        });
+    }
+
+    /** 不可变目录 */
+    private static final class Directory {
+
+        private final Map<String, SectorEntry> byCode;
+
+        /** 名称有序表（精确/前缀查找），同名时保留先登记者 */
+        private final NavigableMap<String, SectorEntry> byName;
+
+        /** 名称二元组 → 板块 */
+        private final Map<String, List<SectorEntry>> postings;
+
+        /** 板块代码 → 名称去重后的二元组数 */
+        private final Map<String, Integer> tokenCounts;
+
+        private Directory(Map<String, SectorEntry> byCode, NavigableMap<String, SectorEntry> byName,
+                          Map<String, List<SectorEntry>> postings, Map<String, Integer> tokenCounts) {
+            this.byCode = byCode;
+            this.byName = byName;
+            this.postings = postings;
+            this.tokenCounts = tokenCounts;
+        }
+
+        static Directory build(Map<String, SectorEntry> entries) {
+            TreeMap<String, SectorEntry> byName = new TreeMap<>();
+            Map<String, List<SectorEntry>> postings = new HashMap<>();
+            Map<String, Integer> tokenCounts = new HashMap<>();
+            for (SectorEntry entry : entries.values()) {
+                byName.putIfAbsent(entry.sectorName(), entry);
+                Set<String> tokens = new HashSet<>(BigramInvertedIndex.tokenize(entry.sectorName()));
+                for (String token : tokens) {
+                    postings.computeIfAbsent(token, t -> new ArrayList<>()).add(entry);
+                }
+                tokenCounts.put(entry.sectorCode(), tokens.size());
+            }
+            return new Directory(Collections.unmodifiableMap(new LinkedHashMap<>(entries)),
+                Collections.unmodifiableNavigableMap(byName), postings, tokenCounts);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.ershi.aspider.data.storage.memory;
+
+/**
+ * 板块目录条目
+ *
+ * @param sectorCode 板块代码 (如 BK0477)
+ * @param sectorName 板块名称 (如 半导体)
+ * @param sectorType 板块类型 (INDUSTRY/CONCEPT)
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public record SectorEntry(String sectorCode, String sectorName, String sectorType) {
+}
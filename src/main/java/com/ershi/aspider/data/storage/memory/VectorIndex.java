@@ -0,0 +1,78 @@
+package com.ershi.aspider.data.storage.memory;
+
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * 向量索引（余弦相似度）
+ * <p>
+ * 写入时向量先归一化，相似度即点积。节点编号按写入顺序连续递增，
+ * 删除由调用方通过检索条件过滤（墓碑）。非线程安全，由调用方加锁。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+interface VectorIndex {
+
+    /**
+     * 已写入节点数（含占位节点）
+     */
+    int size();
+
+    /**
+     * 写入向量，返回节点编号（向量为空时写入占位节点，不参与检索）
+     */
+    int add(float[] vector);
+
+    /**
+     * 检索满足条件且最相似的 k 个节点
+     *
+     * @param query  查询向量
+     * @param k      返回数量
+     * @param ef     近似检索的候选队列大小（精确检索忽略）
+     * @param accept 节点过滤条件
+     * @return 按相似度降序的候选（相似度为余弦值）
+     */
+    List<Candidate> search(float[] query, int k, int ef, IntPredicate accept);
+
+    /**
+     * 计算归一化查询向量与指定节点的余弦相似度（节点无向量时返回 -1）
+     */
+    double similarity(float[] normalizedQuery, int node);
+
+    /**
+     * 节点的归一化向量（可能为空）
+     */
+    float[] vector(int node);
+
+    static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        norm = Math.sqrt(norm);
+        float[] result = new float[vector.length];
+        if (norm == 0) {
+            return result;
+        }
+        for (int i = 0; i < vector.length; i++) {
+            result[i] = (float) (vector[i] / norm);
+        }
+        return result;
+    }
+
+    static double dot(float[] a, float[] b) {
+        double sum = 0;
+        int length = Math.min(a.length, b.length);
+        for (int i = 0; i < length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    /**
+     * 检索候选：节点编号 + 余弦相似度
+     */
+    record Candidate(int node, double similarity) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.ershi.aspider.data.storage.memory.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 新闻过滤查询结果缓存配置
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "storage.query-cache")
+public class ArticleQueryCacheConfig {
+
+    /** 是否启用过滤查询结果缓存 */
+    private Boolean enabled = true;
+
+    /** 结果有效期（秒），新闻入库时提前失效 */
+    private Integer ttlSeconds = 300;
+
+    /** 最大缓存条目数，超出时先清理过期条目，仍超出则清空 */
+    private Integer maxEntries = 64;
+}
@@ -0,0 +1,35 @@
+package com.ershi.aspider.data.storage.memory.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 进程内热数据索引配置
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "storage.hot-tier")
+public class HotTierConfig {
+
+    /** 是否启用进程内热数据索引 */
+    private Boolean enabled = false;
+
+    /** 热数据窗口（天），查询窗口不超过该值时由本地索引响应 */
+    private Integer windowDays = 7;
+
+    /** 从ES整体重新加载的周期（分钟），纳入其他节点的写入与ES侧的删除，即本地视图的最大滞后 */
+    private Integer refreshIntervalMinutes = 10;
+
+    /** HNSW 每个节点的最大邻居数 M（第0层为 2M） */
+    private Integer hnswM = 16;
+
+    /** HNSW 构建时的候选队列大小 */
+    private Integer efConstruction = 100;
+
+    /** HNSW 查询时的候选队列大小 */
+    private Integer efSearch = 64;
+}
@@ -0,0 +1,121 @@
+package com.ershi.aspider.data.storage.repository;
+
+import com.ershi.aspider.data.datasource.domain.FinancialArticle;
+import com.ershi.aspider.data.datasource.domain.NewsTypeEnum;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 新闻数据存储接口
+ * <p>
+ * 采集、清洗、检索流程只依赖此接口，由 {@code storage.type} 选择ES或本地嵌入式实现。
+ * 检索结果的 searchScore 统一为0-1分数，各实现沿用相同的相似度阈值。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public interface FinancialArticleRepository {
+
+    /**
+     * 批量保存（同一 uniqueId 覆盖写入）
+     * <p>
+     * 返回时已保存的数据对后续查询可见，调用方可据此失效查询缓存
+     *
+     * @param financialArticle 待保存的新闻数据
+     * @return 成功保存的数据条数
+     */
+    int batchSave(List<FinancialArticle> financialArticle);
+
+    /**
+     * 查询最近N天内的新闻数据（按发布时间倒序）
+     *
+     * @param days 天数
+     * @param size 查询数量限制
+     * @return 新闻列表
+     */
+    List<FinancialArticle> findRecentByDays(int days, int size);
+
+    /**
+     * 分层清理：删除 crawlTime 早于指定时间且重要性低于阈值（或缺失）的新闻
+     *
+     * @param beforeTime    清理此时间之前的数据
+     * @param minImportance 最低保留重要性（低于此值的删除）
+     * @return 删除的数据条数
+     */
+    long deleteByTimeAndImportance(LocalDateTime beforeTime, int minImportance);
+
+    /**
+     * 摘要向量语义检索
+     *
+     * @param queryVector 查询向量
+     * @param topK        返回数量
+     * @param days        时间范围（最近N天，0表示不限制）
+     * @return 语义相关的新闻列表（按分数降序）
+     */
+    List<FinancialArticle> searchByVector(List<Float> queryVector, int topK, int days);
+
+    /**
+     * 按新闻类型和时间范围查询（按发布时间倒序）
+     *
+     * @param newsType 新闻类型
+     * @param days     最近N天
+     * @param size     数量限制
+     * @return 新闻列表
+     */
+    List<FinancialArticle> findByNewsTypeAndDays(NewsTypeEnum newsType, int days, int size);
+
+    /**
+     * 按最低重要性和时间范围查询（按重要性、发布时间倒序）
+     *
+     * @param minImportance 最低重要性
+     * @param days          最近N天
+     * @param size          数量限制
+     * @return 新闻列表
+     */
+    List<FinancialArticle> findByImportanceAndDays(int minImportance, int days, int size);
+
+    /**
+     * 混合检索：向量语义检索 + 关键词匹配
+     *
+     * @param queryText   查询文本（用于关键词匹配）
+     * @param queryVector 查询向量（用于语义检索）
+     * @param topK        返回数量
+     * @param days        时间范围（最近N天，0表示不限制）
+     * @return 相关新闻列表（按分数降序）
+     */
+    List<FinancialArticle> hybridSearch(String queryText, List<Float> queryVector, int topK, int days);
+
+    /**
+     * 全量检索：不限时间范围，包含已迁出日常检索范围的历史数据
+     *
+     * @param queryText   查询文本（用于关键词匹配）
+     * @param queryVector 查询向量（用于语义检索）
+     * @param topK        返回数量
+     * @return 相关新闻列表（按分数降序）
+     */
+    List<FinancialArticle> searchAllTiers(String queryText, List<Float> queryVector, int topK);
+
+    /**
+     * 批量检查唯一ID是否已入库（含历史数据）
+     *
+     * @param uniqueIds 唯一ID
+     * @return 已存在的唯一ID集合
+     */
+    Set<String> findExistingIds(Collection<String> uniqueIds);
+
+    /**
+     * 遍历全部已入库的唯一ID（含历史数据）
+     *
+     * @param consumer ID处理
+     */
+    void forEachId(Consumer<String> consumer);
+
+    /**
+     * 已入库新闻数量（含历史数据）
+     */
+    long countIds();
+}
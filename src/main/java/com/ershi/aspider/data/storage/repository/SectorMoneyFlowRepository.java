@@ -0,0 +1,93 @@
+package com.ershi.aspider.data.storage.repository;
+
+import com.ershi.aspider.data.datasource.domain.SectorMoneyFlow;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 板块资金流向存储接口
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public interface SectorMoneyFlowRepository {
+
+    /**
+     * 批量保存（同一 uniqueId 覆盖写入）
+     *
+     * @param dataList 待保存的资金流向数据
+     * @return 成功保存的数据条数
+     */
+    int batchSave(List<SectorMoneyFlow> dataList);
+
+    /**
+     * 查询指定日期的所有板块资金流向
+     *
+     * @param tradeDate 交易日期
+     * @return {@link List }<{@link SectorMoneyFlow }>
+     */
+    List<SectorMoneyFlow> findByTradeDate(LocalDate tradeDate);
+
+    /**
+     * 根据板块代码查询资金流向
+     *
+     * @param sectorCode 板块代码
+     * @param limit      返回条数
+     * @return {@link List }<{@link SectorMoneyFlow }>
+     */
+    List<SectorMoneyFlow> findBySectorCode(String sectorCode, int limit);
+
+    /**
+     * 查询当日主力净流入Top N板块
+     *
+     * @param tradeDate 交易日期
+     * @param topN      数量
+     * @return 按主力净流入降序排列的板块列表
+     */
+    List<SectorMoneyFlow> findTopByMainNetInflow(LocalDate tradeDate, int topN);
+
+    /**
+     * 查询当日涨幅Top N板块
+     *
+     * @param tradeDate 交易日期
+     * @param topN      数量
+     * @return 按涨幅降序排列的板块列表
+     */
+    List<SectorMoneyFlow> findTopByChangePercent(LocalDate tradeDate, int topN);
+
+    /**
+     * 查询板块连续N日资金流向
+     *
+     * @param sectorCode 板块代码
+     * @param days       天数
+     * @return 按日期降序排列的资金流向列表
+     */
+    List<SectorMoneyFlow> findRecentBySectorCode(String sectorCode, int days);
+
+    /**
+     * 根据板块名称查询当日资金流向
+     *
+     * @param sectorName 板块名称
+     * @param tradeDate  交易日期
+     * @return 板块资金流向，未找到返回null
+     */
+    SectorMoneyFlow findBySectorNameAndDate(String sectorName, LocalDate tradeDate);
+
+    /**
+     * 计算指定板块在当日的资金流入排名
+     *
+     * @param sectorCode 板块代码
+     * @param tradeDate  交易日期
+     * @return 排名（从1开始），未找到返回-1
+     */
+    int calculateInflowRank(String sectorCode, LocalDate tradeDate);
+
+    /**
+     * 获取当日板块总数
+     *
+     * @param tradeDate 交易日期
+     * @return 板块总数
+     */
+    long countByTradeDate(LocalDate tradeDate);
+}
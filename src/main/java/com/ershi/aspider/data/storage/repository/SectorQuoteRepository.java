@@ -0,0 +1,40 @@
+package com.ershi.aspider.data.storage.repository;
+
+import com.ershi.aspider.data.datasource.domain.SectorQuote;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 板块行情存储接口
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public interface SectorQuoteRepository {
+
+    /**
+     * 批量保存（同一 uniqueId 覆盖写入）
+     *
+     * @param dataList 待保存的行情数据
+     * @return 成功保存的数据条数
+     */
+    int batchSave(List<SectorQuote> dataList);
+
+    /**
+     * 查询指定日期的所有板块行情
+     *
+     * @param tradeDate 交易日期
+     * @return {@link List }<{@link SectorQuote }>
+     */
+    List<SectorQuote> findByTradeDate(LocalDate tradeDate);
+
+    /**
+     * 根据板块代码查询行情
+     *
+     * @param sectorCode 板块代码
+     * @param limit      返回条数
+     * @return 按日期降序排列的行情列表
+     */
+    List<SectorQuote> findBySectorCode(String sectorCode, int limit);
+}
@@ -0,0 +1,65 @@
+package com.ershi.aspider.data.storage.timeseries;
+
+import com.ershi.aspider.data.datasource.domain.FixedPoint;
+
+import java.math.BigDecimal;
+
+/**
+ * 时序列的定点数存储类型
+ * <p>
+ * 入库时由 {@link BigDecimal} 按 HALF_UP 换算为整数一次，列值即为分析使用的定点数，读取时无需再经过浮点换算。
+ * 缺失值统一以 {@link ColumnarTable#MISSING} 表示。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+enum ColumnType {
+
+    /** 金额（分）；价格、成交量等同样保留两位小数，存为 ×100 的 long */
+    FEN(Long.BYTES),
+
+    /** 百分比，存为基点 int */
+    BASIS_POINTS(Integer.BYTES),
+
+    /** 家数等整数，存为 int */
+    COUNT(Integer.BYTES);
+
+    /** 每个值占用的字节数 */
+    final int bytes;
+
+    ColumnType(int bytes) {
+        this.bytes = bytes;
+    }
+
+    /**
+     * 字段值 → 列值（null 为缺失）
+     */
+    long encode(Number value) {
+        if (value == null) {
+            return ColumnarTable.MISSING;
+        }
+        return switch (this) {
+            case FEN -> FixedPoint.toFen(toDecimal(value));
+            case BASIS_POINTS -> FixedPoint.toBasisPoints(toDecimal(value));
+            case COUNT -> value.intValue();
+        };
+    }
+
+    /**
+     * 列值 → 字段值（缺失为 null）
+     */
+    BigDecimal decode(long value) {
+        if (value == ColumnarTable.MISSING) {
+            return null;
+        }
+        return switch (this) {
+            case FEN -> FixedPoint.toYuan(value);
+            case BASIS_POINTS -> FixedPoint.toPercent((int) value);
+            case COUNT -> BigDecimal.valueOf(value);
+        };
+    }
+
+    private static BigDecimal toDecimal(Number value) {
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
+}
@@ -0,0 +1,395 @@
+package com.ershi.aspider.data.storage.timeseries;
+
+import com.ershi.aspider.data.datasource.domain.FixedPoint;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 内存映射的列式时序表
+ * <p>
+ * 以 板块槽位 × 日期 为坐标存储定点数列（金额为分的 long，百分比为基点的 int，见 {@link ColumnType}），
+ * 按年度分文件，文件在创建时按最大容量预分配（稀疏文件）并整体映射到内存，
+ * 任意 (槽位, 日期, 列) 的地址可直接计算，读写为堆外内存访问。
+ * <p>
+ * 同一列同一天的全部槽位连续存放（日期主序），跨板块扫描为一次连续的批量拷贝。
+ * 每天一张位图记录哪些槽位有数据，缺失字段以 {@link #MISSING}（int 列为 {@link FixedPoint#NULL_BP}）表示；
+ * 打开时由位图为每个槽位建立有序的日期索引，单板块近N日窗口由索引直接定位，不逐日探测。
+ * <p>
+ * 文件格式：magic(4) + version(4) + columnCount(4) + sectorCapacity(4) + rowBytes(4) + 保留(12)，
+ * 随后为 366 天的存在位图，最后为各列数据 [列][年内第几天][槽位]，小端序。
+ * 旧版本文件（double 列）在打开时清空重建，由调用方从主存储回填。
+ * 写入需由调用方加写锁，读取需加读锁（年度文件的懒加载映射使用并发表）。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+final class ColumnarTable implements AutoCloseable {
+
+    /** 缺失值 */
+    static final long MISSING = FixedPoint.NULL_AMOUNT;
+
+    private static final int MAGIC = 0x4153_5453;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 32;
+    private static final int DAYS_PER_YEAR = 366;
+
+    private final Path directory;
+
+    private final String name;
+
+    private final int sectorCapacity;
+
+    /** 每天存在位图的字节数 */
+    private final int bitmapBytes;
+
+    /** 各列数据区相对列数据起点的字节偏移 */
+    private final long[] columnStarts;
+
+    /** 各列每个值的字节数 */
+    private final int[] valueBytes;
+
+    /** 一个槽位一天全部列的字节数 */
+    private final int rowBytes;
+
+    private final Map<Integer, YearFile> years = new ConcurrentHashMap<>();
+
+    /** 槽位 → 有数据的日期（epochDay 升序） */
+    private final DateIndex[] dateIndexes;
+
+    ColumnarTable(Path directory, String name, ColumnType[] types, int sectorCapacity) throws IOException {
+        this.columnStarts = new long[types.length];
+        this.valueBytes = new int[types.length];
+        int row = 0;
+        for (int column = 0; column < types.length; column++) {
+            columnStarts[column] = (long) row * DAYS_PER_YEAR * sectorCapacity;
+            valueBytes[column] = types[column].bytes;
+            row += types[column].bytes;
+        }
+        this.rowBytes = row;
+        long size = HEADER_SIZE + (long) DAYS_PER_YEAR * (sectorCapacity / 8) + (long) row * DAYS_PER_YEAR * sectorCapacity;
+        if (sectorCapacity <= 0 || sectorCapacity % 8 != 0 || size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("板块容量需为8的倍数且单个年度文件不超过2GB: " + sectorCapacity);
+        }
+        this.directory = directory;
+        this.name = name;
+        this.sectorCapacity = sectorCapacity;
+        this.bitmapBytes = sectorCapacity / 8;
+        this.dateIndexes = new DateIndex[sectorCapacity];
+        Files.createDirectories(directory);
+        loadDateIndexes();
+    }
+
+    int sectorCapacity() {
+        return sectorCapacity;
+    }
+
+    /**
+     * 写入一个槽位一天的全部列（覆盖）
+     */
+    void put(int slot, LocalDate date, long[] values) throws IOException {
+        YearFile file = year(date.getYear(), true);
+        int day = date.getDayOfYear() - 1;
+        for (int column = 0; column < valueBytes.length; column++) {
+            int position = file.valueOffset(column, day, slot);
+            if (valueBytes[column] == Long.BYTES) {
+                file.buffer.putLong(position, values[column]);
+            } else {
+                file.buffer.putInt(position, values[column] == MISSING ? FixedPoint.NULL_BP : (int) values[column]);
+            }
+        }
+        int bitmapPosition = file.bitmapOffset(day) + (slot >>> 3);
+        file.buffer.put(bitmapPosition, (byte) (file.buffer.get(bitmapPosition) | (1 << (slot & 7))));
+        file.dirty = true;
+        dateIndex(slot).add((int) date.toEpochDay());
+    }
+
+    /**
+     * 槽位截至某日（含）最近的N个有数据的日期（倒序）
+     * <p>
+     * 截止日期不早于最新日期时（常见情况）直接取索引末尾，否则二分定位
+     */
+    LocalDate[] recentDates(int slot, LocalDate endDate, int days) {
+        DateIndex index = dateIndexes[slot];
+        if (index == null) {
+            return new LocalDate[0];
+        }
+        int end = index.floor((int) endDate.toEpochDay());
+        int count = Math.min(days, end + 1);
+        LocalDate[] dates = new LocalDate[count];
+        for (int i = 0; i < count; i++) {
+            dates[i] = LocalDate.ofEpochDay(index.days[end - i]);
+        }
+        return dates;
+    }
+
+    /**
+     * 该日是否有任意槽位的数据
+     */
+    boolean hasAny(LocalDate date) {
+        YearFile file = existingYear(date.getYear());
+        if (file == null) {
+            return false;
+        }
+        int from = file.bitmapOffset(date.getDayOfYear() - 1);
+        for (int i = 0; i < bitmapBytes; i++) {
+            if (file.buffer.get(from + i) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 读取单个值（调用方需先确认该日有数据，如取自 {@link #recentDates}）
+     */
+    long get(int column, int slot, LocalDate date) {
+        YearFile file = existingYear(date.getYear());
+        int position = file.valueOffset(column, date.getDayOfYear() - 1, slot);
+        if (valueBytes[column] == Long.BYTES) {
+            return file.buffer.getLong(position);
+        }
+        int value = file.buffer.getInt(position);
+        return value == FixedPoint.NULL_BP ? MISSING : value;
+    }
+
+    /**
+     * 读取某列某日的全部槽位，无数据的槽位为 {@link #MISSING}
+     *
+     * @param slotCount 需要读取的槽位数（已分配的槽位数）
+     */
+    long[] scan(int column, LocalDate date, int slotCount) {
+        long[] values = new long[slotCount];
+        YearFile file = existingYear(date.getYear());
+        if (file == null) {
+            Arrays.fill(values, MISSING);
+            return values;
+        }
+        int day = date.getDayOfYear() - 1;
+        ByteBuffer region = file.buffer.slice(file.valueOffset(column, day, 0), slotCount * valueBytes[column])
+            .order(ByteOrder.LITTLE_ENDIAN);
+        if (valueBytes[column] == Long.BYTES) {
+            region.asLongBuffer().get(values);
+        } else {
+            IntBuffer ints = region.asIntBuffer();
+            for (int slot = 0; slot < slotCount; slot++) {
+                int value = ints.get(slot);
+                values[slot] = value == FixedPoint.NULL_BP ? MISSING : value;
+            }
+        }
+
+        int bitmap = file.bitmapOffset(day);
+        for (int slot = 0; slot < slotCount; slot++) {
+            if ((file.buffer.get(bitmap + (slot >>> 3)) & (1 << (slot & 7))) == 0) {
+                values[slot] = MISSING;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * 将本批次写入落盘
+     */
+    void force() {
+        for (YearFile file : years.values()) {
+            if (file.dirty) {
+                file.buffer.force();
+                file.dirty = false;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        force();
+        years.clear();
+    }
+
+    /**
+     * 由已有年度文件的位图建立各槽位的日期索引
+     */
+    private void loadDateIndexes() throws IOException {
+        TreeSet<Integer> existing = new TreeSet<>();
+        String prefix = name + "-";
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, prefix + "*.col")) {
+            for (Path path : files) {
+                String fileName = path.getFileName().toString();
+                try {
+                    existing.add(Integer.parseInt(fileName.substring(prefix.length(), fileName.length() - 4)));
+                } catch (NumberFormatException e) {
+                    // 非年度文件，忽略
+                }
+            }
+        }
+
+        for (int year : existing) {
+            YearFile file = year(year, false);
+            int daysInYear = LocalDate.of(year, 12, 31).getDayOfYear();
+            for (int day = 0; day < daysInYear; day++) {
+                int bitmap = file.bitmapOffset(day);
+                int epochDay = (int) LocalDate.ofYearDay(year, day + 1).toEpochDay();
+                for (int slot = 0; slot < sectorCapacity; slot++) {
+                    if ((file.buffer.get(bitmap + (slot >>> 3)) & (1 << (slot & 7))) != 0) {
+                        dateIndex(slot).add(epochDay);
+                    }
+                }
+            }
+        }
+    }
+
+    private DateIndex dateIndex(int slot) {
+        DateIndex index = dateIndexes[slot];
+        if (index == null) {
+            index = new DateIndex();
+            dateIndexes[slot] = index;
+        }
+        return index;
+    }
+
+    private YearFile existingYear(int year) {
+        try {
+            return year(year, false);
+        } catch (IOException e) {
+            throw new RuntimeException("打开时序存储文件失败: " + name + "-" + year, e);
+        }
+    }
+
+    private YearFile year(int year, boolean create) throws IOException {
+        YearFile file = years.get(year);
+        if (file != null) {
+            return file;
+        }
+        Path path = directory.resolve(String.format("%s-%d.col", name, year));
+        if (!create && !Files.exists(path)) {
+            return null;
+        }
+        YearFile opened = YearFile.open(path, sectorCapacity, columnStarts, valueBytes, rowBytes);
+        file = years.putIfAbsent(year, opened);
+        return file != null ? file : opened;
+    }
+
+    /** 单个槽位有数据的日期（epochDay 升序；按日期顺序写入时为追加） */
+    private static final class DateIndex {
+
+        private int[] days = new int[16];
+
+        private int size;
+
+        void add(int epochDay) {
+            if (size > 0 && days[size - 1] >= epochDay) {
+                int found = Arrays.binarySearch(days, 0, size, epochDay);
+                if (found >= 0) {
+                    return;
+                }
+                insert(-found - 1, epochDay);
+                return;
+            }
+            insert(size, epochDay);
+        }
+
+        /** 不晚于指定日期的最后一个位置（不存在时为 -1） */
+        int floor(int epochDay) {
+            if (size == 0 || days[size - 1] <= epochDay) {
+                return size - 1;
+            }
+            int found = Arrays.binarySearch(days, 0, size, epochDay);
+            return found >= 0 ? found : -found - 2;
+        }
+
+        private void insert(int position, int epochDay) {
+            if (size == days.length) {
+                days = Arrays.copyOf(days, size * 2);
+            }
+            System.arraycopy(days, position, days, position + 1, size - position);
+            days[position] = epochDay;
+            size++;
+        }
+    }
+
+    /** 单个年度文件 */
+    private static final class YearFile {
+
+        private final MappedByteBuffer buffer;
+
+        private final int bitmapBytes;
+
+        private final int sectorCapacity;
+
+        private final int columnDataStart;
+
+        private final long[] columnStarts;
+
+        private final int[] valueBytes;
+
+        private boolean dirty;
+
+        private YearFile(MappedByteBuffer buffer, int sectorCapacity, long[] columnStarts, int[] valueBytes) {
+            this.buffer = buffer;
+            this.bitmapBytes = sectorCapacity / 8;
+            this.sectorCapacity = sectorCapacity;
+            this.columnDataStart = HEADER_SIZE + DAYS_PER_YEAR * bitmapBytes;
+            this.columnStarts = columnStarts;
+            this.valueBytes = valueBytes;
+        }
+
+        static YearFile open(Path path, int sectorCapacity, long[] columnStarts, int[] valueBytes, int rowBytes)
+            throws IOException {
+            int columnCount = valueBytes.length;
+            int size = HEADER_SIZE + DAYS_PER_YEAR * (sectorCapacity / 8) + rowBytes * DAYS_PER_YEAR * sectorCapacity;
+
+            MappedByteBuffer buffer;
+            boolean created;
+            try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                if (channel.size() > 0 && isOlderVersion(channel)) {
+                    // 旧版本数据由调用方从主存储回填
+                    channel.truncate(0);
+                }
+                created = channel.size() == 0;
+                if (!created && channel.size() != size) {
+                    throw new IOException("时序存储文件大小不匹配: " + path + "，期望 " + size + "，实际 " + channel.size());
+                }
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            }
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (created) {
+                buffer.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, columnCount).putInt(12, sectorCapacity)
+                    .putInt(16, rowBytes);
+                buffer.force();
+            } else if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getInt(8) != columnCount
+                || buffer.getInt(12) != sectorCapacity || buffer.getInt(16) != rowBytes) {
+                throw new IOException("时序存储文件格式不匹配: " + path);
+            }
+            return new YearFile(buffer, sectorCapacity, columnStarts, valueBytes);
+        }
+
+        private static boolean isOlderVersion(FileChannel channel) throws IOException {
+            ByteBuffer header = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(header, 0);
+            return header.getInt(0) == MAGIC && header.getInt(4) < VERSION;
+        }
+
+        int bitmapOffset(int day) {
+            return HEADER_SIZE + day * bitmapBytes;
+        }
+
+        int valueOffset(int column, int day, int slot) {
+            return (int) (columnDataStart + columnStarts[column]
+                + ((long) day * sectorCapacity + slot) * valueBytes[column]);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.ershi.aspider.data.storage.timeseries;
+
+import com.ershi.aspider.data.datasource.domain.FixedPoint;
+
+import java.time.LocalDate;
+
+/**
+ * 某交易日某列的全板块截面（按槽位排列，列值为定点数，无数据的板块为 {@link FixedPoint#NULL_AMOUNT}）
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public final class CrossSection {
+
+    private final LocalDate tradeDate;
+
+    private final String[] sectorCodes;
+
+    private final long[] values;
+
+    CrossSection(LocalDate tradeDate, String[] sectorCodes, long[] values) {
+        this.tradeDate = tradeDate;
+        this.sectorCodes = sectorCodes;
+        this.values = values;
+    }
+
+    public LocalDate tradeDate() {
+        return tradeDate;
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public boolean isPresent(int slot) {
+        return values[slot] != ColumnarTable.MISSING;
+    }
+
+    public String sectorCode(int slot) {
+        return sectorCodes[slot];
+    }
+
+    public long value(int slot) {
+        return values[slot];
+    }
+
+    /**
+     * 截面数据，返回内部数组，调用方不应修改
+     */
+    public long[] values() {
+        return values;
+    }
+}
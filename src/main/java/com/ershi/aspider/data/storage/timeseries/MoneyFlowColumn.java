@@ -0,0 +1,41 @@
+package com.ershi.aspider.data.storage.timeseries;
+
+import com.ershi.aspider.data.datasource.domain.SectorMoneyFlow;
+
+import java.math.BigDecimal;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 板块资金流向时序列（与 {@link SectorMoneyFlow} 数值字段一一对应，金额存为分，涨跌幅与占比存为基点）
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public enum MoneyFlowColumn {
+
+    CHANGE_PERCENT(ColumnType.BASIS_POINTS, SectorMoneyFlow::getChangePercent, SectorMoneyFlow::setChangePercent),
+    MAIN_NET_INFLOW(ColumnType.FEN, SectorMoneyFlow::getMainNetInflow, SectorMoneyFlow::setMainNetInflow),
+    MAIN_NET_INFLOW_RATIO(ColumnType.BASIS_POINTS, SectorMoneyFlow::getMainNetInflowRatio, SectorMoneyFlow::setMainNetInflowRatio),
+    SUPER_LARGE_INFLOW(ColumnType.FEN, SectorMoneyFlow::getSuperLargeInflow, SectorMoneyFlow::setSuperLargeInflow),
+    SUPER_LARGE_INFLOW_RATIO(ColumnType.BASIS_POINTS, SectorMoneyFlow::getSuperLargeInflowRatio, SectorMoneyFlow::setSuperLargeInflowRatio),
+    LARGE_INFLOW(ColumnType.FEN, SectorMoneyFlow::getLargeInflow, SectorMoneyFlow::setLargeInflow),
+    LARGE_INFLOW_RATIO(ColumnType.BASIS_POINTS, SectorMoneyFlow::getLargeInflowRatio, SectorMoneyFlow::setLargeInflowRatio),
+    MEDIUM_INFLOW(ColumnType.FEN, SectorMoneyFlow::getMediumInflow, SectorMoneyFlow::setMediumInflow),
+    MEDIUM_INFLOW_RATIO(ColumnType.BASIS_POINTS, SectorMoneyFlow::getMediumInflowRatio, SectorMoneyFlow::setMediumInflowRatio),
+    SMALL_INFLOW(ColumnType.FEN, SectorMoneyFlow::getSmallInflow, SectorMoneyFlow::setSmallInflow),
+    SMALL_INFLOW_RATIO(ColumnType.BASIS_POINTS, SectorMoneyFlow::getSmallInflowRatio, SectorMoneyFlow::setSmallInflowRatio);
+
+    final ColumnType type;
+
+    final Function<SectorMoneyFlow, Number> getter;
+
+    final BiConsumer<SectorMoneyFlow, BigDecimal> setter;
+
+    MoneyFlowColumn(ColumnType type, Function<SectorMoneyFlow, Number> getter,
+                    BiConsumer<SectorMoneyFlow, BigDecimal> setter) {
+        this.type = type;
+        this.getter = getter;
+        this.setter = setter;
+    }
+}
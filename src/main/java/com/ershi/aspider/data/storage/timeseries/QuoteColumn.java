@@ -0,0 +1,42 @@
+package com.ershi.aspider.data.storage.timeseries;
+
+import com.ershi.aspider.data.datasource.domain.SectorQuote;
+
+import java.math.BigDecimal;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 板块行情时序列（与 {@link SectorQuote} 数值字段一一对应，价格、金额、成交量保留两位小数，百分比存为基点）
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public enum QuoteColumn {
+
+    OPEN_PRICE(ColumnType.FEN, SectorQuote::getOpenPrice, SectorQuote::setOpenPrice),
+    CLOSE_PRICE(ColumnType.FEN, SectorQuote::getClosePrice, SectorQuote::setClosePrice),
+    HIGH_PRICE(ColumnType.FEN, SectorQuote::getHighPrice, SectorQuote::setHighPrice),
+    LOW_PRICE(ColumnType.FEN, SectorQuote::getLowPrice, SectorQuote::setLowPrice),
+    CHANGE_PERCENT(ColumnType.BASIS_POINTS, SectorQuote::getChangePercent, SectorQuote::setChangePercent),
+    CHANGE_AMOUNT(ColumnType.FEN, SectorQuote::getChangeAmount, SectorQuote::setChangeAmount),
+    TURNOVER_RATE(ColumnType.BASIS_POINTS, SectorQuote::getTurnoverRate, SectorQuote::setTurnoverRate),
+    AMOUNT(ColumnType.FEN, SectorQuote::getAmount, SectorQuote::setAmount),
+    VOLUME(ColumnType.FEN, SectorQuote::getVolume, SectorQuote::setVolume),
+    AMPLITUDE(ColumnType.BASIS_POINTS, SectorQuote::getAmplitude, SectorQuote::setAmplitude),
+    COMPANY_COUNT(ColumnType.COUNT, SectorQuote::getCompanyCount, (quote, value) -> quote.setCompanyCount(value.intValue())),
+    RISE_COUNT(ColumnType.COUNT, SectorQuote::getRiseCount, (quote, value) -> quote.setRiseCount(value.intValue())),
+    FALL_COUNT(ColumnType.COUNT, SectorQuote::getFallCount, (quote, value) -> quote.setFallCount(value.intValue()));
+
+    final ColumnType type;
+
+    final Function<SectorQuote, Number> getter;
+
+    final BiConsumer<SectorQuote, BigDecimal> setter;
+
+    QuoteColumn(ColumnType type, Function<SectorQuote, Number> getter, BiConsumer<SectorQuote, BigDecimal> setter) {
+        this.type = type;
+        this.getter = getter;
+        this.setter = setter;
+    }
+}
@@ -0,0 +1,117 @@
+package com.ershi.aspider.data.storage.timeseries;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 板块槽位目录
+ * <p>
+ * 为每个板块代码分配固定槽位（首次出现的顺序），并记录板块名称与类型。
+ * 以追加写的文本文件持久化（每行 code\tname\ttype），同一代码的后续行只更新名称与类型，槽位不变。
+ * 非线程安全，由调用方加锁。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+final class SectorDirectory {
+
+    private final Path file;
+
+    private final Map<String, Integer> slots = new HashMap<>();
+
+    private final List<String> codes = new ArrayList<>();
+
+    private final List<String> names = new ArrayList<>();
+
+    private final List<String> types = new ArrayList<>();
+
+    SectorDirectory(Path file) throws IOException {
+        this.file = file;
+        if (!Files.exists(file)) {
+            return;
+        }
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String[] parts = line.split("\t", -1);
+            if (parts.length == 3 && !parts[0].isEmpty()) {
+                apply(parts[0], emptyToNull(parts[1]), emptyToNull(parts[2]));
+            }
+        }
+    }
+
+    int size() {
+        return codes.size();
+    }
+
+    /**
+     * 查询槽位
+     *
+     * @return 槽位，不存在返回 -1
+     */
+    int slotOf(String sectorCode) {
+        Integer slot = slots.get(sectorCode);
+        return slot != null ? slot : -1;
+    }
+
+    /**
+     * 获取或分配槽位，名称/类型变化时一并更新
+     *
+     * @param capacity 槽位上限
+     * @return 槽位，超出容量返回 -1
+     */
+    int register(String sectorCode, String sectorName, String sectorType, int capacity) throws IOException {
+        int slot = slotOf(sectorCode);
+        if (slot < 0 && codes.size() >= capacity) {
+            return -1;
+        }
+        if (slot >= 0 && Objects.equals(names.get(slot), sectorName) && Objects.equals(types.get(slot), sectorType)) {
+            return slot;
+        }
+
+        String line = sectorCode + "\t" + nullToEmpty(sectorName) + "\t" + nullToEmpty(sectorType) + "\n";
+        Files.writeString(file, line, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        return apply(sectorCode, sectorName, sectorType);
+    }
+
+    String codeOf(int slot) {
+        return codes.get(slot);
+    }
+
+    String nameOf(int slot) {
+        return names.get(slot);
+    }
+
+    String typeOf(int slot) {
+        return types.get(slot);
+    }
+
+    private int apply(String sectorCode, String sectorName, String sectorType) {
+        Integer slot = slots.get(sectorCode);
+        if (slot == null) {
+            slot = codes.size();
+            slots.put(sectorCode, slot);
+            codes.add(sectorCode);
+            names.add(sectorName);
+            types.add(sectorType);
+        } else {
+            names.set(slot, sectorName);
+            types.set(slot, sectorType);
+        }
+        return slot;
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value.replace('\t', ' ').replace('\n', ' ') : "";
+    }
+}
@@ -0,0 +1,376 @@
+package com.ershi.aspider.data.storage.timeseries;
+
+import com.ershi.aspider.data.datasource.domain.CompactMoneyFlow;
+import com.ershi.aspider.data.datasource.domain.SectorMoneyFlow;
+import com.ershi.aspider.data.datasource.domain.SectorQuote;
+import com.ershi.aspider.data.storage.repository.SectorMoneyFlowRepository;
+import com.ershi.aspider.data.storage.repository.SectorQuoteRepository;
+import com.ershi.aspider.data.storage.timeseries.config.TimeSeriesConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * 板块时序列存储
+ * <p>
+ * 以 板块代码 × 交易日期 为坐标，把 {@link SectorMoneyFlow}、{@link SectorQuote} 的每个数值字段存为一列定点数
+ * （金额为分的 long，百分比为基点的 int），入库时由 BigDecimal 换算一次，读取即得分析使用的 {@link CompactMoneyFlow}，
+ * 不经过浮点换算。数据位于内存映射的年度文件中（见 {@link ColumnarTable}），不占用堆内存。
+ * 单板块近N日窗口由每个板块的日期索引定位后直接寻址读取，不访问主存储；全板块截面为一次连续批量拷贝，适合跨板块扫描。
+ * <p>
+ * 入库流程在写入主存储后同步追加；首次启动时从主存储按日回填，之后只补齐最后一个有数据的交易日之后的部分。
+ * 回填完成前 {@link #isReady()} 为 false，调用方应继续使用主存储。名称、领涨股等文本字段不进入列存。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@Service
+public class SectorTimeSeriesStore implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(SectorTimeSeriesStore.class);
+
+    private static final String DIRECTORY_FILE = "sectors.tsv";
+    private static final String MONEY_FLOW_TABLE = "money_flow";
+    private static final String QUOTE_TABLE = "quote";
+
+    private static final List<Function<SectorMoneyFlow, Number>> MONEY_FLOW_GETTERS =
+        Arrays.stream(MoneyFlowColumn.values()).map(column -> column.getter).toList();
+
+    private static final List<Function<SectorQuote, Number>> QUOTE_GETTERS =
+        Arrays.stream(QuoteColumn.values()).map(column -> column.getter).toList();
+
+    private static final ColumnType[] MONEY_FLOW_TYPES =
+        Arrays.stream(MoneyFlowColumn.values()).map(column -> column.type).toArray(ColumnType[]::new);
+
+    private static final ColumnType[] QUOTE_TYPES =
+        Arrays.stream(QuoteColumn.values()).map(column -> column.type).toArray(ColumnType[]::new);
+
+    private final TimeSeriesConfig config;
+
+    private final SectorMoneyFlowRepository sectorMoneyFlowRepository;
+
+    private final SectorQuoteRepository sectorQuoteRepository;
+
+    private final Executor aspiderVirtualExecutor;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private SectorDirectory directory;
+
+    private ColumnarTable moneyFlowTable;
+
+    private ColumnarTable quoteTable;
+
+    /** 是否已完成启动回填 */
+    private volatile boolean ready;
+
+    public SectorTimeSeriesStore(TimeSeriesConfig config,
+                                 SectorMoneyFlowRepository sectorMoneyFlowRepository,
+                                 SectorQuoteRepository sectorQuoteRepository,
+                                 Executor aspiderVirtualExecutor) {
+        this.config = config;
+        this.sectorMoneyFlowRepository = sectorMoneyFlowRepository;
+        this.sectorQuoteRepository = sectorQuoteRepository;
+        this.aspiderVirtualExecutor = aspiderVirtualExecutor;
+        if (isEnabled()) {
+            open();
+        }
+    }
+
+    /**
+     * 启动完成后异步从主存储回填
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (isEnabled()) {
+            aspiderVirtualExecutor.execute(this::backfill);
+        }
+    }
+
+    /**
+     * 是否可替代主存储响应窗口查询
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    // ==================== 写入 ====================
+
+    /**
+     * 追加资金流向（同一板块同一交易日覆盖）
+     *
+     * @return 写入条数
+     */
+    public int appendMoneyFlows(List<SectorMoneyFlow> flows) {
+        return append(moneyFlowTable, flows, SectorMoneyFlow::getSectorCode, SectorMoneyFlow::getSectorName,
+            SectorMoneyFlow::getSectorType, SectorMoneyFlow::getTradeDate, MONEY_FLOW_GETTERS, MONEY_FLOW_TYPES);
+    }
+
+    /**
+     * 追加板块行情（同一板块同一交易日覆盖）
+     *
+     * @return 写入条数
+     */
+    public int appendQuotes(List<SectorQuote> quotes) {
+        return append(quoteTable, quotes, SectorQuote::getSectorCode, SectorQuote::getSectorName,
+            SectorQuote::getSectorType, SectorQuote::getTradeDate, QUOTE_GETTERS, QUOTE_TYPES);
+    }
+
+    // ==================== 查询 ====================
+
+    /**
+     * 查询板块截至某日的近N个交易日资金流向
+     *
+     * @param sectorCode 板块代码
+     * @param endDate    截止日期（含）
+     * @param days       交易日数
+     */
+    public SectorWindow<MoneyFlowColumn> moneyFlowWindow(String sectorCode, LocalDate endDate, int days) {
+        return window(moneyFlowTable, MoneyFlowColumn.values().length, sectorCode, endDate, days);
+    }
+
+    /**
+     * 查询板块截至某日的近N个交易日行情
+     */
+    public SectorWindow<QuoteColumn> quoteWindow(String sectorCode, LocalDate endDate, int days) {
+        return window(quoteTable, QuoteColumn.values().length, sectorCode, endDate, days);
+    }
+
+    /**
+     * 查询板块截至某日的近N个交易日资金流向（按交易日期倒序，与主存储 findRecentBySectorCode 一致，不含领涨股）
+     */
+    public List<SectorMoneyFlow> findRecentMoneyFlows(String sectorCode, LocalDate endDate, int days) {
+        return toMoneyFlows(moneyFlowWindow(sectorCode, endDate, days));
+    }
+
+    /**
+     * 查询板块截至某日的近N个交易日资金流向的定点数形式（按交易日期倒序）
+     */
+    public List<CompactMoneyFlow> findRecentCompactFlows(String sectorCode, LocalDate endDate, int days) {
+        return toCompactFlows(moneyFlowWindow(sectorCode, endDate, days));
+    }
+
+    /**
+     * 资金流向窗口还原为 {@link SectorMoneyFlow}（金额保留2位小数，百分比保留2位小数）
+     */
+    public static List<SectorMoneyFlow> toMoneyFlows(SectorWindow<MoneyFlowColumn> window) {
+        List<SectorMoneyFlow> flows = new ArrayList<>(window.size());
+        for (int i = 0; i < window.size(); i++) {
+            SectorMoneyFlow flow = new SectorMoneyFlow();
+            flow.setSectorCode(window.sectorCode());
+            flow.setSectorName(window.sectorName());
+            flow.setSectorType(window.sectorType());
+            flow.setTradeDate(window.tradeDate(i));
+            flow.setCrawlTime(null);
+            for (MoneyFlowColumn column : MoneyFlowColumn.values()) {
+                if (window.isPresent(column, i)) {
+                    column.setter.accept(flow, column.type.decode(window.value(column, i)));
+                }
+            }
+            flow.generateUniqueId();
+            flows.add(flow);
+        }
+        return flows;
+    }
+
+    /**
+     * 资金流向窗口的定点数形式，列值即为定点数，直接读取
+     */
+    public static List<CompactMoneyFlow> toCompactFlows(SectorWindow<MoneyFlowColumn> window) {
+        List<CompactMoneyFlow> flows = new ArrayList<>(window.size());
+        for (int i = 0; i < window.size(); i++) {
+            flows.add(new CompactMoneyFlow(
+                window.tradeDate(i),
+                window.value(MoneyFlowColumn.MAIN_NET_INFLOW, i),
+                window.value(MoneyFlowColumn.SUPER_LARGE_INFLOW, i),
+                window.value(MoneyFlowColumn.LARGE_INFLOW, i),
+                window.basisPoints(MoneyFlowColumn.CHANGE_PERCENT, i),
+                window.basisPoints(MoneyFlowColumn.MAIN_NET_INFLOW_RATIO, i),
+                window.basisPoints(MoneyFlowColumn.SUPER_LARGE_INFLOW_RATIO, i)));
+        }
+        return flows;
+    }
+
+    /**
+     * 某交易日某资金流向列的全板块截面
+     */
+    public CrossSection scanMoneyFlow(MoneyFlowColumn column, LocalDate tradeDate) {
+        return scan(moneyFlowTable, column.ordinal(), tradeDate);
+    }
+
+    /**
+     * 某交易日某行情列的全板块截面
+     */
+    public CrossSection scanQuote(QuoteColumn column, LocalDate tradeDate) {
+        return scan(quoteTable, column.ordinal(), tradeDate);
+    }
+
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            if (moneyFlowTable != null) {
+                moneyFlowTable.close();
+                quoteTable.close();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ==================== 内部实现 ====================
+
+    private boolean isEnabled() {
+        return Boolean.TRUE.equals(config.getEnabled());
+    }
+
+    private void open() {
+        Path dataDir = Path.of(config.getDataDir());
+        try {
+            moneyFlowTable = new ColumnarTable(dataDir, MONEY_FLOW_TABLE, MONEY_FLOW_TYPES, config.getSectorCapacity());
+            quoteTable = new ColumnarTable(dataDir, QUOTE_TABLE, QUOTE_TYPES, config.getSectorCapacity());
+            directory = new SectorDirectory(dataDir.resolve(DIRECTORY_FILE));
+        } catch (IOException e) {
+            throw new RuntimeException("打开板块时序列存储失败", e);
+        }
+        log.info("板块时序列存储已打开，目录={}，已登记板块 {} 个", dataDir, directory.size());
+    }
+
+    /**
+     * 从主存储按日回填（首次启动回填配置天数，之后从最后一个有数据的日期开始补齐）
+     */
+    void backfill() {
+        long start = System.currentTimeMillis();
+        try {
+            int flowCount = backfill(moneyFlowTable, sectorMoneyFlowRepository::findByTradeDate, this::appendMoneyFlows);
+            int quoteCount = backfill(quoteTable, sectorQuoteRepository::findByTradeDate, this::appendQuotes);
+            ready = true;
+            log.info("板块时序列存储回填完成，资金流向 {} 条，行情 {} 条，耗时 {} ms",
+                flowCount, quoteCount, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("板块时序列存储回填失败，窗口查询继续使用主存储", e);
+        }
+    }
+
+    private <T> int backfill(ColumnarTable table, Function<LocalDate, List<T>> loader, ToIntFunction<List<T>> appender) {
+        LocalDate today = LocalDate.now();
+        LocalDate from = today.minusDays(config.getBackfillDays());
+
+        lock.readLock().lock();
+        try {
+            for (LocalDate date = today; !date.isBefore(from); date = date.minusDays(1)) {
+                if (table.hasAny(date)) {
+                    // 最后一个有数据的日期可能是盘中数据，重新拉取
+                    from = date;
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        int total = 0;
+        for (LocalDate date = from; !date.isAfter(today); date = date.plusDays(1)) {
+            total += appender.applyAsInt(loader.apply(date));
+        }
+        return total;
+    }
+
+    private <T> int append(ColumnarTable table, List<T> rows, Function<T, String> codeOf, Function<T, String> nameOf,
+                           Function<T, String> typeOf, Function<T, LocalDate> dateOf,
+                           List<Function<T, Number>> getters, ColumnType[] types) {
+        if (table == null || rows == null || rows.isEmpty()) {
+            return 0;
+        }
+
+        long[] values = new long[getters.size()];
+        int count = 0;
+        lock.writeLock().lock();
+        try {
+            for (T row : rows) {
+                String code = codeOf.apply(row);
+                LocalDate date = dateOf.apply(row);
+                if (code == null || date == null) {
+                    continue;
+                }
+                int slot = directory.register(code, nameOf.apply(row), typeOf.apply(row), table.sectorCapacity());
+                if (slot < 0) {
+                    log.warn("板块时序列存储槽位已满（{}），跳过板块 {}", table.sectorCapacity(), code);
+                    continue;
+                }
+                for (int i = 0; i < getters.size(); i++) {
+                    values[i] = types[i].encode(getters.get(i).apply(row));
+                }
+                table.put(slot, date, values);
+                count++;
+            }
+            table.force();
+        } catch (IOException e) {
+            log.error("写入板块时序列存储失败", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return count;
+    }
+
+    private <C extends Enum<C>> SectorWindow<C> window(ColumnarTable table, int columnCount, String sectorCode,
+                                                       LocalDate endDate, int days) {
+        if (table == null || sectorCode == null || endDate == null || days <= 0) {
+            return emptyWindow(sectorCode, columnCount);
+        }
+
+        lock.readLock().lock();
+        try {
+            int slot = directory.slotOf(sectorCode);
+            if (slot < 0) {
+                return emptyWindow(sectorCode, columnCount);
+            }
+
+            LocalDate[] dates = table.recentDates(slot, endDate, days);
+            long[][] values = new long[columnCount][dates.length];
+            for (int i = 0; i < dates.length; i++) {
+                for (int column = 0; column < columnCount; column++) {
+                    values[column][i] = table.get(column, slot, dates[i]);
+                }
+            }
+            return new SectorWindow<>(sectorCode, directory.nameOf(slot), directory.typeOf(slot), dates, values);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static <C extends Enum<C>> SectorWindow<C> emptyWindow(String sectorCode, int columnCount) {
+        return new SectorWindow<>(sectorCode, null, null, new LocalDate[0], new long[columnCount][0]);
+    }
+
+    private CrossSection scan(ColumnarTable table, int column, LocalDate tradeDate) {
+        if (table == null || tradeDate == null) {
+            return new CrossSection(tradeDate, new String[0], new long[0]);
+        }
+
+        lock.readLock().lock();
+        try {
+            int slotCount = directory.size();
+            String[] codes = new String[slotCount];
+            for (int slot = 0; slot < slotCount; slot++) {
+                codes[slot] = directory.codeOf(slot);
+            }
+            return new CrossSection(tradeDate, codes, table.scan(column, tradeDate, slotCount));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.ershi.aspider.data.storage.timeseries;
+
+import com.ershi.aspider.data.datasource.domain.FixedPoint;
+
+import java.time.LocalDate;
+
+/**
+ * 单个板块的近N个交易日窗口（按交易日期倒序）
+ * <p>
+ * 列值为定点数：金额为分、百分比为基点（见各列枚举），缺失字段为 {@link FixedPoint#NULL_AMOUNT}。
+ * 日期与各列在同一次读锁内读取，由同一窗口生成的多种视图彼此一致。
+ *
+ * @param <C> 列枚举
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public final class SectorWindow<C extends Enum<C>> {
+
+    private final String sectorCode;
+
+    private final String sectorName;
+
+    private final String sectorType;
+
+    private final LocalDate[] tradeDates;
+
+    /** [列序号][第几个交易日] */
+    private final long[][] values;
+
+    SectorWindow(String sectorCode, String sectorName, String sectorType, LocalDate[] tradeDates, long[][] values) {
+        this.sectorCode = sectorCode;
+        this.sectorName = sectorName;
+        this.sectorType = sectorType;
+        this.tradeDates = tradeDates;
+        this.values = values;
+    }
+
+    public String sectorCode() {
+        return sectorCode;
+    }
+
+    public String sectorName() {
+        return sectorName;
+    }
+
+    public String sectorType() {
+        return sectorType;
+    }
+
+    public int size() {
+        return tradeDates.length;
+    }
+
+    public boolean isEmpty() {
+        return tradeDates.length == 0;
+    }
+
+    public LocalDate tradeDate(int index) {
+        return tradeDates[index];
+    }
+
+    public boolean isPresent(C column, int index) {
+        return values[column.ordinal()][index] != ColumnarTable.MISSING;
+    }
+
+    /**
+     * 列值（缺失为 {@link FixedPoint#NULL_AMOUNT}）
+     */
+    public long value(C column, int index) {
+        return values[column.ordinal()][index];
+    }
+
+    /**
+     * 基点列的值（缺失为 {@link FixedPoint#NULL_BP}）
+     */
+    public int basisPoints(C column, int index) {
+        long value = values[column.ordinal()][index];
+        return value == ColumnarTable.MISSING ? FixedPoint.NULL_BP : (int) value;
+    }
+
+    /**
+     * 整列数据（按交易日期倒序），返回内部数组，调用方不应修改
+     */
+    public long[] column(C column) {
+        return values[column.ordinal()];
+    }
+}
@@ -0,0 +1,29 @@
+package com.ershi.aspider.data.storage.timeseries.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 板块时序列存储配置
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "storage.time-series")
+public class TimeSeriesConfig {
+
+    /** 是否启用板块时序列存储 */
+    private Boolean enabled = false;
+
+    /** 数据目录 */
+    private String dataDir = "data/timeseries";
+
+    /** 板块容量（每个年度文件为每个交易日预留的板块槽位数，创建后不可修改） */
+    private Integer sectorCapacity = 1024;
+
+    /** 首次启动时从主存储回填的天数 */
+    private Integer backfillDays = 365;
+}
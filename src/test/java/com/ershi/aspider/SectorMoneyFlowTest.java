@@ -81,7 +81,7 @@ public class SectorMoneyFlowTest {
     @Test
     public void testSaveToEs() {
         List<SectorMoneyFlow> data = sectorMoneyFlowDS.getAllSectorMoneyFlow();
-        int count = storageService.batchSaveToEs(data);
+        int count = storageService.batchSave(data);
         System.out.println("保存成功: " + count);
     }
 
@@ -142,7 +142,7 @@ public class SectorMoneyFlowTest {
     @Test
     public void testSaveQuoteToEs() {
         List<SectorQuote> data = sectorQuoteDS.getAllSectorQuote();
-        int count = quoteStorageService.batchSaveToEs(data);
+        int count = quoteStorageService.batchSave(data);
         System.out.println("行情数据保存成功: " + count);
     }
 
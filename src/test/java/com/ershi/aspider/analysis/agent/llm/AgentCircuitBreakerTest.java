@@ -0,0 +1,135 @@
+package com.ershi.aspider.analysis.agent.llm;
+
+import com.ershi.aspider.analysis.agent.config.AgentCircuitBreakerConfig;
+import com.ershi.aspider.analysis.agent.domain.AgentType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Agent LLM 熔断器测试
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public class AgentCircuitBreakerTest {
+
+    private AgentCircuitBreakerConfig config;
+
+    private AtomicLong now;
+
+    @BeforeEach
+    public void setUp() {
+        config = new AgentCircuitBreakerConfig();
+        config.setWindowSize(10);
+        config.setMinSamples(5);
+        config.setP95LatencyMillis(1_000L);
+        config.setErrorRateThreshold(0.5);
+        config.setOpenSeconds(30);
+        config.setProbeRatio(0.5);
+        config.setProbeSuccesses(2);
+        now = new AtomicLong(1_000_000);
+    }
+
+    /**
+     * p95 延迟超出SLO时熔断，仅影响对应Agent
+     */
+    @Test
+    public void testOpensOnSlowP95() {
+        AgentCircuitBreaker breaker = new AgentCircuitBreaker(config, now::get);
+        for (int i = 0; i < 4; i++) {
+            breaker.recordSuccess(AgentType.SECTOR, 200);
+        }
+        assertTrue(breaker.tryAcquire(AgentType.SECTOR));
+
+        breaker.recordSuccess(AgentType.SECTOR, 8_000);
+        assertFalse(breaker.tryAcquire(AgentType.SECTOR));
+        assertTrue(breaker.tryAcquire(AgentType.POLICY));
+
+        AgentHealthStats stats = breaker.stats().stream()
+            .filter(s -> s.agentType() == AgentType.SECTOR)
+            .findFirst()
+            .orElseThrow();
+        assertEquals(CircuitState.OPEN, stats.state());
+        assertEquals(8_000, stats.p95LatencyMs());
+        assertEquals(1, stats.rejected());
+    }
+
+    /**
+     * 错误率超出SLO时熔断；样本不足时不判定
+     */
+    @Test
+    public void testOpensOnErrorRate() {
+        AgentCircuitBreaker breaker = new AgentCircuitBreaker(config, now::get);
+        for (int i = 0; i < 4; i++) {
+            breaker.recordFailure(AgentType.TREND, 100);
+        }
+        assertTrue(breaker.tryAcquire(AgentType.TREND));
+
+        breaker.recordSuccess(AgentType.TREND, 100);
+        assertFalse(breaker.tryAcquire(AgentType.TREND));
+    }
+
+    /**
+     * 熔断期满后按比例放行探测，连续探测满足SLO后恢复
+     */
+    @Test
+    public void testProbesAndRecovers() {
+        AgentCircuitBreaker breaker = new AgentCircuitBreaker(config, now::get);
+        openCircuit(breaker);
+
+        now.addAndGet(30_000);
+        assertTrue(breaker.tryAcquire(AgentType.SYNTHESIS));
+        assertFalse(breaker.tryAcquire(AgentType.SYNTHESIS));
+        breaker.recordSuccess(AgentType.SYNTHESIS, 300);
+
+        assertTrue(breaker.tryAcquire(AgentType.SYNTHESIS));
+        breaker.recordSuccess(AgentType.SYNTHESIS, 300);
+
+        assertEquals(CircuitState.CLOSED, breaker.stats().get(0).state());
+        assertTrue(breaker.tryAcquire(AgentType.SYNTHESIS));
+        assertTrue(breaker.tryAcquire(AgentType.SYNTHESIS));
+    }
+
+    /**
+     * 探测超出延迟SLO时重新熔断并重新计时
+     */
+    @Test
+    public void testSlowProbeReopens() {
+        AgentCircuitBreaker breaker = new AgentCircuitBreaker(config, now::get);
+        openCircuit(breaker);
+
+        now.addAndGet(30_000);
+        assertTrue(breaker.tryAcquire(AgentType.SYNTHESIS));
+        breaker.recordSuccess(AgentType.SYNTHESIS, 5_000);
+
+        assertEquals(CircuitState.OPEN, breaker.stats().get(0).state());
+        now.addAndGet(29_000);
+        assertFalse(breaker.tryAcquire(AgentType.SYNTHESIS));
+        now.addAndGet(1_000);
+        assertTrue(breaker.tryAcquire(AgentType.SYNTHESIS));
+    }
+
+    /**
+     * 关闭时始终放行
+     */
+    @Test
+    public void testDisabled() {
+        config.setEnabled(false);
+        AgentCircuitBreaker breaker = new AgentCircuitBreaker(config, now::get);
+        openCircuit(breaker);
+        assertTrue(breaker.tryAcquire(AgentType.SYNTHESIS));
+        assertTrue(breaker.stats().isEmpty());
+    }
+
+    private void openCircuit(AgentCircuitBreaker breaker) {
+        for (int i = 0; i < config.getMinSamples(); i++) {
+            breaker.recordFailure(AgentType.SYNTHESIS, 100);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.ershi.aspider.analysis.agent.llm;
+
+import com.alibaba.fastjson2.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 增量JSON解析器测试
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public class IncrementalJsonParserTest {
+
+    private static final String RESPONSE = "{\"signal\":\"BULLISH\",\"confidence\":0.82,\"hot\":true,"
+        + "\"detail\":{\"inflow\":3.2},\"reasons\":[\"主力净流入\",\"政策\\\"利好\\\"\"],\"note\":null}";
+
+    /**
+     * 字段值完整后立即发布，先到先发
+     */
+    @Test
+    public void testPublishesFieldsAsTheyComplete() {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        IncrementalJsonParser parser = new IncrementalJsonParser(fields::put);
+
+        parser.feed("{\"signal\":\"BULL");
+        assertTrue(fields.isEmpty());
+        parser.feed("ISH\",\"confidence\":0.8");
+        assertEquals(List.of("signal"), new ArrayList<>(fields.keySet()));
+        parser.feed("2,");
+        assertEquals(0.82, ((Number) fields.get("confidence")).doubleValue());
+
+        // 逐字符输入剩余部分
+        for (char c : RESPONSE.substring(RESPONSE.indexOf("\"hot\"")).toCharArray()) {
+            parser.feed(String.valueOf(c));
+        }
+        assertEquals(RESPONSE, parser.finish());
+        assertTrue(parser.isComplete());
+
+        assertEquals(List.of("signal", "confidence", "hot", "detail", "reasons", "note"),
+            new ArrayList<>(fields.keySet()));
+        assertEquals("BULLISH", fields.get("signal"));
+        assertEquals(Boolean.TRUE, fields.get("hot"));
+        assertInstanceOf(JSONObject.class, fields.get("detail"));
+        assertEquals("政策\"利好\"", ((List<?>) fields.get("reasons")).get(1));
+        assertNull(fields.get("note"));
+    }
+
+    /**
+     * 前置说明文字或代码块标记在首个字符即判定无效
+     */
+    @Test
+    public void testAbortsOnPreamble() {
+        IncrementalJsonParser prose = new IncrementalJsonParser(null);
+        assertThrows(LlmParseException.class, () -> prose.feed("好的，"));
+
+        IncrementalJsonParser markdown = new IncrementalJsonParser(null);
+        assertThrows(LlmParseException.class, () -> markdown.feed("```json\n{"));
+    }
+
+    /**
+     * 非法字面量在前缀不匹配时即判定无效，无需等待值结束
+     */
+    @Test
+    public void testAbortsOnInvalidLiteralPrefix() {
+        List<String> names = new ArrayList<>();
+        IncrementalJsonParser parser = new IncrementalJsonParser((name, value) -> names.add(name));
+        parser.feed("{\"signal\":\"BULLISH\",\"hot\":tr");
+        LlmParseException e = assertThrows(LlmParseException.class, () -> parser.feed("ie"));
+        assertTrue(e.getMessage().contains("已接收"));
+        assertEquals(List.of("signal"), names);
+    }
+
+    /**
+     * 缺少逗号、对象结束后仍有内容均判定无效
+     */
+    @Test
+    public void testAbortsOnStructuralErrors() {
+        IncrementalJsonParser missingComma = new IncrementalJsonParser(null);
+        assertThrows(LlmParseException.class, () -> missingComma.feed("{\"a\":1 \"b\":2}"));
+
+        IncrementalJsonParser trailing = new IncrementalJsonParser(null);
+        trailing.feed("{\"a\":1}\n");
+        assertThrows(LlmParseException.class, () -> trailing.feed("以上为分析结果"));
+    }
+
+    /**
+     * 输出被截断时 finish 判定不完整
+     */
+    @Test
+    public void testFinishRejectsIncompleteObject() {
+        IncrementalJsonParser parser = new IncrementalJsonParser(null);
+        parser.feed("{\"signal\":\"BULLISH\",\"reasons\":[\"主力");
+        assertFalse(parser.isComplete());
+        assertThrows(LlmParseException.class, parser::finish);
+    }
+}
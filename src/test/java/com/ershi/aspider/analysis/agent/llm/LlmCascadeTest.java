@@ -0,0 +1,136 @@
+package com.ershi.aspider.analysis.agent.llm;
+
+import com.ershi.aspider.analysis.agent.config.AgentLlmProperties;
+import com.ershi.aspider.analysis.agent.domain.AgentType;
+import com.ershi.aspider.analysis.agent.domain.SignalType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 模型级联测试
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public class LlmCascadeTest {
+
+    private AgentLlmProperties.LlmConfig config;
+
+    private LlmCascade cascade;
+
+    private List<String> calledModels;
+
+    @BeforeEach
+    public void setUp() {
+        config = new AgentLlmProperties.LlmConfig();
+        config.setModel("gpt-4o");
+        config.setCascadeModel("gpt-4o-mini");
+        cascade = new LlmCascade();
+        calledModels = new ArrayList<>();
+    }
+
+    /**
+     * 轻量模型结果通过检查时直接采用，不调用主模型
+     */
+    @Test
+    public void testAcceptsCheapTier() {
+        String result = cascade.execute(AgentType.SYNTHESIS, config, this::call, response -> null);
+
+        assertEquals("gpt-4o-mini:false", result);
+        assertEquals(List.of("gpt-4o-mini"), calledModels);
+        LlmCascadeStats stats = cascade.stats().get(0);
+        assertEquals(1, stats.calls());
+        assertEquals(0, stats.escalations());
+    }
+
+    /**
+     * 检查不通过或轻量模型调用失败时升级到主模型，主模型为最后一层
+     */
+    @Test
+    public void testEscalatesOnFailedCheckOrError() {
+        String result = cascade.execute(AgentType.POLICY, config, this::call,
+            response -> CascadeCheck.signalConflict(SignalType.POSITIVE, SignalType.NEGATIVE));
+        assertEquals("gpt-4o:true", result);
+
+        String afterError = cascade.execute(AgentType.POLICY, config, (model, finalTier) -> {
+            if (!finalTier) {
+                throw new LlmParseException("LLM响应不是JSON对象", "好的");
+            }
+            return call(model, true);
+        }, response -> null);
+        assertEquals("gpt-4o:true", afterError);
+
+        LlmCascadeStats stats = cascade.stats().get(0);
+        assertEquals(2, stats.calls());
+        assertEquals(2, stats.escalations());
+        assertEquals(1.0, stats.escalationRate());
+    }
+
+    /**
+     * 节省的延迟以基准采样（直接调用主模型）为基准，尚无样本时为未知
+     */
+    @Test
+    public void testLatencySavedUsesSampledBaseline() {
+        config.setCascadeBaselineInterval(3);
+        cascade.execute(AgentType.SECTOR, config, this::call, response -> null);
+        cascade.execute(AgentType.SECTOR, config, this::call, response -> null);
+        LlmCascadeStats before = cascade.stats().get(0);
+        assertEquals(0, before.baselineSamples());
+        assertNull(before.latencySavedMs());
+
+        assertEquals("gpt-4o:true", cascade.execute(AgentType.SECTOR, config, this::call, response -> "never"));
+        assertEquals(List.of("gpt-4o-mini", "gpt-4o-mini", "gpt-4o"), calledModels);
+
+        LlmCascadeStats after = cascade.stats().get(0);
+        assertEquals(2, after.calls());
+        assertEquals(0, after.escalations());
+        assertEquals(1, after.baselineSamples());
+        assertNotNull(after.latencySavedMs());
+    }
+
+    /**
+     * 熔断异常不触发升级
+     */
+    @Test
+    public void testCircuitOpenIsNotEscalated() {
+        assertThrows(LlmCircuitOpenException.class, () -> cascade.execute(AgentType.TREND, config,
+            (model, finalTier) -> {
+                throw new LlmCircuitOpenException(AgentType.TREND);
+            }, response -> null));
+    }
+
+    /**
+     * 未配置轻量模型时直接调用主模型，不计入统计
+     */
+    @Test
+    public void testDisabledWithoutCascadeModel() {
+        config.setCascadeModel(null);
+        assertEquals("gpt-4o:true", cascade.execute(AgentType.SECTOR, config, this::call, response -> "never"));
+        assertEquals("gpt-4o", cascade.modelKey(config));
+        assertTrue(cascade.stats().isEmpty());
+    }
+
+    /**
+     * 一致性检查：仅利好与利空相反时判定冲突
+     */
+    @Test
+    public void testSignalConflict() {
+        assertNull(CascadeCheck.signalConflict(SignalType.POSITIVE, SignalType.NEUTRAL));
+        assertNull(CascadeCheck.signalConflict(SignalType.NEGATIVE, SignalType.NEGATIVE));
+        assertTrue(CascadeCheck.signalConflict(SignalType.NEGATIVE, SignalType.POSITIVE).contains("相反"));
+    }
+
+    private String call(String model, boolean finalTier) {
+        calledModels.add(model);
+        return model + ":" + finalTier;
+    }
+}
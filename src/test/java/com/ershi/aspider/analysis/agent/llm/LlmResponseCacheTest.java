@@ -0,0 +1,246 @@
+package com.ershi.aspider.analysis.agent.llm;
+
+import com.ershi.aspider.analysis.agent.config.AgentCircuitBreakerConfig;
+import com.ershi.aspider.analysis.agent.config.AgentLlmClientFactory;
+import com.ershi.aspider.analysis.agent.config.AgentLlmProperties;
+import com.ershi.aspider.analysis.agent.config.LlmResponseCacheConfig;
+import com.ershi.aspider.analysis.agent.core.AgentContext;
+import com.ershi.aspider.analysis.agent.core.PolicyAgent;
+import com.ershi.aspider.analysis.agent.domain.AgentType;
+import com.ershi.aspider.analysis.agent.domain.PolicyImpact;
+import com.ershi.aspider.analysis.agent.llm.prompt.ClasspathPromptTemplateRepository;
+import com.ershi.aspider.analysis.agent.llm.prompt.PromptRenderer;
+import com.ershi.aspider.analysis.agent.rule.PolicyRuleEngine;
+import com.ershi.aspider.analysis.retriever.domain.AnalysisQuery;
+import com.ershi.aspider.analysis.retriever.domain.NewsRetrievalResult;
+import com.ershi.aspider.analysis.retriever.domain.RetrievalResult;
+import com.ershi.aspider.analysis.retriever.domain.RetrievedArticle;
+import com.ershi.aspider.common.llm.AdaptiveConcurrencyRegistry;
+import com.ershi.aspider.common.llm.LlmGateway;
+import com.ershi.aspider.common.llm.config.AdaptiveConcurrencyConfig;
+import com.ershi.aspider.common.llm.config.LlmGatewayConfig;
+import com.ershi.aspider.common.ratelimit.RateLimitBucketFactory;
+import com.ershi.aspider.common.ratelimit.config.RateLimitConfig;
+import com.ershi.aspider.data.datasource.domain.FinancialArticle;
+import com.ershi.aspider.data.datasource.domain.NewsTypeEnum;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * LLM 响应缓存测试
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public class LlmResponseCacheTest {
+
+    private static final String PROMPT = "分析半导体板块：主力净流入3.2亿";
+
+    private static final String RESPONSE = "{\"signal\":\"BULLISH\"}";
+
+    private static final String COMPLETION = "{\"id\":\"chatcmpl-1\",\"object\":\"chat.completion\","
+        + "\"created\":1760000000,\"model\":\"gpt-4o-mini\",\"choices\":[{\"index\":0,\"finish_reason\":\"stop\","
+        + "\"logprobs\":null,\"message\":{\"role\":\"assistant\",\"refusal\":null,\"content\":"
+        + "\"{\\\"signal\\\":\\\"POSITIVE\\\",\\\"coreDrivers\\\":[\\\"政策支持\\\"],\\\"potentialRisks\\\":[]}\"}}],"
+        + "\"usage\":{\"prompt_tokens\":100,\"completion_tokens\":20,\"total_tokens\":120}}";
+
+    @TempDir
+    Path tempDir;
+
+    private LlmResponseCacheConfig config;
+
+    private AtomicLong now;
+
+    @BeforeEach
+    public void setUp() {
+        config = new LlmResponseCacheConfig();
+        config.setTtlSeconds(60);
+        now = new AtomicLong(1_000_000);
+    }
+
+    /**
+     * 键区分 Agent 类型、模型与 Prompt；命中与未命中计入统计
+     */
+    @Test
+    public void testHitAndMissStats() {
+        LlmResponseCache cache = new LlmResponseCache(config, now::get);
+        String key = cache.key(AgentType.SECTOR, "gpt-4o-mini", PROMPT);
+        assertNotEquals(key, cache.key(AgentType.TREND, "gpt-4o-mini", PROMPT));
+        assertNotEquals(key, cache.key(AgentType.SECTOR, "gpt-4o", PROMPT));
+        assertNotEquals(key, cache.key(AgentType.SECTOR, "gpt-4o-mini", PROMPT + "。"));
+
+        assertNull(cache.get(key));
+        cache.put(key, RESPONSE);
+        assertEquals(RESPONSE, cache.get(key));
+
+        LlmCacheStats stats = cache.stats();
+        assertEquals(1, stats.memoryHits());
+        assertEquals(1, stats.misses());
+        assertEquals(0.5, stats.hitRate());
+    }
+
+    /**
+     * 超过有效期后不再命中
+     */
+    @Test
+    public void testExpiresAfterTtl() {
+        LlmResponseCache cache = new LlmResponseCache(config, now::get);
+        String key = cache.key(AgentType.POLICY, "gpt-4o-mini", PROMPT);
+        cache.put(key, RESPONSE);
+
+        now.addAndGet(59_000);
+        assertEquals(RESPONSE, cache.get(key));
+        now.addAndGet(2_000);
+        assertNull(cache.get(key));
+    }
+
+    /**
+     * 超出容量时淘汰最久未使用的条目
+     */
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        config.setMaxEntries(2);
+        LlmResponseCache cache = new LlmResponseCache(config, now::get);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a");
+        cache.put("c", "3");
+
+        assertEquals("1", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals("3", cache.get("c"));
+    }
+
+    /**
+     * 磁盘层在新实例（模拟重启）中仍可命中，并回填内存层；过期条目被定时清理
+     */
+    @Test
+    public void testDiskTierSurvivesRestart() throws Exception {
+        config.getDisk().setEnabled(true);
+        config.getDisk().setDir(tempDir.toString());
+        LlmResponseCache first = new LlmResponseCache(config, now::get);
+        String key = first.key(AgentType.SYNTHESIS, "gpt-4o", PROMPT);
+        first.put(key, RESPONSE);
+
+        LlmResponseCache restarted = new LlmResponseCache(config, now::get);
+        assertEquals(RESPONSE, restarted.get(key));
+        assertEquals(RESPONSE, restarted.get(key));
+        LlmCacheStats stats = restarted.stats();
+        assertEquals(1, stats.diskHits());
+        assertEquals(1, stats.memoryHits());
+
+        now.addAndGet(61_000);
+        restarted.purgeExpiredDiskEntries();
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    /**
+     * 同一板块、同一交易日的数据在不同时刻重复分析，Prompt不变并命中缓存，不再调用LLM
+     */
+    @Test
+    public void testSameContextHitsAcrossClockChange() throws Exception {
+        AtomicInteger llmCalls = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1/chat/completions", exchange -> {
+            llmCalls.incrementAndGet();
+            exchange.getRequestBody().readAllBytes();
+            byte[] body = COMPLETION.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        try {
+            LlmResponseCache cache = new LlmResponseCache(config, now::get);
+            PolicyAgent agent = new PolicyAgent(executor(cache, server.getAddress().getPort()), new PolicyRuleEngine());
+
+            LocalDateTime morning = LocalDateTime.of(2026, 10, 16, 9, 31);
+            PolicyImpact first = agent.analyze(policyContext(morning));
+            now.addAndGet(30_000);
+            PolicyImpact second = agent.analyze(policyContext(morning.plusHours(1).plusMinutes(7)));
+
+            assertEquals(1, llmCalls.get());
+            assertEquals(1, cache.stats().memoryHits());
+            assertFalse(first.getStatus().isDegraded());
+            assertEquals(first.getSignal(), second.getSignal());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    /**
+     * 关闭时不读不写
+     */
+    @Test
+    public void testDisabled() {
+        config.setEnabled(false);
+        LlmResponseCache cache = new LlmResponseCache(config, now::get);
+        cache.put("a", RESPONSE);
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.stats().misses());
+    }
+
+    private static LlmAnalysisExecutor executor(LlmResponseCache cache, int port) {
+        AgentLlmProperties.LlmConfig llm = new AgentLlmProperties.LlmConfig();
+        llm.setBaseUrl("http://127.0.0.1:" + port + "/v1");
+        llm.setApiKey("test-key");
+        llm.setModel("gpt-4o-mini");
+        llm.setMaxRetries(0);
+        AgentLlmProperties properties = new AgentLlmProperties();
+        properties.setDefault(llm);
+
+        return new LlmAnalysisExecutor(new ClasspathPromptTemplateRepository(), new PromptRenderer(),
+            new AgentLlmClientFactory(properties), new LlmResponseValidator(),
+            new LlmGateway(new LlmGatewayConfig(), new RateLimitBucketFactory(new RateLimitConfig(), null)),
+            new AdaptiveConcurrencyRegistry(new AdaptiveConcurrencyConfig()), cache,
+            new AgentCircuitBreaker(new AgentCircuitBreakerConfig()), new LlmCascade());
+    }
+
+    /** 分析时刻不同、交易日与数据相同的上下文 */
+    private static AgentContext policyContext(LocalDateTime analysisTime) {
+        FinancialArticle article = new FinancialArticle();
+        article.setTitle("半导体产业扶持政策出台");
+        article.setSummary("多部门联合发布半导体产业扶持政策");
+        article.setImportance(4);
+        article.setNewsType(NewsTypeEnum.POLICY);
+        RetrievedArticle retrieved = new RetrievedArticle();
+        retrieved.setArticle(article);
+        retrieved.setRelevanceScore(0.9);
+
+        NewsRetrievalResult news = new NewsRetrievalResult();
+        news.setArticles(List.of(retrieved));
+        RetrievalResult retrieval = new RetrievalResult();
+        retrieval.setNewsResult(news);
+
+        AnalysisQuery query = AnalysisQuery.builder()
+            .sectorName("半导体")
+            .tradeDate(LocalDate.of(2026, 10, 16))
+            .build();
+        return AgentContext.builder()
+            .retrievalResult(retrieval)
+            .query(query)
+            .analysisTime(analysisTime)
+            .build();
+    }
+}
@@ -0,0 +1,90 @@
+package com.ershi.aspider.analysis.agent.llm.prompt;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONArray;
+import com.ershi.aspider.analysis.retriever.domain.RetrievedArticle;
+import com.ershi.aspider.common.llm.TokenEstimator;
+import com.ershi.aspider.data.datasource.domain.FinancialArticle;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prompt渲染与上下文打包测试
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public class PromptRendererTest {
+
+    private final PromptRenderer renderer = new PromptRenderer();
+
+    /**
+     * 预编译模板与原占位符语法一致：仅 {{\w+}} 为变量，其余原样保留
+     */
+    @Test
+    public void testCompiledTemplate() {
+        PromptTemplate template = PromptTemplate.compile("「{{sector_name}}」{{{x}} {{ y }} {a} {{sector_name}}");
+        assertEquals(Set.of("sector_name", "x"), template.variables());
+        assertEquals("「半导体」{1 {{ y }} {a} 半导体", template.render(Map.of("sector_name", "半导体", "x", 1)));
+
+        PromptRenderException e = assertThrows(PromptRenderException.class, () -> template.render(Map.of("x", 1)));
+        assertTrue(e.getMessage().contains("{{sector_name}}"));
+        assertThrows(PromptRenderException.class, () -> PromptTemplate.compile(" "));
+    }
+
+    /**
+     * 预算充足时按相关性排序装入全部新闻，不截断
+     */
+    @Test
+    public void testPacksByRelevance() {
+        List<RetrievedArticle> articles = List.of(
+            article("低相关", "摘要一", 0.2), article("高相关", "摘要二", 0.9), article("中相关", "摘要三", 0.5));
+
+        JSONArray packed = JSON.parseArray(new ArticleContextPacker(articles, 2).pack(Long.MAX_VALUE));
+        assertEquals(2, packed.size());
+        assertEquals("高相关", packed.getJSONObject(0).getString("title"));
+        assertEquals("中相关", packed.getJSONObject(1).getString("title"));
+        assertEquals("摘要二", packed.getJSONObject(0).getString("summary"));
+    }
+
+    /**
+     * 预算不足时截断摘要并舍弃低相关新闻，渲染结果不超出预算
+     */
+    @Test
+    public void testRendersWithinBudget() {
+        String longSummary = "主力资金持续流入半导体板块，政策支持力度加大。".repeat(20);
+        List<RetrievedArticle> articles = List.of(
+            article("政策利好", longSummary, 0.9), article("资金流入", longSummary, 0.8), article("行业动态", longSummary, 0.1));
+        PromptTemplate template = PromptTemplate.compile("分析「{{sector_name}}」板块\n{{news_list_json}}");
+
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("sector_name", "半导体");
+        variables.put("news_list_json", new ArticleContextPacker(articles, 10));
+        String prompt = renderer.render(template, variables, 600);
+
+        assertTrue(TokenEstimator.estimate(prompt) <= 600);
+        JSONArray packed = JSON.parseArray(prompt.substring(prompt.indexOf('[')));
+        assertEquals(2, packed.size());
+        assertEquals(longSummary, packed.getJSONObject(0).getString("summary"));
+        String trimmed = packed.getJSONObject(1).getString("summary");
+        assertTrue(trimmed.endsWith("…") && trimmed.length() < longSummary.length());
+    }
+
+    private static RetrievedArticle article(String title, String summary, double relevance) {
+        FinancialArticle article = new FinancialArticle();
+        article.setTitle(title);
+        article.setSummary(summary);
+        RetrievedArticle retrieved = new RetrievedArticle();
+        retrieved.setArticle(article);
+        retrieved.setRelevanceScore(relevance);
+        return retrieved;
+    }
+}
@@ -1,5 +1,6 @@
 package com.ershi.aspider.analysis.orchestration;
 
+import com.ershi.aspider.analysis.agent.domain.AgentType;
 import com.ershi.aspider.analysis.report.domain.AnalysisReport;
 import com.ershi.aspider.analysis.retriever.domain.AnalysisQuery;
 import org.junit.jupiter.api.Test;
@@ -7,6 +8,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -74,4 +79,45 @@ class AnalysisAgentOrchestratorTest {
         System.out.println("总结: " + synthesis.getSummary());
         System.out.println("LLM生成: " + synthesis.isLlmGenerated());
     }
+
+    @Test
+    void testAnalyzeProgressive() throws Exception {
+        // 构建查询
+        AnalysisQuery query = new AnalysisQuery();
+        query.setSectorName("半导体");
+        query.setTradeDate(LocalDate.now());
+
+        // 执行渐进式分析：先返回临时报告，后续按维度推送
+        List<ReportUpdate> updates = new CopyOnWriteArrayList<>();
+        CountDownLatch completed = new CountDownLatch(1);
+        AnalysisReport provisional = orchestrator.analyzeProgressive(query, update -> {
+            updates.add(update);
+            if (update.complete()) {
+                completed.countDown();
+            }
+        });
+
+        // 验证临时报告（L1/L2可用）
+        assertNotNull(provisional.getSignalCard().getOverallRating(), "临时报告综合评级不应为空");
+        assertNotNull(provisional.getDashboard(), "临时报告数据看板不应为空");
+
+        // 验证推送：三个子维度各一次，综合研判字段流式推送（临时状态），最后为综合研判最终报告
+        assertTrue(completed.await(3, TimeUnit.MINUTES), "应在超时前推送最终报告");
+        List<ReportUpdate> dimensions = updates.stream()
+            .filter(update -> update.section() != AgentType.SYNTHESIS)
+            .toList();
+        assertEquals(3, dimensions.size());
+        assertTrue(dimensions.stream().allMatch(ReportUpdate::isFinal), "推送的维度均应为最终结果");
+        ReportUpdate last = updates.get(updates.size() - 1);
+        assertEquals(AgentType.SYNTHESIS, last.section());
+        assertTrue(last.isFinal(), "最终报告的综合研判应为最终结果");
+        assertEquals(1, updates.stream().filter(ReportUpdate::complete).count(), "最终报告只推送一次");
+        assertTrue(updates.stream()
+            .filter(update -> update.section() == AgentType.SYNTHESIS && !update.complete())
+            .noneMatch(ReportUpdate::isFinal), "综合研判字段推送应为临时结果");
+        assertNotNull(last.report().getSignalCard().getDimensionSignals(), "四维信号灯不应为空");
+
+        System.out.println("=== 渐进式分析推送 ===");
+        updates.forEach(update -> System.out.println(update.section() + " -> " + update.status().getType()));
+    }
 }
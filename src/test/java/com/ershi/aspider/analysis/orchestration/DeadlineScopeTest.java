@@ -0,0 +1,93 @@
+package com.ershi.aspider.analysis.orchestration;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 截止时间任务作用域测试
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public class DeadlineScopeTest {
+
+    private final Executor executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * 截止前完成的子任务返回结果，挂起的子任务被中断取消并降级
+     */
+    @Test
+    public void testCancelsHungTaskAtDeadline() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        try (DeadlineScope scope = new DeadlineScope(executor)) {
+            Future<String> fast = scope.fork(() -> "LLM");
+            Future<String> hung = scope.fork(() -> {
+                try {
+                    Thread.sleep(60_000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    throw e;
+                }
+                return "LLM";
+            });
+
+            assertFalse(scope.joinUntil(start + TimeUnit.MILLISECONDS.toNanos(200)));
+            assertEquals("LLM", DeadlineScope.resultOr(fast, ex -> "RULE"));
+            assertEquals("RULE", DeadlineScope.resultOr(hung, ex -> {
+                assertInstanceOf(TimeoutException.class, ex);
+                return "RULE";
+            }));
+        }
+
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS), "挂起的子任务应被中断");
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+    }
+
+    /**
+     * 子任务执行失败时，降级函数收到原始异常，不影响其余子任务
+     */
+    @Test
+    public void testFailureDoesNotAffectSiblings() {
+        try (DeadlineScope scope = new DeadlineScope(executor)) {
+            Future<String> failed = scope.fork(() -> {
+                throw new IllegalStateException("provider error");
+            });
+            Future<String> slow = scope.fork(() -> {
+                Thread.sleep(100);
+                return "LLM";
+            });
+
+            assertTrue(scope.joinUntil(System.nanoTime() + TimeUnit.SECONDS.toNanos(5)));
+            assertEquals("provider error", DeadlineScope.resultOr(failed, Throwable::getMessage));
+            assertEquals("LLM", DeadlineScope.resultOr(slow, ex -> "RULE"));
+        }
+    }
+
+    /**
+     * 截止点按比例累计切分，未启用时无限等待
+     */
+    @Test
+    public void testDeadlineCheckpoints() {
+        AnalysisDeadline deadline = AnalysisDeadline.start(10_000, 0.2, 0.5);
+        long retrieval = deadline.retrievalTimeoutMillis();
+        assertTrue(retrieval > 1_900 && retrieval <= 2_000);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(3_000), deadline.synthesisDeadline() - deadline.agentDeadline(), 1e6);
+
+        AnalysisDeadline unbounded = AnalysisDeadline.unbounded();
+        assertEquals(0, unbounded.retrievalTimeoutMillis());
+        assertEquals(Long.MAX_VALUE, AnalysisDeadline.remaining(unbounded.synthesisDeadline()));
+    }
+}
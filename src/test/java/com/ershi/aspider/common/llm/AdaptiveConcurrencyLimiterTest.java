@@ -0,0 +1,169 @@
+package com.ershi.aspider.common.llm;
+
+import com.ershi.aspider.common.llm.AdaptiveConcurrencyLimiter.Outcome;
+import com.ershi.aspider.common.llm.config.AdaptiveConcurrencyConfig;
+import com.openai.core.http.Headers;
+import com.openai.errors.OpenAIError;
+import com.openai.errors.RateLimitException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 自适应并发限制器测试
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long HEALTHY_LATENCY = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private AdaptiveConcurrencyConfig config;
+
+    @BeforeEach
+    public void setUp() {
+        config = new AdaptiveConcurrencyConfig();
+        config.setInitialLimit(2);
+        config.setMaxLimit(6);
+    }
+
+    /**
+     * 并发打满且延迟健康时逐步提高上限，不超过上界
+     */
+    @Test
+    public void testAdditiveIncreaseWhenSaturatedAndHealthy() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", config);
+        for (int round = 0; round < 40; round++) {
+            int limit = limiter.currentLimit();
+            for (int i = 0; i < limit; i++) {
+                limiter.acquire();
+            }
+            for (int i = 0; i < limit; i++) {
+                limiter.onComplete(Outcome.SUCCESS, HEALTHY_LATENCY, 0);
+            }
+        }
+        assertEquals(6, limiter.currentLimit());
+    }
+
+    /**
+     * 未打满或延迟明显变慢时不增长（延迟基线缓慢跟随，短期内的变慢不会被视为健康）
+     */
+    @Test
+    public void testNoIncreaseWhenIdleOrSlow() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", config);
+        for (int i = 0; i < 20; i++) {
+            limiter.acquire();
+            limiter.onComplete(Outcome.SUCCESS, HEALTHY_LATENCY, 0);
+        }
+        assertEquals(2, limiter.currentLimit());
+
+        for (int i = 0; i < 4; i++) {
+            limiter.acquire();
+            limiter.acquire();
+            limiter.onComplete(Outcome.SUCCESS, HEALTHY_LATENCY * 10, 0);
+            limiter.onComplete(Outcome.SUCCESS, HEALTHY_LATENCY * 10, 0);
+        }
+        assertEquals(2, limiter.currentLimit());
+    }
+
+    /**
+     * 限流时乘性缩减，同一轮拥塞只缩减一次
+     */
+    @Test
+    public void testMultiplicativeDecreaseOncePerCongestion() {
+        config.setInitialLimit(6);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", config);
+        limiter.acquire();
+        limiter.acquire();
+        limiter.onComplete(Outcome.RATE_LIMITED, HEALTHY_LATENCY, 0);
+        limiter.onComplete(Outcome.TIMEOUT, HEALTHY_LATENCY, 0);
+        assertEquals(3, limiter.currentLimit());
+
+        AdaptiveLimitStats stats = limiter.stats();
+        assertEquals(1, stats.rateLimited());
+        assertEquals(1, stats.timeouts());
+        assertEquals(0, stats.inflight());
+    }
+
+    /**
+     * Retry-After 期间暂停发起新调用
+     */
+    @Test
+    public void testRetryAfterPausesAcquire() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", config);
+        limiter.acquire();
+        limiter.onComplete(Outcome.RATE_LIMITED, HEALTHY_LATENCY, TimeUnit.MILLISECONDS.toNanos(200));
+
+        long start = System.nanoTime();
+        limiter.acquire();
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(150));
+    }
+
+    /**
+     * 异常链分类与 Retry-After 解析
+     */
+    @Test
+    public void testClassifyAndParseRetryAfter() {
+        RateLimitException rateLimit = new RateLimitException(
+            Headers.builder().put("retry-after", "2").build(), "", OpenAIError.builder().build());
+        RuntimeException wrapped = new RuntimeException("获取向量失败", rateLimit);
+        assertEquals(Outcome.RATE_LIMITED, AdaptiveConcurrencyLimiter.classify(wrapped));
+        assertEquals(TimeUnit.SECONDS.toNanos(2), AdaptiveConcurrencyLimiter.retryAfterNanos(wrapped));
+
+        RateLimitException millis = new RateLimitException(
+            Headers.builder().put("retry-after-ms", "350").build(), "", OpenAIError.builder().build());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(350), AdaptiveConcurrencyLimiter.retryAfterNanos(millis));
+
+        RuntimeException timeout = new RuntimeException(new SocketTimeoutException("read timed out"));
+        assertEquals(Outcome.TIMEOUT, AdaptiveConcurrencyLimiter.classify(timeout));
+        assertEquals(Outcome.ERROR, AdaptiveConcurrencyLimiter.classify(new IllegalStateException()));
+    }
+
+    /**
+     * 截止时间到达被中断取消的调用只释放并发，不缩减上限、不计为超时；未中断的 InterruptedIOException 仍为超时
+     */
+    @Test
+    public void testCancelledCallDoesNotCutLimit() {
+        config.setInitialLimit(4);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", config);
+        try {
+            assertThrows(RuntimeException.class, () -> limiter.execute(() -> {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(new InterruptedIOException("interrupted"));
+            }));
+        } finally {
+            Thread.interrupted();
+        }
+        assertEquals(4, limiter.currentLimit());
+        assertEquals(0, limiter.stats().inflight());
+        assertEquals(0, limiter.stats().timeouts());
+        assertEquals(0.0, limiter.stats().errorRate());
+
+        assertEquals(Outcome.CANCELLED,
+            AdaptiveConcurrencyLimiter.classify(new RuntimeException(new CancellationException())));
+        assertEquals(Outcome.TIMEOUT,
+            AdaptiveConcurrencyLimiter.classify(new RuntimeException(new InterruptedIOException("timeout"))));
+    }
+
+    /**
+     * execute 透传异常并释放并发配额
+     */
+    @Test
+    public void testExecuteReleasesOnFailure() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", config);
+        assertThrows(IllegalStateException.class, () -> limiter.execute(() -> {
+            throw new IllegalStateException("调用失败");
+        }));
+        assertEquals(0, limiter.stats().inflight());
+        assertEquals("ok", limiter.execute(() -> "ok"));
+    }
+}
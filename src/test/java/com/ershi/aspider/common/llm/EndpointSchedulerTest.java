@@ -0,0 +1,137 @@
+package com.ershi.aspider.common.llm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * LLM 网关端点调度测试
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public class EndpointSchedulerTest {
+
+    private static final long NO_WAIT = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private static final long LONG_WAIT = TimeUnit.SECONDS.toNanos(10);
+
+    /**
+     * 后台通道不能占用交互式预留
+     */
+    @Test
+    public void testBackgroundLeavesReserveForInteractive() throws Exception {
+        EndpointScheduler scheduler = new EndpointScheduler("https://api.example.com/v1", 10, 100000, 50);
+        for (int i = 0; i < 5; i++) {
+            scheduler.acquire(LlmPriority.BACKGROUND, "summary", 100, NO_WAIT);
+        }
+        assertThrows(TimeoutException.class,
+            () -> scheduler.acquire(LlmPriority.BACKGROUND, "summary", 100, NO_WAIT));
+        assertEquals(0, scheduler.waiting(LlmPriority.BACKGROUND));
+
+        scheduler.acquire(LlmPriority.INTERACTIVE, "POLICY", 100, NO_WAIT);
+    }
+
+    /**
+     * 配额耗尽后交互式通道先于更早排队的后台通道获得配额
+     */
+    @Test
+    public void testInteractiveOvertakesQueuedBackground() throws Exception {
+        EndpointScheduler scheduler = new EndpointScheduler("https://api.example.com/v1", 600, 100000, 0);
+        drain(scheduler, 600);
+
+        List<String> order = new CopyOnWriteArrayList<>();
+        Thread background = start(scheduler, LlmPriority.BACKGROUND, "summary", "background", order);
+        awaitWaiting(scheduler, LlmPriority.BACKGROUND, 1);
+        Thread interactive = start(scheduler, LlmPriority.INTERACTIVE, "SECTOR", "interactive", order);
+        background.join();
+        interactive.join();
+
+        assertEquals(List.of("interactive", "background"), order);
+    }
+
+    /**
+     * 同一通道内按调用方轮转
+     */
+    @Test
+    public void testTenantsTakeTurnsWithinLane() throws Exception {
+        EndpointScheduler scheduler = new EndpointScheduler("https://api.example.com/v1", 600, 100000, 0);
+        drain(scheduler, 600);
+
+        List<String> order = new CopyOnWriteArrayList<>();
+        Thread[] threads = {
+            start(scheduler, LlmPriority.INTERACTIVE, "POLICY", "policy-1", order),
+            null, null, null
+        };
+        awaitWaiting(scheduler, LlmPriority.INTERACTIVE, 1);
+        threads[1] = start(scheduler, LlmPriority.INTERACTIVE, "POLICY", "policy-2", order);
+        awaitWaiting(scheduler, LlmPriority.INTERACTIVE, 2);
+        threads[2] = start(scheduler, LlmPriority.INTERACTIVE, "POLICY", "policy-3", order);
+        awaitWaiting(scheduler, LlmPriority.INTERACTIVE, 3);
+        threads[3] = start(scheduler, LlmPriority.INTERACTIVE, "TREND", "trend-1", order);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(List.of("policy-1", "trend-1", "policy-2", "policy-3"), order);
+    }
+
+    /**
+     * 按实际用量校正 TPM：多用的部分补扣，少用的部分归还
+     */
+    @Test
+    public void testReconcileTokens() throws Exception {
+        EndpointScheduler scheduler = new EndpointScheduler("https://api.example.com/v1", 100, 1000, 0);
+        long reserved = scheduler.acquire(LlmPriority.INTERACTIVE, "POLICY", 900, NO_WAIT);
+        assertThrows(TimeoutException.class,
+            () -> scheduler.acquire(LlmPriority.INTERACTIVE, "POLICY", 500, NO_WAIT));
+
+        scheduler.reconcile(reserved, 200);
+        scheduler.acquire(LlmPriority.INTERACTIVE, "POLICY", 500, NO_WAIT);
+    }
+
+    @Test
+    public void testNormalizeAndEstimate() {
+        assertEquals("https://api.openai.com/v1", LlmGateway.normalize("https://api.openai.com/v1/chat/completions"));
+        assertEquals("https://api.openai.com/v1", LlmGateway.normalize("https://api.openai.com/v1/"));
+        assertEquals(4 + 2, TokenEstimator.estimate("半导体板abcdefgh"));
+    }
+
+    private static void drain(EndpointScheduler scheduler, int requests) throws Exception {
+        for (int i = 0; i < requests; i++) {
+            scheduler.acquire(LlmPriority.INTERACTIVE, "drain", 1, NO_WAIT);
+        }
+    }
+
+    /**
+     * 等待通道内排队数达到预期，保证后启动的调用排在之前的调用之后
+     */
+    private static void awaitWaiting(EndpointScheduler scheduler, LlmPriority priority, int count) {
+        long deadline = System.nanoTime() + LONG_WAIT;
+        while (scheduler.waiting(priority) < count) {
+            if (System.nanoTime() > deadline) {
+                fail(priority + " 通道排队数未达到 " + count);
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private static Thread start(EndpointScheduler scheduler, LlmPriority priority, String tenant,
+                                String label, List<String> order) {
+        return Thread.ofVirtual().start(() -> {
+            try {
+                scheduler.acquire(priority, tenant, 1, LONG_WAIT);
+                order.add(label);
+            } catch (Exception e) {
+                order.add(label + "-failed");
+            }
+        });
+    }
+}
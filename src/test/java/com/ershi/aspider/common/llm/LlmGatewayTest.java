@@ -0,0 +1,73 @@
+package com.ershi.aspider.common.llm;
+
+import com.ershi.aspider.common.llm.config.LlmGatewayConfig;
+import com.ershi.aspider.common.ratelimit.RateLimitBucketFactory;
+import com.ershi.aspider.common.ratelimit.config.RateLimitConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * LLM 网关配额来源测试
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public class LlmGatewayTest {
+
+    private static final String BASE_URL = "https://api.openai.com/v1";
+
+    private LlmGatewayConfig config;
+
+    private LlmGateway gateway;
+
+    @BeforeEach
+    public void setUp() {
+        config = new LlmGatewayConfig();
+        config.setMaxQueueSeconds(0);
+        gateway = new LlmGateway(config, new RateLimitBucketFactory(new RateLimitConfig(), null));
+    }
+
+    /**
+     * 摘要的 RPM 上限只约束其后台通道调用，不成为端点配额
+     */
+    @Test
+    public void testTenantLimitDoesNotCapEndpoint() {
+        gateway.limitBackgroundTenant("summary", 1);
+
+        call(new LlmRoute(BASE_URL + "/chat/completions", LlmPriority.BACKGROUND, "summary"));
+        assertThrows(RuntimeException.class,
+            () -> call(new LlmRoute(BASE_URL + "/chat/completions", LlmPriority.BACKGROUND, "summary")));
+
+        for (int i = 0; i < 20; i++) {
+            call(new LlmRoute(BASE_URL, LlmPriority.INTERACTIVE, "SYNTHESIS"));
+        }
+        call(new LlmRoute(BASE_URL, LlmPriority.INTERACTIVE, "summary"));
+        assertEquals(0, gateway.stats().get(0).timedOut());
+    }
+
+    /**
+     * 端点配额只取自网关配置，未配置的维度不限制
+     */
+    @Test
+    public void testEndpointQuotaFromConfigOnly() {
+        LlmGatewayConfig.Endpoint endpoint = new LlmGatewayConfig.Endpoint();
+        endpoint.setBaseUrl(BASE_URL);
+        endpoint.setRpm(2);
+        config.setEndpoints(List.of(endpoint));
+        config.setInteractiveReservePercent(0);
+
+        LlmRoute route = new LlmRoute(BASE_URL, LlmPriority.INTERACTIVE, "POLICY");
+        gateway.submit(route, "x".repeat(1_000_000), null, () -> "ok", result -> 5_000_000L);
+        call(route);
+        assertThrows(RuntimeException.class, () -> call(route));
+    }
+
+    private void call(LlmRoute route) {
+        gateway.submit(route, "分析", null, () -> "ok", result -> 10L);
+    }
+}
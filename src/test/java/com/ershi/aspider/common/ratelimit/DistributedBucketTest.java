@@ -0,0 +1,510 @@
+package com.ershi.aspider.common.ratelimit;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 共享存储令牌桶测试：模拟两个节点各自持有代理，验证配额为两节点共享
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public class DistributedBucketTest {
+
+    private static final int CAPACITY = 20;
+
+    private static final BucketConfiguration CONFIGURATION = BucketConfiguration.builder()
+        .addLimit(Bandwidth.simple(CAPACITY, Duration.ofHours(1)))
+        .build();
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * 两个文件锁代理指向同一目录时共享配额
+     */
+    @Test
+    public void testFileBackendSharesBudget() throws Exception {
+        assertSharedBudget(new FileLockProxyManager(tempDir), new FileLockProxyManager(tempDir));
+    }
+
+    /**
+     * 两个 Redis 代理连接同一服务时共享配额（以本地 RESP 替身服务验证，替身逐句解释执行 Lua 比较并交换脚本）
+     * <p>
+     * 脚本写入条件有误时比较并交换会无限重试，以超时判定失败
+     */
+    @Test
+    @Timeout(30)
+    public void testRedisBackendSharesBudget() throws Exception {
+        try (RespStandIn server = new RespStandIn();
+             RespClient nodeA = new RespClient("127.0.0.1", server.port(), "secret", 0, 2000);
+             RespClient nodeB = new RespClient("127.0.0.1", server.port(), "secret", 0, 2000)) {
+            assertSharedBudget(new RedisProxyManager(nodeA, "test:"), new RedisProxyManager(nodeB, "test:"));
+            assertTrue(server.keys().contains("test:llm:rpm"));
+            assertTrue(server.expireMillis("test:llm:rpm") > 0);
+        }
+    }
+
+    /**
+     * 比较并交换脚本语义：原值不存在时仅首次写入成功，原值存在时仅与存储值一致才写入，写入时设置过期时间
+     */
+    @Test
+    public void testRedisCasScriptSemantics() throws Exception {
+        byte[] first = "state-1".getBytes(StandardCharsets.UTF_8);
+        byte[] second = "state-2".getBytes(StandardCharsets.UTF_8);
+        try (RespStandIn server = new RespStandIn();
+             RespClient client = new RespClient("127.0.0.1", server.port(), "secret", 0, 2000)) {
+            assertEquals(1L, compareAndSwap(client, null, first, 5000));
+            assertEquals(0L, compareAndSwap(client, null, second, 5000));
+            assertArrayEquals(first, (byte[]) client.execute("GET", "cas"));
+            assertEquals(5000L, server.expireMillis("cas"));
+
+            assertEquals(0L, compareAndSwap(client, second, second, 7000));
+            assertArrayEquals(first, (byte[]) client.execute("GET", "cas"));
+
+            assertEquals(1L, compareAndSwap(client, first, second, 7000));
+            assertArrayEquals(second, (byte[]) client.execute("GET", "cas"));
+            assertEquals(7000L, server.expireMillis("cas"));
+        }
+    }
+
+    /** 与 RedisProxyManager 相同的参数约定调用比较并交换脚本 */
+    static Object compareAndSwap(RespClient client, byte[] original, byte[] newData, long expireMillis) {
+        return client.execute("EVAL", RedisProxyManager.CAS_SCRIPT, "1", "cas",
+            original != null ? "1" : "0", original != null ? original : new byte[0], newData, String.valueOf(expireMillis));
+    }
+
+    /**
+     * 两个节点并发扣减，总共恰好扣减容量数的令牌
+     */
+    static void assertSharedBudget(ProxyManager<String> nodeA, ProxyManager<String> nodeB) throws Exception {
+        Bucket bucketA = nodeA.builder().build("llm:rpm", CONFIGURATION);
+        Bucket bucketB = nodeB.builder().build("llm:rpm", CONFIGURATION);
+
+        int threads = 16;
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Bucket bucket = i % 2 == 0 ? bucketA : bucketB;
+            workers.add(Thread.ofVirtual().start(() -> {
+                try {
+                    start.await();
+                    for (int n = 0; n < 3; n++) {
+                        if (bucket.tryConsume(1)) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals(CAPACITY, granted.get());
+        assertFalse(bucketA.tryConsume(1));
+        assertFalse(bucketB.tryConsume(1));
+
+        bucketA.addTokens(1);
+        assertTrue(bucketB.tryConsume(1));
+    }
+
+    /**
+     * RESP 协议替身服务：支持 AUTH / GET / DEL，EVAL 以 {@link LuaSubset} 解释执行脚本，执行期间独占存储（与 Redis 脚本原子执行一致）
+     */
+    private static final class RespStandIn implements AutoCloseable {
+
+        private final ServerSocket serverSocket = new ServerSocket(0);
+
+        private final Map<String, byte[]> store = new ConcurrentHashMap<>();
+
+        private final Map<String, Long> expireMillis = new ConcurrentHashMap<>();
+
+        private final Thread acceptor;
+
+        RespStandIn() throws IOException {
+            acceptor = Thread.ofVirtual().start(() -> {
+                while (!serverSocket.isClosed()) {
+                    try {
+                        Socket socket = serverSocket.accept();
+                        Thread.ofVirtual().start(() -> serve(socket));
+                    } catch (IOException e) {
+                        return;
+                    }
+                }
+            });
+        }
+
+        int port() {
+            return serverSocket.getLocalPort();
+        }
+
+        Set<String> keys() {
+            return store.keySet();
+        }
+
+        long expireMillis(String key) {
+            return expireMillis.getOrDefault(key, -1L);
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+            try {
+                acceptor.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void serve(Socket socket) {
+            try (socket) {
+                InputStream in = new BufferedInputStream(socket.getInputStream());
+                OutputStream out = socket.getOutputStream();
+                boolean authenticated = false;
+                while (true) {
+                    List<byte[]> command = readCommand(in);
+                    if (command == null) {
+                        return;
+                    }
+                    String name = new String(command.get(0), StandardCharsets.UTF_8).toUpperCase();
+                    if (name.equals("AUTH")) {
+                        authenticated = "secret".equals(new String(command.get(1), StandardCharsets.UTF_8));
+                        out.write((authenticated ? "+OK\r\n" : "-ERR invalid password\r\n").getBytes());
+                        continue;
+                    }
+                    if (!authenticated) {
+                        out.write("-NOAUTH Authentication required.\r\n".getBytes());
+                        continue;
+                    }
+                    switch (name) {
+                        case "GET" -> writeBulk(out, store.get(key(command, 1)));
+                        case "DEL" -> out.write((":" + (store.remove(key(command, 1)) != null ? 1 : 0) + "\r\n").getBytes());
+                        case "EVAL" -> writeReply(out, eval(command));
+                        default -> out.write(("-ERR unknown command '" + name + "'\r\n").getBytes());
+                    }
+                }
+            } catch (IOException ignored) {
+                // 客户端断开
+            }
+        }
+
+        /** EVAL script numkeys key... arg... */
+        private Object eval(List<byte[]> command) {
+            String script = new String(command.get(1), StandardCharsets.UTF_8);
+            int numKeys = Integer.parseInt(key(command, 2));
+            List<byte[]> keys = command.subList(3, 3 + numKeys);
+            List<byte[]> argv = command.subList(3 + numKeys, command.size());
+            synchronized (store) {
+                return new LuaSubset(script, keys, argv, this).run();
+            }
+        }
+
+        /** redis.call 的替身实现 */
+        private Object call(String name, List<Object> args) {
+            String key = LuaSubset.text(args.get(0));
+            switch (name.toUpperCase()) {
+                case "GET":
+                    return store.get(key);
+                case "SET":
+                    store.put(key, LuaSubset.bytes(args.get(1)));
+                    if (args.size() == 4 && "PX".equalsIgnoreCase(LuaSubset.text(args.get(2)))) {
+                        expireMillis.put(key, Long.parseLong(LuaSubset.text(args.get(3))));
+                    } else {
+                        expireMillis.remove(key);
+                    }
+                    return "OK";
+                default:
+                    throw new IllegalStateException("替身服务不支持脚本内调用 " + name);
+            }
+        }
+
+        private static String key(List<byte[]> command, int index) {
+            return new String(command.get(index), StandardCharsets.UTF_8);
+        }
+
+        private static void writeReply(OutputStream out, Object reply) throws IOException {
+            switch (reply) {
+                case Long number -> out.write((":" + number + "\r\n").getBytes());
+                case String status -> out.write(("+" + status + "\r\n").getBytes());
+                case byte[] data -> writeBulk(out, data);
+                case null, default -> writeBulk(out, null);
+            }
+        }
+
+        private static void writeBulk(OutputStream out, byte[] data) throws IOException {
+            if (data == null) {
+                out.write("$-1\r\n".getBytes());
+                return;
+            }
+            out.write(("$" + data.length + "\r\n").getBytes());
+            out.write(data);
+            out.write("\r\n".getBytes());
+        }
+
+        private static List<byte[]> readCommand(InputStream in) throws IOException {
+            int type = in.read();
+            if (type < 0) {
+                return null;
+            }
+            int count = Integer.parseInt(readLine(in));
+            List<byte[]> args = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                in.read();
+                int length = Integer.parseInt(readLine(in));
+                args.add(in.readNBytes(length));
+                readLine(in);
+            }
+            return args;
+        }
+
+        private static String readLine(InputStream in) throws IOException {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int b;
+            while ((b = in.read()) != '\r') {
+                if (b < 0) {
+                    throw new IOException("连接已关闭");
+                }
+                line.write(b);
+            }
+            in.read();
+            return line.toString(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * 比较并交换脚本所用 Lua 子集的解释器：local 赋值、if / elseif / else、return、== / ~=、
+     * KEYS / ARGV 下标、字符串与整数字面量、redis.call。超出子集的语法直接报错，避免脚本改动后测试静默通过
+     */
+    private static final class LuaSubset {
+
+        private static final Pattern TOKEN = Pattern.compile("\\s*('[^']*'|~=|==|[A-Za-z_][A-Za-z0-9_]*|\\d+|[()\\[\\],.=])");
+
+        /** 块正常结束、未执行 return */
+        private static final Object NO_RETURN = new Object();
+
+        private final List<String> tokens = new ArrayList<>();
+
+        private final List<byte[]> keys;
+
+        private final List<byte[]> argv;
+
+        private final RespStandIn server;
+
+        private final Map<String, Object> locals = new HashMap<>();
+
+        private int pos;
+
+        LuaSubset(String script, List<byte[]> keys, List<byte[]> argv, RespStandIn server) {
+            Matcher matcher = TOKEN.matcher(script);
+            int end = 0;
+            while (matcher.find() && matcher.start() == end) {
+                tokens.add(matcher.group(1));
+                end = matcher.end();
+            }
+            if (!script.substring(end).isBlank()) {
+                throw new IllegalStateException("脚本包含子集外的语法: " + script.substring(end).strip());
+            }
+            this.keys = keys;
+            this.argv = argv;
+            this.server = server;
+        }
+
+        /** 先完整解析一遍校验语法，再执行；返回值按 Redis 约定转换：整数为 Long，nil / false 为 null */
+        Object run() {
+            block(false);
+            if (pos != tokens.size()) {
+                throw new IllegalStateException("脚本未完整解析，停在: " + tokens.get(pos));
+            }
+            pos = 0;
+            Object result = block(true);
+            return result == NO_RETURN || Boolean.FALSE.equals(result) ? null : result;
+        }
+
+        /** 执行语句直到 elseif / else / end 或脚本结束；exec 为 false 时只解析不执行 */
+        private Object block(boolean exec) {
+            while (pos < tokens.size() && !Set.of("elseif", "else", "end").contains(peek())) {
+                Object result = statement(exec);
+                if (result != NO_RETURN) {
+                    return result;
+                }
+            }
+            return NO_RETURN;
+        }
+
+        private Object statement(boolean exec) {
+            switch (next()) {
+                case "local" -> {
+                    String name = next();
+                    expect("=");
+                    Object value = expression(exec);
+                    if (exec) {
+                        locals.put(name, value);
+                    }
+                    return NO_RETURN;
+                }
+                case "return" -> {
+                    Object value = expression(exec);
+                    return exec ? value : NO_RETURN;
+                }
+                case "if" -> {
+                    boolean taken = false;
+                    Object result = NO_RETURN;
+                    String branch = "if";
+                    while (!branch.equals("end")) {
+                        boolean matches;
+                        if (branch.equals("else")) {
+                            matches = exec && !taken;
+                        } else {
+                            matches = truthy(expression(exec && !taken)) && exec && !taken;
+                            expect("then");
+                        }
+                        Object branchResult = block(matches);
+                        if (matches) {
+                            taken = true;
+                            result = branchResult;
+                            if (result != NO_RETURN) {
+                                return result;
+                            }
+                        }
+                        branch = next();
+                    }
+                    return result;
+                }
+                case "redis" -> {
+                    pos--;
+                    expression(exec);
+                    return NO_RETURN;
+                }
+                default -> throw new IllegalStateException("不支持的语句: " + tokens.get(pos - 1));
+            }
+        }
+
+        private Object expression(boolean exec) {
+            Object left = primary(exec);
+            if ("==".equals(peek()) || "~=".equals(peek())) {
+                boolean equal = next().equals("==");
+                Object right = primary(exec);
+                return equal == luaEquals(left, right);
+            }
+            return left;
+        }
+
+        private Object primary(boolean exec) {
+            String token = next();
+            if (token.startsWith("'")) {
+                return token.substring(1, token.length() - 1);
+            }
+            if (Character.isDigit(token.charAt(0))) {
+                return Long.parseLong(token);
+            }
+            switch (token) {
+                case "KEYS", "ARGV" -> {
+                    expect("[");
+                    int index = Integer.parseInt(next());
+                    expect("]");
+                    List<byte[]> values = token.equals("KEYS") ? keys : argv;
+                    return index <= values.size() ? values.get(index - 1) : null;
+                }
+                case "redis" -> {
+                    expect(".");
+                    expect("call");
+                    expect("(");
+                    List<Object> args = new ArrayList<>();
+                    args.add(expression(exec));
+                    while (peek().equals(",")) {
+                        next();
+                        args.add(expression(exec));
+                    }
+                    expect(")");
+                    return exec ? server.call(text(args.get(0)), args.subList(1, args.size())) : null;
+                }
+                default -> {
+                    if (!locals.containsKey(token) && exec) {
+                        throw new IllegalStateException("未定义的变量: " + token);
+                    }
+                    return locals.get(token);
+                }
+            }
+        }
+
+        /** Lua 中 nil / false 为假，其余（包括空串与 0）为真 */
+        private static boolean truthy(Object value) {
+            return value != null && !Boolean.FALSE.equals(value);
+        }
+
+        /** 字符串按字节比较，类型不同即不等（Redis 的 nil 回复在脚本中为 false） */
+        private static boolean luaEquals(Object left, Object right) {
+            if (left == null || right == null || left instanceof Boolean || right instanceof Boolean) {
+                return Objects.equals(left == null ? Boolean.FALSE : left, right == null ? Boolean.FALSE : right);
+            }
+            if (left instanceof Long || right instanceof Long) {
+                return left.equals(right);
+            }
+            return Arrays.equals(bytes(left), bytes(right));
+        }
+
+        static byte[] bytes(Object value) {
+            return value instanceof byte[] raw ? raw : String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+        }
+
+        static String text(Object value) {
+            return new String(bytes(value), StandardCharsets.UTF_8);
+        }
+
+        private String peek() {
+            return pos < tokens.size() ? tokens.get(pos) : "";
+        }
+
+        private String next() {
+            if (pos >= tokens.size()) {
+                throw new IllegalStateException("脚本意外结束");
+            }
+            return tokens.get(pos++);
+        }
+
+        private void expect(String token) {
+            String actual = next();
+            if (!actual.equals(token)) {
+                throw new IllegalStateException("期望 " + token + "，实际为 " + actual);
+            }
+        }
+    }
+}
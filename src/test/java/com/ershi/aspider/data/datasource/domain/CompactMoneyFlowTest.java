@@ -0,0 +1,67 @@
+package com.ershi.aspider.data.datasource.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 定点数表示测试：换算往返与超大单占比和 BigDecimal 计算结果一致
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public class CompactMoneyFlowTest {
+
+    @Test
+    public void testRoundTrip() {
+        assertEquals(35_000_000_050L, FixedPoint.toFen(new BigDecimal("350000000.5")));
+        assertEquals(-12_000_000_000L, FixedPoint.toFen(new BigDecimal("-1.2E+8")));
+        assertEquals(-80, FixedPoint.toBasisPoints(new BigDecimal("-0.80")));
+        assertEquals(124, FixedPoint.toBasisPoints(new BigDecimal("1.235")));
+
+        assertEquals("350000000.50", FixedPoint.toYuan(35_000_000_050L).toPlainString());
+        assertEquals("-0.80", FixedPoint.toPercent(-80).toPlainString());
+        assertNull(FixedPoint.toYuan(FixedPoint.toFen(null)));
+        assertNull(FixedPoint.toPercent(FixedPoint.toBasisPoints(null)));
+    }
+
+    @Test
+    public void testMissingFields() {
+        SectorMoneyFlow flow = new SectorMoneyFlow();
+        CompactMoneyFlow compact = CompactMoneyFlow.of(flow);
+        assertFalse(compact.hasMainNetInflow());
+        assertFalse(compact.hasChangePercent());
+        assertEquals(0, compact.superLargeRatio());
+
+        flow.setSuperLargeInflowRatio(new BigDecimal("61.37"));
+        assertEquals(6137, CompactMoneyFlow.of(flow).superLargeRatio());
+    }
+
+    /**
+     * 与原 BigDecimal 实现（|超大单| × 100 / (|超大单| + |大单|)，保留2位 HALF_UP）逐一比对
+     */
+    @Test
+    public void testSuperLargeRatioMatchesBigDecimal() {
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            BigDecimal superLarge = BigDecimal.valueOf(random.nextLong(-50_000_000_000L, 50_000_000_000L), 2);
+            BigDecimal large = BigDecimal.valueOf(random.nextLong(-50_000_000_000L, 50_000_000_000L), 2);
+            BigDecimal total = superLarge.abs().add(large.abs());
+            BigDecimal expected = total.signum() == 0 ? BigDecimal.ZERO
+                : superLarge.abs().multiply(BigDecimal.valueOf(100)).divide(total, 2, RoundingMode.HALF_UP);
+
+            SectorMoneyFlow flow = new SectorMoneyFlow();
+            flow.setSuperLargeInflow(superLarge);
+            flow.setLargeInflow(large);
+            BigDecimal actual = FixedPoint.toPercent(CompactMoneyFlow.of(flow).superLargeRatio());
+
+            assertEquals(0, expected.compareTo(actual), superLarge + " / " + large);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.ershi.aspider.data.processor.cleaner;
+
+import com.ershi.aspider.data.processor.cleaner.config.DedupConfig;
+import com.ershi.aspider.data.storage.repository.FinancialArticleRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 分代布隆过滤器与已入库ID过滤器测试（重点：不出现漏判）
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public class GenerationalBloomFilterTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * 写入量超过单代容量数倍时追加新代，已写入的ID全部仍判定为可能存在
+     */
+    @Test
+    public void testNoFalseNegativeBeyondCapacity() {
+        GenerationalBloomFilter filter = new GenerationalBloomFilter(1_000, 0.01);
+        List<String> ids = ids(5_000);
+        ids.forEach(filter::put);
+
+        assertEquals(5, filter.generationCount());
+        assertTrue(ids.stream().allMatch(filter::mightContain));
+    }
+
+    /**
+     * 快照恢复后容量与全部代保持不变
+     */
+    @Test
+    public void testSnapshotRoundTrip() throws Exception {
+        GenerationalBloomFilter filter = new GenerationalBloomFilter(100, 0.01);
+        List<String> ids = ids(250);
+        ids.forEach(filter::put);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        filter.writeTo(new DataOutputStream(bytes));
+        GenerationalBloomFilter restored = GenerationalBloomFilter.readFrom(
+            new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertNotNull(restored);
+        assertEquals(3, restored.generationCount());
+        assertTrue(ids.stream().allMatch(restored::mightContain));
+    }
+
+    /**
+     * 存储中的ID超过配置容量时，重建按存储数量扩容，全部已入库ID都需存储确认
+     */
+    @Test
+    public void testRebuildOverStoreLargerThanConfiguredCapacity() {
+        List<String> stored = ids(3_000);
+        DedupConfig config = new DedupConfig();
+        config.setExpectedInsertions(500);
+        config.setSnapshotPath(tempDir.resolve("ids.bloom").toString());
+        IngestedArticleIdFilter idFilter = new IngestedArticleIdFilter(repository(stored), config, Runnable::run);
+
+        idFilter.rebuild();
+        assertEquals(stored, idFilter.probableHits(stored));
+
+        // 重建后继续写入同样不丢失旧ID
+        List<String> fresh = IntStream.range(0, 2_000).mapToObj(i -> "fresh-" + i).toList();
+        idFilter.markIngested(fresh);
+        assertEquals(stored, idFilter.probableHits(stored));
+        assertEquals(fresh, idFilter.probableHits(fresh));
+    }
+
+    private static List<String> ids(int count) {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add("article-" + i);
+        }
+        return ids;
+    }
+
+    /** 只实现 ID 遍历与计数的存储替身 */
+    @SuppressWarnings("unchecked")
+    private static FinancialArticleRepository repository(List<String> ids) {
+        return (FinancialArticleRepository) Proxy.newProxyInstance(
+            FinancialArticleRepository.class.getClassLoader(),
+            new Class<?>[]{FinancialArticleRepository.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "countIds" -> (long) ids.size();
+                case "forEachId" -> {
+                    ids.forEach((Consumer<String>) args[0]);
+                    yield null;
+                }
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+    }
+}
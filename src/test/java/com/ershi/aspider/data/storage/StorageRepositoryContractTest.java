@@ -0,0 +1,335 @@
+package com.ershi.aspider.data.storage;
+
+import com.ershi.aspider.data.datasource.domain.FinancialArticle;
+import com.ershi.aspider.data.datasource.domain.NewsTypeEnum;
+import com.ershi.aspider.data.datasource.domain.SectorMoneyFlow;
+import com.ershi.aspider.data.datasource.domain.SectorQuote;
+import com.ershi.aspider.data.storage.repository.FinancialArticleRepository;
+import com.ershi.aspider.data.storage.repository.SectorMoneyFlowRepository;
+import com.ershi.aspider.data.storage.repository.SectorQuoteRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 存储接口契约测试
+ * <p>
+ * ES实现与嵌入式实现共用同一组用例，子类只负责提供实现。
+ * 测试数据使用独立的交易日期、板块代码与随机新闻ID，断言只针对测试数据本身，可在已有数据的ES上运行。
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public abstract class StorageRepositoryContractTest {
+
+    /** 向量维度（与索引映射一致） */
+    protected static final int DIMS = 1024;
+
+    /** 测试交易日（不会与真实数据重叠） */
+    private static final LocalDate TEST_DATE = LocalDate.of(2000, 1, 3);
+
+    /** 本次运行的ID前缀，避免与其他运行的数据冲突 */
+    private final String runId = UUID.randomUUID().toString().substring(0, 8);
+
+    /** 写入的测试数据ID，供子类清理 */
+    protected final List<String> savedArticleIds = new ArrayList<>();
+    protected final List<String> savedMoneyFlowIds = new ArrayList<>();
+    protected final List<String> savedQuoteIds = new ArrayList<>();
+
+    protected abstract FinancialArticleRepository articleRepository();
+
+    protected abstract SectorMoneyFlowRepository moneyFlowRepository();
+
+    protected abstract SectorQuoteRepository quoteRepository();
+
+    /**
+     * 写入后使数据可见（近实时存储需要刷新）
+     */
+    protected void refresh() {
+    }
+
+    /**
+     * 清理测试数据
+     */
+    protected void cleanUp() {
+    }
+
+    @AfterEach
+    public void tearDownContract() {
+        cleanUp();
+    }
+
+    // ==================== 新闻 ====================
+
+    @Test
+    public void testFindExistingIdsAndForEachId() {
+        FinancialArticle a = article("a", 0, NewsTypeEnum.GENERAL, 1, LocalDateTime.now().minusHours(1));
+        FinancialArticle b = article("b", 1, NewsTypeEnum.GENERAL, 1, LocalDateTime.now().minusHours(1));
+        assertEquals(2, save(a, b));
+
+        Set<String> existing = articleRepository().findExistingIds(List.of(a.getUniqueId(), b.getUniqueId(), id("missing")));
+        assertEquals(Set.of(a.getUniqueId(), b.getUniqueId()), existing);
+
+        Set<String> all = new HashSet<>();
+        articleRepository().forEachId(all::add);
+        assertTrue(all.containsAll(List.of(a.getUniqueId(), b.getUniqueId())));
+    }
+
+    @Test
+    public void testFindRecentByDays() {
+        FinancialArticle recent = article("recent", 0, NewsTypeEnum.GENERAL, 1, LocalDateTime.now().minusHours(1));
+        FinancialArticle old = article("old", 1, NewsTypeEnum.GENERAL, 1, LocalDateTime.now().minusDays(30));
+        save(recent, old);
+
+        List<String> ids = idsOf(articleRepository().findRecentByDays(7, 10000));
+        assertTrue(ids.contains(recent.getUniqueId()));
+        assertFalse(ids.contains(old.getUniqueId()));
+    }
+
+    @Test
+    public void testFindByNewsTypeAndImportance() {
+        LocalDateTime now = LocalDateTime.now();
+        FinancialArticle policy = article("policy", 0, NewsTypeEnum.POLICY, 5, now.minusHours(2));
+        FinancialArticle event = article("event", 1, NewsTypeEnum.EVENT, 4, now.minusHours(1));
+        FinancialArticle general = article("general", 2, NewsTypeEnum.GENERAL, 2, now.minusHours(1));
+        save(policy, event, general);
+
+        List<String> policyIds = idsOf(articleRepository().findByNewsTypeAndDays(NewsTypeEnum.POLICY, 1, 10000));
+        assertTrue(policyIds.contains(policy.getUniqueId()));
+        assertFalse(policyIds.contains(event.getUniqueId()));
+
+        // 按重要性、发布时间倒序：importance 5 的排在 importance 4 之前
+        List<String> importantIds = idsOf(articleRepository().findByImportanceAndDays(4, 1, 10000));
+        assertTrue(importantIds.contains(policy.getUniqueId()));
+        assertTrue(importantIds.contains(event.getUniqueId()));
+        assertFalse(importantIds.contains(general.getUniqueId()));
+        assertTrue(importantIds.indexOf(policy.getUniqueId()) < importantIds.indexOf(event.getUniqueId()));
+    }
+
+    @Test
+    public void testSearchByVector() {
+        FinancialArticle target = article("vector", 7, NewsTypeEnum.GENERAL, 1, LocalDateTime.now().minusHours(1));
+        FinancialArticle orthogonal = article("orthogonal", 8, NewsTypeEnum.GENERAL, 1, LocalDateTime.now().minusHours(1));
+        save(target, orthogonal);
+
+        List<FinancialArticle> result = articleRepository().searchByVector(queryVector(7), 10, 1);
+        FinancialArticle hit = find(result, target.getUniqueId());
+        assertNotNull(hit);
+        assertTrue(hit.getSearchScore() >= 0.9);
+        // 正交向量的分数为 0.5，低于阈值
+        assertFalse(idsOf(result).contains(orthogonal.getUniqueId()));
+    }
+
+    @Test
+    public void testHybridSearchAndSearchAllTiers() {
+        String keyword = "契约" + runId;
+        FinancialArticle target = article("hybrid", 11, NewsTypeEnum.GENERAL, 3, LocalDateTime.now().minusHours(1));
+        target.setTitle(keyword + "板块政策利好");
+        FinancialArticle unrelated = article("unrelated", 12, NewsTypeEnum.GENERAL, 1, LocalDateTime.now().minusHours(1));
+        save(target, unrelated);
+
+        List<FinancialArticle> result = articleRepository().hybridSearch(keyword, queryVector(11), 10, 1);
+        FinancialArticle hit = find(result, target.getUniqueId());
+        assertNotNull(hit);
+        assertTrue(hit.getSearchScore() >= 0.6 && hit.getSearchScore() <= 1.0);
+        assertFalse(idsOf(result).contains(unrelated.getUniqueId()));
+
+        assertTrue(idsOf(articleRepository().searchAllTiers(keyword, queryVector(11), 10)).contains(target.getUniqueId()));
+    }
+
+    @Test
+    public void testDeleteByTimeAndImportance() {
+        LocalDateTime longAgo = LocalDateTime.of(2000, 1, 1, 8, 0);
+        FinancialArticle ordinary = article("expired-ordinary", 20, NewsTypeEnum.GENERAL, 1, longAgo);
+        FinancialArticle important = article("expired-important", 21, NewsTypeEnum.POLICY, 4, longAgo);
+        ordinary.setCrawlTime(longAgo);
+        important.setCrawlTime(longAgo);
+        save(ordinary, important);
+
+        long deleted = articleRepository().deleteByTimeAndImportance(LocalDateTime.of(2000, 1, 2, 0, 0), 3);
+        refresh();
+
+        assertTrue(deleted >= 1);
+        assertEquals(Set.of(important.getUniqueId()),
+            articleRepository().findExistingIds(List.of(ordinary.getUniqueId(), important.getUniqueId())));
+    }
+
+    // ==================== 板块资金流向 ====================
+
+    @Test
+    public void testMoneyFlowQueries() {
+        String codeA = code("A");
+        String codeB = code("B");
+        String codeC = code("C");
+        saveFlows(
+            flow(codeA, "契约测试甲" + runId, TEST_DATE, "300000000", "1.50"),
+            flow(codeB, "契约测试乙" + runId, TEST_DATE, "100000000", "3.20"),
+            flow(codeC, "契约测试丙" + runId, TEST_DATE, "-50000000", "-0.80"),
+            flow(codeA, "契约测试甲" + runId, TEST_DATE.minusDays(1), "20000000", "0.30")
+        );
+        SectorMoneyFlowRepository repository = moneyFlowRepository();
+
+        assertEquals(3, repository.findByTradeDate(TEST_DATE).size());
+        assertEquals(3, repository.countByTradeDate(TEST_DATE));
+
+        assertEquals(List.of(codeA, codeB), codesOf(repository.findTopByMainNetInflow(TEST_DATE, 2)));
+        assertEquals(List.of(codeB, codeA, codeC), codesOf(repository.findTopByChangePercent(TEST_DATE, 3)));
+
+        assertEquals(1, repository.calculateInflowRank(codeA, TEST_DATE));
+        assertEquals(3, repository.calculateInflowRank(codeC, TEST_DATE));
+        assertEquals(-1, repository.calculateInflowRank(code("missing"), TEST_DATE));
+
+        List<SectorMoneyFlow> recent = repository.findRecentBySectorCode(codeA, 5);
+        assertEquals(List.of(TEST_DATE, TEST_DATE.minusDays(1)), recent.stream().map(SectorMoneyFlow::getTradeDate).toList());
+        assertEquals(1, repository.findRecentBySectorCode(codeA, 1).size());
+        assertEquals(2, repository.findBySectorCode(codeA, 10).size());
+
+        SectorMoneyFlow byName = repository.findBySectorNameAndDate("契约测试乙" + runId, TEST_DATE);
+        assertNotNull(byName);
+        assertEquals(codeB, byName.getSectorCode());
+        assertEquals(0, new BigDecimal("100000000").compareTo(byName.getMainNetInflow()));
+    }
+
+    @Test
+    public void testMoneyFlowOverwriteBySameId() {
+        String codeA = code("A");
+        saveFlows(flow(codeA, "契约测试甲" + runId, TEST_DATE, "1", "0.10"));
+        saveFlows(flow(codeA, "契约测试甲" + runId, TEST_DATE, "2", "0.20"));
+
+        List<SectorMoneyFlow> flows = moneyFlowRepository().findBySectorCode(codeA, 10);
+        assertEquals(1, flows.size());
+        assertEquals(0, new BigDecimal("2").compareTo(flows.getFirst().getMainNetInflow()));
+    }
+
+    // ==================== 板块行情 ====================
+
+    @Test
+    public void testQuoteQueries() {
+        String codeA = code("A");
+        String codeB = code("B");
+        saveQuotes(
+            quote(codeA, TEST_DATE.minusDays(2)),
+            quote(codeA, TEST_DATE),
+            quote(codeA, TEST_DATE.minusDays(1)),
+            quote(codeB, TEST_DATE)
+        );
+
+        assertEquals(2, quoteRepository().findByTradeDate(TEST_DATE).size());
+
+        List<SectorQuote> quotes = quoteRepository().findBySectorCode(codeA, 2);
+        assertEquals(List.of(TEST_DATE, TEST_DATE.minusDays(1)), quotes.stream().map(SectorQuote::getTradeDate).toList());
+    }
+
+    // ==================== 测试数据 ====================
+
+    protected String id(String name) {
+        return "contract-" + runId + "-" + name;
+    }
+
+    private String code(String suffix) {
+        return "CT" + runId + suffix;
+    }
+
+    protected FinancialArticle article(String name, int axis, NewsTypeEnum newsType, int importance, LocalDateTime publishTime) {
+        FinancialArticle article = new FinancialArticle();
+        article.setUniqueId(id(name));
+        article.setTitle("测试新闻" + name);
+        article.setSummary("测试摘要" + name);
+        article.setContentUrl("https://example.com/" + id(name));
+        article.setTitleVector(axisVector(axis));
+        article.setSummaryVector(axisVector(axis));
+        article.setNewsType(newsType);
+        article.setImportance(importance);
+        article.setPublishTime(publishTime.withNano(0));
+        article.setProcessed(true);
+        return article;
+    }
+
+    protected int save(FinancialArticle... articles) {
+        int count = articleRepository().batchSave(List.of(articles));
+        for (FinancialArticle article : articles) {
+            savedArticleIds.add(article.getUniqueId());
+        }
+        refresh();
+        return count;
+    }
+
+    private SectorMoneyFlow flow(String code, String name, LocalDate date, String mainNetInflow, String changePercent) {
+        SectorMoneyFlow flow = new SectorMoneyFlow();
+        flow.setSectorCode(code);
+        flow.setSectorName(name);
+        flow.setSectorType("INDUSTRY");
+        flow.setTradeDate(date);
+        flow.setMainNetInflow(new BigDecimal(mainNetInflow));
+        flow.setChangePercent(new BigDecimal(changePercent));
+        flow.generateUniqueId();
+        return flow;
+    }
+
+    private void saveFlows(SectorMoneyFlow... flows) {
+        moneyFlowRepository().batchSave(List.of(flows));
+        for (SectorMoneyFlow flow : flows) {
+            savedMoneyFlowIds.add(flow.getUniqueId());
+        }
+        refresh();
+    }
+
+    private SectorQuote quote(String code, LocalDate date) {
+        SectorQuote quote = new SectorQuote();
+        quote.setSectorCode(code);
+        quote.setSectorName("契约测试" + code);
+        quote.setSectorType("INDUSTRY");
+        quote.setTradeDate(date);
+        quote.setClosePrice(new BigDecimal("1000.00"));
+        quote.generateUniqueId();
+        return quote;
+    }
+
+    private void saveQuotes(SectorQuote... quotes) {
+        quoteRepository().batchSave(List.of(quotes));
+        for (SectorQuote quote : quotes) {
+            savedQuoteIds.add(quote.getUniqueId());
+        }
+        refresh();
+    }
+
+    /**
+     * 单位向量：不同轴的向量相互正交（余弦为0，分数为0.5）
+     */
+    protected static List<Double> axisVector(int axis) {
+        List<Double> vector = new ArrayList<>(DIMS);
+        for (int i = 0; i < DIMS; i++) {
+            vector.add(i == axis ? 1.0 : 0.0);
+        }
+        return vector;
+    }
+
+    protected static List<Float> queryVector(int axis) {
+        return axisVector(axis).stream().map(Double::floatValue).toList();
+    }
+
+    protected static List<String> idsOf(List<FinancialArticle> articles) {
+        return articles.stream().map(FinancialArticle::getUniqueId).toList();
+    }
+
+    private static FinancialArticle find(List<FinancialArticle> articles, String uniqueId) {
+        return articles.stream().filter(a -> uniqueId.equals(a.getUniqueId())).findFirst().orElse(null);
+    }
+
+    private static List<String> codesOf(List<SectorMoneyFlow> flows) {
+        return flows.stream().map(SectorMoneyFlow::getSectorCode).toList();
+    }
+}
@@ -0,0 +1,86 @@
+package com.ershi.aspider.data.storage.elasticsearch;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import com.ershi.aspider.ASpiderApplication;
+import com.ershi.aspider.data.storage.StorageRepositoryContractTest;
+import com.ershi.aspider.data.storage.elasticsearch.service.FinancialArticleStorageService;
+import com.ershi.aspider.data.storage.elasticsearch.service.SectorMoneyFlowStorageService;
+import com.ershi.aspider.data.storage.elasticsearch.service.SectorQuoteStorageService;
+import com.ershi.aspider.data.storage.repository.FinancialArticleRepository;
+import com.ershi.aspider.data.storage.repository.SectorMoneyFlowRepository;
+import com.ershi.aspider.data.storage.repository.SectorQuoteRepository;
+import jakarta.annotation.Resource;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * ES存储实现契约测试（需要可用的ES，测试数据在用例结束后删除）
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+@SpringBootTest(classes = ASpiderApplication.class)
+public class ElasticsearchStorageRepositoryTest extends StorageRepositoryContractTest {
+
+    private static final String[] INDICES = {"financial_article", "sector_money_flow", "sector_quote"};
+
+    @Resource
+    private FinancialArticleStorageService financialArticleStorageService;
+
+    @Resource
+    private SectorMoneyFlowStorageService sectorMoneyFlowStorageService;
+
+    @Resource
+    private SectorQuoteStorageService sectorQuoteStorageService;
+
+    @Resource
+    private ElasticsearchClient elasticsearchClient;
+
+    @Override
+    protected FinancialArticleRepository articleRepository() {
+        return financialArticleStorageService;
+    }
+
+    @Override
+    protected SectorMoneyFlowRepository moneyFlowRepository() {
+        return sectorMoneyFlowStorageService;
+    }
+
+    @Override
+    protected SectorQuoteRepository quoteRepository() {
+        return sectorQuoteStorageService;
+    }
+
+    @Override
+    protected void refresh() {
+        try {
+            elasticsearchClient.indices().refresh(r -> r.index(List.of(INDICES)).ignoreUnavailable(true));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    protected void cleanUp() {
+        deleteByIds("financial_article", savedArticleIds);
+        deleteByIds("sector_money_flow", savedMoneyFlowIds);
+        deleteByIds("sector_quote", savedQuoteIds);
+    }
+
+    private void deleteByIds(String index, List<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        try {
+            elasticsearchClient.deleteByQuery(d -> d
+                .index(index)
+                .query(q -> q.ids(i -> i.values(ids)))
+                .refresh(true)
+            );
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
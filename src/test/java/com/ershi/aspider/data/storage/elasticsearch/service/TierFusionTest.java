@@ -0,0 +1,42 @@
+package com.ershi.aspider.data.storage.elasticsearch.service;
+
+import com.ershi.aspider.data.datasource.domain.FinancialArticle;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 冷热全量检索的倒数排名融合测试（纯客户端逻辑，无需ES）
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public class TierFusionTest {
+
+    /**
+     * 只按排名融合：冷数据的BM25原始分再大也不会压过热数据排名，多路同时命中的文档排在前面
+     */
+    @Test
+    public void testFusesByRankNotRawScore() {
+        List<FinancialArticle> hot = List.of(article("hot-1", 0.9), article("shared", 0.8));
+        List<FinancialArticle> coldKeyword = List.of(article("cold-1", 42.0), article("shared", 30.0));
+        List<FinancialArticle> coldVector = List.of();
+
+        List<FinancialArticle> fused = FinancialArticleStorageService.reciprocalRankFusion(
+            List.of(hot, coldKeyword, coldVector), 60, 10);
+
+        assertEquals(List.of("shared", "hot-1", "cold-1"), fused.stream().map(FinancialArticle::getUniqueId).toList());
+        assertEquals((2.0 / 62) / (3.0 / 61), fused.getFirst().getSearchScore(), 1e-9);
+        assertEquals(fused.get(1).getSearchScore(), fused.get(2).getSearchScore(), 1e-9);
+        assertEquals(2, FinancialArticleStorageService.reciprocalRankFusion(List.of(hot, coldKeyword), 60, 2).size());
+    }
+
+    private static FinancialArticle article(String uniqueId, double score) {
+        FinancialArticle article = new FinancialArticle();
+        article.setUniqueId(uniqueId);
+        article.setSearchScore(score);
+        return article;
+    }
+}
@@ -0,0 +1,204 @@
+package com.ershi.aspider.data.storage.embedded;
+
+import com.ershi.aspider.data.datasource.domain.FinancialArticle;
+import com.ershi.aspider.data.datasource.domain.NewsTypeEnum;
+import com.ershi.aspider.data.storage.StorageRepositoryContractTest;
+import com.ershi.aspider.data.storage.embedded.config.EmbeddedStorageConfig;
+import com.ershi.aspider.data.storage.repository.FinancialArticleRepository;
+import com.ershi.aspider.data.storage.repository.SectorMoneyFlowRepository;
+import com.ershi.aspider.data.storage.repository.SectorQuoteRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 嵌入式存储实现契约测试（无需ES），另覆盖重启恢复、损坏截断与日志压缩
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public class EmbeddedStorageRepositoryTest extends StorageRepositoryContractTest {
+
+    @TempDir
+    Path dataDir;
+
+    private EmbeddedStorageConfig config;
+
+    private EmbeddedFinancialArticleRepository articleRepository;
+
+    private EmbeddedSectorMoneyFlowRepository moneyFlowRepository;
+
+    private EmbeddedSectorQuoteRepository quoteRepository;
+
+    @BeforeEach
+    public void setUp() {
+        config = new EmbeddedStorageConfig();
+        config.setDataDir(dataDir.toString());
+        config.setSegmentSizeMb(1);
+        open();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        close();
+    }
+
+    @Override
+    protected FinancialArticleRepository articleRepository() {
+        return articleRepository;
+    }
+
+    @Override
+    protected SectorMoneyFlowRepository moneyFlowRepository() {
+        return moneyFlowRepository;
+    }
+
+    @Override
+    protected SectorQuoteRepository quoteRepository() {
+        return quoteRepository;
+    }
+
+    /**
+     * 重启后从段文件恢复写入与删除
+     */
+    @Test
+    public void testReopenRestoresState() throws IOException {
+        LocalDateTime longAgo = LocalDateTime.of(2000, 1, 1, 8, 0);
+        FinancialArticle kept = article("kept", 1, NewsTypeEnum.POLICY, 5, LocalDateTime.now().minusHours(1));
+        FinancialArticle expired = article("expired", 2, NewsTypeEnum.GENERAL, 1, longAgo);
+        expired.setCrawlTime(longAgo);
+        save(kept, expired);
+        assertEquals(1, articleRepository.deleteByTimeAndImportance(LocalDateTime.of(2000, 1, 2, 0, 0), 3));
+
+        close();
+        open();
+
+        assertEquals(Set.of(kept.getUniqueId()),
+            articleRepository.findExistingIds(List.of(kept.getUniqueId(), expired.getUniqueId())));
+        List<FinancialArticle> result = articleRepository.searchByVector(queryVector(1), 5, 0);
+        assertEquals(List.of(kept.getUniqueId()), idsOf(result));
+        assertEquals("测试新闻kept", result.getFirst().getTitle());
+        assertEquals(kept.getPublishTime(), result.getFirst().getPublishTime());
+    }
+
+    /**
+     * 段文件尾部记录损坏（进程崩溃时的半条记录）时截断，之前的数据不受影响
+     */
+    @Test
+    public void testTruncatesCorruptedTail() throws IOException {
+        FinancialArticle first = article("first", 1, NewsTypeEnum.GENERAL, 1, LocalDateTime.now().minusHours(1));
+        FinancialArticle second = article("second", 2, NewsTypeEnum.GENERAL, 1, LocalDateTime.now().minusHours(1));
+        save(first);
+        save(second);
+        close();
+
+        // 破坏最后一条记录的最后一个字节
+        Path segment = segmentFiles("financial_article").getLast();
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(8);
+            long writeOffset = file.readLong();
+            file.seek(writeOffset - 1);
+            int last = file.read();
+            file.seek(writeOffset - 1);
+            file.write(last ^ 0xFF);
+        }
+
+        open();
+        assertEquals(Set.of(first.getUniqueId()),
+            articleRepository.findExistingIds(List.of(first.getUniqueId(), second.getUniqueId())));
+
+        // 截断后可继续写入
+        save(second);
+        close();
+        open();
+        assertEquals(2, articleRepository.findExistingIds(List.of(first.getUniqueId(), second.getUniqueId())).size());
+    }
+
+    /**
+     * 大量删除后压缩日志，重启后数据一致
+     */
+    @Test
+    public void testCompactionAfterRetention() throws IOException {
+        LocalDateTime longAgo = LocalDateTime.of(2000, 1, 1, 8, 0);
+        List<FinancialArticle> expired = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) {
+            FinancialArticle article = article("bulk-" + i, i % DIMS, NewsTypeEnum.GENERAL, 1, longAgo);
+            article.setCrawlTime(longAgo);
+            article.setTitleVector(null);
+            expired.add(article);
+        }
+        FinancialArticle kept = article("survivor", 3, NewsTypeEnum.POLICY, 5, LocalDateTime.now().minusHours(1));
+        articleRepository.batchSave(expired);
+        save(kept);
+        assertTrue(segmentFiles("financial_article").size() > 1);
+
+        // 压缩后只剩一个段文件
+        assertEquals(1500, articleRepository.deleteByTimeAndImportance(LocalDateTime.of(2000, 1, 2, 0, 0), 3));
+        assertEquals(1, segmentFiles("financial_article").size());
+
+        close();
+        open();
+        List<String> all = new ArrayList<>();
+        articleRepository.forEachId(all::add);
+        assertEquals(List.of(kept.getUniqueId()), all);
+    }
+
+    /**
+     * 反复覆盖写入同一批新闻后压缩日志，旧段文件被删除，重启后数据一致
+     */
+    @Test
+    public void testCompactionAfterOverwrites() throws IOException {
+        List<FinancialArticle> batch = new ArrayList<>();
+        for (int i = 0; i < 1100; i++) {
+            FinancialArticle article = article("rewrite-" + i, i % DIMS, NewsTypeEnum.GENERAL, 1,
+                LocalDateTime.now().minusHours(1));
+            article.setTitleVector(null);
+            batch.add(article);
+        }
+        articleRepository.batchSave(batch);
+        articleRepository.batchSave(batch);
+        List<Path> before = segmentFiles("financial_article");
+
+        // 第三次覆盖后垃圾记录超过有效记录，压缩为新段并删除旧段
+        articleRepository.batchSave(batch);
+        List<Path> after = segmentFiles("financial_article");
+        assertTrue(after.size() < before.size());
+        assertTrue(before.stream().noneMatch(after::contains));
+
+        close();
+        open();
+        assertEquals(batch.size(), articleRepository.countIds());
+    }
+
+    private void open() {
+        articleRepository = new EmbeddedFinancialArticleRepository(config);
+        moneyFlowRepository = new EmbeddedSectorMoneyFlowRepository(config);
+        quoteRepository = new EmbeddedSectorQuoteRepository(config);
+    }
+
+    private void close() throws IOException {
+        articleRepository.close();
+        moneyFlowRepository.close();
+        quoteRepository.close();
+    }
+
+    private List<Path> segmentFiles(String directory) throws IOException {
+        try (Stream<Path> files = Files.list(dataDir.resolve(directory))) {
+            return files.sorted().toList();
+        }
+    }
+}
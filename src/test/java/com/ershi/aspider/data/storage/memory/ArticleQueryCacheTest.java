@@ -0,0 +1,144 @@
+package com.ershi.aspider.data.storage.memory;
+
+import com.ershi.aspider.data.datasource.domain.FinancialArticle;
+import com.ershi.aspider.data.datasource.domain.SummarySourceEnum;
+import com.ershi.aspider.data.storage.memory.config.ArticleQueryCacheConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 新闻过滤查询结果缓存测试
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public class ArticleQueryCacheTest {
+
+    private ArticleQueryCacheConfig config;
+
+    private ArticleQueryCache cache;
+
+    private AtomicInteger loads;
+
+    @BeforeEach
+    public void setUp() {
+        config = new ArticleQueryCacheConfig();
+        cache = new ArticleQueryCache(config);
+        loads = new AtomicInteger();
+    }
+
+    /**
+     * 有效期内复用结果，入库失效后重新查询
+     */
+    @Test
+    public void testHitUntilInvalidated() {
+        List<FinancialArticle> first = cache.getOrLoad("policy:7:20", this::load);
+        List<FinancialArticle> second = cache.getOrLoad("policy:7:20", this::load);
+        assertEquals(first.get(0).getUniqueId(), second.get(0).getUniqueId());
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.hitCount());
+
+        cache.getOrLoad("importance:3:7:20", this::load);
+        assertEquals(2, loads.get());
+
+        cache.invalidate();
+        cache.getOrLoad("policy:7:20", this::load);
+        assertEquals(3, loads.get());
+        assertEquals(3, cache.missCount());
+    }
+
+    /**
+     * 过期与禁用时均直接查询
+     */
+    @Test
+    public void testExpiredAndDisabled() {
+        config.setTtlSeconds(0);
+        cache.getOrLoad("policy:7:20", this::load);
+        cache.getOrLoad("policy:7:20", this::load);
+        assertEquals(2, loads.get());
+
+        config.setTtlSeconds(300);
+        config.setEnabled(false);
+        cache.getOrLoad("policy:7:20", this::load);
+        cache.getOrLoad("policy:7:20", this::load);
+        assertEquals(4, loads.get());
+    }
+
+    /**
+     * 查询失败不缓存，下一次请求重新查询
+     */
+    @Test
+    public void testFailureNotCached() {
+        assertThrows(IllegalStateException.class, () -> cache.getOrLoad("policy:7:20", () -> {
+            throw new IllegalStateException("ES不可用");
+        }));
+        cache.getOrLoad("policy:7:20", this::load);
+        assertEquals(1, loads.get());
+    }
+
+    /**
+     * 同一键的并发请求共享进行中的查询
+     */
+    @Test
+    public void testConcurrentRequestsShareInFlightLoad() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<List<FinancialArticle>> owner = CompletableFuture.supplyAsync(() ->
+            cache.getOrLoad("policy:7:20", () -> {
+                started.countDown();
+                try {
+                    assertTrue(release.await(5, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return load();
+            }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<List<FinancialArticle>> waiter =
+            CompletableFuture.supplyAsync(() -> cache.getOrLoad("policy:7:20", this::load));
+        release.countDown();
+
+        assertEquals(owner.get(5, TimeUnit.SECONDS).get(0).getUniqueId(),
+            waiter.get(5, TimeUnit.SECONDS).get(0).getUniqueId());
+        assertEquals(1, loads.get());
+    }
+
+    /**
+     * 每个调用方拿到各自的副本：修改摘要不影响缓存内容与其他调用方
+     */
+    @Test
+    public void testCallersGetIndependentCopies() {
+        FinancialArticle first = cache.getOrLoad("policy:7:20", this::load).get(0);
+        first.setSummary("分析阶段兜底摘要");
+        first.setSummarySource(SummarySourceEnum.ANALYSIS_LLM);
+
+        FinancialArticle second = cache.getOrLoad("policy:7:20", this::load).get(0);
+        assertNotSame(first, second);
+        assertNull(second.getSummary());
+        assertEquals(SummarySourceEnum.RAW, second.getSummarySource());
+        assertEquals(1, loads.get());
+    }
+
+    private List<FinancialArticle> load() {
+        loads.incrementAndGet();
+        FinancialArticle article = new FinancialArticle();
+        article.setUniqueId("article-" + loads.get());
+        List<FinancialArticle> result = new ArrayList<>();
+        result.add(article);
+        return result;
+    }
+}
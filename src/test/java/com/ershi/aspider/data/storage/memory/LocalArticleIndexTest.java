@@ -0,0 +1,80 @@
+package com.ershi.aspider.data.storage.memory;
+
+import com.ershi.aspider.data.datasource.domain.FinancialArticle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 本地新闻检索索引测试
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public class LocalArticleIndexTest {
+
+    private static final List<Float> QUERY = List.of(1f, 0f, 0f);
+
+    private LocalArticleIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = LocalArticleIndex.flat();
+        index.add(article("a", "半导体板块大涨", List.of(1.0, 0.0, 0.0)));
+        index.add(article("b", "半导体设备订单", List.of(0.8, 0.6, 0.0)));
+        index.add(article("c", "消费电子新品发布", List.of(0.0, 0.0, 1.0)));
+    }
+
+    /**
+     * RRF：按三路排名融合，融合分按理论最大值归一化，三路均排第1的文档得满分
+     */
+    @Test
+    public void testRrfSearchFusesRanks() {
+        List<FinancialArticle> result = index.rrfSearch("半导体板块", QUERY, 10, 10, 60, null, 0);
+
+        assertEquals(List.of("a", "b"), result.stream().map(FinancialArticle::getUniqueId).toList());
+        assertEquals(1.0, result.get(0).getSearchScore(), 1e-9);
+        assertTrue(result.get(1).getSearchScore() < 1.0);
+    }
+
+    /**
+     * RRF：向量相似度低于门槛且关键词未命中的文档不被召回
+     */
+    @Test
+    public void testRrfSearchAppliesVectorThreshold() {
+        List<FinancialArticle> result = index.rrfSearch("无关查询", QUERY, 10, 10, 60, null, 0);
+
+        assertEquals(List.of("a", "b"), result.stream().map(FinancialArticle::getUniqueId).toList());
+    }
+
+    /**
+     * RRF：发布时间早于截止时间的文档不参与任何一路召回
+     */
+    @Test
+    public void testRrfSearchRespectsCutoff() {
+        FinancialArticle old = article("d", "半导体板块回顾", List.of(1.0, 0.0, 0.0));
+        old.setPublishTime(LocalDateTime.now().minusDays(30));
+        index.add(old);
+
+        List<FinancialArticle> result = index.rrfSearch("半导体板块", QUERY, 10, 10, 60,
+            LocalDateTime.now().minusDays(7), 0);
+
+        assertTrue(result.stream().noneMatch(article -> "d".equals(article.getUniqueId())));
+    }
+
+    private static FinancialArticle article(String id, String title, List<Double> vector) {
+        FinancialArticle article = new FinancialArticle();
+        article.setUniqueId(id);
+        article.setTitle(title);
+        article.setSummary(title);
+        article.setTitleVector(vector);
+        article.setSummaryVector(vector);
+        article.setPublishTime(LocalDateTime.now());
+        return article;
+    }
+}
@@ -0,0 +1,162 @@
+package com.ershi.aspider.data.storage.memory;
+
+import com.ershi.aspider.data.datasource.domain.SectorMoneyFlow;
+import com.ershi.aspider.data.storage.embedded.EmbeddedSectorMoneyFlowRepository;
+import com.ershi.aspider.data.storage.embedded.config.EmbeddedStorageConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * 全市场板块快照测试（主存储使用嵌入式实现，无需ES）
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public class MarketSnapshotCacheTest {
+
+    private static final LocalDate TRADE_DATE = LocalDate.of(2025, 12, 26);
+
+    @TempDir
+    Path dataDir;
+
+    private EmbeddedSectorMoneyFlowRepository repository;
+
+    private MarketSnapshotCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        EmbeddedStorageConfig config = new EmbeddedStorageConfig();
+        config.setDataDir(dataDir.toString());
+        config.setSegmentSizeMb(1);
+        repository = new EmbeddedSectorMoneyFlowRepository(config);
+        cache = new MarketSnapshotCache(repository);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        repository.close();
+    }
+
+    /**
+     * 排名、总数、Top N 与主存储查询结果一致，缺失值排在末尾
+     */
+    @Test
+    public void testRankCountAndTopMatchRepository() {
+        repository.batchSave(List.of(
+            flow("BK0001", "120", "1.50"),
+            flow("BK0002", "-30", "3.20"),
+            flow("BK0003", "980", "-0.40"),
+            flow("BK0004", null, "0.10")));
+
+        MarketSnapshot snapshot = cache.get(TRADE_DATE);
+        assertEquals(repository.countByTradeDate(TRADE_DATE), snapshot.count());
+        for (String code : List.of("BK0001", "BK0002", "BK0003", "BK0004")) {
+            assertEquals(repository.calculateInflowRank(code, TRADE_DATE), snapshot.inflowRank(code), code);
+        }
+        assertEquals(-1, snapshot.inflowRank("BK9999"));
+        assertEquals(98_000, snapshot.inflowAt(1));
+        assertEquals(12_000, snapshot.compactBySectorCode("BK0001").mainNetInflow());
+        assertNull(snapshot.compactBySectorCode("BK9999"));
+        assertEquals(320, snapshot.changeAt(1));
+
+        assertEquals(codes(repository.findTopByMainNetInflow(TRADE_DATE, 3)), codes(snapshot.topByInflow(3)));
+        assertEquals(codes(repository.findTopByChangePercent(TRADE_DATE, 2)), codes(snapshot.topByChange(2)));
+    }
+
+    /**
+     * 命中时复用同一快照；入库刷新后发布新快照
+     */
+    @Test
+    public void testRefreshPublishesNewSnapshot() {
+        repository.batchSave(List.of(flow("BK0001", "100", "1.00")));
+        MarketSnapshot first = cache.get(TRADE_DATE);
+        assertSame(first, cache.get(TRADE_DATE));
+
+        List<SectorMoneyFlow> ingested = List.of(flow("BK0002", "500", "2.00"));
+        repository.batchSave(ingested);
+        cache.refresh(ingested);
+
+        MarketSnapshot second = cache.get(TRADE_DATE);
+        assertNotSame(first, second);
+        assertEquals(2, second.count());
+        assertEquals(2, second.inflowRank("BK0001"));
+        assertEquals(1, first.count());
+    }
+
+    /**
+     * 入库后主存储尚未可见（ES未refresh、按板块类型分批入库）时，快照仍包含已入库的全部板块
+     */
+    @Test
+    public void testRefreshDoesNotDependOnStoreVisibility() {
+        // 首批入库后主存储不可见：快照由入库数据构建
+        List<SectorMoneyFlow> industries = List.of(flow("BK0001", "100", "1.00"), flow("BK0002", "300", "0.50"));
+        cache.refresh(industries);
+        assertEquals(2, cache.get(TRADE_DATE).count());
+
+        // 第二批（另一板块类型）同样不可见：合并进已有快照，不丢首批数据
+        SectorMoneyFlow updated = flow("BK0001", "900", "4.00");
+        cache.refresh(List.of(updated, flow("BK1001", "200", "2.00")));
+
+        MarketSnapshot snapshot = cache.get(TRADE_DATE);
+        assertEquals(3, snapshot.count());
+        assertEquals(1, snapshot.inflowRank("BK0001"));
+        assertEquals(3, snapshot.inflowRank("BK1001"));
+        assertEquals(400, snapshot.changeAt(1));
+    }
+
+    /**
+     * 按代码、名称（精确优先，其次包含）定位当日资金流向
+     */
+    @Test
+    public void testFindByCodeAndName() {
+        SectorMoneyFlow chip = flow("BK0477", "100", "1.00");
+        chip.setSectorName("半导体");
+        SectorMoneyFlow chipMaterial = flow("BK0478", "200", "1.00");
+        chipMaterial.setSectorName("半导体材料");
+        repository.batchSave(List.of(chip, chipMaterial));
+
+        MarketSnapshot snapshot = cache.get(TRADE_DATE);
+        assertEquals("BK0477", snapshot.findBySectorName("半导体").getSectorCode());
+        assertEquals("BK0478", snapshot.findBySectorName("材料").getSectorCode());
+        assertEquals("半导体材料", snapshot.findBySectorCode("BK0478").getSectorName());
+        assertNull(snapshot.findBySectorCode("BK9999"));
+        assertNull(snapshot.findBySectorName("银行"));
+    }
+
+    /**
+     * 无数据的交易日不缓存空快照
+     */
+    @Test
+    public void testEmptyDateNotCached() {
+        assertEquals(0, cache.get(TRADE_DATE).count());
+        repository.batchSave(List.of(flow("BK0001", "100", "1.00")));
+        assertEquals(1, cache.get(TRADE_DATE).count());
+    }
+
+    private static List<String> codes(List<SectorMoneyFlow> flows) {
+        return flows.stream().map(SectorMoneyFlow::getSectorCode).toList();
+    }
+
+    private static SectorMoneyFlow flow(String sectorCode, String inflow, String changePercent) {
+        SectorMoneyFlow flow = new SectorMoneyFlow();
+        flow.setSectorCode(sectorCode);
+        flow.setSectorName(sectorCode);
+        flow.setTradeDate(TRADE_DATE);
+        flow.setMainNetInflow(inflow != null ? new BigDecimal(inflow) : null);
+        flow.setChangePercent(new BigDecimal(changePercent));
+        flow.generateUniqueId();
+        return flow;
+    }
+}
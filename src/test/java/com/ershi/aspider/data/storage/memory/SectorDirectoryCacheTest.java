@@ -0,0 +1,106 @@
+package com.ershi.aspider.data.storage.memory;
+
+import com.ershi.aspider.data.datasource.domain.SectorMoneyFlow;
+import com.ershi.aspider.data.storage.embedded.EmbeddedSectorMoneyFlowRepository;
+import com.ershi.aspider.data.storage.embedded.EmbeddedSectorQuoteRepository;
+import com.ershi.aspider.data.storage.embedded.config.EmbeddedStorageConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 板块目录缓存测试（主存储使用嵌入式实现，无需ES）
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public class SectorDirectoryCacheTest {
+
+    @TempDir
+    Path dataDir;
+
+    private EmbeddedSectorMoneyFlowRepository moneyFlowRepository;
+
+    private EmbeddedSectorQuoteRepository quoteRepository;
+
+    private SectorDirectoryCache directory;
+
+    @BeforeEach
+    public void setUp() {
+        EmbeddedStorageConfig config = new EmbeddedStorageConfig();
+        config.setDataDir(dataDir.toString());
+        config.setSegmentSizeMb(1);
+        moneyFlowRepository = new EmbeddedSectorMoneyFlowRepository(config);
+        quoteRepository = new EmbeddedSectorQuoteRepository(config);
+        directory = new SectorDirectoryCache(moneyFlowRepository, quoteRepository, Runnable::run);
+        directory.registerMoneyFlows(List.of(
+            flow("BK0477", "半导体", LocalDate.now()),
+            flow("BK1036", "半导体材料", LocalDate.now()),
+            flow("BK0900", "新能源车", LocalDate.now()),
+            flow("BK0438", "白酒", LocalDate.now()),
+            flow("BK0800", "AI芯片", LocalDate.now())));
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        moneyFlowRepository.close();
+        quoteRepository.close();
+    }
+
+    @Test
+    public void testExactPrefixAndCode() {
+        assertEquals("BK0477", directory.resolve("半导体").sectorCode());
+        // 前缀匹配取名称最短者
+        assertEquals("BK0477", directory.resolve("半导").sectorCode());
+        assertEquals("半导体材料", directory.resolve("BK1036").sectorName());
+        assertEquals(List.of("BK0477", "BK1036"),
+            directory.suggest("半导", 5).stream().map(SectorEntry::sectorCode).toList());
+    }
+
+    @Test
+    public void testContainsAndFuzzy() {
+        assertEquals("BK1036", directory.resolve("材料").sectorCode());
+        assertEquals("BK0438", directory.resolve("酒").sectorCode());
+        assertEquals("BK0900", directory.resolve("新能源汽车").sectorCode());
+        assertEquals("BK0800", directory.resolve("ai芯片").sectorCode());
+        assertNull(directory.resolve("银行"));
+        assertNull(directory.resolve(" "));
+    }
+
+    /**
+     * 同一代码重新登记时以新名称为准
+     */
+    @Test
+    public void testRenameOnRegister() {
+        directory.registerMoneyFlows(List.of(flow("BK0438", "酿酒行业", LocalDate.now())));
+        assertEquals(5, directory.size());
+        assertEquals("酿酒行业", directory.findByCode("BK0438").sectorName());
+        assertNull(directory.suggest("白酒", 1).stream().findFirst().orElse(null));
+    }
+
+    @Test
+    public void testLoadFromRepository() {
+        moneyFlowRepository.batchSave(List.of(flow("BK0428", "电力", LocalDate.now().minusDays(2))));
+        SectorDirectoryCache loaded = new SectorDirectoryCache(moneyFlowRepository, quoteRepository, Runnable::run);
+        loaded.initialize();
+        assertEquals("BK0428", loaded.resolve("电力").sectorCode());
+    }
+
+    private static SectorMoneyFlow flow(String sectorCode, String sectorName, LocalDate tradeDate) {
+        SectorMoneyFlow flow = new SectorMoneyFlow();
+        flow.setSectorCode(sectorCode);
+        flow.setSectorName(sectorName);
+        flow.setSectorType("INDUSTRY");
+        flow.setTradeDate(tradeDate);
+        flow.generateUniqueId();
+        return flow;
+    }
+}
@@ -0,0 +1,245 @@
+package com.ershi.aspider.data.storage.timeseries;
+
+import com.ershi.aspider.data.datasource.domain.CompactMoneyFlow;
+import com.ershi.aspider.data.datasource.domain.FixedPoint;
+import com.ershi.aspider.data.datasource.domain.SectorMoneyFlow;
+import com.ershi.aspider.data.datasource.domain.SectorQuote;
+import com.ershi.aspider.data.storage.embedded.EmbeddedSectorMoneyFlowRepository;
+import com.ershi.aspider.data.storage.embedded.EmbeddedSectorQuoteRepository;
+import com.ershi.aspider.data.storage.embedded.config.EmbeddedStorageConfig;
+import com.ershi.aspider.data.storage.timeseries.config.TimeSeriesConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 板块时序列存储测试（主存储使用嵌入式实现，无需ES）
+ *
+ * @author Ershi-Gu.
+ * @since 2026-10-18
+ */
+public class SectorTimeSeriesStoreTest {
+
+    /** 周五，前一个交易日为周四，之后为周一 */
+    private static final LocalDate FRIDAY = LocalDate.of(2025, 12, 26);
+
+    @TempDir
+    Path dataDir;
+
+    private TimeSeriesConfig config;
+
+    private EmbeddedSectorMoneyFlowRepository moneyFlowRepository;
+
+    private EmbeddedSectorQuoteRepository quoteRepository;
+
+    private SectorTimeSeriesStore store;
+
+    @BeforeEach
+    public void setUp() {
+        EmbeddedStorageConfig embeddedConfig = new EmbeddedStorageConfig();
+        embeddedConfig.setDataDir(dataDir.resolve("embedded").toString());
+        embeddedConfig.setSegmentSizeMb(1);
+        moneyFlowRepository = new EmbeddedSectorMoneyFlowRepository(embeddedConfig);
+        quoteRepository = new EmbeddedSectorQuoteRepository(embeddedConfig);
+
+        config = new TimeSeriesConfig();
+        config.setEnabled(true);
+        config.setDataDir(dataDir.resolve("timeseries").toString());
+        config.setSectorCapacity(64);
+        config.setBackfillDays(10);
+        store = newStore();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        store.close();
+        moneyFlowRepository.close();
+        quoteRepository.close();
+    }
+
+    /**
+     * 窗口按交易日倒序，跳过休市日，字段精确还原
+     */
+    @Test
+    public void testWindowSkipsNonTradingDays() {
+        store.appendMoneyFlows(List.of(
+            flow("BK0477", FRIDAY.minusDays(1), "1.25", "350000000.5"),
+            flow("BK0477", FRIDAY, "-0.80", "-120000000"),
+            flow("BK0477", FRIDAY.plusDays(3), "2.10", "80000000"),
+            flow("BK1036", FRIDAY, "3.00", "900000000")));
+
+        List<SectorMoneyFlow> recent = store.findRecentMoneyFlows("BK0477", FRIDAY.plusDays(3), 2);
+        assertEquals(2, recent.size());
+        assertEquals(FRIDAY.plusDays(3), recent.get(0).getTradeDate());
+        assertEquals(FRIDAY, recent.get(1).getTradeDate());
+        assertEquals(0, new BigDecimal("-0.80").compareTo(recent.get(1).getChangePercent()));
+        assertEquals("-120000000.00", recent.get(1).getMainNetInflow().toPlainString());
+        assertEquals("半导体", recent.get(0).getSectorName());
+        assertNull(recent.get(0).getSuperLargeInflow());
+
+        SectorWindow<MoneyFlowColumn> window = store.moneyFlowWindow("BK0477", FRIDAY, 5);
+        assertEquals(2, window.size());
+        assertEquals(35_000_000_050L, window.value(MoneyFlowColumn.MAIN_NET_INFLOW, 1));
+        assertEquals(125, window.basisPoints(MoneyFlowColumn.CHANGE_PERCENT, 1));
+
+        assertTrue(store.moneyFlowWindow("BK9999", FRIDAY, 5).isEmpty());
+    }
+
+    /**
+     * 窗口由日期索引定位：跨越长时间无数据的区间仍能取满N个交易日，截止日期早于最新数据时只取截止日及之前
+     */
+    @Test
+    public void testWindowAcrossLongGap() {
+        store.appendMoneyFlows(List.of(
+            flow("BK0477", FRIDAY.minusDays(90), "1.00", "100"),
+            flow("BK0477", FRIDAY.minusDays(60), "2.00", "200"),
+            flow("BK0477", FRIDAY, "3.00", "300")));
+
+        SectorWindow<MoneyFlowColumn> window = store.moneyFlowWindow("BK0477", FRIDAY, 3);
+        assertEquals(3, window.size());
+        assertEquals(FRIDAY.minusDays(90), window.tradeDate(2));
+
+        SectorWindow<MoneyFlowColumn> earlier = store.moneyFlowWindow("BK0477", FRIDAY.minusDays(1), 5);
+        assertEquals(2, earlier.size());
+        assertEquals(FRIDAY.minusDays(60), earlier.tradeDate(0));
+        assertTrue(store.moneyFlowWindow("BK0477", FRIDAY.minusDays(91), 5).isEmpty());
+    }
+
+    /**
+     * 定点数窗口即为列值，与由 BigDecimal 换算的结果一致，缺失值为 NULL 标记
+     */
+    @Test
+    public void testCompactWindowMatchesBigDecimal() {
+        List<SectorMoneyFlow> flows = List.of(
+            flow("BK0477", FRIDAY.minusDays(1), "1.235", "350000000.5"),
+            flow("BK0477", FRIDAY, "-0.80", "-120000000.05"));
+        store.appendMoneyFlows(flows);
+
+        List<CompactMoneyFlow> compacts = store.findRecentCompactFlows("BK0477", FRIDAY, 5);
+        assertEquals(2, compacts.size());
+        for (int i = 0; i < compacts.size(); i++) {
+            CompactMoneyFlow expected = CompactMoneyFlow.of(flows.get(flows.size() - 1 - i));
+            assertEquals(expected, compacts.get(i));
+        }
+        assertEquals(124, compacts.get(1).changePercent());
+        assertEquals(FixedPoint.NULL_AMOUNT, compacts.get(0).superLargeInflow());
+        assertTrue(store.findRecentCompactFlows("BK9999", FRIDAY, 5).isEmpty());
+    }
+
+    /**
+     * 截面覆盖全部板块，当日无数据的板块为缺失标记
+     */
+    @Test
+    public void testCrossSectionScan() {
+        store.appendMoneyFlows(List.of(
+            flow("BK0477", FRIDAY, "1.00", "100"),
+            flow("BK1036", FRIDAY, "2.00", "200"),
+            flow("BK0428", FRIDAY.minusDays(1), "3.00", "300")));
+
+        CrossSection section = store.scanMoneyFlow(MoneyFlowColumn.MAIN_NET_INFLOW, FRIDAY);
+        assertEquals(3, section.size());
+        long sum = 0;
+        int present = 0;
+        for (int slot = 0; slot < section.size(); slot++) {
+            if (section.isPresent(slot)) {
+                sum += section.value(slot);
+                present++;
+            } else {
+                assertEquals("BK0428", section.sectorCode(slot));
+            }
+        }
+        assertEquals(2, present);
+        assertEquals(30_000L, sum);
+
+        CrossSection empty = store.scanMoneyFlow(MoneyFlowColumn.MAIN_NET_INFLOW, FRIDAY.minusYears(3));
+        assertEquals(3, empty.size());
+        assertFalse(empty.isPresent(0));
+    }
+
+    /**
+     * 重新打开后数据与槽位保持不变
+     */
+    @Test
+    public void testReopenRestoresState() {
+        SectorQuote quote = new SectorQuote();
+        quote.setSectorCode("BK0477");
+        quote.setSectorName("半导体");
+        quote.setTradeDate(FRIDAY);
+        quote.setClosePrice(new BigDecimal("1234.56"));
+        quote.setRiseCount(37);
+        store.appendQuotes(List.of(quote));
+        store.appendMoneyFlows(List.of(flow("BK1036", FRIDAY, "1.00", "100")));
+        store.close();
+
+        store = newStore();
+        SectorWindow<QuoteColumn> window = store.quoteWindow("BK0477", FRIDAY, 1);
+        assertEquals(1, window.size());
+        assertEquals(123_456L, window.value(QuoteColumn.CLOSE_PRICE, 0));
+        assertEquals(37L, window.value(QuoteColumn.RISE_COUNT, 0));
+        assertFalse(window.isPresent(QuoteColumn.OPEN_PRICE, 0));
+        assertEquals(1, store.findRecentMoneyFlows("BK1036", FRIDAY, 5).size());
+    }
+
+    /**
+     * 旧版本（double 列）的年度文件在打开时清空重建，不因格式不符而无法启动
+     */
+    @Test
+    public void testLegacyFileDiscarded() throws Exception {
+        store.close();
+        Path legacy = dataDir.resolve("timeseries").resolve("money_flow-" + FRIDAY.getYear() + ".col");
+        ByteBuffer header = ByteBuffer.allocate(64).order(ByteOrder.LITTLE_ENDIAN).putInt(0, 0x4153_5453).putInt(4, 1);
+        Files.write(legacy, header.array());
+
+        store = newStore();
+        assertTrue(store.moneyFlowWindow("BK0477", FRIDAY, 5).isEmpty());
+        store.appendMoneyFlows(List.of(flow("BK0477", FRIDAY, "1.00", "100")));
+        assertEquals(1, store.findRecentCompactFlows("BK0477", FRIDAY, 5).size());
+    }
+
+    /**
+     * 回填从主存储加载窗口内数据，完成后就绪
+     */
+    @Test
+    public void testBackfillFromRepository() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        moneyFlowRepository.batchSave(List.of(flow("BK0477", yesterday, "1.50", "500")));
+
+        assertFalse(store.isReady());
+        store.backfill();
+        assertTrue(store.isReady());
+
+        List<SectorMoneyFlow> recent = store.findRecentMoneyFlows("BK0477", LocalDate.now(), 5);
+        assertEquals(1, recent.size());
+        assertEquals(yesterday, recent.get(0).getTradeDate());
+    }
+
+    private SectorTimeSeriesStore newStore() {
+        return new SectorTimeSeriesStore(config, moneyFlowRepository, quoteRepository, Runnable::run);
+    }
+
+    private static SectorMoneyFlow flow(String sectorCode, LocalDate tradeDate, String changePercent, String inflow) {
+        SectorMoneyFlow flow = new SectorMoneyFlow();
+        flow.setSectorCode(sectorCode);
+        flow.setSectorName("BK0477".equals(sectorCode) ? "半导体" : sectorCode);
+        flow.setSectorType("INDUSTRY");
+        flow.setTradeDate(tradeDate);
+        flow.setChangePercent(new BigDecimal(changePercent));
+        flow.setMainNetInflow(new BigDecimal(inflow));
+        flow.generateUniqueId();
+        return flow;
+    }
+}